@@ -0,0 +1,139 @@
+/*
+ *   Copyright (c) 2023-2024 Intel Corporation
+ *   All rights reserved.
+ *   SPDX-License-Identifier: BSD-3-Clause
+ */
+package com.intel.trustauthority.connector;
+
+// Java Standard Library Imports
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+// Third-party Library Imports
+import org.apache.http.Header;
+import org.apache.http.HttpEntity;
+import org.apache.http.client.config.RequestConfig;
+import org.apache.http.client.methods.CloseableHttpResponse;
+import org.apache.http.client.methods.RequestBuilder;
+import org.apache.http.util.EntityUtils;
+
+/**
+ * ApacheHttpTransport sends requests with Apache HttpClient over a pool of keep-alive connections.
+ * Apache HttpClient 4.x is a blocking client, asynchronous requests are run on a transport owned executor.
+ */
+public class ApacheHttpTransport implements HttpTransport {
+
+    private final HttpConnectionPool connectionPool;
+    private final ExecutorService executor;
+    private final long maxResponseBodySize;
+    private final int connectTimeout;
+    private final int readTimeout;
+
+    /**
+     * Constructs a new ApacheHttpTransport object with the specified config.
+     *
+     * @param cfg   Config object provided by the user.
+     */
+    public ApacheHttpTransport(Config cfg) {
+        this.connectionPool = new HttpConnectionPool(cfg.getConnectionPoolConfig(), cfg.getProxyHost(), cfg.getProxyPort(),
+                cfg.getTlsConfig(), cfg.getDnsConfig());
+        this.executor = Executors.newCachedThreadPool(new DaemonThreadFactory("trustauthority-apache-transport"));
+        this.maxResponseBodySize = cfg.getMaxResponseBodySize();
+        this.connectTimeout = (int) cfg.getConnectTimeout();
+        this.readTimeout = (int) cfg.getReadTimeout();
+    }
+
+    @Override
+    public TransportResponse execute(TransportRequest request) throws IOException {
+        RequestBuilder builder = RequestBuilder.create(request.getMethod()).setUri(request.getUrl());
+
+        // Bound the wait for a pooled connection, the connect and each read from the socket
+        int timeout = request.getTimeout() > 0 ? (int) request.getTimeout() : readTimeout;
+        builder.setConfig(RequestConfig.custom()
+                .setConnectionRequestTimeout(Math.min(connectTimeout, timeout))
+                .setConnectTimeout(Math.min(connectTimeout, timeout))
+                .setSocketTimeout(timeout)
+                .build());
+
+        // Set request properties
+        if (request.getHeaders() != null) {
+            for (Map.Entry<String, String> entry : request.getHeaders().entrySet()) {
+                builder.setHeader(entry.getKey(), entry.getValue());
+            }
+        }
+
+        // Set the request body if provided, it is written straight to the connection
+        if (request.getBody() != null) {
+            builder.setEntity(new RequestBodyEntity(request.getBody()));
+        }
+
+        // Send the request, a pooled keep-alive connection is used when available
+        CloseableHttpResponse httpResponse = connectionPool.getHttpClient().execute(builder.build());
+
+        // Discard the connection rather than draining a body larger than the configured maximum
+        HttpEntity entity = httpResponse.getEntity();
+        if (entity != null && entity.getContentLength() > maxResponseBodySize) {
+            httpResponse.close();
+            throw LimitedInputStream.sizeExceeded(maxResponseBodySize);
+        }
+
+        // Closing the entity stream reads it to the end, which returns the connection to the pool.
+        // The stream is size limited so that an oversized chunked body is not drained either.
+        InputStream body = entity != null ? new LimitedInputStream(entity.getContent(), maxResponseBodySize) : null;
+        return new TransportResponse(httpResponse.getStatusLine().getStatusCode(), getHeaderFields(httpResponse), body, httpResponse);
+    }
+
+    @Override
+    public CompletableFuture<TransportResponse> executeAsync(TransportRequest request) {
+        // A request cancelled before it is picked up by the executor is not sent
+        return CompletableFuture.supplyAsync(() -> {
+            try (TransportResponse response = execute(request)) {
+                // Buffer the body so that the connection is released before the future completes,
+                // the body stream is bounded by the configured maximum response body size
+                byte[] body = response.getBody().readAllBytes();
+                return new TransportResponse(response.getStatusCode(), response.getHeaders(), new ByteArrayInputStream(body));
+            } catch (IOException e) {
+                throw new CompletionException(e);
+            }
+        }, executor);
+    }
+
+    @Override
+    public ConnectionPoolStats getConnectionPoolStats() {
+        return connectionPool.getStats();
+    }
+
+    @Override
+    public TlsStats getTlsStats() {
+        return connectionPool.getTlsStats();
+    }
+
+    @Override
+    public void close() throws IOException {
+        executor.shutdownNow();
+        connectionPool.close();
+    }
+
+    /**
+     * Helper function to convert the response headers to a map of header name to values
+     *
+     * @param httpResponse  CloseableHttpResponse object returned for the request.
+     * @return              Map of response headers
+     */
+    private Map<String, List<String>> getHeaderFields(CloseableHttpResponse httpResponse) {
+        Map<String, List<String>> headers = new TreeMap<>(String.CASE_INSENSITIVE_ORDER);
+        for (Header header : httpResponse.getAllHeaders()) {
+            headers.computeIfAbsent(header.getName(), k -> new ArrayList<>()).add(header.getValue());
+        }
+        return headers;
+    }
+}
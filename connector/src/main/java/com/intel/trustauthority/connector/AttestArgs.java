@@ -17,6 +17,7 @@ public class AttestArgs {
     private EvidenceAdapter adapter;
     private List<UUID> policyIds;
     private String requestId;
+    private long timeout;
 
     /**
      * Constructs a new AttestArgs object with the specified adapter, policyIds and requestId.
@@ -52,6 +53,13 @@ public class AttestArgs {
         return requestId;
     }
 
+    /**
+     * getter function for timeout
+     */
+    public long getTimeout() {
+        return timeout;
+    }
+
     /**
      * setter function for adapter
      */
@@ -72,4 +80,12 @@ public class AttestArgs {
     public void setRequestId(String requestId) {
         this.requestId = requestId;
     }
+
+    /**
+     * setter function for timeout in milliseconds, the overall deadline of the attestation shared by
+     * the nonce fetch, evidence collection, token fetch and retry waits. 0 means no deadline.
+     */
+    public void setTimeout(long timeout) {
+        this.timeout = timeout;
+    }
 }
\ No newline at end of file
@@ -0,0 +1,58 @@
+/*
+ *   Copyright (c) 2023-2024 Intel Corporation
+ *   All rights reserved.
+ *   SPDX-License-Identifier: BSD-3-Clause
+ */
+package com.intel.trustauthority.connector;
+
+/**
+ * AttestResult class for holding the outcome of one attestation of an attestAll() batch,
+ * either the AttestResponse or the error the attestation failed with
+ */
+public class AttestResult {
+
+    private AttestArgs args;
+    private AttestResponse response;
+    private Exception error;
+
+    /**
+     * Constructs a new AttestResult object with the specified args, response and error.
+     *
+     * @param args          AttestArgs object of the attestation.
+     * @param response      AttestResponse object, null if the attestation failed.
+     * @param error         error the attestation failed with, null if it succeeded.
+     */
+    public AttestResult(AttestArgs args, AttestResponse response, Exception error) {
+        this.args = args;
+        this.response = response;
+        this.error = error;
+    }
+
+    /**
+     * getter function for args
+     */
+    public AttestArgs getArgs() {
+        return args;
+    }
+
+    /**
+     * getter function for response
+     */
+    public AttestResponse getResponse() {
+        return response;
+    }
+
+    /**
+     * getter function for error
+     */
+    public Exception getError() {
+        return error;
+    }
+
+    /**
+     * Checks if the attestation succeeded
+     */
+    public boolean isSuccess() {
+        return error == null;
+    }
+}
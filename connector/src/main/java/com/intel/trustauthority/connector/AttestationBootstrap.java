@@ -0,0 +1,187 @@
+/*
+ *   Copyright (c) 2023-2024 Intel Corporation
+ *   All rights reserved.
+ *   SPDX-License-Identifier: BSD-3-Clause
+ */
+package com.intel.trustauthority.connector;
+
+// Java Standard Library Imports
+import java.io.Closeable;
+import java.io.IOException;
+import java.security.cert.X509Certificate;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+// Third-party Library Imports
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import com.nimbusds.jose.jwk.JWKSet;
+
+/**
+ * AttestationBootstrap starts attestation on a background thread as soon as it is constructed, so that
+ * the nonce, quote and token latency overlaps with the rest of application initialization. The token is
+ * awaited only where it is first needed.
+ *
+ * When warm-up is enabled, the token signing certificates and the CRLs they point to are fetched
+ * alongside the attestation. This opens pooled connections, TLS sessions and DNS entries for those hosts
+ * ahead of the first verifyToken(). Warm-up failures are logged and never fail the token.
+ *
+ * A connector created by the bootstrap from a Config is closed by close(), a connector provided by the
+ * caller is left open for the caller to close.
+ */
+public class AttestationBootstrap implements Closeable {
+
+    // Logger object
+    private static final Logger logger = LogManager.getLogger(AttestationBootstrap.class);
+
+    private final CompletableFuture<TrustAuthorityConnector> connector = new CompletableFuture<>();
+    private final CompletableFuture<AttestResponse> token;
+    private final CompletableFuture<Void> warmUp;
+    private final boolean ownsConnector;
+
+    /**
+     * Constructs a new AttestationBootstrap object with the specified cfg, args and warmUp, and starts it.
+     * The TrustAuthorityConnector is also created on the background thread.
+     *
+     * @param cfg       Config object provided by the user.
+     * @param args      AttestArgs object provided by the user.
+     * @param warmUp    true to fetch the token signing certificates and CRLs alongside the attestation.
+     */
+    public AttestationBootstrap(Config cfg, AttestArgs args, boolean warmUp) {
+        this(args, warmUp, true);
+        start(() -> connector.complete(new TrustAuthorityConnector(cfg)));
+    }
+
+    /**
+     * Constructs a new AttestationBootstrap object with the specified connector, args and warmUp, and starts it.
+     *
+     * @param connector     TrustAuthorityConnector object attesting.
+     * @param args          AttestArgs object provided by the user.
+     * @param warmUp        true to fetch the token signing certificates and CRLs alongside the attestation.
+     */
+    public AttestationBootstrap(TrustAuthorityConnector connector, AttestArgs args, boolean warmUp) {
+        this(args, warmUp, false);
+        start(() -> this.connector.complete(connector));
+    }
+
+    /**
+     * Helper constructor chaining the attestation and warm-up on the connector
+     */
+    private AttestationBootstrap(AttestArgs args, boolean warmUp, boolean ownsConnector) {
+        this.ownsConnector = ownsConnector;
+        this.token = connector.thenCompose(c -> c.attestAsync(args));
+        this.warmUp = warmUp ? connector.thenCompose(this::warmUp) : CompletableFuture.completedFuture(null);
+        this.warmUp.whenComplete((ignored, error) -> {
+            if (error != null) {
+                logger.warn("Attestation warm-up failed: " + error.getMessage());
+            }
+        });
+    }
+
+    /**
+     * Helper function to run the bootstrap on a background daemon thread
+     */
+    private void start(Runnable bootstrap) {
+        new DaemonThreadFactory("trustauthority-bootstrap").newThread(() -> {
+            try {
+                bootstrap.run();
+            } catch (Throwable e) {
+                // Errors such as a missing native library must fail the token rather than leave it pending
+                connector.completeExceptionally(new Exception("AttestationBootstrap() failed: " + e));
+            }
+        }).start();
+    }
+
+    /**
+     * getter function for the connector, completed once it is created
+     */
+    public CompletableFuture<TrustAuthorityConnector> getConnector() {
+        return connector;
+    }
+
+    /**
+     * getter function for the token, completed once the attestation finishes
+     */
+    public CompletableFuture<AttestResponse> getToken() {
+        return token;
+    }
+
+    /**
+     * getter function for the warm-up, completed once the certificates and CRLs are fetched
+     */
+    public CompletableFuture<Void> getWarmUp() {
+        return warmUp;
+    }
+
+    /**
+     * Closes the connector created from the Config, once it is created if it is still being created.
+     * A connector provided by the caller is not closed.
+     */
+    @Override
+    public void close() throws IOException {
+        if (!ownsConnector) {
+            return;
+        }
+        if (connector.isDone()) {
+            if (!connector.isCompletedExceptionally()) {
+                connector.join().close();
+            }
+            return;
+        }
+        connector.thenAccept(created -> {
+            try {
+                created.close();
+            } catch (IOException e) {
+                logger.warn("Failed to close the connector: " + e);
+            }
+        });
+    }
+
+    /**
+     * Waits for the token, the point at which application code first needs it
+     *
+     * @param timeout   timeout in milliseconds to wait for the token, 0 to wait without a timeout.
+     * @return          AttestResponse object holding the token
+     */
+    public AttestResponse awaitToken(long timeout) throws Exception {
+        try {
+            return timeout > 0 ? token.get(timeout, TimeUnit.MILLISECONDS) : token.get();
+        } catch (ExecutionException e) {
+            throw new Exception("awaitToken() failed: " + e.getCause());
+        } catch (TimeoutException e) {
+            throw new Exception("awaitToken() failed: " + Deadline.expired("attestation bootstrap"));
+        }
+    }
+
+    /**
+     * Helper function to fetch the token signing certificates and the CRLs of their distribution points
+     */
+    private CompletableFuture<Void> warmUp(TrustAuthorityConnector connector) {
+        return connector.getTokenSigningCertificatesAsync().thenCompose(jwks -> {
+            Set<String> crlUrls = new LinkedHashSet<>();
+            try {
+                for (X509Certificate certificate : connector.extractCertificatesFromJWKS(JWKSet.parse(jwks))) {
+                    try {
+                        crlUrls.addAll(connector.getCRLDistributionPoints(certificate));
+                    } catch (Exception e) {
+                        // Root certificates carry no CRL distribution points
+                    }
+                }
+            } catch (Exception e) {
+                throw new CompletionException(e);
+            }
+            List<CompletableFuture<?>> crls = new ArrayList<>();
+            for (String crlUrl : crlUrls) {
+                crls.add(connector.getCRLAsync(crlUrl));
+            }
+            return CompletableFuture.allOf(crls.toArray(new CompletableFuture<?>[0]));
+        });
+    }
+}
@@ -0,0 +1,51 @@
+/*
+ *   Copyright (c) 2023-2024 Intel Corporation
+ *   All rights reserved.
+ *   SPDX-License-Identifier: BSD-3-Clause
+ */
+package com.intel.trustauthority.connector;
+
+// Java Standard Library Imports
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Objects;
+import java.util.UUID;
+
+/**
+ * AttestationKey identifies attestations that yield interchangeable tokens: same adapter instance,
+ * policy IDs and user data. The request ID and timeout of the AttestArgs are not part of the key.
+ */
+class AttestationKey {
+
+    private final EvidenceAdapter adapter;
+    private final List<UUID> policyIds;
+    private final byte[] userData;
+
+    /**
+     * Constructs a new AttestationKey object for the specified args.
+     *
+     * @param args  AttestArgs object of the attestation.
+     */
+    AttestationKey(AttestArgs args) {
+        this.adapter = args.getAdapter();
+        this.policyIds = args.getPolicyIds() != null ? new ArrayList<>(args.getPolicyIds()) : null;
+        byte[] data = adapter != null ? adapter.getUserData() : null;
+        this.userData = data != null ? data.clone() : null;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (!(o instanceof AttestationKey)) {
+            return false;
+        }
+        AttestationKey other = (AttestationKey) o;
+        return adapter == other.adapter && Objects.equals(policyIds, other.policyIds) &&
+               Arrays.equals(userData, other.userData);
+    }
+
+    @Override
+    public int hashCode() {
+        return 31 * (31 * System.identityHashCode(adapter) + Objects.hashCode(policyIds)) + Arrays.hashCode(userData);
+    }
+}
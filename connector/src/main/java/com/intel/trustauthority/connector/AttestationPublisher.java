@@ -0,0 +1,359 @@
+/*
+ *   Copyright (c) 2023-2024 Intel Corporation
+ *   All rights reserved.
+ *   SPDX-License-Identifier: BSD-3-Clause
+ */
+package com.intel.trustauthority.connector;
+
+// Java Standard Library Imports
+import java.io.Closeable;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Flow;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+// Third-party Library Imports
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+/**
+ * AttestationPublisher re-attests with the same AttestArgs on a jittered interval and publishes each
+ * token to its subscribers, replacing the polling loop each consumer would otherwise run.
+ *
+ * Subscribers only receive the tokens they request. A subscriber that has not requested the next token
+ * when a newer one is published skips the older one, so a slow subscriber always receives the latest token
+ * and never a backlog. A new subscriber receives the latest token first. Failed attestations are not
+ * signalled, as the stream continues: they are retried with backoff and reported by getLastError().
+ * Attestations pause once the last subscriber cancels and resume with the next subscription.
+ * Closing the publisher stops the attestations and completes all subscribers.
+ */
+public class AttestationPublisher implements Flow.Publisher<AttestResponse>, Closeable {
+
+    // Logger object
+    private static final Logger logger = LogManager.getLogger(AttestationPublisher.class);
+
+    private final TrustAuthorityConnector connector;
+    private final AttestArgs args;
+    private final long interval;
+    private final double jitter;
+    private final List<AttestationSubscription> subscriptions = new CopyOnWriteArrayList<>();
+
+    // Scheduler running the attestations, created on the first subscription
+    private ScheduledExecutorService scheduler;
+    // Next attestation, null while one is in flight or the attestations are paused
+    private ScheduledFuture<?> next;
+    // True while an attestation is in flight or scheduled
+    private boolean running;
+    private long latestTime;
+    private AttestResponse latest;
+    private Exception lastError;
+    private int failures;
+    private boolean closed;
+
+    /**
+     * Constructs a new AttestationPublisher object with the specified connector, args, interval and jitter.
+     * Attestations start with the first subscription.
+     *
+     * @param connector     TrustAuthorityConnector object attesting.
+     * @param args          AttestArgs object of the attestations.
+     * @param interval      interval in milliseconds between attestations provided by the user.
+     * @param jitter        fraction between 0 and 1 the interval is randomly shortened or lengthened by.
+     */
+    public AttestationPublisher(TrustAuthorityConnector connector, AttestArgs args, long interval, double jitter) {
+        this.connector = connector;
+        this.args = args;
+        this.interval = interval != 0 ? interval : Constants.DEFAULT_PUBLISHER_INTERVAL; // Default: 300000 milliseconds
+        this.jitter = jitter != 0 ? Math.min(jitter, 1) : Constants.DEFAULT_PUBLISHER_JITTER; // Default: 0.1
+    }
+
+    @Override
+    public void subscribe(Flow.Subscriber<? super AttestResponse> subscriber) {
+        Objects.requireNonNull(subscriber, "subscriber");
+        AttestationSubscription subscription = new AttestationSubscription(subscriber);
+        boolean start = false;
+        boolean wasClosed;
+        AttestResponse current;
+        synchronized (this) {
+            wasClosed = closed;
+            if (!closed) {
+                subscriptions.add(subscription);
+                if (scheduler == null) {
+                    scheduler = Executors.newSingleThreadScheduledExecutor(new DaemonThreadFactory("trustauthority-publisher"));
+                }
+                if (!running) {
+                    running = true;
+                    start = true;
+                }
+            }
+            current = latest;
+        }
+        subscriber.onSubscribe(subscription);
+        if (wasClosed) {
+            subscription.complete();
+            return;
+        }
+        if (current != null) {
+            subscription.offer(current);
+        }
+        if (start) {
+            resume();
+        }
+    }
+
+    /**
+     * getter function for the latest published token, null until the first attestation succeeds
+     */
+    public synchronized AttestResponse getLatest() {
+        return latest;
+    }
+
+    /**
+     * getter function for the error of the last attestation, null if it succeeded
+     */
+    public synchronized Exception getLastError() {
+        return lastError;
+    }
+
+    /**
+     * Returns the number of subscribers currently subscribed
+     */
+    public int getSubscriberCount() {
+        return subscriptions.size();
+    }
+
+    /**
+     * Stops the attestations and completes all subscribers
+     */
+    @Override
+    public void close() {
+        ScheduledExecutorService stopped;
+        synchronized (this) {
+            if (closed) {
+                return;
+            }
+            closed = true;
+            stopped = scheduler;
+        }
+        if (stopped != null) {
+            stopped.shutdownNow();
+        }
+        for (AttestationSubscription subscription : subscriptions) {
+            subscription.complete();
+        }
+        subscriptions.clear();
+    }
+
+    /**
+     * Helper function to attest, publish the token and schedule the next attestation
+     */
+    private void attest() {
+        synchronized (this) {
+            next = null;
+        }
+        CompletableFuture<AttestResponse> future;
+        try {
+            future = connector.attestAsync(args);
+        } catch (RuntimeException e) {
+            future = CompletableFuture.failedFuture(e);
+        }
+        future.whenComplete((response, error) -> {
+            if (error == null) {
+                synchronized (this) {
+                    latest = response;
+                    latestTime = System.nanoTime();
+                    lastError = null;
+                    failures = 0;
+                }
+                for (AttestationSubscription subscription : subscriptions) {
+                    subscription.offer(response);
+                }
+            } else {
+                synchronized (this) {
+                    lastError = error instanceof Exception ? (Exception) error : new Exception(error);
+                    failures++;
+                }
+                logger.warn("Re-attestation failed: " + error.getMessage());
+            }
+            scheduleNext();
+        });
+    }
+
+    /**
+     * Helper function to schedule the next attestation, sooner with exponential backoff after failures
+     */
+    private synchronized void scheduleNext() {
+        if (closed) {
+            return;
+        }
+        if (subscriptions.isEmpty()) {
+            // Pause until the next subscription
+            running = false;
+            return;
+        }
+        long delay = interval;
+        if (failures > 0) {
+            delay = Math.min(interval, Constants.DEFAULT_PUBLISHER_RETRY_WAIT << Math.min(failures - 1, 16));
+        }
+        double factor = 1 - jitter + 2 * jitter * ThreadLocalRandom.current().nextDouble();
+        next = scheduler.schedule(this::attest, (long) (delay * factor), TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Helper function to start the attestations, or resume them after a pause once the latest token is due
+     */
+    private synchronized void resume() {
+        if (closed) {
+            return;
+        }
+        long delay = 0;
+        if (latest != null && lastError == null) {
+            delay = Math.max(0, interval - TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - latestTime));
+        }
+        next = scheduler.schedule(this::attest, delay, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Helper function to pause the attestations once the last subscriber is removed
+     */
+    private synchronized void pauseIfUnsubscribed() {
+        // An attestation that already started schedules nothing more once it completes
+        if (subscriptions.isEmpty() && next != null && next.cancel(false)) {
+            next = null;
+            running = false;
+        }
+    }
+
+    /**
+     * AttestationSubscription holds the demand of a subscriber and the latest token it has not received yet.
+     * Signals are delivered by whichever thread finds work to do, one at a time.
+     */
+    private class AttestationSubscription implements Flow.Subscription {
+
+        private final Flow.Subscriber<? super AttestResponse> subscriber;
+        private final AtomicInteger wip = new AtomicInteger();
+        private long demand;
+        private AttestResponse pending;
+        private Throwable error;
+        private boolean completed;
+        private boolean done;
+
+        AttestationSubscription(Flow.Subscriber<? super AttestResponse> subscriber) {
+            this.subscriber = subscriber;
+        }
+
+        @Override
+        public void request(long n) {
+            synchronized (this) {
+                if (n <= 0) {
+                    error = new IllegalArgumentException("Subscription request must be positive: " + n);
+                } else {
+                    demand = demand + n < 0 ? Long.MAX_VALUE : demand + n;
+                }
+            }
+            drain();
+        }
+
+        @Override
+        public void cancel() {
+            synchronized (this) {
+                done = true;
+                pending = null;
+            }
+            subscriptions.remove(this);
+            pauseIfUnsubscribed();
+        }
+
+        /**
+         * Replaces the token waiting for demand with a newer one
+         */
+        void offer(AttestResponse response) {
+            synchronized (this) {
+                if (done) {
+                    return;
+                }
+                pending = response;
+            }
+            drain();
+        }
+
+        /**
+         * Completes the subscription, dropping a token still waiting for demand
+         */
+        void complete() {
+            synchronized (this) {
+                completed = true;
+            }
+            drain();
+        }
+
+        /**
+         * Helper function to deliver the signals due, serialized across threads
+         */
+        private void drain() {
+            if (wip.getAndIncrement() != 0) {
+                return;
+            }
+            int missed = 1;
+            do {
+                while (emit()) {
+                    // Deliver until no token can be delivered
+                }
+                missed = wip.addAndGet(-missed);
+            } while (missed != 0);
+        }
+
+        /**
+         * Helper function to deliver one signal
+         *
+         * @return  true if a token was delivered and more may follow
+         */
+        private boolean emit() {
+            AttestResponse next = null;
+            Throwable failure = null;
+            boolean complete = false;
+            synchronized (this) {
+                if (done) {
+                    return false;
+                }
+                if (error != null) {
+                    failure = error;
+                    done = true;
+                } else if (completed) {
+                    complete = true;
+                    done = true;
+                } else if (pending != null && demand > 0) {
+                    next = pending;
+                    pending = null;
+                    demand--;
+                } else {
+                    return false;
+                }
+            }
+            if (failure != null) {
+                subscriptions.remove(this);
+                pauseIfUnsubscribed();
+                subscriber.onError(failure);
+                return false;
+            }
+            if (complete) {
+                subscriber.onComplete();
+                return false;
+            }
+            try {
+                subscriber.onNext(next);
+            } catch (RuntimeException e) {
+                logger.warn("Subscriber failed, cancelling its subscription: " + e.getMessage());
+                cancel();
+                return false;
+            }
+            return true;
+        }
+    }
+}
@@ -0,0 +1,150 @@
+/*
+ *   Copyright (c) 2023-2024 Intel Corporation
+ *   All rights reserved.
+ *   SPDX-License-Identifier: BSD-3-Clause
+ */
+package com.intel.trustauthority.connector;
+
+// Java Standard Library Imports
+import java.net.Inet6Address;
+import java.net.InetAddress;
+import java.net.UnknownHostException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+// Third-party Library Imports
+import org.apache.http.conn.DnsResolver;
+
+/**
+ * CachingDnsResolver caches the addresses of the hosts the connector talks to for the configured ttl.
+ * An entry used in the last quarter of its ttl is refreshed in the background, so hosts in steady use
+ * are never resolved on the request path. Failed lookups are cached for negativeTtl.
+ * Addresses are returned with IPv6 and IPv4 interleaved, the order connection attempts are raced in.
+ */
+class CachingDnsResolver implements DnsResolver {
+
+    private final DnsResolver delegate;
+    private final Executor executor;
+    private final long ttlNanos;
+    private final long negativeTtlNanos;
+    private final Map<String, Entry> cache = new ConcurrentHashMap<>();
+
+    /**
+     * Constructs a new CachingDnsResolver object.
+     *
+     * @param delegate      DnsResolver performing the lookups.
+     * @param dnsConfig     DnsConfig object provided by the user.
+     * @param executor      Executor running the background refreshes.
+     */
+    CachingDnsResolver(DnsResolver delegate, DnsConfig dnsConfig, Executor executor) {
+        this.delegate = delegate;
+        this.executor = executor;
+        this.ttlNanos = TimeUnit.SECONDS.toNanos(dnsConfig.getTtl());
+        this.negativeTtlNanos = TimeUnit.SECONDS.toNanos(dnsConfig.getNegativeTtl());
+    }
+
+    @Override
+    public InetAddress[] resolve(String host) throws UnknownHostException {
+        long now = System.nanoTime();
+        Entry entry = cache.get(host);
+        if (entry == null || now - entry.expiresAt >= 0) {
+            entry = lookup(host);
+        } else if (entry.addresses != null && now - entry.refreshAt >= 0 && entry.refreshing.compareAndSet(false, true)) {
+            refresh(host);
+        }
+        if (entry.error != null) {
+            throw entry.error;
+        }
+        return entry.addresses.clone();
+    }
+
+    /**
+     * Helper function to resolve host and cache the result
+     */
+    private Entry lookup(String host) {
+        Entry entry;
+        try {
+            entry = new Entry(order(delegate.resolve(host)), null, ttlNanos);
+        } catch (UnknownHostException e) {
+            entry = new Entry(null, e, negativeTtlNanos);
+        }
+        cache.put(host, entry);
+        return entry;
+    }
+
+    /**
+     * Helper function to resolve host in the background, the cached addresses are kept if the lookup fails
+     */
+    private void refresh(String host) {
+        try {
+            executor.execute(() -> {
+                try {
+                    cache.put(host, new Entry(order(delegate.resolve(host)), null, ttlNanos));
+                } catch (UnknownHostException e) {
+                    // Keep serving the cached addresses until they expire
+                    Entry current = cache.get(host);
+                    if (current != null) {
+                        current.refreshing.set(false);
+                    }
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            // The pool is closing, the entry is resolved again once it expires
+        }
+    }
+
+    /**
+     * Helper function to interleave the address families, starting with the family of the first address
+     */
+    static InetAddress[] order(InetAddress[] addresses) {
+        if (addresses.length < 2) {
+            return addresses;
+        }
+        List<InetAddress> first = new ArrayList<>();
+        List<InetAddress> second = new ArrayList<>();
+        for (InetAddress address : addresses) {
+            if ((address instanceof Inet6Address) == (addresses[0] instanceof Inet6Address)) {
+                first.add(address);
+            } else {
+                second.add(address);
+            }
+        }
+        InetAddress[] ordered = new InetAddress[addresses.length];
+        int n = 0;
+        for (int i = 0; i < Math.max(first.size(), second.size()); i++) {
+            if (i < first.size()) {
+                ordered[n++] = first.get(i);
+            }
+            if (i < second.size()) {
+                ordered[n++] = second.get(i);
+            }
+        }
+        return ordered;
+    }
+
+    /**
+     * Entry holds the result of a lookup
+     */
+    private static class Entry {
+
+        final InetAddress[] addresses;
+        final UnknownHostException error;
+        final long expiresAt;
+        final long refreshAt;
+        final AtomicBoolean refreshing = new AtomicBoolean();
+
+        Entry(InetAddress[] addresses, UnknownHostException error, long ttlNanos) {
+            long now = System.nanoTime();
+            this.addresses = addresses;
+            this.error = error;
+            this.expiresAt = now + ttlNanos;
+            this.refreshAt = now + ttlNanos * 3 / 4;
+        }
+    }
+}
@@ -0,0 +1,182 @@
+/*
+ *   Copyright (c) 2023-2024 Intel Corporation
+ *   All rights reserved.
+ *   SPDX-License-Identifier: BSD-3-Clause
+ */
+package com.intel.trustauthority.connector;
+
+// Java Standard Library Imports
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * CircuitBreaker holds a circuit breaker for each target (scheme, host and port) requests are sent to,
+ * such as the API URL, the base URL and each CRL distribution point. Once a target fails failureThreshold
+ * times in a row its circuit opens and requests to it fail right away, without retries or backoff.
+ * After openTime a limited number of trial requests are let through, closing the circuit on success.
+ */
+class CircuitBreaker {
+
+    private final Map<String, Circuit> circuits = new ConcurrentHashMap<>();
+    private final CircuitBreakerConfig cbConfig;
+
+    // Circuit returned for every target while circuit breakers are disabled, it never opens
+    private final Circuit disabled = new Circuit(null);
+
+    /**
+     * Constructs a new CircuitBreaker object with the specified cbConfig.
+     *
+     * @param cbConfig  CircuitBreakerConfig object, null disables the circuit breakers.
+     */
+    CircuitBreaker(CircuitBreakerConfig cbConfig) {
+        this.cbConfig = cbConfig;
+    }
+
+    /**
+     * Returns the circuit for the target of a URL
+     *
+     * @param url   URL a request is sent to.
+     * @return      Circuit object
+     */
+    Circuit get(String url) {
+        if (cbConfig == null) {
+            return disabled;
+        }
+        return circuits.computeIfAbsent(target(url), Circuit::new);
+    }
+
+    /**
+     * Returns a snapshot of the circuit of each target requests were sent to
+     *
+     * @return  List of CircuitBreakerStats objects
+     */
+    List<CircuitBreakerStats> getStats() {
+        List<CircuitBreakerStats> stats = new ArrayList<>();
+        for (Circuit circuit : circuits.values()) {
+            stats.add(circuit.getStats());
+        }
+        return stats;
+    }
+
+    /**
+     * Helper function to get the scheme, host and port of a URL
+     */
+    private static String target(String url) {
+        try {
+            URI uri = URI.create(url);
+            if (uri.getHost() != null) {
+                return uri.getScheme() + "://" + uri.getHost() + (uri.getPort() != -1 ? ":" + uri.getPort() : "");
+            }
+        } catch (IllegalArgumentException e) {
+            // Fall back to the URL itself
+        }
+        return url;
+    }
+
+    /**
+     * Circuit holds the state of the circuit breaker of a single target
+     */
+    class Circuit {
+
+        private final String target;
+        private CircuitBreakerState state = CircuitBreakerState.CLOSED;
+        private int failures;
+        private int trials;
+        private long openedAt;
+        private long rejectedCalls;
+
+        Circuit(String target) {
+            this.target = target;
+        }
+
+        /**
+         * getter function for target
+         */
+        String getTarget() {
+            return target;
+        }
+
+        /**
+         * Checks if a request may be sent to the target, reserving a trial request while half-open.
+         * Every permitted request must be followed by onSuccess, onFailure or release.
+         *
+         * @return  true if the request may be sent
+         */
+        synchronized boolean tryAcquire() {
+            if (cbConfig == null) {
+                return true;
+            }
+            if (state == CircuitBreakerState.OPEN) {
+                if (System.nanoTime() - openedAt < TimeUnit.SECONDS.toNanos(cbConfig.getOpenTime())) {
+                    rejectedCalls++;
+                    return false;
+                }
+                state = CircuitBreakerState.HALF_OPEN;
+                trials = 0;
+            }
+            if (state == CircuitBreakerState.HALF_OPEN) {
+                if (trials >= cbConfig.getHalfOpenMaxCalls()) {
+                    rejectedCalls++;
+                    return false;
+                }
+                trials++;
+            }
+            return true;
+        }
+
+        /**
+         * Returns true if the circuit is open, without reserving a request
+         */
+        synchronized boolean isOpen() {
+            return cbConfig != null && state == CircuitBreakerState.OPEN &&
+                   System.nanoTime() - openedAt < TimeUnit.SECONDS.toNanos(cbConfig.getOpenTime());
+        }
+
+        /**
+         * Records a request the target responded to, closing the circuit
+         */
+        synchronized void onSuccess() {
+            state = CircuitBreakerState.CLOSED;
+            failures = 0;
+        }
+
+        /**
+         * Records a failed request, opening the circuit once failureThreshold is reached or if a trial request failed
+         */
+        synchronized void onFailure() {
+            if (cbConfig == null) {
+                return;
+            }
+            failures++;
+            if (state == CircuitBreakerState.HALF_OPEN || failures >= cbConfig.getFailureThreshold()) {
+                state = CircuitBreakerState.OPEN;
+                openedAt = System.nanoTime();
+            }
+        }
+
+        /**
+         * Releases a request that completed without an outcome, such as a cancelled hedge
+         */
+        synchronized void release() {
+            if (state == CircuitBreakerState.HALF_OPEN && trials > 0) {
+                trials--;
+            }
+        }
+
+        /**
+         * Returns a snapshot of the circuit
+         */
+        synchronized CircuitBreakerStats getStats() {
+            CircuitBreakerState current = state;
+            if (state == CircuitBreakerState.OPEN && !isOpen()) {
+                // The next request is let through as a trial
+                current = CircuitBreakerState.HALF_OPEN;
+            }
+            return new CircuitBreakerStats(target, current, failures, rejectedCalls);
+        }
+    }
+}
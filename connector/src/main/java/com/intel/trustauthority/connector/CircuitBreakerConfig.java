@@ -0,0 +1,82 @@
+/*
+ *   Copyright (c) 2023-2024 Intel Corporation
+ *   All rights reserved.
+ *   SPDX-License-Identifier: BSD-3-Clause
+ */
+package com.intel.trustauthority.connector;
+
+/**
+ * CircuitBreakerConfig class for holding the circuit breaker config provided by user for TrustAuthorityConnector
+ */
+public class CircuitBreakerConfig {
+
+    private int failureThreshold;   // Consecutive failures after which the circuit opens
+    private long openTime;          // Time the circuit stays open before trial requests are let through
+    private int halfOpenMaxCalls;   // Trial requests let through while the circuit is half-open
+
+    /**
+     * Constructs a new CircuitBreakerConfig object with the specified failureThreshold, openTime and halfOpenMaxCalls.
+     *
+     * @param failureThreshold  failureThreshold provided by the user.
+     * @param openTime          openTime in seconds provided by the user.
+     * @param halfOpenMaxCalls  halfOpenMaxCalls provided by the user.
+     */
+    public CircuitBreakerConfig(int failureThreshold, long openTime, int halfOpenMaxCalls) {
+        this.failureThreshold = Constants.DEFAULT_CB_FAILURE_THRESHOLD; // Default: 5 failures
+        this.openTime = Constants.DEFAULT_CB_OPEN_TIME; // Default: 30 seconds
+        this.halfOpenMaxCalls = Constants.DEFAULT_CB_HALF_OPEN_MAX_CALLS; // Default: 1 request
+
+        // Set custom values provided by user
+        if (failureThreshold != 0) {
+            this.failureThreshold = failureThreshold;
+        }
+        if (openTime != 0) {
+            this.openTime = openTime;
+        }
+        if (halfOpenMaxCalls != 0) {
+            this.halfOpenMaxCalls = halfOpenMaxCalls;
+        }
+    }
+
+    /**
+     * getter function for failureThreshold
+     */
+    public int getFailureThreshold() {
+        return failureThreshold;
+    }
+
+    /**
+     * setter function for failureThreshold
+     */
+    public void setFailureThreshold(int failureThreshold) {
+        this.failureThreshold = failureThreshold;
+    }
+
+    /**
+     * getter function for openTime
+     */
+    public long getOpenTime() {
+        return openTime;
+    }
+
+    /**
+     * setter function for openTime
+     */
+    public void setOpenTime(long openTime) {
+        this.openTime = openTime;
+    }
+
+    /**
+     * getter function for halfOpenMaxCalls
+     */
+    public int getHalfOpenMaxCalls() {
+        return halfOpenMaxCalls;
+    }
+
+    /**
+     * setter function for halfOpenMaxCalls
+     */
+    public void setHalfOpenMaxCalls(int halfOpenMaxCalls) {
+        this.halfOpenMaxCalls = halfOpenMaxCalls;
+    }
+}
@@ -0,0 +1,15 @@
+/*
+ *   Copyright (c) 2023-2024 Intel Corporation
+ *   All rights reserved.
+ *   SPDX-License-Identifier: BSD-3-Clause
+ */
+package com.intel.trustauthority.connector;
+
+/**
+ * CircuitBreakerState enum for the states of the circuit breaker of a target
+ */
+public enum CircuitBreakerState {
+    CLOSED,     // Requests are sent
+    OPEN,       // Requests fail without being sent
+    HALF_OPEN   // A limited number of trial requests are sent to check if the target recovered
+}
@@ -0,0 +1,65 @@
+/*
+ *   Copyright (c) 2023-2024 Intel Corporation
+ *   All rights reserved.
+ *   SPDX-License-Identifier: BSD-3-Clause
+ */
+package com.intel.trustauthority.connector;
+
+/**
+ * CircuitBreakerStats class for holding a snapshot of the circuit breaker of a target used by TrustAuthorityConnector
+ */
+public class CircuitBreakerStats {
+
+    private String target;                  // Scheme, host and port the circuit breaker is for
+    private CircuitBreakerState state;
+    private int failures;                   // Consecutive failures
+    private long rejectedCalls;             // Requests failed without being sent
+
+    /**
+     * Constructs a new CircuitBreakerStats object with the specified target, state, failures and rejectedCalls.
+     *
+     * @param target        target the stats are for.
+     * @param state         state of the circuit breaker.
+     * @param failures      number of consecutive failures.
+     * @param rejectedCalls number of rejected requests.
+     */
+    public CircuitBreakerStats(String target, CircuitBreakerState state, int failures, long rejectedCalls) {
+        this.target = target;
+        this.state = state;
+        this.failures = failures;
+        this.rejectedCalls = rejectedCalls;
+    }
+
+    /**
+     * getter function for target
+     */
+    public String getTarget() {
+        return target;
+    }
+
+    /**
+     * getter function for state
+     */
+    public CircuitBreakerState getState() {
+        return state;
+    }
+
+    /**
+     * getter function for failures
+     */
+    public int getFailures() {
+        return failures;
+    }
+
+    /**
+     * getter function for rejectedCalls
+     */
+    public long getRejectedCalls() {
+        return rejectedCalls;
+    }
+
+    @Override
+    public String toString() {
+        return target + ": state=" + state + ", failures=" + failures + ", rejectedCalls=" + rejectedCalls;
+    }
+}
@@ -0,0 +1,79 @@
+/*
+ *   Copyright (c) 2023-2024 Intel Corporation
+ *   All rights reserved.
+ *   SPDX-License-Identifier: BSD-3-Clause
+ */
+package com.intel.trustauthority.connector;
+
+/**
+ * CompressionConfig class for holding request body compression config provided by user for TrustAuthorityConnector
+ */
+public class CompressionConfig {
+
+    private boolean enabled;    // Whether GetToken request bodies are sent with Content-Encoding: gzip
+    private long threshold;     // Bodies smaller than this many bytes are sent uncompressed
+    private int level;          // Deflate compression level, 1 (fastest) to 9 (smallest)
+
+    /**
+     * Constructs a new CompressionConfig object with the specified enabled, threshold and level.
+     *
+     * @param enabled       enabled provided by the user.
+     * @param threshold     threshold in bytes provided by the user.
+     * @param level         level provided by the user.
+     */
+    public CompressionConfig(boolean enabled, long threshold, int level) {
+        this.enabled = enabled;
+        this.threshold = Constants.DEFAULT_COMPRESSION_THRESHOLD; // Default: 1024 bytes
+        this.level = Constants.DEFAULT_COMPRESSION_LEVEL; // Default: level 6
+
+        // Set custom values provided by user
+        if (threshold != 0) {
+            this.threshold = threshold;
+        }
+        if (level != 0) {
+            this.level = level;
+        }
+    }
+
+    /**
+     * getter function for enabled
+     */
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * setter function for enabled
+     */
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    /**
+     * getter function for threshold
+     */
+    public long getThreshold() {
+        return threshold;
+    }
+
+    /**
+     * setter function for threshold
+     */
+    public void setThreshold(long threshold) {
+        this.threshold = threshold;
+    }
+
+    /**
+     * getter function for level
+     */
+    public int getLevel() {
+        return level;
+    }
+
+    /**
+     * setter function for level
+     */
+    public void setLevel(int level) {
+        this.level = level;
+    }
+}
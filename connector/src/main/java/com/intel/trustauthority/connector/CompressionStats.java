@@ -0,0 +1,87 @@
+/*
+ *   Copyright (c) 2023-2024 Intel Corporation
+ *   All rights reserved.
+ *   SPDX-License-Identifier: BSD-3-Clause
+ */
+package com.intel.trustauthority.connector;
+
+// Java Standard Library Imports
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * CompressionStats class for holding the request body compression counters of a TrustAuthorityConnector.
+ * Each request body is counted once, retries of the same body are not counted again.
+ */
+public class CompressionStats {
+
+    private final AtomicLong compressedRequests = new AtomicLong();     // Bodies sent gzip encoded
+    private final AtomicLong skippedRequests = new AtomicLong();        // Bodies below the threshold sent as is
+    private final AtomicLong uncompressedBytes = new AtomicLong();      // Size of the compressed bodies before compression
+    private final AtomicLong compressedBytes = new AtomicLong();        // Size of the compressed bodies after compression
+
+    /**
+     * Records a body that was compressed from uncompressedSize to compressedSize bytes
+     */
+    void recordCompressed(long uncompressedSize, long compressedSize) {
+        compressedRequests.incrementAndGet();
+        uncompressedBytes.addAndGet(uncompressedSize);
+        compressedBytes.addAndGet(compressedSize);
+    }
+
+    /**
+     * Records a body that was sent uncompressed because it was below the threshold
+     */
+    void recordSkipped() {
+        skippedRequests.incrementAndGet();
+    }
+
+    /**
+     * getter function for compressedRequests
+     */
+    public long getCompressedRequests() {
+        return compressedRequests.get();
+    }
+
+    /**
+     * getter function for skippedRequests
+     */
+    public long getSkippedRequests() {
+        return skippedRequests.get();
+    }
+
+    /**
+     * getter function for uncompressedBytes
+     */
+    public long getUncompressedBytes() {
+        return uncompressedBytes.get();
+    }
+
+    /**
+     * getter function for compressedBytes
+     */
+    public long getCompressedBytes() {
+        return compressedBytes.get();
+    }
+
+    /**
+     * Returns the number of bytes not sent thanks to compression, negative if compression grew the bodies
+     */
+    public long getBytesSaved() {
+        return uncompressedBytes.get() - compressedBytes.get();
+    }
+
+    /**
+     * Returns the compressed size as a fraction of the uncompressed size, or 1 if nothing was compressed
+     */
+    public double getCompressionRatio() {
+        long uncompressed = uncompressedBytes.get();
+        return uncompressed == 0 ? 1.0 : (double) compressedBytes.get() / uncompressed;
+    }
+
+    @Override
+    public String toString() {
+        return "compressedRequests=" + getCompressedRequests() + ", skippedRequests=" + getSkippedRequests() +
+               ", uncompressedBytes=" + getUncompressedBytes() + ", compressedBytes=" + getCompressedBytes() +
+               ", bytesSaved=" + getBytesSaved();
+    }
+}
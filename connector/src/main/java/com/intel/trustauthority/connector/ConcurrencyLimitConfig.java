@@ -0,0 +1,102 @@
+/*
+ *   Copyright (c) 2023-2024 Intel Corporation
+ *   All rights reserved.
+ *   SPDX-License-Identifier: BSD-3-Clause
+ */
+package com.intel.trustauthority.connector;
+
+/**
+ * ConcurrencyLimitConfig class for holding the adaptive concurrency limit config provided by user for TrustAuthorityConnector
+ */
+public class ConcurrencyLimitConfig {
+
+    private int initialLimit;       // Requests sent concurrently before any latency or error has been observed
+    private int minLimit;           // Lowest the limit is decreased to
+    private int maxLimit;           // Highest the limit is increased to
+    private long maxQueueWait;      // Time a request waits for the limit to allow it before failing
+
+    /**
+     * Constructs a new ConcurrencyLimitConfig object with the specified initialLimit, minLimit, maxLimit and maxQueueWait.
+     *
+     * @param initialLimit  initialLimit provided by the user.
+     * @param minLimit      minLimit provided by the user.
+     * @param maxLimit      maxLimit provided by the user.
+     * @param maxQueueWait  maxQueueWait in milliseconds provided by the user.
+     */
+    public ConcurrencyLimitConfig(int initialLimit, int minLimit, int maxLimit, long maxQueueWait) {
+        this.initialLimit = Constants.DEFAULT_CONCURRENCY_INITIAL_LIMIT; // Default: 20 requests
+        this.minLimit = Constants.DEFAULT_CONCURRENCY_MIN_LIMIT; // Default: 2 requests
+        this.maxLimit = Constants.DEFAULT_CONCURRENCY_MAX_LIMIT; // Default: 200 requests
+        this.maxQueueWait = Constants.DEFAULT_CONCURRENCY_MAX_QUEUE_WAIT; // Default: 5000 milliseconds
+
+        // Set custom values provided by user
+        if (initialLimit != 0) {
+            this.initialLimit = initialLimit;
+        }
+        if (minLimit != 0) {
+            this.minLimit = minLimit;
+        }
+        if (maxLimit != 0) {
+            this.maxLimit = maxLimit;
+        }
+        if (maxQueueWait != 0) {
+            this.maxQueueWait = maxQueueWait;
+        }
+    }
+
+    /**
+     * getter function for initialLimit
+     */
+    public int getInitialLimit() {
+        return initialLimit;
+    }
+
+    /**
+     * setter function for initialLimit
+     */
+    public void setInitialLimit(int initialLimit) {
+        this.initialLimit = initialLimit;
+    }
+
+    /**
+     * getter function for minLimit
+     */
+    public int getMinLimit() {
+        return minLimit;
+    }
+
+    /**
+     * setter function for minLimit
+     */
+    public void setMinLimit(int minLimit) {
+        this.minLimit = minLimit;
+    }
+
+    /**
+     * getter function for maxLimit
+     */
+    public int getMaxLimit() {
+        return maxLimit;
+    }
+
+    /**
+     * setter function for maxLimit
+     */
+    public void setMaxLimit(int maxLimit) {
+        this.maxLimit = maxLimit;
+    }
+
+    /**
+     * getter function for maxQueueWait
+     */
+    public long getMaxQueueWait() {
+        return maxQueueWait;
+    }
+
+    /**
+     * setter function for maxQueueWait
+     */
+    public void setMaxQueueWait(long maxQueueWait) {
+        this.maxQueueWait = maxQueueWait;
+    }
+}
@@ -0,0 +1,214 @@
+/*
+ *   Copyright (c) 2023-2024 Intel Corporation
+ *   All rights reserved.
+ *   SPDX-License-Identifier: BSD-3-Clause
+ */
+package com.intel.trustauthority.connector;
+
+// Java Standard Library Imports
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * ConcurrencyLimiter limits the requests TrustAuthorityConnector sends concurrently, adjusting the limit
+ * with AIMD: the limit grows by one per limit's worth of successful requests, and is cut by
+ * DEFAULT_CONCURRENCY_BACKOFF_RATIO on an error or when the latency rises past
+ * DEFAULT_CONCURRENCY_RTT_TOLERANCE times the lowest recent latency, a sign that requests are queueing
+ * at the server. Requests over the limit wait in a FIFO queue for up to maxQueueWait.
+ * The lowest recent latency is kept per operation and target, as a token request is much slower
+ * than a nonce request to the same server without either of them queueing.
+ */
+class ConcurrencyLimiter {
+
+    private final ConcurrencyLimitConfig clConfig;
+    private final ArrayDeque<CompletableFuture<Permit>> waiters = new ArrayDeque<>();
+    private double limit;
+    private int inflight;
+    private long rejected;
+
+    // Latency baselines, keyed by the URL of the requests without its query
+    private final Map<String, RttBaseline> baselines = new HashMap<>();
+
+    /**
+     * Constructs a new ConcurrencyLimiter object with the specified clConfig.
+     *
+     * @param clConfig  ConcurrencyLimitConfig object, null disables the limit.
+     */
+    ConcurrencyLimiter(ConcurrencyLimitConfig clConfig) {
+        this.clConfig = clConfig;
+        this.limit = clConfig != null ? clConfig.getInitialLimit() : Integer.MAX_VALUE;
+    }
+
+    /**
+     * Acquires a permit to send a request, queueing the request if the limit is reached
+     *
+     * @param maxWait       longest time in milliseconds the caller can wait, capping maxQueueWait.
+     * @param scheduler     scheduler used to time out queued requests.
+     * @return              CompletableFuture completed with the Permit, released with the outcome of the request
+     */
+    CompletableFuture<Permit> acquire(long maxWait, ScheduledExecutorService scheduler) {
+        CompletableFuture<Permit> waiter = new CompletableFuture<>();
+        long wait;
+        synchronized (this) {
+            if (clConfig == null || (inflight < (int) limit && waiters.isEmpty())) {
+                inflight++;
+                return CompletableFuture.completedFuture(new Permit());
+            }
+            wait = Math.min(maxWait, clConfig.getMaxQueueWait());
+            if (wait <= 0) {
+                rejected++;
+                return CompletableFuture.failedFuture(queueTimeout());
+            }
+            waiters.add(waiter);
+        }
+
+        // Fail the request if it is still queued after the wait
+        ScheduledFuture<?> timer = scheduler.schedule(() -> {
+            boolean removed;
+            synchronized (this) {
+                removed = waiters.remove(waiter);
+                if (removed) {
+                    rejected++;
+                }
+            }
+            if (removed) {
+                waiter.completeExceptionally(queueTimeout());
+            }
+        }, wait, TimeUnit.MILLISECONDS);
+        waiter.whenComplete((permit, error) -> timer.cancel(false));
+        return waiter;
+    }
+
+    /**
+     * Returns a snapshot of the limit
+     */
+    synchronized ConcurrencyLimiterStats getStats() {
+        return new ConcurrencyLimiterStats(clConfig != null ? (int) limit : 0, inflight, waiters.size(), rejected);
+    }
+
+    /**
+     * Helper function to create the exception failing a request that waited maxQueueWait
+     */
+    private static Exception queueTimeout() {
+        return new Exception("Concurrency limit reached, request was queued for too long. Request failed.");
+    }
+
+    /**
+     * Helper function to release a permit and adjust the limit with the outcome of its request
+     *
+     * @param success   true if the request succeeded, false if it failed, null if it was not sent.
+     * @param rtt       latency of the request in milliseconds.
+     * @param url       URL the request was sent to.
+     */
+    private void onRelease(Boolean success, long rtt, String url) {
+        synchronized (this) {
+            inflight--;
+            if (clConfig != null && success != null) {
+                if (!success || isLatencyRising(url, rtt)) {
+                    // Multiplicative decrease
+                    limit = Math.max(clConfig.getMinLimit(), limit * Constants.DEFAULT_CONCURRENCY_BACKOFF_RATIO);
+                } else if ((inflight + 1) * 2 >= limit) {
+                    // Additive increase, only while the limit is actually used
+                    limit = Math.min(clConfig.getMaxLimit(), limit + 1 / limit);
+                }
+            }
+        }
+        drain();
+    }
+
+    /**
+     * Helper function to record the latency of a successful request and check if it rose past the tolerance
+     * of the baseline of its operation and target
+     */
+    private boolean isLatencyRising(String url, long rtt) {
+        int query = url.indexOf('?');
+        String key = query >= 0 ? url.substring(0, query) : url;
+        return baselines.computeIfAbsent(key, k -> new RttBaseline()).isRising(rtt);
+    }
+
+    /**
+     * Helper function to hand permits to queued requests while the limit allows
+     */
+    private void drain() {
+        List<CompletableFuture<Permit>> granted = new ArrayList<>();
+        synchronized (this) {
+            while (inflight < (int) limit && !waiters.isEmpty()) {
+                granted.add(waiters.poll());
+                inflight++;
+            }
+        }
+        for (CompletableFuture<Permit> waiter : granted) {
+            Permit permit = new Permit();
+            if (!waiter.complete(permit)) {
+                // The request was cancelled while queued
+                permit.release();
+            }
+        }
+    }
+
+    /**
+     * Permit to send a single request, released exactly once
+     */
+    class Permit {
+
+        private final AtomicBoolean released = new AtomicBoolean();
+
+        /**
+         * Releases the permit with the outcome of the request
+         *
+         * @param success   true if the request succeeded.
+         * @param rtt       latency of the request in milliseconds.
+         * @param url       URL the request was sent to.
+         */
+        void release(boolean success, long rtt, String url) {
+            if (released.compareAndSet(false, true)) {
+                onRelease(success, rtt, url);
+            }
+        }
+
+        /**
+         * Releases the permit of a request that was not sent or whose outcome says nothing about the load
+         */
+        void release() {
+            if (released.compareAndSet(false, true)) {
+                onRelease(null, 0, null);
+            }
+        }
+    }
+
+    /**
+     * RttBaseline holds the lowest latency of the previous window of samples of one operation and target,
+     * the baseline latency rises are measured against
+     */
+    private static class RttBaseline {
+
+        private long minRtt = Long.MAX_VALUE;
+        private long windowMinRtt = Long.MAX_VALUE;
+        private int windowSamples;
+
+        /**
+         * Records the latency of a successful request and checks if it rose past the tolerance.
+         * Rises of a few milliseconds are jitter rather than queueing, however small the baseline.
+         */
+        boolean isRising(long rtt) {
+            rtt = Math.max(rtt, 1);
+            windowMinRtt = Math.min(windowMinRtt, rtt);
+            if (minRtt == Long.MAX_VALUE || ++windowSamples >= Constants.DEFAULT_CONCURRENCY_RTT_WINDOW) {
+                // Start a new window, so that the baseline follows lasting changes in latency
+                minRtt = windowMinRtt;
+                windowMinRtt = Long.MAX_VALUE;
+                windowSamples = 0;
+            }
+            return rtt > minRtt * Constants.DEFAULT_CONCURRENCY_RTT_TOLERANCE &&
+                   rtt - minRtt > Constants.DEFAULT_CONCURRENCY_RTT_MIN_RISE;
+        }
+    }
+}
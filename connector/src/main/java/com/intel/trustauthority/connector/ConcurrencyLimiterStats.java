@@ -0,0 +1,65 @@
+/*
+ *   Copyright (c) 2023-2024 Intel Corporation
+ *   All rights reserved.
+ *   SPDX-License-Identifier: BSD-3-Clause
+ */
+package com.intel.trustauthority.connector;
+
+/**
+ * ConcurrencyLimiterStats class for holding a snapshot of the adaptive concurrency limit of TrustAuthorityConnector
+ */
+public class ConcurrencyLimiterStats {
+
+    private int limit;          // Requests currently allowed to be sent concurrently
+    private int inflight;       // Requests currently sent
+    private int queued;         // Requests waiting for the limit to allow them
+    private long rejected;      // Requests failed after waiting maxQueueWait
+
+    /**
+     * Constructs a new ConcurrencyLimiterStats object with the specified limit, inflight, queued and rejected.
+     *
+     * @param limit     current concurrency limit.
+     * @param inflight  number of requests in flight.
+     * @param queued    number of queued requests.
+     * @param rejected  number of rejected requests.
+     */
+    public ConcurrencyLimiterStats(int limit, int inflight, int queued, long rejected) {
+        this.limit = limit;
+        this.inflight = inflight;
+        this.queued = queued;
+        this.rejected = rejected;
+    }
+
+    /**
+     * getter function for limit
+     */
+    public int getLimit() {
+        return limit;
+    }
+
+    /**
+     * getter function for inflight
+     */
+    public int getInflight() {
+        return inflight;
+    }
+
+    /**
+     * getter function for queued
+     */
+    public int getQueued() {
+        return queued;
+    }
+
+    /**
+     * getter function for rejected
+     */
+    public long getRejected() {
+        return rejected;
+    }
+
+    @Override
+    public String toString() {
+        return "limit=" + limit + ", inflight=" + inflight + ", queued=" + queued + ", rejected=" + rejected;
+    }
+}
@@ -7,6 +7,7 @@ package com.intel.trustauthority.connector;
 
 // Java Standard Library Imports
 import java.net.URL;
+import java.util.List;
 
 /**
  * Config class for holding config provided by user for TrustAuthorityConnector
@@ -18,9 +19,33 @@ public class Config {
     private String apiKey;
     private URL url;
     private RetryConfig retryConfig;
+    private RetryPolicy retryPolicy;
+    private RetryBudget retryBudget;
+    private ConnectionPoolConfig connectionPoolConfig;
+    private boolean http2Enabled;
+    private boolean attestCoalescingEnabled;
+    private HttpTransport httpTransport;
+    private boolean requestBodyChunked;
+    private long maxResponseBodySize;
+    private long connectTimeout;
+    private long readTimeout;
+    private String proxyHost;
+    private int proxyPort;
+    private CompressionConfig compressionConfig;
+    private HedgingPolicy hedgingPolicy;
+    private List<Endpoint> endpoints;
+    private LoadBalancerConfig loadBalancerConfig;
+    private CircuitBreakerConfig circuitBreakerConfig;
+    private RateLimiter rateLimiter;
+    private ConcurrencyLimitConfig concurrencyLimitConfig;
+    private TlsConfig tlsConfig;
+    private DnsConfig dnsConfig;
+    private NoncePoolConfig noncePoolConfig;
+    private TokenCacheConfig tokenCacheConfig;
 
     /**
-     * Constructs a new Config object with the specified baseUrl, apiUrl, apiKey and retryConfig
+     * Constructs a new Config object with the specified baseUrl, apiUrl, apiKey and retryConfig.
+     * The HTTPS proxy is read from the HTTPS_PROXY_HOST and HTTPS_PROXY_PORT environment variables.
      *
      * @param baseUrl      baseUrl provided by the user.
      * @param apiUrl       apiUrl provided by user.
@@ -33,6 +58,31 @@ public class Config {
         this.apiKey = apiKey;
         this.url = new URL(apiUrl);
         this.retryConfig = retryConfig;
+        this.retryPolicy = new RetryPolicy(null, 0);
+        this.retryBudget = RetryBudget.getDefault();
+        this.connectionPoolConfig = new ConnectionPoolConfig(0, 0, 0);
+        this.maxResponseBodySize = Constants.DEFAULT_MAX_RESPONSE_BODY_SIZE;
+        this.connectTimeout = Constants.DEFAULT_CONNECT_TIMEOUT;
+        this.readTimeout = Constants.DEFAULT_READ_TIMEOUT;
+
+        // Fetch proxy settings from environment
+        String httpsHost = System.getenv(Constants.ENV_HTTPS_PROXY_HOST);
+        if (httpsHost != null && !httpsHost.isEmpty()) {
+            this.proxyHost = httpsHost;
+            this.proxyPort = Constants.DEFAULT_PROXY_PORT;
+            String httpsPort = System.getenv(Constants.ENV_HTTPS_PROXY_PORT);
+            if (httpsPort != null && !httpsPort.isEmpty()) {
+                try {
+                    this.proxyPort = Integer.parseInt(httpsPort.trim());
+                } catch (NumberFormatException e) {
+                    throw new Exception("Invalid " + Constants.ENV_HTTPS_PROXY_PORT + ": " + httpsPort);
+                }
+            }
+        }
+        this.compressionConfig = new CompressionConfig(false, 0, 0);
+        this.loadBalancerConfig = new LoadBalancerConfig(0, 0);
+        this.tlsConfig = new TlsConfig(null, 0, 0);
+        this.dnsConfig = new DnsConfig(0, 0, 0);
     }
 
     /**
@@ -63,6 +113,167 @@ public class Config {
         return retryConfig;
     }
 
+    /**
+     * getter function for retryPolicy
+     */
+    public RetryPolicy getRetryPolicy() {
+        return retryPolicy;
+    }
+
+    /**
+     * getter function for retryBudget
+     */
+    public RetryBudget getRetryBudget() {
+        return retryBudget;
+    }
+
+    /**
+     * getter function for connectionPoolConfig
+     */
+    public ConnectionPoolConfig getConnectionPoolConfig() {
+        return connectionPoolConfig;
+    }
+
+    /**
+     * getter function for http2Enabled
+     */
+    public boolean isHttp2Enabled() {
+        return http2Enabled;
+    }
+
+    /**
+     * getter function for attestCoalescingEnabled
+     */
+    public boolean isAttestCoalescingEnabled() {
+        return attestCoalescingEnabled;
+    }
+
+    /**
+     * getter function for httpTransport
+     */
+    public HttpTransport getHttpTransport() {
+        return httpTransport;
+    }
+
+    /**
+     * getter function for requestBodyChunked
+     */
+    public boolean isRequestBodyChunked() {
+        return requestBodyChunked;
+    }
+
+    /**
+     * getter function for maxResponseBodySize
+     */
+    public long getMaxResponseBodySize() {
+        return maxResponseBodySize;
+    }
+
+    /**
+     * getter function for connectTimeout
+     */
+    public long getConnectTimeout() {
+        return connectTimeout;
+    }
+
+    /**
+     * getter function for readTimeout
+     */
+    public long getReadTimeout() {
+        return readTimeout;
+    }
+
+    /**
+     * getter function for proxyHost, null if requests are sent directly
+     */
+    public String getProxyHost() {
+        return proxyHost;
+    }
+
+    /**
+     * getter function for proxyPort
+     */
+    public int getProxyPort() {
+        return proxyPort;
+    }
+
+    /**
+     * getter function for compressionConfig
+     */
+    public CompressionConfig getCompressionConfig() {
+        return compressionConfig;
+    }
+
+    /**
+     * getter function for hedgingPolicy
+     */
+    public HedgingPolicy getHedgingPolicy() {
+        return hedgingPolicy;
+    }
+
+    /**
+     * getter function for endpoints
+     */
+    public List<Endpoint> getEndpoints() {
+        return endpoints;
+    }
+
+    /**
+     * getter function for loadBalancerConfig
+     */
+    public LoadBalancerConfig getLoadBalancerConfig() {
+        return loadBalancerConfig;
+    }
+
+    /**
+     * getter function for circuitBreakerConfig
+     */
+    public CircuitBreakerConfig getCircuitBreakerConfig() {
+        return circuitBreakerConfig;
+    }
+
+    /**
+     * getter function for rateLimiter
+     */
+    public RateLimiter getRateLimiter() {
+        return rateLimiter;
+    }
+
+    /**
+     * getter function for concurrencyLimitConfig
+     */
+    public ConcurrencyLimitConfig getConcurrencyLimitConfig() {
+        return concurrencyLimitConfig;
+    }
+
+    /**
+     * getter function for tlsConfig
+     */
+    public TlsConfig getTlsConfig() {
+        return tlsConfig;
+    }
+
+    /**
+     * getter function for dnsConfig
+     */
+    public DnsConfig getDnsConfig() {
+        return dnsConfig;
+    }
+
+    /**
+     * getter function for noncePoolConfig
+     */
+    public NoncePoolConfig getNoncePoolConfig() {
+        return noncePoolConfig;
+    }
+
+    /**
+     * getter function for tokenCacheConfig
+     */
+    public TokenCacheConfig getTokenCacheConfig() {
+        return tokenCacheConfig;
+    }
+
     /**
      * setter function for baseUrl
      */
@@ -90,4 +301,170 @@ public class Config {
     public void setRetryConfig(RetryConfig retryConfig) {
         this.retryConfig = retryConfig;
     }
+
+    /**
+     * setter function for retryPolicy
+     */
+    public void setRetryPolicy(RetryPolicy retryPolicy) {
+        this.retryPolicy = retryPolicy;
+    }
+
+    /**
+     * setter function for retryBudget, shared by all connectors unless set. Null disables the retry budget.
+     */
+    public void setRetryBudget(RetryBudget retryBudget) {
+        this.retryBudget = retryBudget;
+    }
+
+    /**
+     * setter function for connectionPoolConfig
+     */
+    public void setConnectionPoolConfig(ConnectionPoolConfig connectionPoolConfig) {
+        this.connectionPoolConfig = connectionPoolConfig;
+    }
+
+    /**
+     * setter function for http2Enabled, when enabled requests are multiplexed over HTTP/2
+     * connections and fall back to HTTP/1.1 for servers that do not negotiate h2
+     */
+    public void setHttp2Enabled(boolean http2Enabled) {
+        this.http2Enabled = http2Enabled;
+    }
+
+    /**
+     * setter function for attestCoalescingEnabled, when enabled concurrent attestations with the same
+     * adapter, policy IDs and user data share one attestation in flight and receive the same token
+     */
+    public void setAttestCoalescingEnabled(boolean attestCoalescingEnabled) {
+        this.attestCoalescingEnabled = attestCoalescingEnabled;
+    }
+
+    /**
+     * setter function for httpTransport, when not set the connector creates an ApacheHttpTransport,
+     * or a JdkHttpTransport if HTTP/2 is enabled
+     */
+    public void setHttpTransport(HttpTransport httpTransport) {
+        this.httpTransport = httpTransport;
+    }
+
+    /**
+     * setter function for requestBodyChunked, when enabled request bodies are streamed with chunked
+     * encoding, otherwise they are serialized once into a buffer sent with a fixed Content-Length
+     */
+    public void setRequestBodyChunked(boolean requestBodyChunked) {
+        this.requestBodyChunked = requestBodyChunked;
+    }
+
+    /**
+     * setter function for maxResponseBodySize, responses larger than this are rejected
+     * before being fully read. A value of 0 resets it to the default.
+     */
+    public void setMaxResponseBodySize(long maxResponseBodySize) {
+        this.maxResponseBodySize = maxResponseBodySize != 0 ? maxResponseBodySize : Constants.DEFAULT_MAX_RESPONSE_BODY_SIZE;
+    }
+
+    /**
+     * setter function for the HTTPS proxy requests are sent through. Connections tunnelled through the proxy
+     * are pooled like direct ones. A null proxyHost sends requests directly, a proxyPort of 0 uses port 443.
+     */
+    public void setProxy(String proxyHost, int proxyPort) {
+        this.proxyHost = proxyHost;
+        this.proxyPort = proxyPort != 0 ? proxyPort : Constants.DEFAULT_PROXY_PORT;
+    }
+
+    /**
+     * setter function for compressionConfig
+     */
+    public void setCompressionConfig(CompressionConfig compressionConfig) {
+        this.compressionConfig = compressionConfig;
+    }
+
+    /**
+     * setter function for hedgingPolicy, null disables hedging of GetNonce and GetToken requests
+     */
+    public void setHedgingPolicy(HedgingPolicy hedgingPolicy) {
+        this.hedgingPolicy = hedgingPolicy;
+    }
+
+    /**
+     * setter function for endpoints. Requests are balanced across the endpoints, with failover,
+     * instead of being sent to baseUrl and apiUrl. Null or empty uses baseUrl and apiUrl only.
+     */
+    public void setEndpoints(List<Endpoint> endpoints) {
+        this.endpoints = endpoints;
+    }
+
+    /**
+     * setter function for loadBalancerConfig
+     */
+    public void setLoadBalancerConfig(LoadBalancerConfig loadBalancerConfig) {
+        this.loadBalancerConfig = loadBalancerConfig;
+    }
+
+    /**
+     * setter function for circuitBreakerConfig, null (the default) disables the circuit breakers.
+     * Set new CircuitBreakerConfig(0, 0, 0) to enable them with the default thresholds.
+     */
+    public void setCircuitBreakerConfig(CircuitBreakerConfig circuitBreakerConfig) {
+        this.circuitBreakerConfig = circuitBreakerConfig;
+    }
+
+    /**
+     * setter function for rateLimiter, null (the default) sends requests without a rate limit
+     */
+    public void setRateLimiter(RateLimiter rateLimiter) {
+        this.rateLimiter = rateLimiter;
+    }
+
+    /**
+     * setter function for concurrencyLimitConfig, null (the default) sends requests without a concurrency limit.
+     * Set new ConcurrencyLimitConfig(0, 0, 0, 0) to enable it with the default limits.
+     */
+    public void setConcurrencyLimitConfig(ConcurrencyLimitConfig concurrencyLimitConfig) {
+        this.concurrencyLimitConfig = concurrencyLimitConfig;
+    }
+
+    /**
+     * setter function for tlsConfig
+     */
+    public void setTlsConfig(TlsConfig tlsConfig) {
+        this.tlsConfig = tlsConfig;
+    }
+
+    /**
+     * setter function for dnsConfig
+     */
+    public void setDnsConfig(DnsConfig dnsConfig) {
+        this.dnsConfig = dnsConfig;
+    }
+
+    /**
+     * setter function for noncePoolConfig, null (the default) fetches a nonce for every attestation
+     */
+    public void setNoncePoolConfig(NoncePoolConfig noncePoolConfig) {
+        this.noncePoolConfig = noncePoolConfig;
+    }
+
+    /**
+     * setter function for tokenCacheConfig, null (the default) attests on every attest() call
+     */
+    public void setTokenCacheConfig(TokenCacheConfig tokenCacheConfig) {
+        this.tokenCacheConfig = tokenCacheConfig;
+    }
+
+    /**
+     * setter function for connectTimeout in milliseconds, the time to wait for a connection to be
+     * established or leased from the pool. A value of 0 resets it to the default.
+     */
+    public void setConnectTimeout(long connectTimeout) {
+        this.connectTimeout = connectTimeout != 0 ? connectTimeout : Constants.DEFAULT_CONNECT_TIMEOUT;
+    }
+
+    /**
+     * setter function for readTimeout in milliseconds, the time to wait for the response of a request.
+     * A value of 0 resets it to the default.
+     */
+    public void setReadTimeout(long readTimeout) {
+        this.readTimeout = readTimeout != 0 ? readTimeout : Constants.DEFAULT_READ_TIMEOUT;
+    }
 }
\ No newline at end of file
@@ -0,0 +1,82 @@
+/*
+ *   Copyright (c) 2023-2024 Intel Corporation
+ *   All rights reserved.
+ *   SPDX-License-Identifier: BSD-3-Clause
+ */
+package com.intel.trustauthority.connector;
+
+/**
+ * ConnectionPoolConfig class for holding connection pool config provided by user for TrustAuthorityConnector
+ */
+public class ConnectionPoolConfig {
+
+    private int maxTotal;         // Maximum number of pooled connections across all routes
+    private int maxPerRoute;      // Maximum number of pooled connections per route (scheme, host and port)
+    private long idleTimeout;     // Time after which idle connections are evicted from the pool
+
+    /**
+     * Constructs a new ConnectionPoolConfig object with the specified maxTotal, maxPerRoute and idleTimeout.
+     *
+     * @param maxTotal      maxTotal provided by the user.
+     * @param maxPerRoute   maxPerRoute provided by the user.
+     * @param idleTimeout   idleTimeout in seconds provided by the user.
+     */
+    public ConnectionPoolConfig(int maxTotal, int maxPerRoute, long idleTimeout) {
+        this.maxTotal = Constants.DEFAULT_POOL_MAX_TOTAL; // Default: 20 connections
+        this.maxPerRoute = Constants.DEFAULT_POOL_MAX_PER_ROUTE; // Default: 10 connections
+        this.idleTimeout = Constants.DEFAULT_POOL_IDLE_TIMEOUT; // Default: 30 seconds
+
+        // Set custom values provided by user
+        if (maxTotal != 0) {
+            this.maxTotal = maxTotal;
+        }
+        if (maxPerRoute != 0) {
+            this.maxPerRoute = maxPerRoute;
+        }
+        if (idleTimeout != 0) {
+            this.idleTimeout = idleTimeout;
+        }
+    }
+
+    /**
+     * getter function for maxTotal
+     */
+    public int getMaxTotal() {
+        return maxTotal;
+    }
+
+    /**
+     * setter function for maxTotal
+     */
+    public void setMaxTotal(int maxTotal) {
+        this.maxTotal = maxTotal;
+    }
+
+    /**
+     * getter function for maxPerRoute
+     */
+    public int getMaxPerRoute() {
+        return maxPerRoute;
+    }
+
+    /**
+     * setter function for maxPerRoute
+     */
+    public void setMaxPerRoute(int maxPerRoute) {
+        this.maxPerRoute = maxPerRoute;
+    }
+
+    /**
+     * getter function for idleTimeout
+     */
+    public long getIdleTimeout() {
+        return idleTimeout;
+    }
+
+    /**
+     * setter function for idleTimeout
+     */
+    public void setIdleTimeout(long idleTimeout) {
+        this.idleTimeout = idleTimeout;
+    }
+}
@@ -0,0 +1,65 @@
+/*
+ *   Copyright (c) 2023-2024 Intel Corporation
+ *   All rights reserved.
+ *   SPDX-License-Identifier: BSD-3-Clause
+ */
+package com.intel.trustauthority.connector;
+
+/**
+ * ConnectionPoolStats class for holding a snapshot of the connection pool used by TrustAuthorityConnector
+ */
+public class ConnectionPoolStats {
+
+    private int leased;     // Connections currently in use by a request
+    private int available;  // Idle keep-alive connections ready for reuse
+    private int pending;    // Requests waiting for a connection
+    private int max;        // Maximum number of connections in the pool
+
+    /**
+     * Constructs a new ConnectionPoolStats object with the specified leased, available, pending and max.
+     *
+     * @param leased        number of leased connections.
+     * @param available     number of available connections.
+     * @param pending       number of pending connection requests.
+     * @param max           maximum number of connections.
+     */
+    public ConnectionPoolStats(int leased, int available, int pending, int max) {
+        this.leased = leased;
+        this.available = available;
+        this.pending = pending;
+        this.max = max;
+    }
+
+    /**
+     * getter function for leased
+     */
+    public int getLeased() {
+        return leased;
+    }
+
+    /**
+     * getter function for available
+     */
+    public int getAvailable() {
+        return available;
+    }
+
+    /**
+     * getter function for pending
+     */
+    public int getPending() {
+        return pending;
+    }
+
+    /**
+     * getter function for max
+     */
+    public int getMax() {
+        return max;
+    }
+
+    @Override
+    public String toString() {
+        return "leased=" + leased + ", available=" + available + ", pending=" + pending + ", max=" + max;
+    }
+}
@@ -0,0 +1,203 @@
+/*
+ *   Copyright (c) 2023-2024 Intel Corporation
+ *   All rights reserved.
+ *   SPDX-License-Identifier: BSD-3-Clause
+ */
+package com.intel.trustauthority.connector;
+
+// Java Standard Library Imports
+import java.io.IOException;
+
+// Third-party Library Imports
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+/**
+ * ConnectorState holds the config of a TrustAuthorityConnector and everything built from it.
+ * It is replaced as a whole by setConfig, so every request sees a consistent set of components,
+ * and the transports of a replaced state are closed once its requests in flight have completed.
+ */
+class ConnectorState {
+
+    // Logger object
+    private static final Logger logger = LogManager.getLogger(ConnectorState.class);
+
+    private final Config cfg;
+    private final HttpTransport transport;
+    private final HttpTransport asyncTransport;
+    private final boolean ownsTransport;
+    private final LoadBalancer loadBalancer;
+    private final CircuitBreaker circuitBreaker;
+    private final ConcurrencyLimiter concurrencyLimiter;
+    private final NoncePool noncePool;
+    private final TokenCache tokenCache;
+
+    // Requests in flight, the transports are closed once a retired state has none
+    private int inflight;
+    private boolean retired;
+    private boolean closed;
+
+    /**
+     * Constructs a new ConnectorState object with the specified config and the components built from it.
+     *
+     * @param cfg                   Config object provided by the user.
+     * @param transport             HttpTransport used for blocking requests.
+     * @param asyncTransport        HttpTransport used for *Async requests.
+     * @param loadBalancer          LoadBalancer of the endpoints in the config.
+     * @param circuitBreaker        CircuitBreaker of the config.
+     * @param concurrencyLimiter    ConcurrencyLimiter of the config.
+     * @param noncePool             NoncePool of the config, may be null.
+     * @param tokenCache            TokenCache of the config, may be null.
+     */
+    ConnectorState(Config cfg, HttpTransport transport, HttpTransport asyncTransport, LoadBalancer loadBalancer,
+                   CircuitBreaker circuitBreaker, ConcurrencyLimiter concurrencyLimiter, NoncePool noncePool,
+                   TokenCache tokenCache) {
+        this.cfg = cfg;
+        this.transport = transport;
+        this.asyncTransport = asyncTransport;
+        // Transports provided in the config are closed by the caller
+        this.ownsTransport = cfg.getHttpTransport() == null;
+        this.loadBalancer = loadBalancer;
+        this.circuitBreaker = circuitBreaker;
+        this.concurrencyLimiter = concurrencyLimiter;
+        this.noncePool = noncePool;
+        this.tokenCache = tokenCache;
+    }
+
+    /**
+     * getter function for cfg
+     */
+    Config getConfig() {
+        return cfg;
+    }
+
+    /**
+     * getter function for transport
+     */
+    HttpTransport getTransport() {
+        return transport;
+    }
+
+    /**
+     * getter function for asyncTransport
+     */
+    HttpTransport getAsyncTransport() {
+        return asyncTransport;
+    }
+
+    /**
+     * getter function for loadBalancer
+     */
+    LoadBalancer getLoadBalancer() {
+        return loadBalancer;
+    }
+
+    /**
+     * getter function for circuitBreaker
+     */
+    CircuitBreaker getCircuitBreaker() {
+        return circuitBreaker;
+    }
+
+    /**
+     * getter function for concurrencyLimiter
+     */
+    ConcurrencyLimiter getConcurrencyLimiter() {
+        return concurrencyLimiter;
+    }
+
+    /**
+     * getter function for noncePool
+     */
+    NoncePool getNoncePool() {
+        return noncePool;
+    }
+
+    /**
+     * getter function for tokenCache
+     */
+    TokenCache getTokenCache() {
+        return tokenCache;
+    }
+
+    /**
+     * Marks a request in flight, keeping the transports open until it is released
+     *
+     * @return  false if the transports are already closed, the request must use the current state instead
+     */
+    synchronized boolean acquire() {
+        if (closed) {
+            return false;
+        }
+        inflight++;
+        return true;
+    }
+
+    /**
+     * Releases a request acquired with acquire()
+     */
+    void release() {
+        synchronized (this) {
+            inflight--;
+            if (!retired || inflight > 0 || closed) {
+                return;
+            }
+            closed = true;
+        }
+        closeTransportsQuietly();
+    }
+
+    /**
+     * Retires the state replaced by setConfig, its transports are closed once no request is in flight
+     */
+    void retire() {
+        if (noncePool != null) {
+            noncePool.close();
+        }
+        synchronized (this) {
+            retired = true;
+            if (inflight > 0 || closed) {
+                return;
+            }
+            closed = true;
+        }
+        closeTransportsQuietly();
+    }
+
+    /**
+     * Closes the state right away, failing the requests still in flight
+     */
+    void close() throws IOException {
+        if (noncePool != null) {
+            noncePool.close();
+        }
+        synchronized (this) {
+            retired = true;
+            closed = true;
+        }
+        closeTransports();
+    }
+
+    /**
+     * Helper function to close the transports, unless they were provided in the config
+     */
+    private void closeTransports() throws IOException {
+        if (ownsTransport) {
+            transport.close();
+            if (asyncTransport != transport) {
+                asyncTransport.close();
+            }
+        }
+    }
+
+    /**
+     * Helper function to close the transports of a retired state once its last request is released
+     */
+    private void closeTransportsQuietly() {
+        try {
+            closeTransports();
+        } catch (IOException e) {
+            logger.warn("Failed to close the transport: " + e);
+        }
+    }
+}
@@ -19,12 +19,88 @@ public class Constants {
     public static final String HEADER_CONTENT_TYPE = "Content-Type";
     public static final String HEADER_REQUEST_ID = "request-id";
     public static final String HEADER_TRACE_ID = "trace-id";
+    public static final String HEADER_CONTENT_ENCODING = "Content-Encoding";
+    public static final String HEADER_ACCEPT_ENCODING = "Accept-Encoding";
+    public static final String HEADER_RETRY_AFTER = "Retry-After";
+
+    public static final String CONTENT_ENCODING_GZIP = "gzip";
+    public static final String CONTENT_ENCODING_DEFLATE = "deflate";
+    public static final String ACCEPT_ENCODING_GZIP_DEFLATE = "gzip, deflate";
 
     public static final String MIME_APPLICATION_JSON = "application/json";
 
     public static final long DEFAULT_RETRY_WAIT_TIME_MIN = 2;
     public static final long DEFAULT_RETRY_WAIT_TIME_MAX = 10;
     public static final int DEFAULT_RETRY_MAX = 2;
+    public static final long DEFAULT_RETRY_AFTER_MAX = 60;
+    public static final double DEFAULT_RETRY_BUDGET_RATIO = 0.1;
+    public static final int DEFAULT_RETRY_BUDGET_MIN_RETRIES_PER_SECOND = 10;
+    public static final int DEFAULT_RETRY_BUDGET_WINDOW = 10;
+
+    public static final int DEFAULT_POOL_MAX_TOTAL = 20;
+    public static final int DEFAULT_POOL_MAX_PER_ROUTE = 10;
+    public static final long DEFAULT_POOL_IDLE_TIMEOUT = 30;
+    public static final int DEFAULT_POOL_VALIDATE_AFTER_INACTIVITY_MILLIS = 2000;
+    public static final long DEFAULT_MAX_RESPONSE_BODY_SIZE = 10 * 1024 * 1024;
+    public static final long DEFAULT_CONNECT_TIMEOUT = 10000;
+    public static final long DEFAULT_READ_TIMEOUT = 30000;
+    public static final int DEFAULT_PROXY_PORT = 443;
+
+    public static final String[] DEFAULT_TLS_PROTOCOLS = { "TLSv1.3", "TLSv1.2" };
+    public static final int DEFAULT_TLS_SESSION_CACHE_SIZE = 1000;
+    public static final long DEFAULT_TLS_SESSION_TIMEOUT = 3600;
+
+    public static final long DEFAULT_DNS_TTL = 60;
+    public static final long DEFAULT_DNS_NEGATIVE_TTL = 5;
+    public static final long DEFAULT_CONNECTION_ATTEMPT_DELAY = 250;
+
+    public static final int DEFAULT_NONCE_POOL_MAX_SIZE = 8;
+    public static final long DEFAULT_NONCE_POOL_MAX_AGE = 60;
+    public static final double NONCE_POOL_INTERVAL_WEIGHT = 0.3;
+
+    public static final int DEFAULT_ATTEST_ALL_PARALLELISM = 8;
+
+    public static final long DEFAULT_TOKEN_CACHE_REFRESH_AHEAD = 60;
+    public static final int DEFAULT_TOKEN_CACHE_MAX_ENTRIES = 100;
+    public static final long TOKEN_CACHE_EXPIRY_SKEW = 5000;
+
+    public static final long DEFAULT_PUBLISHER_INTERVAL = 300000;
+    public static final double DEFAULT_PUBLISHER_JITTER = 0.1;
+    public static final long DEFAULT_PUBLISHER_RETRY_WAIT = 5000;
+
+    public static final long DEFAULT_COMPRESSION_THRESHOLD = 1024;
+    public static final int DEFAULT_COMPRESSION_LEVEL = 6;
+
+    public static final double DEFAULT_HEDGING_PERCENTILE = 95;
+    public static final long DEFAULT_HEDGING_INITIAL_DELAY = 1000;
+    public static final double DEFAULT_HEDGING_MAX_RATIO = 0.1;
+    public static final int DEFAULT_HEDGING_WINDOW_SIZE = 100;
+    public static final int DEFAULT_HEDGING_MIN_SAMPLES = 10;
+
+    public static final int DEFAULT_LB_FAILURE_THRESHOLD = 3;
+    public static final long DEFAULT_LB_EJECTION_TIME = 30;
+    public static final double DEFAULT_LB_EWMA_WEIGHT = 0.3;
+
+    public static final int DEFAULT_CB_FAILURE_THRESHOLD = 5;
+    public static final long DEFAULT_CB_OPEN_TIME = 30;
+    public static final int DEFAULT_CB_HALF_OPEN_MAX_CALLS = 1;
+
+    public static final double DEFAULT_RATE_LIMIT_REQUESTS_PER_SECOND = 10;
+    public static final long DEFAULT_RATE_LIMIT_MAX_WAIT = 30000;
+
+    public static final int DEFAULT_CONCURRENCY_INITIAL_LIMIT = 20;
+    public static final int DEFAULT_CONCURRENCY_MIN_LIMIT = 2;
+    public static final int DEFAULT_CONCURRENCY_MAX_LIMIT = 200;
+    public static final long DEFAULT_CONCURRENCY_MAX_QUEUE_WAIT = 5000;
+    public static final double DEFAULT_CONCURRENCY_BACKOFF_RATIO = 0.9;
+    public static final double DEFAULT_CONCURRENCY_RTT_TOLERANCE = 2.0;
+    public static final int DEFAULT_CONCURRENCY_RTT_WINDOW = 100;
+    public static final long DEFAULT_CONCURRENCY_RTT_MIN_RISE = 10;
+
+    // Operations requests are rate limited by
+    public static final String OPERATION_NONCE = "nonce";
+    public static final String OPERATION_ATTEST = "attest";
+    public static final String OPERATION_CERTS = "certs";
 
     public static final String DEFAULT_OID_CRL_DISTRIBUTION_POINTS = "2.5.29.31";
 
@@ -38,6 +114,8 @@ public class Constants {
     public static final String ENV_HTTPS_PROXY_HOST = "HTTPS_PROXY_HOST";
     public static final String ENV_HTTPS_PROXY_PORT = "HTTPS_PROXY_PORT";
 
+    public static final int HTTP_TOO_MANY_REQUESTS = 429;
+
     // Define a constant retryableStatusCodes Set
     public static final Set<Integer> retryableStatusCodes;
 
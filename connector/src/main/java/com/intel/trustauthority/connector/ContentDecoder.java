@@ -0,0 +1,113 @@
+/*
+ *   Copyright (c) 2023-2024 Intel Corporation
+ *   All rights reserved.
+ *   SPDX-License-Identifier: BSD-3-Clause
+ */
+package com.intel.trustauthority.connector;
+
+// Java Standard Library Imports
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.PushbackInputStream;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.Inflater;
+import java.util.zip.InflaterInputStream;
+
+/**
+ * ContentDecoder decompresses gzip and deflate encoded response bodies as they are read,
+ * for transports whose HTTP client does not do it already.
+ */
+final class ContentDecoder {
+
+    private ContentDecoder() {
+    }
+
+    /**
+     * Helper function to get the Content-Encoding of a response
+     *
+     * @param headers   response headers, may be null.
+     * @return          lower case content coding, or null if the body is not encoded
+     */
+    static String getContentEncoding(Map<String, List<String>> headers) {
+        String encoding = getFirstHeader(headers, Constants.HEADER_CONTENT_ENCODING);
+        if (encoding == null) {
+            return null;
+        }
+        encoding = encoding.trim().toLowerCase();
+        return encoding.isEmpty() || encoding.equals("identity") ? null : encoding;
+    }
+
+    /**
+     * Helper function to get the first value of a header, matching the name case insensitively
+     *
+     * @param headers   response headers, may be null.
+     * @param name      header name.
+     * @return          first header value, or null if the header is not present
+     */
+    static String getFirstHeader(Map<String, List<String>> headers, String name) {
+        if (headers == null) {
+            return null;
+        }
+        List<String> values = headers.get(name);
+        if (values == null) {
+            // Transports may return header maps that are not case insensitive
+            for (Map.Entry<String, List<String>> entry : headers.entrySet()) {
+                if (name.equalsIgnoreCase(entry.getKey())) {
+                    values = entry.getValue();
+                    break;
+                }
+            }
+        }
+        return values == null || values.isEmpty() ? null : values.get(0);
+    }
+
+    /**
+     * Helper function to remove the headers describing the encoded body once it is decoded
+     *
+     * @param headers   response headers.
+     * @return          case insensitive copy of the headers without Content-Encoding and Content-Length
+     */
+    static Map<String, List<String>> decodedHeaders(Map<String, List<String>> headers) {
+        Map<String, List<String>> decoded = new TreeMap<>(String.CASE_INSENSITIVE_ORDER);
+        decoded.putAll(headers);
+        decoded.remove(Constants.HEADER_CONTENT_ENCODING);
+        decoded.remove("Content-Length");
+        return decoded;
+    }
+
+    /**
+     * Helper function to wrap the body in a stream decompressing it as it is read
+     *
+     * @param body      encoded response body stream.
+     * @param encoding  content coding of the body, gzip or deflate.
+     * @return          decoded response body stream
+     */
+    static InputStream decode(InputStream body, String encoding) throws IOException {
+        // An empty body carries no compression header, e.g. for error responses
+        PushbackInputStream in = new PushbackInputStream(body, 2);
+        int first = in.read();
+        if (first == -1) {
+            in.close();
+            return new ByteArrayInputStream(new byte[0]);
+        }
+        int second = in.read();
+        if (second != -1) {
+            in.unread(second);
+        }
+        in.unread(first);
+
+        if (encoding.equals(Constants.CONTENT_ENCODING_GZIP) || encoding.equals("x-gzip")) {
+            return new GZIPInputStream(in);
+        }
+        if (encoding.equals(Constants.CONTENT_ENCODING_DEFLATE)) {
+            // Servers send deflate both zlib wrapped (as specified) and raw, the zlib header tells them apart
+            boolean zlib = second != -1 && (first & 0x0F) == 8 && ((first << 8) | second) % 31 == 0;
+            return new InflaterInputStream(in, new Inflater(!zlib));
+        }
+        throw new IOException("Unsupported Content-Encoding: " + encoding);
+    }
+}
@@ -0,0 +1,79 @@
+/*
+ *   Copyright (c) 2023-2024 Intel Corporation
+ *   All rights reserved.
+ *   SPDX-License-Identifier: BSD-3-Clause
+ */
+package com.intel.trustauthority.connector;
+
+// Java Standard Library Imports
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Deadline tracks the time budget left for an operation, so that each stage of attest()
+ * (nonce fetch, evidence collection, token fetch and retry waits) only gets the remaining budget.
+ */
+class Deadline {
+
+    private final long deadlineNanos;
+
+    /**
+     * Constructs a new Deadline object expiring after the specified timeout.
+     *
+     * @param timeout   timeout in milliseconds.
+     */
+    private Deadline(long timeout) {
+        this.deadlineNanos = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(timeout);
+    }
+
+    /**
+     * Creates a Deadline expiring after the specified timeout
+     *
+     * @param timeout   timeout in milliseconds, 0 for no deadline.
+     * @return          Deadline object, or null if there is no deadline
+     */
+    static Deadline after(long timeout) {
+        return timeout > 0 ? new Deadline(timeout) : null;
+    }
+
+    /**
+     * Returns the time left in milliseconds, 0 once the deadline has passed
+     */
+    long remaining() {
+        return Math.max(0, TimeUnit.NANOSECONDS.toMillis(deadlineNanos - System.nanoTime()));
+    }
+
+    /**
+     * Fails if the deadline has passed
+     *
+     * @param stage     stage of the operation, reported in the exception.
+     */
+    void check(String stage) throws TimeoutException {
+        if (remaining() == 0) {
+            throw expired(stage);
+        }
+    }
+
+    /**
+     * Returns the timeout to use for a stage, the configured timeout capped by the time left
+     *
+     * @param deadline  Deadline object, may be null.
+     * @param timeout   configured timeout in milliseconds, 0 for none.
+     * @return          timeout in milliseconds, 0 for none
+     */
+    static long cap(Deadline deadline, long timeout) {
+        if (deadline == null) {
+            return timeout;
+        }
+        // Never return 0 for an expired deadline, which would mean no timeout
+        long remaining = Math.max(1, deadline.remaining());
+        return timeout > 0 ? Math.min(timeout, remaining) : remaining;
+    }
+
+    /**
+     * Creates the exception reported when the deadline passes during a stage
+     */
+    static TimeoutException expired(String stage) {
+        return new TimeoutException("Deadline exceeded during " + stage);
+    }
+}
@@ -0,0 +1,86 @@
+/*
+ *   Copyright (c) 2023-2024 Intel Corporation
+ *   All rights reserved.
+ *   SPDX-License-Identifier: BSD-3-Clause
+ */
+package com.intel.trustauthority.connector;
+
+/**
+ * DnsConfig class for holding the name resolution config provided by user for TrustAuthorityConnector.
+ * Resolved addresses are cached for ttl and refreshed in the background while in use. When a host
+ * resolves to several addresses, connection attempts are raced across them and the first connected
+ * socket is used. Applies to the connection pool of the Apache transport, the JDK client always
+ * resolves through the JVM resolver.
+ */
+public class DnsConfig {
+
+    private long ttl;                       // Time resolved addresses are cached for
+    private long negativeTtl;               // Time a failed lookup is cached for
+    private long connectionAttemptDelay;    // Delay before racing the next address while an attempt is pending
+
+    /**
+     * Constructs a new DnsConfig object with the specified ttl, negativeTtl and connectionAttemptDelay.
+     *
+     * @param ttl                       ttl in seconds provided by the user.
+     * @param negativeTtl               negativeTtl in seconds provided by the user.
+     * @param connectionAttemptDelay    connectionAttemptDelay in milliseconds provided by the user.
+     */
+    public DnsConfig(long ttl, long negativeTtl, long connectionAttemptDelay) {
+        this.ttl = Constants.DEFAULT_DNS_TTL; // Default: 60 seconds
+        this.negativeTtl = Constants.DEFAULT_DNS_NEGATIVE_TTL; // Default: 5 seconds
+        this.connectionAttemptDelay = Constants.DEFAULT_CONNECTION_ATTEMPT_DELAY; // Default: 250 milliseconds
+
+        // Set custom values provided by user
+        if (ttl != 0) {
+            this.ttl = ttl;
+        }
+        if (negativeTtl != 0) {
+            this.negativeTtl = negativeTtl;
+        }
+        if (connectionAttemptDelay != 0) {
+            this.connectionAttemptDelay = connectionAttemptDelay;
+        }
+    }
+
+    /**
+     * getter function for ttl
+     */
+    public long getTtl() {
+        return ttl;
+    }
+
+    /**
+     * setter function for ttl
+     */
+    public void setTtl(long ttl) {
+        this.ttl = ttl;
+    }
+
+    /**
+     * getter function for negativeTtl
+     */
+    public long getNegativeTtl() {
+        return negativeTtl;
+    }
+
+    /**
+     * setter function for negativeTtl
+     */
+    public void setNegativeTtl(long negativeTtl) {
+        this.negativeTtl = negativeTtl;
+    }
+
+    /**
+     * getter function for connectionAttemptDelay
+     */
+    public long getConnectionAttemptDelay() {
+        return connectionAttemptDelay;
+    }
+
+    /**
+     * setter function for connectionAttemptDelay
+     */
+    public void setConnectionAttemptDelay(long connectionAttemptDelay) {
+        this.connectionAttemptDelay = connectionAttemptDelay;
+    }
+}
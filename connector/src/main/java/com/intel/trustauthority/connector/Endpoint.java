@@ -0,0 +1,69 @@
+/*
+ *   Copyright (c) 2023-2024 Intel Corporation
+ *   All rights reserved.
+ *   SPDX-License-Identifier: BSD-3-Clause
+ */
+package com.intel.trustauthority.connector;
+
+// Java Standard Library Imports
+import java.util.Objects;
+
+/**
+ * Endpoint class for holding the URLs of one Intel Trust Authority deployment, such as a regional endpoint
+ */
+public class Endpoint {
+
+    private String baseUrl;
+    private String apiUrl;
+
+    /**
+     * Constructs a new Endpoint object with the specified baseUrl and apiUrl.
+     *
+     * @param baseUrl   baseUrl provided by the user.
+     * @param apiUrl    apiUrl provided by the user.
+     */
+    public Endpoint(String baseUrl, String apiUrl) {
+        this.baseUrl = baseUrl;
+        this.apiUrl = apiUrl;
+    }
+
+    /**
+     * getter function for baseUrl
+     */
+    public String getBaseUrl() {
+        return baseUrl;
+    }
+
+    /**
+     * getter function for apiUrl
+     */
+    public String getApiUrl() {
+        return apiUrl;
+    }
+
+    /**
+     * Endpoints are equal when they have the same URLs, so a nonce stays pinned to its endpoint
+     * across Config objects
+     */
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof Endpoint)) {
+            return false;
+        }
+        Endpoint other = (Endpoint) o;
+        return Objects.equals(baseUrl, other.baseUrl) && Objects.equals(apiUrl, other.apiUrl);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(baseUrl, apiUrl);
+    }
+
+    @Override
+    public String toString() {
+        return apiUrl;
+    }
+}
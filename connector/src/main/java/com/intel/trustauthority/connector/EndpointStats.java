@@ -0,0 +1,75 @@
+/*
+ *   Copyright (c) 2023-2024 Intel Corporation
+ *   All rights reserved.
+ *   SPDX-License-Identifier: BSD-3-Clause
+ */
+package com.intel.trustauthority.connector;
+
+/**
+ * EndpointStats class for holding a snapshot of the health of an endpoint used by TrustAuthorityConnector
+ */
+public class EndpointStats {
+
+    private Endpoint endpoint;
+    private double latency;         // Exponentially weighted moving average of the latency in milliseconds
+    private int inflight;           // Requests currently sent to the endpoint
+    private int failures;           // Consecutive failures
+    private boolean ejected;        // Whether the endpoint is ejected from load balancing
+
+    /**
+     * Constructs a new EndpointStats object with the specified endpoint, latency, inflight, failures and ejected.
+     *
+     * @param endpoint      endpoint the stats are for.
+     * @param latency       average latency in milliseconds.
+     * @param inflight      number of requests in flight.
+     * @param failures      number of consecutive failures.
+     * @param ejected       true if the endpoint is ejected.
+     */
+    public EndpointStats(Endpoint endpoint, double latency, int inflight, int failures, boolean ejected) {
+        this.endpoint = endpoint;
+        this.latency = latency;
+        this.inflight = inflight;
+        this.failures = failures;
+        this.ejected = ejected;
+    }
+
+    /**
+     * getter function for endpoint
+     */
+    public Endpoint getEndpoint() {
+        return endpoint;
+    }
+
+    /**
+     * getter function for latency
+     */
+    public double getLatency() {
+        return latency;
+    }
+
+    /**
+     * getter function for inflight
+     */
+    public int getInflight() {
+        return inflight;
+    }
+
+    /**
+     * getter function for failures
+     */
+    public int getFailures() {
+        return failures;
+    }
+
+    /**
+     * getter function for ejected
+     */
+    public boolean isEjected() {
+        return ejected;
+    }
+
+    @Override
+    public String toString() {
+        return endpoint + ": latency=" + latency + ", inflight=" + inflight + ", failures=" + failures + ", ejected=" + ejected;
+    }
+}
@@ -17,4 +17,14 @@ public interface EvidenceAdapter {
      * @return Evidence object containing the fetched SGX/TDX quote
      */
     Evidence collectEvidence(byte[] nonce) throws Exception;
+
+    /**
+     * getUserData returns the user data bound to the evidence of the adapter, used to tell
+     * cached tokens apart. Adapters without user data can rely on the default.
+     *
+     * @return user data of the adapter, or null
+     */
+    default byte[] getUserData() {
+        return null;
+    }
 }
\ No newline at end of file
@@ -0,0 +1,119 @@
+/*
+ *   Copyright (c) 2023-2024 Intel Corporation
+ *   All rights reserved.
+ *   SPDX-License-Identifier: BSD-3-Clause
+ */
+package com.intel.trustauthority.connector;
+
+// Java Standard Library Imports
+import java.io.ByteArrayOutputStream;
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.zip.Deflater;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * GzipRequestBody sends another RequestBody with Content-Encoding: gzip.
+ * The body is compressed once into a buffer the first time it is needed, which gives an exact
+ * Content-Length and lets retries resend the compressed bytes without compressing again.
+ */
+public class GzipRequestBody implements RequestBody {
+
+    private final RequestBody body;
+    private final int level;
+    private final CompressionStats stats;
+    private byte[] compressed;
+
+    /**
+     * Constructs a new GzipRequestBody object with the specified body, level and stats.
+     *
+     * @param body      RequestBody to be compressed.
+     * @param level     deflate compression level, 1 (fastest) to 9 (smallest).
+     * @param stats     CompressionStats updated once the body is compressed, may be null.
+     */
+    public GzipRequestBody(RequestBody body, int level, CompressionStats stats) {
+        this.body = body;
+        this.level = level;
+        this.stats = stats;
+    }
+
+    @Override
+    public long getContentLength() {
+        try {
+            return getCompressed().length;
+        } catch (IOException e) {
+            // Fall back to chunked encoding, the failure surfaces again when the body is written
+            return -1;
+        }
+    }
+
+    @Override
+    public String getContentEncoding() {
+        return Constants.CONTENT_ENCODING_GZIP;
+    }
+
+    @Override
+    public void writeTo(OutputStream out) throws IOException {
+        out.write(getCompressed());
+    }
+
+    /**
+     * Helper function to compress the body on first use
+     */
+    private synchronized byte[] getCompressed() throws IOException {
+        if (compressed == null) {
+            ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+            CountingOutputStream counter;
+            try (LeveledGZIPOutputStream gzip = new LeveledGZIPOutputStream(buffer, level)) {
+                // Count the uncompressed bytes on their way into the compressor
+                counter = new CountingOutputStream(gzip);
+                body.writeTo(counter);
+            }
+            compressed = buffer.toByteArray();
+            if (stats != null) {
+                stats.recordCompressed(counter.count, compressed.length);
+            }
+        }
+        return compressed;
+    }
+
+    /**
+     * GZIPOutputStream with a configurable compression level
+     */
+    private static class LeveledGZIPOutputStream extends GZIPOutputStream {
+        LeveledGZIPOutputStream(OutputStream out, int level) throws IOException {
+            super(out);
+            def.setLevel(level < Deflater.BEST_SPEED || level > Deflater.BEST_COMPRESSION ?
+                         Deflater.DEFAULT_COMPRESSION : level);
+        }
+    }
+
+    /**
+     * OutputStream counting the bytes written through it
+     */
+    private static class CountingOutputStream extends FilterOutputStream {
+        private long count;
+
+        CountingOutputStream(OutputStream out) {
+            super(out);
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            out.write(b);
+            count++;
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            out.write(b, off, len);
+            count += len;
+        }
+
+        @Override
+        public void close() {
+            // The compressor is finished by its owner
+        }
+    }
+}
@@ -0,0 +1,154 @@
+/*
+ *   Copyright (c) 2023-2024 Intel Corporation
+ *   All rights reserved.
+ *   SPDX-License-Identifier: BSD-3-Clause
+ */
+package com.intel.trustauthority.connector;
+
+// Java Standard Library Imports
+import java.io.Closeable;
+import java.io.IOException;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Supplier;
+
+/**
+ * Hedger sends a second identical request when the first one is slower than the configured
+ * percentile of recent latencies, and completes with whichever succeeds first.
+ * Latencies are tracked per operation so that nonce and token requests get their own delay,
+ * measured from the original send to the first successful response, as seen by the caller.
+ * The copy still in flight once the request completes is cancelled.
+ */
+class Hedger {
+
+    private final HedgingStats stats = new HedgingStats();
+    private final Map<String, LatencyTracker> trackers = new ConcurrentHashMap<>();
+
+    /**
+     * getter function for stats
+     */
+    HedgingStats getStats() {
+        return stats;
+    }
+
+    /**
+     * getter function for the latencies of operation, null until it is first sent
+     */
+    LatencyTracker getTracker(String operation) {
+        return trackers.get(operation);
+    }
+
+    /**
+     * Sends the request, hedging it if it is still pending after the policy delay
+     *
+     * @param policy        HedgingPolicy provided by the user.
+     * @param operation     name of the operation whose latencies are tracked.
+     * @param attempt       sends one copy of the request, cancelling the future it returns must abort the copy.
+     * @param scheduler     scheduler used to send the hedge.
+     * @return              CompletableFuture completed with the first successful response
+     */
+    <T extends Closeable> CompletableFuture<T> execute(HedgingPolicy policy, String operation,
+                                                       Supplier<CompletableFuture<T>> attempt,
+                                                       ScheduledExecutorService scheduler) {
+        LatencyTracker tracker = trackers.computeIfAbsent(operation,
+                k -> new LatencyTracker(Constants.DEFAULT_HEDGING_WINDOW_SIZE));
+        long delay = tracker.percentile(policy.getPercentile(), policy.getInitialDelay(),
+                                        Constants.DEFAULT_HEDGING_MIN_SAMPLES);
+        stats.recordRequest();
+
+        Hedge<T> hedge = new Hedge<>(tracker);
+        hedge.subscribe(attempt.get(), false);
+
+        ScheduledFuture<?> hedgeTimer = scheduler.schedule(() -> {
+            // Count the hedge as pending first, so a failure of the original request in the meantime
+            // cannot complete the result while the hedge is being sent
+            hedge.pending.incrementAndGet();
+            if (hedge.result.isDone() || !stats.tryAcquireHedge(policy.getMaxHedgeRatio())) {
+                // Only hedge requests still in flight, and only within the hedge budget
+                hedge.done(null);
+                return;
+            }
+            hedge.subscribe(attempt.get(), true);
+        }, delay, TimeUnit.MILLISECONDS);
+        hedge.result.whenComplete((value, error) -> {
+            hedgeTimer.cancel(false);
+            // Abort the copy that lost, or every copy if the caller gave up on the request
+            for (CompletableFuture<T> future : hedge.attempts) {
+                future.cancel(true);
+            }
+        });
+        return hedge.result;
+    }
+
+    /**
+     * Hedge holds the state shared by the copies of a hedged request
+     */
+    private class Hedge<T extends Closeable> {
+        private final CompletableFuture<T> result = new CompletableFuture<>();
+        private final List<CompletableFuture<T>> attempts = new CopyOnWriteArrayList<>();
+        private final AtomicInteger pending = new AtomicInteger(1);
+        private final AtomicBoolean winner = new AtomicBoolean();
+        private final AtomicReference<Throwable> failure = new AtomicReference<>();
+        private final LatencyTracker tracker;
+        private final long start = System.nanoTime();
+
+        Hedge(LatencyTracker tracker) {
+            this.tracker = tracker;
+        }
+
+        /**
+         * Completes the result with the first successful copy, or the failure of the last one
+         */
+        void subscribe(CompletableFuture<T> future, boolean hedged) {
+            attempts.add(future);
+            if (result.isDone()) {
+                future.cancel(true);
+            }
+            future.whenComplete((value, error) -> {
+                if (error != null) {
+                    done(error);
+                    return;
+                }
+                // Pick the winner before completing, so the stats are up to date once the caller resumes
+                if (winner.compareAndSet(false, true)) {
+                    // Only the winner is recorded, from the original send, since a latency measured from
+                    // the start of a hedge, or skipping the cancelled original, would bias the percentile down
+                    tracker.record(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+                    if (hedged) {
+                        stats.recordHedgeWin();
+                    }
+                    if (result.complete(value)) {
+                        return;
+                    }
+                }
+                // Release the response of the losing copy, or of a request the caller gave up on
+                try {
+                    value.close();
+                } catch (IOException e) {
+                    // Nothing more to release
+                }
+            });
+        }
+
+        /**
+         * Marks a copy as done without a response, failing the result once no copy is pending
+         */
+        void done(Throwable error) {
+            if (error != null) {
+                failure.set(error);
+            }
+            if (pending.decrementAndGet() == 0) {
+                result.completeExceptionally(failure.get());
+            }
+        }
+    }
+}
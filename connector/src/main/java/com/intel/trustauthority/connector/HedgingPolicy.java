@@ -0,0 +1,85 @@
+/*
+ *   Copyright (c) 2023-2024 Intel Corporation
+ *   All rights reserved.
+ *   SPDX-License-Identifier: BSD-3-Clause
+ */
+package com.intel.trustauthority.connector;
+
+/**
+ * HedgingPolicy class for holding the hedged request config provided by user for TrustAuthorityConnector.
+ * When a GetNonce or GetToken request has not completed after the given percentile of recent latencies,
+ * an identical request is sent and the first successful response is used.
+ */
+public class HedgingPolicy {
+
+    private double percentile;      // Percentile of recent latencies after which a hedge is sent
+    private long initialDelay;      // Hedge delay in milliseconds used until enough latencies are recorded
+    private double maxHedgeRatio;   // Maximum ratio of hedges to requests, at most 1 so that load is at most doubled
+
+    /**
+     * Constructs a new HedgingPolicy object with the specified percentile, initialDelay and maxHedgeRatio.
+     *
+     * @param percentile        percentile between 0 and 100 provided by the user.
+     * @param initialDelay      initialDelay in milliseconds provided by the user.
+     * @param maxHedgeRatio     maxHedgeRatio between 0 and 1 provided by the user.
+     */
+    public HedgingPolicy(double percentile, long initialDelay, double maxHedgeRatio) {
+        this.percentile = Constants.DEFAULT_HEDGING_PERCENTILE; // Default: 95th percentile
+        this.initialDelay = Constants.DEFAULT_HEDGING_INITIAL_DELAY; // Default: 1000 milliseconds
+        this.maxHedgeRatio = Constants.DEFAULT_HEDGING_MAX_RATIO; // Default: 0.1 hedges per request
+
+        // Set custom values provided by user
+        if (percentile != 0) {
+            this.percentile = Math.min(percentile, 100);
+        }
+        if (initialDelay != 0) {
+            this.initialDelay = initialDelay;
+        }
+        if (maxHedgeRatio != 0) {
+            // Never send more than one hedge per request
+            this.maxHedgeRatio = Math.min(maxHedgeRatio, 1);
+        }
+    }
+
+    /**
+     * getter function for percentile
+     */
+    public double getPercentile() {
+        return percentile;
+    }
+
+    /**
+     * setter function for percentile
+     */
+    public void setPercentile(double percentile) {
+        this.percentile = percentile;
+    }
+
+    /**
+     * getter function for initialDelay
+     */
+    public long getInitialDelay() {
+        return initialDelay;
+    }
+
+    /**
+     * setter function for initialDelay
+     */
+    public void setInitialDelay(long initialDelay) {
+        this.initialDelay = initialDelay;
+    }
+
+    /**
+     * getter function for maxHedgeRatio
+     */
+    public double getMaxHedgeRatio() {
+        return maxHedgeRatio;
+    }
+
+    /**
+     * setter function for maxHedgeRatio
+     */
+    public void setMaxHedgeRatio(double maxHedgeRatio) {
+        this.maxHedgeRatio = Math.min(maxHedgeRatio, 1);
+    }
+}
@@ -0,0 +1,84 @@
+/*
+ *   Copyright (c) 2023-2024 Intel Corporation
+ *   All rights reserved.
+ *   SPDX-License-Identifier: BSD-3-Clause
+ */
+package com.intel.trustauthority.connector;
+
+/**
+ * HedgingStats class for holding the hedged request counters of a TrustAuthorityConnector
+ */
+public class HedgingStats {
+
+    private long requests;      // Requests sent with hedging enabled
+    private long hedges;        // Hedge requests sent
+    private long hedgeWins;     // Hedge requests that completed before the original request
+
+    /**
+     * Records a request sent with hedging enabled
+     */
+    synchronized void recordRequest() {
+        requests++;
+    }
+
+    /**
+     * Reserves a hedge if the hedges sent so far stay within maxHedgeRatio of the requests
+     *
+     * @param maxHedgeRatio     maximum ratio of hedges to requests.
+     * @return                  true if the hedge may be sent
+     */
+    synchronized boolean tryAcquireHedge(double maxHedgeRatio) {
+        if (hedges + 1 > maxHedgeRatio * requests) {
+            return false;
+        }
+        hedges++;
+        return true;
+    }
+
+    /**
+     * Records a hedge request that won the race
+     */
+    synchronized void recordHedgeWin() {
+        hedgeWins++;
+    }
+
+    /**
+     * getter function for requests
+     */
+    public synchronized long getRequests() {
+        return requests;
+    }
+
+    /**
+     * getter function for hedges
+     */
+    public synchronized long getHedges() {
+        return hedges;
+    }
+
+    /**
+     * getter function for hedgeWins
+     */
+    public synchronized long getHedgeWins() {
+        return hedgeWins;
+    }
+
+    /**
+     * Returns the fraction of requests for which a hedge was sent
+     */
+    public synchronized double getHedgeRate() {
+        return requests == 0 ? 0 : (double) hedges / requests;
+    }
+
+    /**
+     * Returns the fraction of hedges that completed before the original request
+     */
+    public synchronized double getWinRate() {
+        return hedges == 0 ? 0 : (double) hedgeWins / hedges;
+    }
+
+    @Override
+    public synchronized String toString() {
+        return "requests=" + requests + ", hedges=" + hedges + ", hedgeWins=" + hedgeWins;
+    }
+}
@@ -0,0 +1,161 @@
+/*
+ *   Copyright (c) 2023-2024 Intel Corporation
+ *   All rights reserved.
+ *   SPDX-License-Identifier: BSD-3-Clause
+ */
+package com.intel.trustauthority.connector;
+
+// Java Standard Library Imports
+import java.io.Closeable;
+import java.io.IOException;
+import java.security.GeneralSecurityException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import javax.net.ssl.SSLContext;
+
+// Third-party Library Imports
+import org.apache.http.HttpHost;
+import org.apache.http.config.Registry;
+import org.apache.http.config.RegistryBuilder;
+import org.apache.http.conn.socket.ConnectionSocketFactory;
+import org.apache.http.conn.socket.PlainConnectionSocketFactory;
+import org.apache.http.impl.client.CloseableHttpClient;
+import org.apache.http.impl.client.HttpClients;
+import org.apache.http.impl.conn.PoolingHttpClientConnectionManager;
+import org.apache.http.impl.conn.SystemDefaultDnsResolver;
+import org.apache.http.pool.PoolStats;
+
+/**
+ * HttpConnectionPool holds the keep-alive connections shared by all TrustAuthorityConnector requests.
+ * Connections (and their TLS sessions) are returned to the pool once a response is fully consumed
+ * instead of being torn down after every call.
+ */
+public class HttpConnectionPool implements Closeable {
+
+    private final PoolingHttpClientConnectionManager connectionManager;
+    private final CloseableHttpClient httpClient;
+    private final TlsStats tlsStats = new TlsStats();
+    private final ExecutorService connectExecutor;
+
+    /**
+     * Constructs a new HttpConnectionPool object with the specified poolConfig.
+     *
+     * @param poolConfig    ConnectionPoolConfig object provided by the user.
+     */
+    public HttpConnectionPool(ConnectionPoolConfig poolConfig) {
+        this(poolConfig, null, 0, new TlsConfig(null, 0, 0));
+    }
+
+    /**
+     * Constructs a new HttpConnectionPool object with the specified poolConfig, sending requests through
+     * the specified proxy. The CONNECT tunnel of a pooled connection is kept with it, so it is set up
+     * once per connection instead of once per request.
+     *
+     * @param poolConfig    ConnectionPoolConfig object provided by the user.
+     * @param proxyHost     proxyHost provided by the user, null to send requests directly.
+     * @param proxyPort     proxyPort provided by the user.
+     */
+    public HttpConnectionPool(ConnectionPoolConfig poolConfig, String proxyHost, int proxyPort) {
+        this(poolConfig, proxyHost, proxyPort, new TlsConfig(null, 0, 0));
+    }
+
+    /**
+     * Constructs a new HttpConnectionPool object with the specified poolConfig, proxy and tlsConfig.
+     * All TLS connections are created from the SSLContext of tlsConfig, so a connection opened after
+     * an idle one was evicted resumes its cached session instead of making a full handshake.
+     *
+     * @param poolConfig    ConnectionPoolConfig object provided by the user.
+     * @param proxyHost     proxyHost provided by the user, null to send requests directly.
+     * @param proxyPort     proxyPort provided by the user.
+     * @param tlsConfig     TlsConfig object provided by the user.
+     */
+    public HttpConnectionPool(ConnectionPoolConfig poolConfig, String proxyHost, int proxyPort, TlsConfig tlsConfig) {
+        this(poolConfig, proxyHost, proxyPort, tlsConfig, new DnsConfig(0, 0, 0));
+    }
+
+    /**
+     * Constructs a new HttpConnectionPool object with the specified poolConfig, proxy, tlsConfig and dnsConfig.
+     * Hosts are resolved through a cache with the ttl of dnsConfig, and new connections are raced across
+     * the resolved addresses so that a slow or dead address does not stall the request.
+     *
+     * @param poolConfig    ConnectionPoolConfig object provided by the user.
+     * @param proxyHost     proxyHost provided by the user, null to send requests directly.
+     * @param proxyPort     proxyPort provided by the user.
+     * @param tlsConfig     TlsConfig object provided by the user.
+     * @param dnsConfig     DnsConfig object provided by the user.
+     */
+    public HttpConnectionPool(ConnectionPoolConfig poolConfig, String proxyHost, int proxyPort, TlsConfig tlsConfig,
+                              DnsConfig dnsConfig) {
+        SSLContext sslContext;
+        try {
+            sslContext = tlsConfig.createSSLContext();
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("Failed to initialize SSLContext: " + e.getMessage(), e);
+        }
+        Registry<ConnectionSocketFactory> socketFactoryRegistry = RegistryBuilder.<ConnectionSocketFactory>create()
+                .register("http", PlainConnectionSocketFactory.getSocketFactory())
+                .register("https", new ResumptionTrackingSocketFactory(sslContext,
+                        tlsConfig.getSupportedProtocols(sslContext),
+                        tlsConfig.getSupportedCipherSuites(sslContext), tlsStats))
+                .build();
+
+        // Connection attempts and background DNS refreshes run on a pool owned executor
+        connectExecutor = Executors.newCachedThreadPool(new DaemonThreadFactory("trustauthority-connect"));
+        CachingDnsResolver dnsResolver = new CachingDnsResolver(SystemDefaultDnsResolver.INSTANCE, dnsConfig, connectExecutor);
+        connectionManager = new PoolingHttpClientConnectionManager(
+                new RacingConnectionOperator(socketFactoryRegistry, dnsResolver, connectExecutor,
+                        dnsConfig.getConnectionAttemptDelay()),
+                null, -1, TimeUnit.MILLISECONDS);
+        connectionManager.setMaxTotal(poolConfig.getMaxTotal());
+        connectionManager.setDefaultMaxPerRoute(poolConfig.getMaxPerRoute());
+        // Re-check connections that sat idle for a while before handing them out
+        connectionManager.setValidateAfterInactivity(Constants.DEFAULT_POOL_VALIDATE_AFTER_INACTIVITY_MILLIS);
+
+        httpClient = HttpClients.custom()
+                .setConnectionManager(connectionManager)
+                // Retries are handled by TrustAuthorityConnector based on RetryConfig
+                .disableAutomaticRetries()
+                .disableCookieManagement()
+                // Content compression is left enabled: Accept-Encoding: gzip, deflate is sent and
+                // compressed responses are decompressed lazily as the entity stream is read
+                // Evict idle and expired connections in a background thread
+                .evictExpiredConnections()
+                .evictIdleConnections(poolConfig.getIdleTimeout(), TimeUnit.SECONDS)
+                .setProxy(proxyHost != null ? new HttpHost(proxyHost, proxyPort) : null)
+                .build();
+    }
+
+    /**
+     * getter function for the pooled httpClient
+     */
+    public CloseableHttpClient getHttpClient() {
+        return httpClient;
+    }
+
+    /**
+     * getter function for the TLS handshake counters of the pooled connections
+     */
+    public TlsStats getTlsStats() {
+        return tlsStats;
+    }
+
+    /**
+     * Returns a snapshot of the connection pool statistics
+     *
+     * @return  ConnectionPoolStats object
+     */
+    public ConnectionPoolStats getStats() {
+        PoolStats stats = connectionManager.getTotalStats();
+        return new ConnectionPoolStats(stats.getLeased(), stats.getAvailable(), stats.getPending(), stats.getMax());
+    }
+
+    /**
+     * Closes the pooled connections and stops the idle connection evictor
+     */
+    @Override
+    public void close() throws IOException {
+        httpClient.close();
+        connectExecutor.shutdownNow();
+    }
+}
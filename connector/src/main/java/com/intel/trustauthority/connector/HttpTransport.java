@@ -0,0 +1,52 @@
+/*
+ *   Copyright (c) 2023-2024 Intel Corporation
+ *   All rights reserved.
+ *   SPDX-License-Identifier: BSD-3-Clause
+ */
+package com.intel.trustauthority.connector;
+
+// Java Standard Library Imports
+import java.io.Closeable;
+import java.io.IOException;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * HttpTransport is an interface which exposes methods for sending HTTP requests to Trust Authority.
+ * TrustAuthorityConnector sends every request (nonce, attest, certs and CRL) through the configured transport,
+ * retries are handled by the connector and are not expected from the transport.
+ */
+public interface HttpTransport extends Closeable {
+    /**
+     * execute sends the request and blocks until the response headers are received
+     *
+     * @param request   TransportRequest object to be sent
+     * @return          TransportResponse object, to be closed by the caller once the body is read
+     */
+    TransportResponse execute(TransportRequest request) throws IOException;
+
+    /**
+     * executeAsync sends the request without blocking the caller
+     *
+     * @param request   TransportRequest object to be sent
+     * @return          CompletableFuture completed with the TransportResponse object once the body is received
+     */
+    CompletableFuture<TransportResponse> executeAsync(TransportRequest request);
+
+    /**
+     * getConnectionPoolStats returns a snapshot of the connections held by the transport
+     *
+     * @return  ConnectionPoolStats object, or null if the transport does not expose pool statistics
+     */
+    default ConnectionPoolStats getConnectionPoolStats() {
+        return null;
+    }
+
+    /**
+     * getTlsStats returns the TLS handshake counters of the transport
+     *
+     * @return  TlsStats object, or null if the transport does not expose handshake statistics
+     */
+    default TlsStats getTlsStats() {
+        return null;
+    }
+}
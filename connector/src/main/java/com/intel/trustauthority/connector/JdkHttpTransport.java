@@ -0,0 +1,250 @@
+/*
+ *   Copyright (c) 2023-2024 Intel Corporation
+ *   All rights reserved.
+ *   SPDX-License-Identifier: BSD-3-Clause
+ */
+package com.intel.trustauthority.connector;
+
+// Java Standard Library Imports
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.net.InetSocketAddress;
+import java.net.ProxySelector;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.ByteBuffer;
+import java.security.GeneralSecurityException;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.Flow;
+import javax.net.ssl.SSLContext;
+
+/**
+ * JdkHttpTransport sends requests with the JDK java.net.http.HttpClient.
+ * Asynchronous requests are fully non-blocking, and when HTTP/2 is enabled in Config
+ * concurrent requests to the same host are multiplexed as streams over a single connection.
+ */
+public class JdkHttpTransport implements HttpTransport {
+
+    private final HttpClient httpClient;
+    private final long maxResponseBodySize;
+    private final long readTimeout;
+
+    /**
+     * Constructs a new JdkHttpTransport object with the specified config.
+     *
+     * @param cfg   Config object provided by the user.
+     */
+    public JdkHttpTransport(Config cfg) {
+        // The client falls back to HTTP/1.1 when the server does not negotiate h2
+        HttpClient.Builder builder = HttpClient.newBuilder()
+                .version(cfg.isHttp2Enabled() ? HttpClient.Version.HTTP_2 : HttpClient.Version.HTTP_1_1)
+                .followRedirects(HttpClient.Redirect.NORMAL)
+                .connectTimeout(Duration.ofMillis(cfg.getConnectTimeout()));
+        // The client keeps the context for all its connections, so sessions are resumed from its cache.
+        // The JDK client exposes no handshake callback, so resumptions are not counted for this transport
+        try {
+            SSLContext sslContext = cfg.getTlsConfig().createSSLContext();
+            builder.sslContext(sslContext).sslParameters(cfg.getTlsConfig().createSSLParameters(sslContext));
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("Failed to initialize SSLContext: " + e.getMessage(), e);
+        }
+        if (cfg.getProxyHost() != null) {
+            // Tunnelled connections are pooled by the client like direct ones
+            builder.proxy(ProxySelector.of(new InetSocketAddress(cfg.getProxyHost(), cfg.getProxyPort())));
+        }
+        this.httpClient = builder.build();
+        this.maxResponseBodySize = cfg.getMaxResponseBodySize();
+        this.readTimeout = cfg.getReadTimeout();
+    }
+
+    @Override
+    public TransportResponse execute(TransportRequest request) throws IOException {
+        try {
+            HttpResponse<InputStream> response = httpClient.send(createRequest(request), HttpResponse.BodyHandlers.ofInputStream());
+            return createResponse(response.statusCode(), response.headers().map(), response.body());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Request interrupted: " + e.getMessage());
+        }
+    }
+
+    @Override
+    public CompletableFuture<TransportResponse> executeAsync(TransportRequest request) {
+        try {
+            CompletableFuture<HttpResponse<byte[]>> sent = httpClient.sendAsync(createRequest(request), this::limitedBodySubscriber);
+            CompletableFuture<TransportResponse> future = sent.thenApply(response -> {
+                try {
+                    // Only the compressed form is buffered, it is decompressed as it is read
+                    return createResponse(response.statusCode(), response.headers().map(),
+                                          new ByteArrayInputStream(response.body()));
+                } catch (IOException e) {
+                    throw new CompletionException(e);
+                }
+            });
+            // Cancelling the response, such as a losing hedge, aborts the exchange
+            future.whenComplete((response, error) -> {
+                if (error instanceof CancellationException) {
+                    sent.cancel(true);
+                }
+            });
+            return future;
+        } catch (Exception e) {
+            return CompletableFuture.failedFuture(e);
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        // The JDK client releases its connections once it is no longer referenced
+    }
+
+    /**
+     * Helper function to create the TransportResponse, decompressing the body as it is read
+     *
+     * @param statusCode    HTTP response status code.
+     * @param headers       response headers.
+     * @param body          response body stream as received.
+     * @return              TransportResponse object
+     */
+    private TransportResponse createResponse(int statusCode, Map<String, List<String>> headers, InputStream body) throws IOException {
+        // The JDK client does not decode responses, unlike Apache HttpClient
+        String encoding = ContentDecoder.getContentEncoding(headers);
+        if (encoding == null) {
+            return new TransportResponse(statusCode, headers, body);
+        }
+        try {
+            return new TransportResponse(statusCode, ContentDecoder.decodedHeaders(headers), ContentDecoder.decode(body, encoding));
+        } catch (IOException e) {
+            body.close();
+            throw e;
+        }
+    }
+
+    /**
+     * Helper function to create a body subscriber buffering at most maxResponseBodySize bytes
+     *
+     * @param responseInfo  status code and headers of the response
+     * @return              BodySubscriber completed with the response body
+     */
+    private HttpResponse.BodySubscriber<byte[]> limitedBodySubscriber(HttpResponse.ResponseInfo responseInfo) {
+        long contentLength = responseInfo.headers().firstValueAsLong("Content-Length").orElse(-1);
+        return new LimitedBodySubscriber(HttpResponse.BodySubscribers.ofByteArray(), maxResponseBodySize, contentLength);
+    }
+
+    /**
+     * Helper function to create a JDK request from the TransportRequest
+     *
+     * @param request   TransportRequest object to be sent
+     * @return          HttpRequest object
+     */
+    private HttpRequest createRequest(TransportRequest request) throws IOException {
+        HttpRequest.Builder builder = HttpRequest.newBuilder(URI.create(request.getUrl()));
+
+        // Bound the wait for the response headers
+        builder.timeout(Duration.ofMillis(request.getTimeout() > 0 ? request.getTimeout() : readTimeout));
+
+        // Ask for compressed responses, they are decompressed as they are read
+        builder.header(Constants.HEADER_ACCEPT_ENCODING, Constants.ACCEPT_ENCODING_GZIP_DEFLATE);
+
+        // Set request properties
+        if (request.getHeaders() != null) {
+            for (Map.Entry<String, String> entry : request.getHeaders().entrySet()) {
+                builder.setHeader(entry.getKey(), entry.getValue());
+            }
+        }
+
+        // Set the request body if provided. The JDK client pulls the body from a publisher rather than
+        // letting the caller write to the connection, so the body is serialized once into a buffer per attempt.
+        if (request.getBody() != null) {
+            if (request.getBody().getContentEncoding() != null) {
+                builder.header(Constants.HEADER_CONTENT_ENCODING, request.getBody().getContentEncoding());
+            }
+            long contentLength = request.getBody().getContentLength();
+            ByteArrayOutputStream out = new ByteArrayOutputStream(contentLength > 0 ? (int) contentLength : 8192);
+            request.getBody().writeTo(out);
+            builder.method(request.getMethod(), HttpRequest.BodyPublishers.ofByteArray(out.toByteArray()));
+        } else {
+            builder.method(request.getMethod(), HttpRequest.BodyPublishers.noBody());
+        }
+        return builder.build();
+    }
+
+    /**
+     * BodySubscriber cancelling the response once more than maxSize bytes have been received
+     */
+    private static class LimitedBodySubscriber implements HttpResponse.BodySubscriber<byte[]> {
+        private final HttpResponse.BodySubscriber<byte[]> downstream;
+        private final long maxSize;
+        private final long contentLength;
+        private Flow.Subscription subscription;
+        private long count;
+        private boolean failed;
+
+        LimitedBodySubscriber(HttpResponse.BodySubscriber<byte[]> downstream, long maxSize, long contentLength) {
+            this.downstream = downstream;
+            this.maxSize = maxSize;
+            this.contentLength = contentLength;
+        }
+
+        @Override
+        public CompletionStage<byte[]> getBody() {
+            return downstream.getBody();
+        }
+
+        @Override
+        public void onSubscribe(Flow.Subscription subscription) {
+            this.subscription = subscription;
+            downstream.onSubscribe(subscription);
+            // Reject the response up front when the advertised length is already too large
+            if (contentLength > maxSize) {
+                fail();
+            }
+        }
+
+        @Override
+        public void onNext(List<ByteBuffer> items) {
+            if (failed) {
+                return;
+            }
+            for (ByteBuffer item : items) {
+                count += item.remaining();
+            }
+            if (count > maxSize) {
+                fail();
+                return;
+            }
+            downstream.onNext(items);
+        }
+
+        @Override
+        public void onError(Throwable throwable) {
+            if (!failed) {
+                downstream.onError(throwable);
+            }
+        }
+
+        @Override
+        public void onComplete() {
+            if (!failed) {
+                downstream.onComplete();
+            }
+        }
+
+        private void fail() {
+            failed = true;
+            subscription.cancel();
+            downstream.onError(LimitedInputStream.sizeExceeded(maxSize));
+        }
+    }
+}
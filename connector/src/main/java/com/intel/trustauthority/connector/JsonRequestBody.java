@@ -0,0 +1,84 @@
+/*
+ *   Copyright (c) 2023-2024 Intel Corporation
+ *   All rights reserved.
+ *   SPDX-License-Identifier: BSD-3-Clause
+ */
+package com.intel.trustauthority.connector;
+
+// Java Standard Library Imports
+import java.io.IOException;
+import java.io.OutputStream;
+
+// Third-party Library Imports
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+
+/**
+ * JsonRequestBody serializes an object as JSON for a HttpTransport.
+ * Byte array fields (such as the quote and event log of a TokenRequest) are base64 encoded by the
+ * JSON generator as they are written, so the request is never built as a String in heap.
+ * A chunked body is serialized directly to the connection output stream for every attempt.
+ * A fixed length body must be sized before it is sent, so it is serialized once into a buffer
+ * that sizes the body and is written as is for every attempt.
+ */
+public class JsonRequestBody implements RequestBody {
+
+    private final ObjectWriter writer;
+    private final Object value;
+    private final boolean chunked;
+    private byte[] serialized;
+
+    /**
+     * Constructs a new JsonRequestBody object with the specified mapper, value and chunked.
+     *
+     * @param mapper    ObjectMapper used to serialize the value.
+     * @param value     object to be sent as the request body.
+     * @param chunked   true to send the body chunked, false to send it with a fixed Content-Length.
+     */
+    public JsonRequestBody(ObjectMapper mapper, Object value, boolean chunked) {
+        // Do not let the generator close the connection output stream
+        this.writer = mapper.writer().without(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+        this.value = value;
+        this.chunked = chunked;
+    }
+
+    @Override
+    public long getContentLength() {
+        if (chunked) {
+            return -1;
+        }
+        try {
+            return serialize().length;
+        } catch (IOException e) {
+            // Fall back to chunked encoding, the failure surfaces again when the body is written
+            return -1;
+        }
+    }
+
+    @Override
+    public void writeTo(OutputStream out) throws IOException {
+        if (chunked) {
+            writer.writeValue(out, value);
+        } else {
+            out.write(serialize());
+        }
+    }
+
+    /**
+     * getter function for value
+     */
+    public Object getValue() {
+        return value;
+    }
+
+    /**
+     * Helper function to serialize the value of a fixed length body, once for all attempts
+     */
+    private synchronized byte[] serialize() throws IOException {
+        if (serialized == null) {
+            serialized = writer.writeValueAsBytes(value);
+        }
+        return serialized;
+    }
+}
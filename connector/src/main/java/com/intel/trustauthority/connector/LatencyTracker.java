@@ -0,0 +1,58 @@
+/*
+ *   Copyright (c) 2023-2024 Intel Corporation
+ *   All rights reserved.
+ *   SPDX-License-Identifier: BSD-3-Clause
+ */
+package com.intel.trustauthority.connector;
+
+// Java Standard Library Imports
+import java.util.Arrays;
+
+/**
+ * LatencyTracker keeps a sliding window of the most recent request latencies in milliseconds
+ * and estimates their percentiles.
+ */
+class LatencyTracker {
+
+    private final long[] samples;
+    private int count;
+    private int next;
+
+    /**
+     * Constructs a new LatencyTracker object with the specified windowSize.
+     *
+     * @param windowSize    number of recent latencies kept.
+     */
+    LatencyTracker(int windowSize) {
+        this.samples = new long[windowSize];
+    }
+
+    /**
+     * Records the latency of a completed request
+     *
+     * @param latency   latency in milliseconds.
+     */
+    synchronized void record(long latency) {
+        samples[next] = latency;
+        next = (next + 1) % samples.length;
+        count = Math.min(count + 1, samples.length);
+    }
+
+    /**
+     * Returns the given percentile of the recorded latencies
+     *
+     * @param percentile    percentile between 0 and 100.
+     * @param defaultValue  value returned until minSamples latencies are recorded.
+     * @param minSamples    minimum number of latencies needed for an estimate.
+     * @return              latency in milliseconds
+     */
+    synchronized long percentile(double percentile, long defaultValue, int minSamples) {
+        if (count < minSamples || count == 0) {
+            return defaultValue;
+        }
+        long[] sorted = Arrays.copyOf(samples, count);
+        Arrays.sort(sorted);
+        int index = (int) Math.ceil(percentile / 100 * count) - 1;
+        return sorted[Math.max(0, Math.min(index, count - 1))];
+    }
+}
@@ -0,0 +1,115 @@
+/*
+ *   Copyright (c) 2023-2024 Intel Corporation
+ *   All rights reserved.
+ *   SPDX-License-Identifier: BSD-3-Clause
+ */
+package com.intel.trustauthority.connector;
+
+// Java Standard Library Imports
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * LimitedInputStream fails the read once more than maxSize bytes have been read from the wrapped stream,
+ * so that a misbehaving endpoint cannot force the connector to allocate an unbounded response body.
+ */
+class LimitedInputStream extends FilterInputStream {
+
+    private final long maxSize;
+    private long count;
+    private boolean exceeded;
+
+    /**
+     * Constructs a new LimitedInputStream object with the specified in and maxSize.
+     *
+     * @param in        stream to be read.
+     * @param maxSize   maximum number of bytes that may be read.
+     */
+    LimitedInputStream(InputStream in, long maxSize) {
+        super(in);
+        this.maxSize = maxSize;
+    }
+
+    /**
+     * Helper function to reject a response up front when its Content-Length exceeds maxSize
+     *
+     * @param headers   response headers, may be null.
+     * @param maxSize   maximum allowed body size.
+     */
+    static void checkContentLength(Map<String, List<String>> headers, long maxSize) throws IOException {
+        String value = ContentDecoder.getFirstHeader(headers, "Content-Length");
+        if (value == null) {
+            return;
+        }
+        try {
+            long contentLength = Long.parseLong(value.trim());
+            if (contentLength > maxSize) {
+                throw sizeExceeded(maxSize);
+            }
+        } catch (NumberFormatException e) {
+            // An invalid Content-Length is left to be caught while reading the body
+        }
+    }
+
+    /**
+     * Helper function to create the exception thrown when the body exceeds maxSize
+     */
+    static IOException sizeExceeded(long maxSize) {
+        return new ResponseTooLargeException(maxSize);
+    }
+
+    @Override
+    public int read() throws IOException {
+        int b = super.read();
+        if (b != -1) {
+            count(1);
+        }
+        return b;
+    }
+
+    @Override
+    public int read(byte[] b, int off, int len) throws IOException {
+        int n = super.read(b, off, len);
+        if (n > 0) {
+            count(n);
+        }
+        return n;
+    }
+
+    @Override
+    public long skip(long n) throws IOException {
+        long skipped = super.skip(n);
+        count(skipped);
+        return skipped;
+    }
+
+    /**
+     * Closes the wrapped stream, unless the limit was exceeded. Closing a pooled response stream
+     * reads it to the end, so an oversized body is left for the owner to discard with the connection.
+     */
+    @Override
+    public void close() throws IOException {
+        if (!exceeded) {
+            super.close();
+        }
+    }
+
+    @Override
+    public boolean markSupported() {
+        return false;
+    }
+
+    /**
+     * Helper function to account for the bytes read and fail once maxSize is exceeded
+     */
+    private void count(long n) throws IOException {
+        count += n;
+        if (count > maxSize) {
+            exceeded = true;
+            throw sizeExceeded(maxSize);
+        }
+    }
+}
@@ -0,0 +1,225 @@
+/*
+ *   Copyright (c) 2023-2024 Intel Corporation
+ *   All rights reserved.
+ *   SPDX-License-Identifier: BSD-3-Clause
+ */
+package com.intel.trustauthority.connector;
+
+// Java Standard Library Imports
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * LoadBalancer routes requests across the endpoints in Config with power-of-two-choices:
+ * two available endpoints are sampled and the one with the lower latency average, weighted by the
+ * requests in flight, is used. Endpoints failing repeatedly are ejected, and let back in after a
+ * single successful probe request once the ejection time has passed.
+ */
+class LoadBalancer {
+
+    private final List<EndpointState> endpoints = new ArrayList<>();
+    private final LoadBalancerConfig lbConfig;
+    private final String baseUrl;
+    private final String apiUrl;
+
+    /**
+     * Constructs a new LoadBalancer object with the endpoints of the specified config.
+     *
+     * @param cfg   Config object provided by the user.
+     */
+    LoadBalancer(Config cfg) {
+        this.baseUrl = cfg.getBaseUrl();
+        this.apiUrl = cfg.getApiUrl();
+        this.lbConfig = cfg.getLoadBalancerConfig() != null ? cfg.getLoadBalancerConfig() : new LoadBalancerConfig(0, 0);
+
+        // Fall back to the single baseUrl and apiUrl of the config
+        List<Endpoint> configured = cfg.getEndpoints();
+        if (configured == null || configured.isEmpty()) {
+            endpoints.add(new EndpointState(new Endpoint(baseUrl, apiUrl)));
+        } else {
+            for (Endpoint endpoint : configured) {
+                endpoints.add(new EndpointState(endpoint));
+            }
+        }
+    }
+
+    /**
+     * Selects the endpoint for the next request attempt and marks the attempt in flight
+     *
+     * @param pinned    endpoint the request must be sent to, may be null.
+     * @param exclude   endpoint that just failed the request, avoided if possible, may be null.
+     * @return          EndpointState object, released with the outcome of the attempt
+     * @throws Exception if the pinned endpoint is not one of the endpoints of the config
+     */
+    EndpointState select(Endpoint pinned, EndpointState exclude) throws Exception {
+        long now = System.nanoTime();
+        if (pinned != null) {
+            for (EndpointState state : endpoints) {
+                if (state.endpoint.equals(pinned)) {
+                    state.acquire(now);
+                    return state;
+                }
+            }
+            // The nonce of the request was issued by an endpoint that is no longer configured
+            throw new Exception("Endpoint " + pinned + " of the request is not configured. Request failed.");
+        }
+
+        List<EndpointState> candidates = new ArrayList<>();
+        for (EndpointState state : endpoints) {
+            if (state != exclude && state.isAvailable(now)) {
+                candidates.add(state);
+            }
+        }
+        if (candidates.isEmpty() && exclude != null && exclude.isAvailable(now)) {
+            candidates.add(exclude);
+        }
+
+        EndpointState chosen;
+        if (candidates.isEmpty()) {
+            // All endpoints are ejected, use the one that is due to be probed first rather than failing
+            chosen = endpoints.get(0);
+            for (EndpointState state : endpoints) {
+                if (state.ejectedUntil() < chosen.ejectedUntil()) {
+                    chosen = state;
+                }
+            }
+        } else if (candidates.size() == 1) {
+            chosen = candidates.get(0);
+        } else {
+            // Power of two choices
+            ThreadLocalRandom random = ThreadLocalRandom.current();
+            int first = random.nextInt(candidates.size());
+            int second = random.nextInt(candidates.size() - 1);
+            if (second >= first) {
+                second++;
+            }
+            EndpointState a = candidates.get(first);
+            EndpointState b = candidates.get(second);
+            chosen = a.score() <= b.score() ? a : b;
+        }
+        chosen.acquire(now);
+        return chosen;
+    }
+
+    /**
+     * Returns true if a failed attempt may be sent again to a different endpoint
+     */
+    boolean canFailOver(TransportRequest request) {
+        return request.getEndpoint() == null && endpoints.size() > 1;
+    }
+
+    /**
+     * Rewrites a URL from the config baseUrl or apiUrl to the URL of the selected endpoint.
+     * Other URLs, such as CRL distribution points, are sent as is.
+     *
+     * @param url       URL built with the config URLs.
+     * @param state     selected endpoint.
+     * @return          URL for the selected endpoint
+     */
+    String route(String url, EndpointState state) {
+        if (apiUrl != null && url.startsWith(apiUrl)) {
+            return state.endpoint.getApiUrl() + url.substring(apiUrl.length());
+        } else if (baseUrl != null && url.startsWith(baseUrl)) {
+            return state.endpoint.getBaseUrl() + url.substring(baseUrl.length());
+        }
+        return url;
+    }
+
+    /**
+     * Returns a snapshot of the health of each endpoint
+     */
+    List<EndpointStats> getStats() {
+        List<EndpointStats> stats = new ArrayList<>();
+        for (EndpointState state : endpoints) {
+            stats.add(state.getStats());
+        }
+        return stats;
+    }
+
+    /**
+     * EndpointState holds the latency average and health of an endpoint
+     */
+    class EndpointState {
+        private final Endpoint endpoint;
+        private double latency;
+        private int inflight;
+        private int failures;
+        private int ejections;
+        private boolean ejected;
+        private boolean probing;
+        private long ejectedUntil;
+
+        EndpointState(Endpoint endpoint) {
+            this.endpoint = endpoint;
+        }
+
+        /**
+         * getter function for endpoint
+         */
+        Endpoint getEndpoint() {
+            return endpoint;
+        }
+
+        synchronized boolean isAvailable(long now) {
+            // An ejected endpoint is available again for a single probe once its ejection time has passed
+            return !ejected || (now - ejectedUntil >= 0 && !probing);
+        }
+
+        synchronized long ejectedUntil() {
+            return ejected ? ejectedUntil : Long.MIN_VALUE;
+        }
+
+        synchronized double score() {
+            return latency * (inflight + 1);
+        }
+
+        synchronized void acquire(long now) {
+            inflight++;
+            if (ejected && now - ejectedUntil >= 0) {
+                probing = true;
+            }
+        }
+
+        /**
+         * Releases an attempt sent to the endpoint
+         *
+         * @param success   false if the endpoint failed the attempt.
+         * @param elapsed   latency of the attempt in milliseconds.
+         */
+        synchronized void release(boolean success, long elapsed) {
+            inflight--;
+            probing = false;
+            if (success) {
+                latency = latency == 0 ? elapsed :
+                          Constants.DEFAULT_LB_EWMA_WEIGHT * elapsed + (1 - Constants.DEFAULT_LB_EWMA_WEIGHT) * latency;
+                failures = 0;
+                ejections = 0;
+                ejected = false;
+                return;
+            }
+            failures++;
+            if (ejected || failures >= lbConfig.getFailureThreshold()) {
+                // Eject, or eject again after a failed probe with a doubled ejection time
+                long ejectionMillis = TimeUnit.SECONDS.toMillis(lbConfig.getEjectionTime()) << Math.min(ejections, 5);
+                ejections++;
+                ejected = true;
+                ejectedUntil = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(ejectionMillis);
+            }
+        }
+
+        /**
+         * Releases an attempt that completed without an outcome, such as a cancelled hedge,
+         * without counting it as a success or a failure of the endpoint
+         */
+        synchronized void abandon() {
+            inflight--;
+            probing = false;
+        }
+
+        synchronized EndpointStats getStats() {
+            return new EndpointStats(endpoint, latency, inflight, failures, ejected);
+        }
+    }
+}
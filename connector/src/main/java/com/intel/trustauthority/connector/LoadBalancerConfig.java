@@ -0,0 +1,79 @@
+/*
+ *   Copyright (c) 2023-2024 Intel Corporation
+ *   All rights reserved.
+ *   SPDX-License-Identifier: BSD-3-Clause
+ */
+package com.intel.trustauthority.connector;
+
+/**
+ * LoadBalancerConfig class for holding the endpoint health config provided by user for TrustAuthorityConnector
+ */
+public class LoadBalancerConfig {
+
+    private int failureThreshold;   // Consecutive failures after which an endpoint is ejected
+    private long ejectionTime;      // Time an endpoint stays ejected before it is probed, doubled on each failed probe
+    private boolean nonceAffinity;  // Whether GetToken is sent to the endpoint that issued the nonce
+
+    /**
+     * Constructs a new LoadBalancerConfig object with the specified failureThreshold and ejectionTime.
+     * Nonce affinity is enabled.
+     *
+     * @param failureThreshold  failureThreshold provided by the user.
+     * @param ejectionTime      ejectionTime in seconds provided by the user.
+     */
+    public LoadBalancerConfig(int failureThreshold, long ejectionTime) {
+        this.failureThreshold = Constants.DEFAULT_LB_FAILURE_THRESHOLD; // Default: 3 failures
+        this.ejectionTime = Constants.DEFAULT_LB_EJECTION_TIME; // Default: 30 seconds
+        this.nonceAffinity = true;
+
+        // Set custom values provided by user
+        if (failureThreshold != 0) {
+            this.failureThreshold = failureThreshold;
+        }
+        if (ejectionTime != 0) {
+            this.ejectionTime = ejectionTime;
+        }
+    }
+
+    /**
+     * getter function for failureThreshold
+     */
+    public int getFailureThreshold() {
+        return failureThreshold;
+    }
+
+    /**
+     * setter function for failureThreshold
+     */
+    public void setFailureThreshold(int failureThreshold) {
+        this.failureThreshold = failureThreshold;
+    }
+
+    /**
+     * getter function for ejectionTime
+     */
+    public long getEjectionTime() {
+        return ejectionTime;
+    }
+
+    /**
+     * setter function for ejectionTime
+     */
+    public void setEjectionTime(long ejectionTime) {
+        this.ejectionTime = ejectionTime;
+    }
+
+    /**
+     * getter function for nonceAffinity
+     */
+    public boolean isNonceAffinity() {
+        return nonceAffinity;
+    }
+
+    /**
+     * setter function for nonceAffinity, disable it only if all endpoints accept each other's nonces
+     */
+    public void setNonceAffinity(boolean nonceAffinity) {
+        this.nonceAffinity = nonceAffinity;
+    }
+}
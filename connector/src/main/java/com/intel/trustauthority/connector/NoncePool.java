@@ -0,0 +1,218 @@
+/*
+ *   Copyright (c) 2023-2024 Intel Corporation
+ *   All rights reserved.
+ *   SPDX-License-Identifier: BSD-3-Clause
+ */
+package com.intel.trustauthority.connector;
+
+// Java Standard Library Imports
+import java.nio.charset.StandardCharsets;
+import java.time.DateTimeException;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Supplier;
+
+// Third-party Library Imports
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+/**
+ * NoncePool keeps nonces fetched in the background so that attest() can skip the GetNonce() round trip.
+ * Each nonce is handed out at most once and only while younger than maxAge, measured from its iat.
+ *
+ * The pool refills to a target that follows the rate nonces are taken at: half the number of nonces
+ * consumed in maxAge, between 1 and maxSize. A nonce then waits about maxAge / 2 in the pool, so a busy
+ * caller is served from the pool. Once takes are further apart than maxAge the target drops to 0, since
+ * a pooled nonce would expire before the next take, so only the nonce fetched on the first take can expire.
+ * Refills are started when a nonce is taken, so the pool fetches nothing until first used.
+ */
+class NoncePool {
+
+    // Logger object
+    private static final Logger logger = LogManager.getLogger(NoncePool.class);
+
+    private final NoncePoolConfig config;
+    private final Supplier<CompletableFuture<VerifierNonce>> fetcher;
+    private final Deque<PooledNonce> nonces = new ArrayDeque<>();   // Oldest first
+    private int fetching;
+    private boolean closed;
+
+    // Moving average of the seconds between takes, 0 until the second take
+    private double interval;
+    private long lastTake;
+
+    private long hits;
+    private long misses;
+    private long expired;
+
+    /**
+     * Constructs a new NoncePool object.
+     *
+     * @param config    NoncePoolConfig object provided by the user.
+     * @param fetcher   Supplier fetching a nonce from Trust Authority.
+     */
+    NoncePool(NoncePoolConfig config, Supplier<CompletableFuture<VerifierNonce>> fetcher) {
+        this.config = config;
+        this.fetcher = fetcher;
+    }
+
+    /**
+     * Takes the oldest fresh nonce from the pool and starts refilling it
+     *
+     * @return  VerifierNonce object, or null if the pool holds no fresh nonce
+     */
+    VerifierNonce poll() {
+        PooledNonce pooled;
+        int refills;
+        synchronized (this) {
+            long now = System.nanoTime();
+            if (lastTake != 0) {
+                double elapsed = (now - lastTake) / 1e9;
+                interval = interval == 0 ? elapsed :
+                        interval + Constants.NONCE_POOL_INTERVAL_WEIGHT * (elapsed - interval);
+            }
+            lastTake = now;
+
+            evictStale();
+            pooled = nonces.pollFirst();
+            if (pooled != null) {
+                hits++;
+            } else {
+                misses++;
+            }
+            refills = reserveRefills();
+        }
+        for (int i = 0; i < refills; i++) {
+            fetch();
+        }
+        return pooled != null ? pooled.nonce : null;
+    }
+
+    /**
+     * Returns a snapshot of the pool
+     *
+     * @return  NoncePoolStats object
+     */
+    synchronized NoncePoolStats getStats() {
+        evictStale();
+        return new NoncePoolStats(nonces.size(), target(), hits, misses, expired);
+    }
+
+    /**
+     * Discards the pooled nonces and stops refilling
+     */
+    synchronized void close() {
+        closed = true;
+        nonces.clear();
+    }
+
+    /**
+     * Helper function to fetch a nonce and add it to the pool
+     */
+    private void fetch() {
+        CompletableFuture<VerifierNonce> future;
+        try {
+            future = fetcher.get();
+        } catch (RuntimeException e) {
+            future = CompletableFuture.failedFuture(e);
+        }
+        future.whenComplete((nonce, error) -> {
+            synchronized (this) {
+                fetching--;
+                if (nonce != null && !closed && nonces.size() < config.getMaxSize()) {
+                    nonces.addLast(new PooledNonce(nonce, issuedAt(nonce)));
+                }
+            }
+            if (error != null) {
+                // The next take starts a new refill
+                logger.debug("Failed to prefetch nonce: " + error.getMessage());
+            }
+        });
+    }
+
+    /**
+     * Helper function to reserve the fetches needed to bring the pool to its target
+     */
+    private int reserveRefills() {
+        if (closed) {
+            return 0;
+        }
+        int refills = Math.max(0, target() - nonces.size() - fetching);
+        fetching += refills;
+        return refills;
+    }
+
+    /**
+     * Helper function to calculate the number of nonces the pool refills to
+     */
+    private int target() {
+        if (interval == 0) {
+            return 1;
+        }
+        // A pause longer than the average interval lowers the rate right away
+        double seconds = Math.max(interval, (System.nanoTime() - lastTake) / 1e9);
+        if (seconds > config.getMaxAge()) {
+            // A nonce fetched now would expire before the next take
+            return 0;
+        }
+        double consumedPerMaxAge = config.getMaxAge() / Math.max(seconds, 1e-3);
+        return (int) Math.max(1, Math.min(config.getMaxSize(), Math.ceil(consumedPerMaxAge / 2)));
+    }
+
+    /**
+     * Helper function to evict the nonces older than maxAge
+     */
+    private void evictStale() {
+        long oldest = System.currentTimeMillis() - config.getMaxAge() * 1000;
+        while (!nonces.isEmpty() && nonces.peekFirst().issuedAt <= oldest) {
+            nonces.pollFirst();
+            expired++;
+        }
+    }
+
+    /**
+     * Helper function to get the time a nonce was issued at from its iat. The local time is used if it is
+     * earlier or the iat cannot be parsed, so a clock ahead of the server never extends the life of a nonce.
+     */
+    static long issuedAt(VerifierNonce nonce) {
+        long now = System.currentTimeMillis();
+        if (nonce.getIat() == null) {
+            return now;
+        }
+        try {
+            return Math.min(now, parseIat(new String(nonce.getIat(), StandardCharsets.UTF_8).trim()).toEpochMilli());
+        } catch (DateTimeException e) {
+            return now;
+        }
+    }
+
+    /**
+     * Helper function to parse an iat, either ISO-8601 or as issued by Trust Authority,
+     * for example "2022-08-24 12:36:32.929722075 +0000 UTC"
+     */
+    private static Instant parseIat(String iat) {
+        String[] parts = iat.split(" ");
+        if (parts.length < 3) {
+            return Instant.parse(iat);
+        }
+        return LocalDateTime.parse(parts[0] + "T" + parts[1]).toInstant(ZoneOffset.of(parts[2]));
+    }
+
+    /**
+     * PooledNonce holds a nonce with the time it was issued at
+     */
+    private static class PooledNonce {
+
+        final VerifierNonce nonce;
+        final long issuedAt;
+
+        PooledNonce(VerifierNonce nonce, long issuedAt) {
+            this.nonce = nonce;
+            this.issuedAt = issuedAt;
+        }
+    }
+}
@@ -0,0 +1,64 @@
+/*
+ *   Copyright (c) 2023-2024 Intel Corporation
+ *   All rights reserved.
+ *   SPDX-License-Identifier: BSD-3-Clause
+ */
+package com.intel.trustauthority.connector;
+
+/**
+ * NoncePoolConfig class for holding the nonce prefetch config provided by user for TrustAuthorityConnector.
+ * When set in Config, attest() takes a nonce fetched ahead of time from the pool instead of calling
+ * GetNonce() first, saving a round trip on a pool hit.
+ */
+public class NoncePoolConfig {
+
+    private int maxSize;        // Maximum number of nonces kept in the pool
+    private long maxAge;        // Age, from the iat of a nonce, after which it is no longer handed out
+
+    /**
+     * Constructs a new NoncePoolConfig object with the specified maxSize and maxAge.
+     *
+     * @param maxSize   maxSize provided by the user.
+     * @param maxAge    maxAge in seconds provided by the user.
+     */
+    public NoncePoolConfig(int maxSize, long maxAge) {
+        this.maxSize = Constants.DEFAULT_NONCE_POOL_MAX_SIZE; // Default: 8 nonces
+        this.maxAge = Constants.DEFAULT_NONCE_POOL_MAX_AGE; // Default: 60 seconds
+
+        // Set custom values provided by user
+        if (maxSize != 0) {
+            this.maxSize = maxSize;
+        }
+        if (maxAge != 0) {
+            this.maxAge = maxAge;
+        }
+    }
+
+    /**
+     * getter function for maxSize
+     */
+    public int getMaxSize() {
+        return maxSize;
+    }
+
+    /**
+     * setter function for maxSize
+     */
+    public void setMaxSize(int maxSize) {
+        this.maxSize = maxSize;
+    }
+
+    /**
+     * getter function for maxAge
+     */
+    public long getMaxAge() {
+        return maxAge;
+    }
+
+    /**
+     * setter function for maxAge
+     */
+    public void setMaxAge(long maxAge) {
+        this.maxAge = maxAge;
+    }
+}
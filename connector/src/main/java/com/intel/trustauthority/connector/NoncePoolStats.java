@@ -0,0 +1,75 @@
+/*
+ *   Copyright (c) 2023-2024 Intel Corporation
+ *   All rights reserved.
+ *   SPDX-License-Identifier: BSD-3-Clause
+ */
+package com.intel.trustauthority.connector;
+
+/**
+ * NoncePoolStats class for holding a snapshot of the nonce prefetch pool of TrustAuthorityConnector
+ */
+public class NoncePoolStats {
+
+    private int size;           // Fresh nonces currently in the pool
+    private int target;         // Nonces the pool currently refills to
+    private long hits;          // Nonces handed out from the pool
+    private long misses;        // Requests for a nonce that found the pool empty
+    private long expired;       // Nonces evicted before being handed out
+
+    /**
+     * Constructs a new NoncePoolStats object with the specified size, target, hits, misses and expired.
+     *
+     * @param size      number of nonces in the pool.
+     * @param target    number of nonces the pool refills to.
+     * @param hits      number of nonces handed out.
+     * @param misses    number of requests that found the pool empty.
+     * @param expired   number of nonces evicted.
+     */
+    public NoncePoolStats(int size, int target, long hits, long misses, long expired) {
+        this.size = size;
+        this.target = target;
+        this.hits = hits;
+        this.misses = misses;
+        this.expired = expired;
+    }
+
+    /**
+     * getter function for size
+     */
+    public int getSize() {
+        return size;
+    }
+
+    /**
+     * getter function for target
+     */
+    public int getTarget() {
+        return target;
+    }
+
+    /**
+     * getter function for hits
+     */
+    public long getHits() {
+        return hits;
+    }
+
+    /**
+     * getter function for misses
+     */
+    public long getMisses() {
+        return misses;
+    }
+
+    /**
+     * getter function for expired
+     */
+    public long getExpired() {
+        return expired;
+    }
+
+    @Override
+    public String toString() {
+        return "size=" + size + ", target=" + target + ", hits=" + hits + ", misses=" + misses + ", expired=" + expired;
+    }
+}
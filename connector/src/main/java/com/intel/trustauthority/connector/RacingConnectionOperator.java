@@ -0,0 +1,243 @@
+/*
+ *   Copyright (c) 2023-2024 Intel Corporation
+ *   All rights reserved.
+ *   SPDX-License-Identifier: BSD-3-Clause
+ */
+package com.intel.trustauthority.connector;
+
+// Java Standard Library Imports
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.net.ConnectException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.Socket;
+import java.net.SocketTimeoutException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+// Third-party Library Imports
+import org.apache.http.HttpHost;
+import org.apache.http.config.Lookup;
+import org.apache.http.config.SocketConfig;
+import org.apache.http.conn.ConnectTimeoutException;
+import org.apache.http.conn.DnsResolver;
+import org.apache.http.conn.HttpClientConnectionOperator;
+import org.apache.http.conn.HttpHostConnectException;
+import org.apache.http.conn.ManagedHttpClientConnection;
+import org.apache.http.conn.UnsupportedSchemeException;
+import org.apache.http.conn.socket.ConnectionSocketFactory;
+import org.apache.http.conn.socket.LayeredConnectionSocketFactory;
+import org.apache.http.impl.conn.DefaultSchemePortResolver;
+import org.apache.http.protocol.HttpContext;
+
+/**
+ * RacingConnectionOperator opens the connections of the connection pool. When the host resolves to
+ * several addresses, a connection attempt is started on the next address whenever the pending attempts
+ * have not connected within connectionAttemptDelay or have failed, and the first socket to connect is
+ * used (Happy Eyeballs, RFC 8305). A slow or dead address therefore costs connectionAttemptDelay instead
+ * of the full connect timeout. TLS is layered on the winning socket only.
+ */
+class RacingConnectionOperator implements HttpClientConnectionOperator {
+
+    private final Lookup<ConnectionSocketFactory> socketFactoryRegistry;
+    private final DnsResolver dnsResolver;
+    private final ExecutorService executor;
+    private final long connectionAttemptDelay;
+
+    /**
+     * Constructs a new RacingConnectionOperator object.
+     *
+     * @param socketFactoryRegistry     socket factories by scheme name.
+     * @param dnsResolver               DnsResolver resolving the hosts.
+     * @param executor                  ExecutorService running the connection attempts.
+     * @param connectionAttemptDelay    delay in milliseconds before the next address is attempted.
+     */
+    RacingConnectionOperator(Lookup<ConnectionSocketFactory> socketFactoryRegistry, DnsResolver dnsResolver,
+                             ExecutorService executor, long connectionAttemptDelay) {
+        this.socketFactoryRegistry = socketFactoryRegistry;
+        this.dnsResolver = dnsResolver;
+        this.executor = executor;
+        this.connectionAttemptDelay = connectionAttemptDelay;
+    }
+
+    @Override
+    public void connect(ManagedHttpClientConnection conn, HttpHost host, InetSocketAddress localAddress,
+                        int connectTimeout, SocketConfig socketConfig, HttpContext context) throws IOException {
+        ConnectionSocketFactory socketFactory = getSocketFactory(host);
+        InetAddress[] addresses = host.getAddress() != null ?
+                new InetAddress[] { host.getAddress() } : dnsResolver.resolve(host.getHostName());
+        int port = DefaultSchemePortResolver.INSTANCE.resolve(host);
+
+        Socket socket;
+        try {
+            if (addresses.length == 1) {
+                socket = createSocket(socketFactory, socketConfig, context);
+                conn.bind(socket);
+                connectSocket(socket, new InetSocketAddress(addresses[0], port), localAddress, connectTimeout);
+            } else {
+                socket = race(socketFactory, addresses, port, localAddress, connectTimeout, socketConfig, context);
+                conn.bind(socket);
+            }
+        } catch (SocketTimeoutException e) {
+            throw new ConnectTimeoutException(e, host, addresses);
+        } catch (ConnectException e) {
+            throw new HttpHostConnectException(e, host, addresses);
+        }
+
+        // Layer TLS on the connected socket
+        if (socketFactory instanceof LayeredConnectionSocketFactory) {
+            if (connectTimeout > 0 && socket.getSoTimeout() == 0) {
+                socket.setSoTimeout(connectTimeout);
+            }
+            conn.bind(((LayeredConnectionSocketFactory) socketFactory).createLayeredSocket(socket, host.getHostName(), port, context));
+        }
+    }
+
+    @Override
+    public void upgrade(ManagedHttpClientConnection conn, HttpHost host, HttpContext context) throws IOException {
+        ConnectionSocketFactory socketFactory = getSocketFactory(host);
+        if (!(socketFactory instanceof LayeredConnectionSocketFactory)) {
+            throw new UnsupportedSchemeException(host.getSchemeName() + " protocol does not support connection upgrade");
+        }
+        int port = DefaultSchemePortResolver.INSTANCE.resolve(host);
+        conn.bind(((LayeredConnectionSocketFactory) socketFactory).createLayeredSocket(conn.getSocket(), host.getHostName(), port, context));
+    }
+
+    /**
+     * Helper function to race connection attempts across addresses and return the first connected socket
+     */
+    private Socket race(ConnectionSocketFactory socketFactory, InetAddress[] addresses, int port,
+                        InetSocketAddress localAddress, int connectTimeout, SocketConfig socketConfig,
+                        HttpContext context) throws IOException {
+        BlockingQueue<Attempt> completed = new LinkedBlockingQueue<>();
+        List<Attempt> attempts = new ArrayList<>();
+        Attempt winner = null;
+        IOException lastError = null;
+        int next = 0;
+        int running = 0;
+        try {
+            while (winner == null && (next < addresses.length || running > 0)) {
+                // Start the next attempt, after a failure or once the pending ones took connectionAttemptDelay
+                if (next < addresses.length) {
+                    Attempt attempt = new Attempt(createSocket(socketFactory, socketConfig, context),
+                            new InetSocketAddress(addresses[next++], port));
+                    attempts.add(attempt);
+                    running++;
+                    executor.execute(() -> {
+                        try {
+                            connectSocket(attempt.socket, attempt.address, localAddress, connectTimeout);
+                        } catch (IOException e) {
+                            attempt.error = e;
+                        }
+                        completed.add(attempt);
+                    });
+                }
+                Attempt done = next < addresses.length ?
+                        completed.poll(connectionAttemptDelay, TimeUnit.MILLISECONDS) : completed.take();
+                while (done != null && winner == null) {
+                    running--;
+                    if (done.error == null) {
+                        winner = done;
+                    } else {
+                        lastError = done.error;
+                        done = completed.poll();
+                    }
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            lastError = new InterruptedIOException("Connection attempt interrupted");
+        } finally {
+            // Abort the attempts still pending and close the sockets that lost the race
+            for (Attempt attempt : attempts) {
+                if (attempt != winner) {
+                    closeQuietly(attempt.socket);
+                }
+            }
+        }
+        if (winner == null) {
+            throw lastError;
+        }
+        return winner.socket;
+    }
+
+    /**
+     * Helper function to look up the socket factory of the scheme of host
+     */
+    private ConnectionSocketFactory getSocketFactory(HttpHost host) throws UnsupportedSchemeException {
+        ConnectionSocketFactory socketFactory = socketFactoryRegistry.lookup(host.getSchemeName());
+        if (socketFactory == null) {
+            throw new UnsupportedSchemeException(host.getSchemeName() + " protocol is not supported");
+        }
+        return socketFactory;
+    }
+
+    /**
+     * Helper function to create an unconnected socket with the options of socketConfig applied
+     */
+    private static Socket createSocket(ConnectionSocketFactory socketFactory, SocketConfig socketConfig,
+                                       HttpContext context) throws IOException {
+        Socket socket = socketFactory.createSocket(context);
+        socket.setSoTimeout(socketConfig.getSoTimeout());
+        socket.setReuseAddress(socketConfig.isSoReuseAddress());
+        socket.setTcpNoDelay(socketConfig.isTcpNoDelay());
+        socket.setKeepAlive(socketConfig.isSoKeepAlive());
+        if (socketConfig.getRcvBufSize() > 0) {
+            socket.setReceiveBufferSize(socketConfig.getRcvBufSize());
+        }
+        if (socketConfig.getSndBufSize() > 0) {
+            socket.setSendBufferSize(socketConfig.getSndBufSize());
+        }
+        if (socketConfig.getSoLinger() >= 0) {
+            socket.setSoLinger(true, socketConfig.getSoLinger());
+        }
+        return socket;
+    }
+
+    /**
+     * Helper function to connect socket to address, the socket is closed if the connect fails
+     */
+    private static void connectSocket(Socket socket, InetSocketAddress address, InetSocketAddress localAddress,
+                                      int connectTimeout) throws IOException {
+        try {
+            if (localAddress != null) {
+                socket.bind(localAddress);
+            }
+            socket.connect(address, connectTimeout);
+        } catch (IOException e) {
+            closeQuietly(socket);
+            throw e;
+        }
+    }
+
+    /**
+     * Helper function to close a socket, ignoring errors
+     */
+    private static void closeQuietly(Socket socket) {
+        try {
+            socket.close();
+        } catch (IOException e) {
+            // Ignore, the socket is discarded
+        }
+    }
+
+    /**
+     * Attempt holds a connection attempt to one address
+     */
+    private static class Attempt {
+
+        final Socket socket;
+        final InetSocketAddress address;
+        volatile IOException error;
+
+        Attempt(Socket socket, InetSocketAddress address) {
+            this.socket = socket;
+            this.address = address;
+        }
+    }
+}
@@ -0,0 +1,171 @@
+/*
+ *   Copyright (c) 2023-2024 Intel Corporation
+ *   All rights reserved.
+ *   SPDX-License-Identifier: BSD-3-Clause
+ */
+package com.intel.trustauthority.connector;
+
+// Java Standard Library Imports
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * RateLimiter keeps the requests sent to Intel Trust Authority within the quota of the API key,
+ * with a token bucket for each API key and operation (nonce, attest, certs). A request over the
+ * limit either waits for a permit or fails right away, depending on the mode.
+ * The same RateLimiter may be set in the Config of several connectors to share the quota.
+ */
+public class RateLimiter {
+
+    /**
+     * Behaviour of a request over the limit
+     */
+    public enum Mode {
+        WAIT,       // Wait for a permit, up to maxWait and the deadline of the request
+        FAIL_FAST   // Fail the request right away
+    }
+
+    private final Map<String, Limit> operationLimits = new ConcurrentHashMap<>();
+    private final Map<String, Bucket> buckets = new ConcurrentHashMap<>();
+    private final Limit defaultLimit;
+    private Mode mode;
+    private long maxWait;               // Longest time in milliseconds a request waits for a permit
+    private long throttledRequests;     // Requests that waited for a permit
+    private long rejectedRequests;      // Requests failed for being over the limit
+
+    /**
+     * Constructs a new RateLimiter object with the specified requestsPerSecond, burst and mode.
+     *
+     * @param requestsPerSecond     requestsPerSecond for each API key and operation provided by the user.
+     * @param burst                 burst of requests sent without waiting provided by the user.
+     * @param mode                  mode provided by the user, null for WAIT.
+     */
+    public RateLimiter(double requestsPerSecond, int burst, Mode mode) {
+        this.defaultLimit = new Limit(requestsPerSecond, burst);
+        this.mode = mode != null ? mode : Mode.WAIT;
+        this.maxWait = Constants.DEFAULT_RATE_LIMIT_MAX_WAIT; // Default: 30000 milliseconds
+    }
+
+    /**
+     * Sets the limit of an operation, overriding the requestsPerSecond and burst of the limiter
+     *
+     * @param operation             Constants.OPERATION_NONCE, OPERATION_ATTEST or OPERATION_CERTS.
+     * @param requestsPerSecond     requestsPerSecond for each API key provided by the user.
+     * @param burst                 burst of requests sent without waiting provided by the user.
+     */
+    public void setOperationLimit(String operation, double requestsPerSecond, int burst) {
+        operationLimits.put(operation, new Limit(requestsPerSecond, burst));
+        // Buckets pick up the new limit when they are next created
+        buckets.keySet().removeIf(key -> key.endsWith("|" + operation));
+    }
+
+    /**
+     * getter function for mode
+     */
+    public Mode getMode() {
+        return mode;
+    }
+
+    /**
+     * setter function for mode
+     */
+    public void setMode(Mode mode) {
+        this.mode = mode;
+    }
+
+    /**
+     * getter function for maxWait
+     */
+    public long getMaxWait() {
+        return maxWait;
+    }
+
+    /**
+     * setter function for maxWait in milliseconds. A value of 0 resets it to the default.
+     */
+    public void setMaxWait(long maxWait) {
+        this.maxWait = maxWait != 0 ? maxWait : Constants.DEFAULT_RATE_LIMIT_MAX_WAIT;
+    }
+
+    /**
+     * getter function for throttledRequests
+     */
+    public synchronized long getThrottledRequests() {
+        return throttledRequests;
+    }
+
+    /**
+     * getter function for rejectedRequests
+     */
+    public synchronized long getRejectedRequests() {
+        return rejectedRequests;
+    }
+
+    /**
+     * Reserves a permit for a request
+     *
+     * @param apiKey        API key the request is sent with.
+     * @param operation     operation of the request.
+     * @param maxWait       longest time in milliseconds the caller can wait, capping the maxWait of the limiter.
+     * @return              time in milliseconds to wait before sending the request, or -1 if it must fail
+     */
+    long reserve(String apiKey, String operation, long maxWait) {
+        Bucket bucket = buckets.computeIfAbsent(apiKey + "|" + operation,
+                key -> new Bucket(operationLimits.getOrDefault(operation, defaultLimit)));
+        long wait = bucket.reserve(mode == Mode.WAIT ? Math.min(maxWait, this.maxWait) : 0);
+        synchronized (this) {
+            if (wait < 0) {
+                rejectedRequests++;
+            } else if (wait > 0) {
+                throttledRequests++;
+            }
+        }
+        return wait;
+    }
+
+    /**
+     * Limit holds the rate and burst of a bucket
+     */
+    private static class Limit {
+        private final double requestsPerSecond;
+        private final int burst;
+
+        Limit(double requestsPerSecond, int burst) {
+            this.requestsPerSecond = requestsPerSecond > 0 ? requestsPerSecond : Constants.DEFAULT_RATE_LIMIT_REQUESTS_PER_SECOND;
+            this.burst = burst > 0 ? burst : Math.max(1, (int) this.requestsPerSecond);
+        }
+    }
+
+    /**
+     * Bucket holds the tokens of a single API key and operation. A waiting request takes its token
+     * up front, leaving the bucket in debt, so that waiters are served in order.
+     */
+    private static class Bucket {
+        private final Limit limit;
+        private double tokens;
+        private long lastRefill;
+
+        Bucket(Limit limit) {
+            this.limit = limit;
+            this.tokens = limit.burst;
+            this.lastRefill = System.nanoTime();
+        }
+
+        synchronized long reserve(long maxWait) {
+            long now = System.nanoTime();
+            tokens = Math.min(limit.burst, tokens + (now - lastRefill) / 1e9 * limit.requestsPerSecond);
+            lastRefill = now;
+            if (tokens >= 1) {
+                tokens--;
+                return 0;
+            }
+            long wait = (long) Math.ceil((1 - tokens) / limit.requestsPerSecond * TimeUnit.SECONDS.toMillis(1));
+            if (wait > maxWait) {
+                return -1;
+            }
+            tokens--;
+            return wait;
+        }
+    }
+}
@@ -0,0 +1,39 @@
+/*
+ *   Copyright (c) 2023-2024 Intel Corporation
+ *   All rights reserved.
+ *   SPDX-License-Identifier: BSD-3-Clause
+ */
+package com.intel.trustauthority.connector;
+
+// Java Standard Library Imports
+import java.io.IOException;
+import java.io.OutputStream;
+
+/**
+ * RequestBody is an interface for request bodies written by a HttpTransport straight to the connection.
+ * A body must be replayable, writeTo is called again when the connector retries the request.
+ */
+public interface RequestBody {
+    /**
+     * getContentLength returns the size of the body in bytes
+     *
+     * @return  size of the body in bytes, or -1 if unknown and the body is to be sent chunked
+     */
+    long getContentLength();
+
+    /**
+     * getContentEncoding returns the Content-Encoding the body is written with
+     *
+     * @return  content coding such as gzip, or null if the body is not encoded
+     */
+    default String getContentEncoding() {
+        return null;
+    }
+
+    /**
+     * writeTo writes the body to the output stream, may be called once per request attempt
+     *
+     * @param out   OutputStream of the connection
+     */
+    void writeTo(OutputStream out) throws IOException;
+}
@@ -0,0 +1,64 @@
+/*
+ *   Copyright (c) 2023-2024 Intel Corporation
+ *   All rights reserved.
+ *   SPDX-License-Identifier: BSD-3-Clause
+ */
+package com.intel.trustauthority.connector;
+
+// Java Standard Library Imports
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+
+// Third-party Library Imports
+import org.apache.http.entity.AbstractHttpEntity;
+
+/**
+ * RequestBodyEntity adapts a RequestBody to an Apache HttpClient entity, so that the body is
+ * written straight to the connection with either a fixed Content-Length or chunked encoding.
+ */
+class RequestBodyEntity extends AbstractHttpEntity {
+
+    private final RequestBody body;
+
+    /**
+     * Constructs a new RequestBodyEntity object with the specified body.
+     *
+     * @param body  RequestBody to be sent.
+     */
+    RequestBodyEntity(RequestBody body) {
+        this.body = body;
+        setChunked(body.getContentLength() < 0);
+        setContentEncoding(body.getContentEncoding());
+    }
+
+    @Override
+    public boolean isRepeatable() {
+        return true;
+    }
+
+    @Override
+    public long getContentLength() {
+        return body.getContentLength();
+    }
+
+    @Override
+    public InputStream getContent() throws IOException {
+        // Only used by consumers that need the body as a stream, the transport itself calls writeTo
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        body.writeTo(out);
+        return new ByteArrayInputStream(out.toByteArray());
+    }
+
+    @Override
+    public void writeTo(OutputStream out) throws IOException {
+        body.writeTo(out);
+    }
+
+    @Override
+    public boolean isStreaming() {
+        return false;
+    }
+}
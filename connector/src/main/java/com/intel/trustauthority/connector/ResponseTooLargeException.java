@@ -0,0 +1,27 @@
+/*
+ *   Copyright (c) 2023-2024 Intel Corporation
+ *   All rights reserved.
+ *   SPDX-License-Identifier: BSD-3-Clause
+ */
+package com.intel.trustauthority.connector;
+
+// Java Standard Library Imports
+import java.io.IOException;
+
+/**
+ * ResponseTooLargeException is thrown when a response body exceeds the maxResponseBodySize in Config.
+ * The target did respond, so the request is neither retried nor counted as a failure of the target.
+ */
+public class ResponseTooLargeException extends IOException {
+
+    private static final long serialVersionUID = 1L;
+
+    /**
+     * Constructs a new ResponseTooLargeException object with the specified maxSize.
+     *
+     * @param maxSize   maximum allowed body size in bytes.
+     */
+    public ResponseTooLargeException(long maxSize) {
+        super("Response body exceeds the maximum size of " + maxSize + " bytes");
+    }
+}
@@ -0,0 +1,49 @@
+/*
+ *   Copyright (c) 2023-2024 Intel Corporation
+ *   All rights reserved.
+ *   SPDX-License-Identifier: BSD-3-Clause
+ */
+package com.intel.trustauthority.connector;
+
+// Java Standard Library Imports
+import java.io.IOException;
+import java.net.Socket;
+import javax.net.ssl.SSLContext;
+import javax.net.ssl.SSLSocket;
+
+// Third-party Library Imports
+import org.apache.http.conn.ssl.SSLConnectionSocketFactory;
+import org.apache.http.protocol.HttpContext;
+
+/**
+ * ResumptionTrackingSocketFactory creates the TLS connections of the connection pool and records
+ * whether each handshake resumed a cached session. A resumed session keeps the creation time of the
+ * session it resumes, so it was created before the handshake started.
+ */
+class ResumptionTrackingSocketFactory extends SSLConnectionSocketFactory {
+
+    private final TlsStats tlsStats;
+
+    /**
+     * Constructs a new ResumptionTrackingSocketFactory object.
+     *
+     * @param sslContext    SSLContext holding the session cache.
+     * @param protocols     enabled protocols, null for the provider defaults.
+     * @param cipherSuites  enabled cipher suites, null for the provider defaults.
+     * @param tlsStats      TlsStats object handshakes are recorded in.
+     */
+    ResumptionTrackingSocketFactory(SSLContext sslContext, String[] protocols, String[] cipherSuites, TlsStats tlsStats) {
+        super(sslContext, protocols, cipherSuites, getDefaultHostnameVerifier());
+        this.tlsStats = tlsStats;
+    }
+
+    @Override
+    public Socket createLayeredSocket(Socket socket, String target, int port, HttpContext context) throws IOException {
+        long start = System.currentTimeMillis();
+        Socket layered = super.createLayeredSocket(socket, target, port, context);
+        if (layered instanceof SSLSocket) {
+            tlsStats.recordHandshake(((SSLSocket) layered).getSession().getCreationTime() < start);
+        }
+        return layered;
+    }
+}
@@ -0,0 +1,122 @@
+/*
+ *   Copyright (c) 2023-2024 Intel Corporation
+ *   All rights reserved.
+ *   SPDX-License-Identifier: BSD-3-Clause
+ */
+package com.intel.trustauthority.connector;
+
+/**
+ * RetryBudget limits the retries sent by TrustAuthorityConnector instances to a ratio of their
+ * successful requests, so that retries cannot multiply the load on a service that is already failing.
+ * Each successful request deposits retryRatio into the budget and each retry withdraws one.
+ * A reserve of minRetriesPerSecond keeps retries possible while there is little traffic.
+ */
+public class RetryBudget {
+
+    // Budget shared by all connectors that do not configure their own
+    private static final RetryBudget DEFAULT = new RetryBudget(0, 0);
+
+    private final double retryRatio;            // Retries allowed per successful request
+    private final int minRetriesPerSecond;      // Retries allowed per second regardless of the successful requests
+    private final double maxBalance;            // Maximum number of retries that can be saved up
+    private double balance;
+    private long lastRefill;
+    private long retries;
+    private long rejectedRetries;
+
+    /**
+     * Constructs a new RetryBudget object with the specified retryRatio and minRetriesPerSecond.
+     *
+     * @param retryRatio            retryRatio between 0 and 1 provided by the user.
+     * @param minRetriesPerSecond   minRetriesPerSecond provided by the user.
+     */
+    public RetryBudget(double retryRatio, int minRetriesPerSecond) {
+        this.retryRatio = retryRatio != 0 ? Math.min(retryRatio, 1) : Constants.DEFAULT_RETRY_BUDGET_RATIO; // Default: 0.1 retries per success
+        this.minRetriesPerSecond = minRetriesPerSecond != 0 ? minRetriesPerSecond : Constants.DEFAULT_RETRY_BUDGET_MIN_RETRIES_PER_SECOND; // Default: 10 retries per second
+        this.maxBalance = (double) this.minRetriesPerSecond * Constants.DEFAULT_RETRY_BUDGET_WINDOW;
+        this.balance = this.minRetriesPerSecond;
+        this.lastRefill = System.nanoTime();
+    }
+
+    /**
+     * getter function for the budget shared by all connectors that do not configure their own
+     */
+    public static RetryBudget getDefault() {
+        return DEFAULT;
+    }
+
+    /**
+     * Records a successful request
+     */
+    synchronized void recordSuccess() {
+        refill();
+        balance = Math.min(maxBalance, balance + retryRatio);
+    }
+
+    /**
+     * Withdraws a retry from the budget if one is available
+     *
+     * @return  true if the retry may be sent
+     */
+    synchronized boolean tryAcquire() {
+        refill();
+        if (balance < 1) {
+            rejectedRetries++;
+            return false;
+        }
+        balance--;
+        retries++;
+        return true;
+    }
+
+    /**
+     * Helper function to deposit the minRetriesPerSecond reserve for the time passed since the last refill
+     */
+    private void refill() {
+        long now = System.nanoTime();
+        double seconds = (now - lastRefill) / 1e9;
+        lastRefill = now;
+        balance = Math.min(maxBalance, balance + seconds * minRetriesPerSecond);
+    }
+
+    /**
+     * getter function for retryRatio
+     */
+    public double getRetryRatio() {
+        return retryRatio;
+    }
+
+    /**
+     * getter function for minRetriesPerSecond
+     */
+    public int getMinRetriesPerSecond() {
+        return minRetriesPerSecond;
+    }
+
+    /**
+     * getter function for the number of retries that can currently be sent
+     */
+    public synchronized double getBalance() {
+        refill();
+        return balance;
+    }
+
+    /**
+     * getter function for retries
+     */
+    public synchronized long getRetries() {
+        return retries;
+    }
+
+    /**
+     * getter function for rejectedRetries
+     */
+    public synchronized long getRejectedRetries() {
+        return rejectedRetries;
+    }
+
+    @Override
+    public synchronized String toString() {
+        return "retries=" + retries + ", rejectedRetries=" + rejectedRetries + ", balance=" + balance;
+    }
+}
@@ -0,0 +1,189 @@
+/*
+ *   Copyright (c) 2023-2024 Intel Corporation
+ *   All rights reserved.
+ *   SPDX-License-Identifier: BSD-3-Clause
+ */
+package com.intel.trustauthority.connector;
+
+// Java Standard Library Imports
+import java.io.IOException;
+import java.net.UnknownHostException;
+import java.time.Instant;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.concurrent.ThreadLocalRandom;
+import javax.net.ssl.SSLException;
+
+/**
+ * RetryPolicy class for holding the retry behaviour provided by user for TrustAuthorityConnector.
+ * RetryConfig sets the number of retries and the wait bounds, RetryPolicy decides which failures
+ * are retried and how the wait within those bounds is randomized.
+ */
+public class RetryPolicy {
+
+    /**
+     * Jitter applied to the exponential backoff between retries
+     */
+    public enum Jitter {
+        NONE,           // Wait retryWaitMin * 2^retry, capped at retryWaitMax
+        FULL,           // Wait a random time between 0 and the capped exponential backoff
+        DECORRELATED    // Wait a random time between retryWaitMin and 3 times the previous wait, capped at retryWaitMax
+    }
+
+    private Jitter jitter;                      // Jitter applied to the backoff
+    private long maxRetryAfter;                 // Longest Retry-After in seconds that is waited for before retrying
+    private boolean retryOnTooManyRequests;     // Whether 429 Too Many Requests responses are retried
+
+    /**
+     * Constructs a new RetryPolicy object with the specified jitter and maxRetryAfter.
+     * 429 Too Many Requests responses are retried.
+     *
+     * @param jitter            jitter provided by the user, null for the default.
+     * @param maxRetryAfter     maxRetryAfter in seconds provided by the user.
+     */
+    public RetryPolicy(Jitter jitter, long maxRetryAfter) {
+        this.jitter = Jitter.FULL;
+        this.maxRetryAfter = Constants.DEFAULT_RETRY_AFTER_MAX; // Default: 60 seconds
+        this.retryOnTooManyRequests = true;
+
+        // Set custom values provided by user
+        if (jitter != null) {
+            this.jitter = jitter;
+        }
+        if (maxRetryAfter != 0) {
+            this.maxRetryAfter = maxRetryAfter;
+        }
+    }
+
+    /**
+     * getter function for jitter
+     */
+    public Jitter getJitter() {
+        return jitter;
+    }
+
+    /**
+     * setter function for jitter
+     */
+    public void setJitter(Jitter jitter) {
+        this.jitter = jitter;
+    }
+
+    /**
+     * getter function for maxRetryAfter
+     */
+    public long getMaxRetryAfter() {
+        return maxRetryAfter;
+    }
+
+    /**
+     * setter function for maxRetryAfter
+     */
+    public void setMaxRetryAfter(long maxRetryAfter) {
+        this.maxRetryAfter = maxRetryAfter;
+    }
+
+    /**
+     * getter function for retryOnTooManyRequests
+     */
+    public boolean isRetryOnTooManyRequests() {
+        return retryOnTooManyRequests;
+    }
+
+    /**
+     * setter function for retryOnTooManyRequests
+     */
+    public void setRetryOnTooManyRequests(boolean retryOnTooManyRequests) {
+        this.retryOnTooManyRequests = retryOnTooManyRequests;
+    }
+
+    /**
+     * Checks if a response with the given status code should be retried
+     *
+     * @param statusCode    HTTP status code of the response.
+     * @return              true if the request should be retried
+     */
+    public boolean isRetryable(int statusCode) {
+        if (statusCode == Constants.HTTP_TOO_MANY_REQUESTS) {
+            return retryOnTooManyRequests;
+        }
+        return Constants.retryableStatusCodes.contains(statusCode);
+    }
+
+    /**
+     * Checks if a request that failed with the given error should be retried. Transient I/O errors,
+     * such as refused or reset connections and timeouts, are retried. Unknown hosts, TLS failures,
+     * oversized responses and interrupted requests are not, as a retry would fail the same way.
+     *
+     * @param error     error the request failed with.
+     * @return          true if the request should be retried
+     */
+    public boolean isRetryable(Throwable error) {
+        if (!(error instanceof IOException)) {
+            return false;
+        }
+        if (error instanceof UnknownHostException || error instanceof SSLException ||
+            error instanceof ResponseTooLargeException) {
+            return false;
+        }
+        return !Thread.currentThread().isInterrupted();
+    }
+
+    /**
+     * Calculates the time to wait before the next retry
+     *
+     * @param retry             number of retries already made.
+     * @param previousWait      wait in milliseconds before the previous retry, 0 for the first retry.
+     * @param retryConfig       RetryConfig object holding the wait bounds.
+     * @return                  wait in milliseconds
+     */
+    public long backoff(int retry, long previousWait, RetryConfig retryConfig) {
+        long waitMin = retryConfig.getRetryWaitMin() * 1000;
+        long waitMax = Math.max(waitMin, retryConfig.getRetryWaitMax() * 1000);
+        switch (jitter) {
+            case FULL:
+                return ThreadLocalRandom.current().nextLong(exponential(retry, waitMin, waitMax) + 1);
+            case DECORRELATED:
+                long upper = Math.min(waitMax, Math.max(waitMin, previousWait * 3));
+                return upper > waitMin ? ThreadLocalRandom.current().nextLong(waitMin, upper + 1) : waitMin;
+            default:
+                return exponential(retry, waitMin, waitMax);
+        }
+    }
+
+    /**
+     * Helper function to calculate waitMin * 2^retry, capped at waitMax
+     */
+    private static long exponential(int retry, long waitMin, long waitMax) {
+        if (retry >= 62 || waitMin > (waitMax >> retry)) {
+            return waitMax;
+        }
+        return Math.min(waitMax, waitMin << retry);
+    }
+
+    /**
+     * Parses a Retry-After header, given either as delay-seconds or as an HTTP-date
+     *
+     * @param value     value of the Retry-After header, may be null.
+     * @return          delay in milliseconds, or -1 if the header is absent or invalid
+     */
+    public static long parseRetryAfter(String value) {
+        if (value == null || value.trim().isEmpty()) {
+            return -1;
+        }
+        String trimmed = value.trim();
+        try {
+            long seconds = Long.parseLong(trimmed);
+            return seconds < 0 ? -1 : seconds * 1000;
+        } catch (NumberFormatException e) {
+            // Not delay-seconds, try an HTTP-date
+        }
+        try {
+            Instant date = ZonedDateTime.parse(trimmed, DateTimeFormatter.RFC_1123_DATE_TIME).toInstant();
+            return Math.max(0, date.toEpochMilli() - System.currentTimeMillis());
+        } catch (DateTimeParseException e) {
+            return -1;
+        }
+    }
+}
@@ -0,0 +1,115 @@
+/*
+ *   Copyright (c) 2023-2024 Intel Corporation
+ *   All rights reserved.
+ *   SPDX-License-Identifier: BSD-3-Clause
+ */
+package com.intel.trustauthority.connector;
+
+// Java Standard Library Imports
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * SingleFlight lets concurrent calls with the same key share one call in flight. The first caller runs
+ * the call and the others wait for its result. A waiter that times out or is cancelled only stops waiting,
+ * the shared call keeps running for the other callers. Once the call completes, the next caller with the
+ * key starts a new one.
+ */
+class SingleFlight<K, V> {
+
+    private final Map<K, CompletableFuture<V>> calls = new ConcurrentHashMap<>();
+    private long coalesced;
+
+    /**
+     * Runs call, or waits for the call with the same key already in flight
+     *
+     * @param key       key of the call.
+     * @param call      Callable run by the first caller.
+     * @param timeout   time in milliseconds a waiter waits for the shared call, 0 to wait indefinitely.
+     * @return          result of the call
+     */
+    V execute(K key, Callable<V> call, long timeout) throws Exception {
+        CompletableFuture<V> flight = new CompletableFuture<>();
+        CompletableFuture<V> existing = calls.putIfAbsent(key, flight);
+        if (existing == null) {
+            try {
+                V value = call.call();
+                calls.remove(key, flight);
+                flight.complete(value);
+                return value;
+            } catch (Throwable e) {
+                calls.remove(key, flight);
+                flight.completeExceptionally(e);
+                throw e;
+            }
+        }
+        recordCoalesced();
+        try {
+            return timeout > 0 ? existing.get(timeout, TimeUnit.MILLISECONDS) : existing.get();
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            throw cause instanceof Exception ? (Exception) cause : new Exception(cause);
+        }
+    }
+
+    /**
+     * Starts call, or joins the call with the same key already in flight, without blocking the caller
+     *
+     * @param key   key of the call.
+     * @param call  Supplier starting the call for the first caller.
+     * @return      CompletableFuture of this caller, cancelling it does not cancel the shared call
+     */
+    CompletableFuture<V> executeAsync(K key, Supplier<CompletableFuture<V>> call) {
+        CompletableFuture<V> flight = new CompletableFuture<>();
+        CompletableFuture<V> existing = calls.putIfAbsent(key, flight);
+        if (existing == null) {
+            CompletableFuture<V> future;
+            try {
+                future = call.get();
+            } catch (RuntimeException e) {
+                future = CompletableFuture.failedFuture(e);
+            }
+            future.whenComplete((value, error) -> {
+                calls.remove(key, flight);
+                if (error != null) {
+                    flight.completeExceptionally(error);
+                } else {
+                    flight.complete(value);
+                }
+            });
+            existing = flight;
+        } else {
+            recordCoalesced();
+        }
+
+        // Each caller gets its own future
+        CompletableFuture<V> result = new CompletableFuture<>();
+        existing.whenComplete((value, error) -> {
+            if (error != null) {
+                result.completeExceptionally(error);
+            } else {
+                result.complete(value);
+            }
+        });
+        return result;
+    }
+
+    /**
+     * getter function for the number of calls that joined a call in flight instead of starting one
+     */
+    synchronized long getCoalesced() {
+        return coalesced;
+    }
+
+    /**
+     * Helper function to count a call that joined a call in flight
+     */
+    private synchronized void recordCoalesced() {
+        coalesced++;
+    }
+}
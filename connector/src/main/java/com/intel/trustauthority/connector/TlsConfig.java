@@ -0,0 +1,189 @@
+/*
+ *   Copyright (c) 2023-2024 Intel Corporation
+ *   All rights reserved.
+ *   SPDX-License-Identifier: BSD-3-Clause
+ */
+package com.intel.trustauthority.connector;
+
+// Java Standard Library Imports
+import java.security.GeneralSecurityException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import javax.net.ssl.SSLContext;
+import javax.net.ssl.SSLParameters;
+import javax.net.ssl.SSLSessionContext;
+
+/**
+ * TlsConfig class for holding the TLS config provided by user for TrustAuthorityConnector.
+ * Sessions are cached in the client session cache of the SSLContext, so that new connections
+ * resume a previous session (TLS 1.3 PSK or TLS 1.2 session ID) instead of a full handshake.
+ */
+public class TlsConfig {
+
+    private SSLContext sslContext;      // SSLContext used for all connections, its session cache is shared by them
+    private String[] protocols;         // Enabled protocols in order of preference
+    private String[] cipherSuites;      // Enabled cipher suites, null for the provider defaults
+    private int sessionCacheSize;       // Maximum number of cached sessions
+    private long sessionTimeout;        // Time after which a cached session can no longer be resumed
+
+    /**
+     * Constructs a new TlsConfig object with the specified sslContext, sessionCacheSize and sessionTimeout.
+     * TLS 1.3 and TLS 1.2 are enabled, with the cipher suites of the provider.
+     *
+     * @param sslContext        sslContext provided by the user, null for a context with the default trust store.
+     * @param sessionCacheSize  sessionCacheSize provided by the user.
+     * @param sessionTimeout    sessionTimeout in seconds provided by the user.
+     */
+    public TlsConfig(SSLContext sslContext, int sessionCacheSize, long sessionTimeout) {
+        this.sslContext = sslContext;
+        this.protocols = Constants.DEFAULT_TLS_PROTOCOLS.clone(); // Default: TLSv1.3, TLSv1.2
+        this.sessionCacheSize = Constants.DEFAULT_TLS_SESSION_CACHE_SIZE; // Default: 1000 sessions
+        this.sessionTimeout = Constants.DEFAULT_TLS_SESSION_TIMEOUT; // Default: 3600 seconds
+
+        // Set custom values provided by user
+        if (sessionCacheSize != 0) {
+            this.sessionCacheSize = sessionCacheSize;
+        }
+        if (sessionTimeout != 0) {
+            this.sessionTimeout = sessionTimeout;
+        }
+    }
+
+    /**
+     * getter function for sslContext
+     */
+    public SSLContext getSslContext() {
+        return sslContext;
+    }
+
+    /**
+     * setter function for sslContext
+     */
+    public void setSslContext(SSLContext sslContext) {
+        this.sslContext = sslContext;
+    }
+
+    /**
+     * getter function for protocols
+     */
+    public String[] getProtocols() {
+        return protocols;
+    }
+
+    /**
+     * setter function for protocols, null for the provider defaults
+     */
+    public void setProtocols(String[] protocols) {
+        this.protocols = protocols;
+    }
+
+    /**
+     * getter function for cipherSuites
+     */
+    public String[] getCipherSuites() {
+        return cipherSuites;
+    }
+
+    /**
+     * setter function for cipherSuites, null for the provider defaults
+     */
+    public void setCipherSuites(String[] cipherSuites) {
+        this.cipherSuites = cipherSuites;
+    }
+
+    /**
+     * getter function for sessionCacheSize
+     */
+    public int getSessionCacheSize() {
+        return sessionCacheSize;
+    }
+
+    /**
+     * setter function for sessionCacheSize
+     */
+    public void setSessionCacheSize(int sessionCacheSize) {
+        this.sessionCacheSize = sessionCacheSize;
+    }
+
+    /**
+     * getter function for sessionTimeout
+     */
+    public long getSessionTimeout() {
+        return sessionTimeout;
+    }
+
+    /**
+     * setter function for sessionTimeout
+     */
+    public void setSessionTimeout(long sessionTimeout) {
+        this.sessionTimeout = sessionTimeout;
+    }
+
+    /**
+     * Returns the SSLContext to create connections with, with its client session cache sized as configured.
+     * A context is created if none was provided, so that the JVM default context is left untouched.
+     *
+     * @return  SSLContext object
+     */
+    SSLContext createSSLContext() throws GeneralSecurityException {
+        SSLContext context = sslContext;
+        if (context == null) {
+            context = SSLContext.getInstance("TLS");
+            context.init(null, null, null);
+        }
+        SSLSessionContext sessionContext = context.getClientSessionContext();
+        if (sessionContext != null) {
+            sessionContext.setSessionCacheSize(sessionCacheSize);
+            sessionContext.setSessionTimeout((int) Math.min(Integer.MAX_VALUE, sessionTimeout));
+        }
+        return context;
+    }
+
+    /**
+     * Returns the configured protocols supported by the context, or null for the provider defaults
+     */
+    String[] getSupportedProtocols(SSLContext context) {
+        return filter(protocols, context.getSupportedSSLParameters().getProtocols());
+    }
+
+    /**
+     * Returns the configured cipher suites supported by the context, or null for the provider defaults
+     */
+    String[] getSupportedCipherSuites(SSLContext context) {
+        return filter(cipherSuites, context.getSupportedSSLParameters().getCipherSuites());
+    }
+
+    /**
+     * Returns the SSLParameters of the context with the configured protocols and cipher suites
+     */
+    SSLParameters createSSLParameters(SSLContext context) {
+        SSLParameters parameters = context.getDefaultSSLParameters();
+        String[] enabledProtocols = getSupportedProtocols(context);
+        if (enabledProtocols != null) {
+            parameters.setProtocols(enabledProtocols);
+        }
+        String[] enabledCipherSuites = getSupportedCipherSuites(context);
+        if (enabledCipherSuites != null) {
+            parameters.setCipherSuites(enabledCipherSuites);
+        }
+        return parameters;
+    }
+
+    /**
+     * Helper function to keep the configured values that are supported, in the configured order
+     */
+    private static String[] filter(String[] configured, String[] supported) {
+        if (configured == null) {
+            return null;
+        }
+        List<String> supportedList = Arrays.asList(supported);
+        List<String> enabled = new ArrayList<>();
+        for (String value : configured) {
+            if (supportedList.contains(value)) {
+                enabled.add(value);
+            }
+        }
+        return enabled.isEmpty() ? null : enabled.toArray(new String[0]);
+    }
+}
@@ -0,0 +1,53 @@
+/*
+ *   Copyright (c) 2023-2024 Intel Corporation
+ *   All rights reserved.
+ *   SPDX-License-Identifier: BSD-3-Clause
+ */
+package com.intel.trustauthority.connector;
+
+/**
+ * TlsStats class for holding the TLS handshake counters of a transport
+ */
+public class TlsStats {
+
+    private long handshakes;            // TLS handshakes made for new connections
+    private long resumedHandshakes;     // Handshakes that resumed a cached session instead of a full handshake
+
+    /**
+     * Records a completed handshake
+     *
+     * @param resumed   true if a cached session was resumed.
+     */
+    synchronized void recordHandshake(boolean resumed) {
+        handshakes++;
+        if (resumed) {
+            resumedHandshakes++;
+        }
+    }
+
+    /**
+     * getter function for handshakes
+     */
+    public synchronized long getHandshakes() {
+        return handshakes;
+    }
+
+    /**
+     * getter function for resumedHandshakes
+     */
+    public synchronized long getResumedHandshakes() {
+        return resumedHandshakes;
+    }
+
+    /**
+     * Returns the ratio of handshakes that resumed a cached session
+     */
+    public synchronized double getResumptionRate() {
+        return handshakes == 0 ? 0 : (double) resumedHandshakes / handshakes;
+    }
+
+    @Override
+    public synchronized String toString() {
+        return "handshakes=" + handshakes + ", resumedHandshakes=" + resumedHandshakes;
+    }
+}
@@ -0,0 +1,199 @@
+/*
+ *   Copyright (c) 2023-2024 Intel Corporation
+ *   All rights reserved.
+ *   SPDX-License-Identifier: BSD-3-Clause
+ */
+package com.intel.trustauthority.connector;
+
+// Java Standard Library Imports
+import java.text.ParseException;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Function;
+
+// Third-party Library Imports
+import com.nimbusds.jwt.SignedJWT;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+/**
+ * TokenCache holds the tokens returned by attest(), keyed by the adapter instance, policy IDs and
+ * user data of the attestation. A cached token is returned until shortly before the exp claim of the
+ * token. Once it is within refreshAhead of that point, or past half its remaining lifetime for short-lived
+ * tokens, a single background attestation replaces it while the cached token keeps being returned.
+ * Tokens without an exp claim are not cached.
+ */
+class TokenCache {
+
+    // Logger object
+    private static final Logger logger = LogManager.getLogger(TokenCache.class);
+
+    private final TokenCacheConfig config;
+    private final Function<AttestArgs, CompletableFuture<AttestResponse>> refresher;
+    private final Map<AttestationKey, Entry> entries = new HashMap<>();
+
+    private long hits;
+    private long misses;
+    private long refreshes;
+    private long refreshFailures;
+
+    /**
+     * Constructs a new TokenCache object.
+     *
+     * @param config        TokenCacheConfig object provided by the user.
+     * @param refresher     Function attesting without blocking, used for background refreshes.
+     */
+    TokenCache(TokenCacheConfig config, Function<AttestArgs, CompletableFuture<AttestResponse>> refresher) {
+        this.config = config;
+        this.refresher = refresher;
+    }
+
+    /**
+     * Returns the cached token of an attestation, starting its background refresh once it is due
+     *
+     * @param args  AttestArgs object of the attestation.
+     * @return      cached AttestResponse object, or null if no valid token is cached
+     */
+    AttestResponse lookup(AttestArgs args) {
+        AttestationKey key = new AttestationKey(args);
+        Entry entry;
+        boolean refresh = false;
+        synchronized (this) {
+            long now = System.currentTimeMillis();
+            entry = entries.get(key);
+            if (entry == null || now >= entry.validUntil) {
+                entries.remove(key);
+                misses++;
+                return null;
+            }
+            hits++;
+            if (now >= entry.refreshAt && !entry.refreshing) {
+                entry.refreshing = true;
+                refresh = true;
+            }
+        }
+        if (refresh) {
+            refresh(args, entry);
+        }
+        return entry.response;
+    }
+
+    /**
+     * Caches the token of an attestation
+     *
+     * @param args      AttestArgs object of the attestation.
+     * @param response  AttestResponse object returned for the attestation.
+     */
+    void put(AttestArgs args, AttestResponse response) {
+        Date expirationTime = getExpirationTime(response.getToken());
+        if (expirationTime == null) {
+            return;
+        }
+        long now = System.currentTimeMillis();
+        long exp = expirationTime.getTime();
+        long validUntil = exp - Constants.TOKEN_CACHE_EXPIRY_SKEW;
+        if (validUntil <= now) {
+            return;
+        }
+        long refreshAt = validUntil - Math.min(config.getRefreshAhead() * 1000, (validUntil - now) / 2);
+        AttestationKey key = new AttestationKey(args);
+        synchronized (this) {
+            if (!entries.containsKey(key)) {
+                evict(now);
+            }
+            entries.put(key, new Entry(response, validUntil, refreshAt));
+        }
+    }
+
+    /**
+     * Returns a snapshot of the cache
+     *
+     * @return  TokenCacheStats object
+     */
+    synchronized TokenCacheStats getStats() {
+        return new TokenCacheStats(entries.size(), hits, misses, refreshes, refreshFailures);
+    }
+
+    /**
+     * Helper function to replace a cached token with a new attestation
+     */
+    private void refresh(AttestArgs args, Entry entry) {
+        CompletableFuture<AttestResponse> future;
+        try {
+            future = refresher.apply(args);
+        } catch (RuntimeException e) {
+            future = CompletableFuture.failedFuture(e);
+        }
+        future.whenComplete((response, error) -> {
+            if (error == null) {
+                put(args, response);
+            }
+            synchronized (this) {
+                entry.refreshing = false;
+                if (error == null) {
+                    refreshes++;
+                } else {
+                    // The next lookup of the entry retries the refresh
+                    refreshFailures++;
+                }
+            }
+            if (error != null) {
+                logger.warn("Failed to refresh cached token: " + error.getMessage());
+            }
+        });
+    }
+
+    /**
+     * Helper function to make room for a new entry, dropping expired tokens and then the one expiring first
+     */
+    private void evict(long now) {
+        entries.values().removeIf(entry -> now >= entry.validUntil);
+        if (entries.size() < config.getMaxEntries()) {
+            return;
+        }
+        Iterator<Map.Entry<AttestationKey, Entry>> iterator = entries.entrySet().iterator();
+        Map.Entry<AttestationKey, Entry> first = null;
+        while (iterator.hasNext()) {
+            Map.Entry<AttestationKey, Entry> candidate = iterator.next();
+            if (first == null || candidate.getValue().validUntil < first.getValue().validUntil) {
+                first = candidate;
+            }
+        }
+        entries.remove(first.getKey());
+    }
+
+    /**
+     * Helper function to read the exp claim of a token, null if it has none or cannot be parsed
+     */
+    private static Date getExpirationTime(String token) {
+        if (token == null) {
+            return null;
+        }
+        try {
+            return SignedJWT.parse(token).getJWTClaimsSet().getExpirationTime();
+        } catch (ParseException e) {
+            logger.debug("Token not cached, failed to parse its claims: " + e.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * Entry holds a cached token
+     */
+    private static class Entry {
+
+        final AttestResponse response;
+        final long validUntil;
+        final long refreshAt;
+        boolean refreshing;
+
+        Entry(AttestResponse response, long validUntil, long refreshAt) {
+            this.response = response;
+            this.validUntil = validUntil;
+            this.refreshAt = refreshAt;
+        }
+    }
+}
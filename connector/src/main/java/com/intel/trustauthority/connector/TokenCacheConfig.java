@@ -0,0 +1,64 @@
+/*
+ *   Copyright (c) 2023-2024 Intel Corporation
+ *   All rights reserved.
+ *   SPDX-License-Identifier: BSD-3-Clause
+ */
+package com.intel.trustauthority.connector;
+
+/**
+ * TokenCacheConfig class for holding the token cache config provided by user for TrustAuthorityConnector.
+ * When set in Config, attest() returns the cached token of the same adapter, policy IDs and user data
+ * until it expires, and refreshes it in the background before it does.
+ */
+public class TokenCacheConfig {
+
+    private long refreshAhead;      // Time before the exp of a token at which it is refreshed in the background
+    private int maxEntries;         // Maximum number of cached tokens
+
+    /**
+     * Constructs a new TokenCacheConfig object with the specified refreshAhead and maxEntries.
+     *
+     * @param refreshAhead  refreshAhead in seconds provided by the user.
+     * @param maxEntries    maxEntries provided by the user.
+     */
+    public TokenCacheConfig(long refreshAhead, int maxEntries) {
+        this.refreshAhead = Constants.DEFAULT_TOKEN_CACHE_REFRESH_AHEAD; // Default: 60 seconds
+        this.maxEntries = Constants.DEFAULT_TOKEN_CACHE_MAX_ENTRIES; // Default: 100 tokens
+
+        // Set custom values provided by user
+        if (refreshAhead != 0) {
+            this.refreshAhead = refreshAhead;
+        }
+        if (maxEntries != 0) {
+            this.maxEntries = maxEntries;
+        }
+    }
+
+    /**
+     * getter function for refreshAhead
+     */
+    public long getRefreshAhead() {
+        return refreshAhead;
+    }
+
+    /**
+     * setter function for refreshAhead
+     */
+    public void setRefreshAhead(long refreshAhead) {
+        this.refreshAhead = refreshAhead;
+    }
+
+    /**
+     * getter function for maxEntries
+     */
+    public int getMaxEntries() {
+        return maxEntries;
+    }
+
+    /**
+     * setter function for maxEntries
+     */
+    public void setMaxEntries(int maxEntries) {
+        this.maxEntries = maxEntries;
+    }
+}
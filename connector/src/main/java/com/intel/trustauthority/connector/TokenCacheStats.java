@@ -0,0 +1,76 @@
+/*
+ *   Copyright (c) 2023-2024 Intel Corporation
+ *   All rights reserved.
+ *   SPDX-License-Identifier: BSD-3-Clause
+ */
+package com.intel.trustauthority.connector;
+
+/**
+ * TokenCacheStats class for holding a snapshot of the token cache of TrustAuthorityConnector
+ */
+public class TokenCacheStats {
+
+    private int size;               // Tokens currently cached
+    private long hits;              // Attestations answered from the cache
+    private long misses;            // Attestations that found no valid cached token
+    private long refreshes;         // Background refreshes that replaced a cached token
+    private long refreshFailures;   // Background refreshes that failed
+
+    /**
+     * Constructs a new TokenCacheStats object with the specified size, hits, misses, refreshes and refreshFailures.
+     *
+     * @param size              number of cached tokens.
+     * @param hits              number of cache hits.
+     * @param misses            number of cache misses.
+     * @param refreshes         number of completed background refreshes.
+     * @param refreshFailures   number of failed background refreshes.
+     */
+    public TokenCacheStats(int size, long hits, long misses, long refreshes, long refreshFailures) {
+        this.size = size;
+        this.hits = hits;
+        this.misses = misses;
+        this.refreshes = refreshes;
+        this.refreshFailures = refreshFailures;
+    }
+
+    /**
+     * getter function for size
+     */
+    public int getSize() {
+        return size;
+    }
+
+    /**
+     * getter function for hits
+     */
+    public long getHits() {
+        return hits;
+    }
+
+    /**
+     * getter function for misses
+     */
+    public long getMisses() {
+        return misses;
+    }
+
+    /**
+     * getter function for refreshes
+     */
+    public long getRefreshes() {
+        return refreshes;
+    }
+
+    /**
+     * getter function for refreshFailures
+     */
+    public long getRefreshFailures() {
+        return refreshFailures;
+    }
+
+    @Override
+    public String toString() {
+        return "size=" + size + ", hits=" + hits + ", misses=" + misses + ", refreshes=" + refreshes +
+               ", refreshFailures=" + refreshFailures;
+    }
+}
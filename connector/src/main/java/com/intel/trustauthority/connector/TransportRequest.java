@@ -0,0 +1,187 @@
+/*
+ *   Copyright (c) 2023-2024 Intel Corporation
+ *   All rights reserved.
+ *   SPDX-License-Identifier: BSD-3-Clause
+ */
+package com.intel.trustauthority.connector;
+
+// Java Standard Library Imports
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * TransportRequest class for holding a request to be sent by a HttpTransport
+ */
+public class TransportRequest {
+
+    private String method;
+    private String url;
+    private Map<String, String> headers;
+    private RequestBody body;
+    private Endpoint endpoint;
+    private long timeout;
+    private Deadline deadline;
+    private String operation;
+    private AtomicInteger retries = new AtomicInteger();
+    private CompletableFuture<Void> cancelled = new CompletableFuture<>();
+
+    /**
+     * Constructs a new TransportRequest object with the specified method, url, headers and body.
+     *
+     * @param method    HTTP request method.
+     * @param url       URL of the server to send the request to.
+     * @param headers   request headers, may be null.
+     * @param body      replayable request body, may be null.
+     */
+    public TransportRequest(String method, String url, Map<String, String> headers, RequestBody body) {
+        this.method = method;
+        this.url = url;
+        this.headers = headers;
+        this.body = body;
+    }
+
+    /**
+     * getter function for method
+     */
+    public String getMethod() {
+        return method;
+    }
+
+    /**
+     * getter function for url
+     */
+    public String getUrl() {
+        return url;
+    }
+
+    /**
+     * getter function for headers
+     */
+    public Map<String, String> getHeaders() {
+        return headers;
+    }
+
+    /**
+     * getter function for body
+     */
+    public RequestBody getBody() {
+        return body;
+    }
+
+    /**
+     * getter function for the endpoint the request is pinned to, null if any endpoint may be used
+     */
+    Endpoint getEndpoint() {
+        return endpoint;
+    }
+
+    /**
+     * setter function for the endpoint the request is pinned to
+     */
+    void setEndpoint(Endpoint endpoint) {
+        this.endpoint = endpoint;
+    }
+
+    /**
+     * getter function for timeout, the time in milliseconds to wait for the response of this request.
+     * It is the configured read timeout capped by the deadline of the operation, 0 to use the transport default.
+     */
+    public long getTimeout() {
+        return timeout;
+    }
+
+    /**
+     * setter function for timeout
+     */
+    void setTimeout(long timeout) {
+        this.timeout = timeout;
+    }
+
+    /**
+     * getter function for the deadline of the operation the request is part of, null if none
+     */
+    Deadline getDeadline() {
+        return deadline;
+    }
+
+    /**
+     * setter function for deadline
+     */
+    void setDeadline(Deadline deadline) {
+        this.deadline = deadline;
+    }
+
+    /**
+     * getter function for the operation the request is rate limited by, null if none
+     */
+    String getOperation() {
+        return operation;
+    }
+
+    /**
+     * setter function for operation
+     */
+    void setOperation(String operation) {
+        this.operation = operation;
+    }
+
+    /**
+     * Takes one of the retries allowed for the request, shared by all of its hedged copies
+     *
+     * @param maxRetries    maximum number of retries of the request.
+     * @return              true if the request may be retried
+     */
+    boolean tryRetry(int maxRetries) {
+        return retries.getAndUpdate(n -> n < maxRetries ? n + 1 : n) < maxRetries;
+    }
+
+    /**
+     * Cancels the request, aborting the attempt in flight and any further retry
+     */
+    void cancel() {
+        cancelled.complete(null);
+    }
+
+    /**
+     * Returns true if the request was cancelled
+     */
+    boolean isCancelled() {
+        return cancelled.isDone();
+    }
+
+    /**
+     * Runs the action once the request is cancelled, right away if it already is
+     */
+    void onCancel(Runnable action) {
+        cancelled.thenRun(action);
+    }
+
+    /**
+     * Creates a hedged copy of the request, cancelled on its own but sharing the retries of the request
+     *
+     * @return      TransportRequest object
+     */
+    TransportRequest hedge() {
+        TransportRequest copy = withUrl(url);
+        copy.cancelled = new CompletableFuture<>();
+        return copy;
+    }
+
+    /**
+     * Creates a copy of the request sent to the specified url
+     *
+     * @param url   URL of the server to send the request to.
+     * @return      TransportRequest object
+     */
+    TransportRequest withUrl(String url) {
+        TransportRequest copy = new TransportRequest(method, url, headers, body);
+        copy.endpoint = endpoint;
+        copy.timeout = timeout;
+        copy.deadline = deadline;
+        copy.operation = operation;
+        copy.retries = retries;
+        copy.cancelled = cancelled;
+        return copy;
+    }
+}
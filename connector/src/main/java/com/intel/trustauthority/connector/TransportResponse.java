@@ -0,0 +1,128 @@
+/*
+ *   Copyright (c) 2023-2024 Intel Corporation
+ *   All rights reserved.
+ *   SPDX-License-Identifier: BSD-3-Clause
+ */
+package com.intel.trustauthority.connector;
+
+// Java Standard Library Imports
+import java.io.ByteArrayInputStream;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * TransportResponse class for holding a response received by a HttpTransport.
+ * The response must be closed once the body is read so that the underlying connection can be reused.
+ */
+public class TransportResponse implements Closeable {
+
+    private int statusCode;
+    private Map<String, List<String>> headers;
+    private InputStream body;
+    private Closeable connection;
+    private Endpoint endpoint;
+    private Runnable closeHook;
+
+    /**
+     * Constructs a new TransportResponse object with the specified statusCode, headers and body.
+     *
+     * @param statusCode    HTTP response status code.
+     * @param headers       response headers.
+     * @param body          response body stream, may be null for an empty body.
+     */
+    public TransportResponse(int statusCode, Map<String, List<String>> headers, InputStream body) {
+        this(statusCode, headers, body, null);
+    }
+
+    /**
+     * Constructs a new TransportResponse object with the specified statusCode, headers, body and connection.
+     *
+     * @param statusCode    HTTP response status code.
+     * @param headers       response headers.
+     * @param body          response body stream, may be null for an empty body.
+     * @param connection    resource released after the body when the response is closed, may be null.
+     */
+    public TransportResponse(int statusCode, Map<String, List<String>> headers, InputStream body, Closeable connection) {
+        this.statusCode = statusCode;
+        this.headers = headers;
+        this.body = body != null ? body : new ByteArrayInputStream(new byte[0]);
+        this.connection = connection;
+    }
+
+    /**
+     * getter function for statusCode
+     */
+    public int getStatusCode() {
+        return statusCode;
+    }
+
+    /**
+     * getter function for headers
+     */
+    public Map<String, List<String>> getHeaders() {
+        return headers;
+    }
+
+    /**
+     * getter function for body
+     */
+    public InputStream getBody() {
+        return body;
+    }
+
+    /**
+     * Closes the body stream and releases the underlying connection
+     */
+    @Override
+    public void close() throws IOException {
+        try {
+            body.close();
+        } finally {
+            try {
+                if (connection != null) {
+                    connection.close();
+                }
+            } finally {
+                runCloseHook();
+            }
+        }
+    }
+
+    /**
+     * setter function for the action run once the response is closed, set by the connector
+     */
+    synchronized void setCloseHook(Runnable closeHook) {
+        this.closeHook = closeHook;
+    }
+
+    /**
+     * Helper function to run the close hook, only on the first close
+     */
+    private void runCloseHook() {
+        Runnable hook;
+        synchronized (this) {
+            hook = closeHook;
+            closeHook = null;
+        }
+        if (hook != null) {
+            hook.run();
+        }
+    }
+
+    /**
+     * getter function for the endpoint that sent the response, set by the connector
+     */
+    Endpoint getEndpoint() {
+        return endpoint;
+    }
+
+    /**
+     * setter function for the endpoint that sent the response
+     */
+    void setEndpoint(Endpoint endpoint) {
+        this.endpoint = endpoint;
+    }
+}
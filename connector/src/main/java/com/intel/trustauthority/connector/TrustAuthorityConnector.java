@@ -8,13 +8,12 @@ package com.intel.trustauthority.connector;
 // Java Standard Library Imports
 import java.io.ByteArrayInputStream;
 import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
 import java.io.IOException;
 import java.io.InputStream;
-import java.io.InputStreamReader;
-import java.io.BufferedReader;
 import java.math.BigInteger;
 import java.net.HttpURLConnection;
-import java.net.URL;
+import java.nio.charset.StandardCharsets;
 import java.security.cert.CertificateFactory;
 import java.security.cert.X509Certificate;
 import java.security.cert.X509CRL;
@@ -24,11 +23,26 @@ import java.security.Security;
 import java.security.interfaces.RSAPublicKey;
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.Date;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
 
 // Third-party Library Imports
 import org.bouncycastle.asn1.ASN1InputStream;
@@ -62,12 +76,29 @@ import com.nimbusds.jwt.JWTClaimsSet;
 /**
  * TrustAuthorityConnector exposes functions for calling Intel Trust Authority REST APIs
  */
-public class TrustAuthorityConnector {
+public class TrustAuthorityConnector implements Closeable {
 
     // Logger object
     private static final Logger logger = LogManager.getLogger(TrustAuthorityConnector.class);
 
-    private Config cfg;
+    // ObjectMapper is thread-safe once configured, shared by all requests
+    private static final ObjectMapper objectMapper = new ObjectMapper();
+
+    // Config and everything built from it, replaced as a whole by setConfig
+    private volatile ConnectorState state;
+
+    // Executors backing the *Async APIs, created on first use
+    private ScheduledExecutorService retryScheduler;
+    private ExecutorService evidenceExecutor;
+
+    // Request body compression counters, kept across config changes
+    private final CompressionStats compressionStats = new CompressionStats();
+
+    // Hedging latencies and counters, kept across config changes
+    private final Hedger hedger = new Hedger();
+
+    // Attestations in flight, shared by concurrent identical attestations when coalescing is enabled
+    private final SingleFlight<AttestationKey, AttestResponse> attestations = new SingleFlight<>();
 
     /**
      * Constructs a new TrustAuthorityConnector object with the specified config.
@@ -75,7 +106,8 @@ public class TrustAuthorityConnector {
      * @param cfg Config object provided by the user.
      */
     public TrustAuthorityConnector(Config cfg) {
-        this.cfg = cfg;
+        // Create the transports shared by all requests
+        this.state = createState(cfg);
 
         // Register Bouncy Castle as a JCE provider
         // required for token verification for PS algorithms
@@ -86,72 +118,172 @@ public class TrustAuthorityConnector {
      * getter function for config
      */
     public Config getConfig() {
-        return cfg;
+        return state.getConfig();
     }
 
     /**
-     * setter function for config
+     * setter function for config. Requests in flight complete with the previous config,
+     * whose transports are closed once they have completed.
      */
-    public void setConfig(Config cfg) {
-        this.cfg = cfg;
+    public synchronized void setConfig(Config cfg) {
+        ConnectorState previous = state;
+        state = createState(cfg);
+        previous.retire();
     }
 
     /**
-     * Fetches the nonce from the TrustAuthority server using the specified API URL
+     * getter function for the transport used for blocking requests
+     */
+    public HttpTransport getHttpTransport() {
+        return state.getTransport();
+    }
+
+    /**
+     * Returns a snapshot of the connection pool shared by all connector requests
      *
-     * @param args  GetNonceArgs object provided by the user.
-     * @return      GetNonceResponse object
+     * @return  ConnectionPoolStats object, or null if the transport does not expose pool statistics
      */
-    public GetNonceResponse GetNonce(GetNonceArgs args) throws Exception {
-        HttpURLConnection connection = null;
+    public ConnectionPoolStats getConnectionPoolStats() {
+        return state.getTransport().getConnectionPoolStats();
+    }
 
-        try {
-            // Request for nonce from TrustAuthority server
-            String url = String.format("%s/appraisal/v1/nonce", cfg.getApiUrl());
+    /**
+     * Returns the TLS handshake counters, used to check that new connections resume cached sessions
+     *
+     * @return  TlsStats object, or null if the transport does not expose handshake statistics
+     */
+    public TlsStats getTlsStats() {
+        return state.getTransport().getTlsStats();
+    }
 
-            // Initiate requestUrl based on the url
-            URL requestUrl = new URL(url);
+    /**
+     * Returns the request body compression counters, used to judge whether compression pays off
+     *
+     * @return  CompressionStats object
+     */
+    public CompressionStats getCompressionStats() {
+        return compressionStats;
+    }
 
-            // Set request properties
-            Map<String, String> requestProperties = new HashMap<String, String>() {{
-                put(Constants.HEADER_X_API_KEY, cfg.getApiKey());
-                put(Constants.HEADER_ACCEPT, Constants.MIME_APPLICATION_JSON);
-            }};
+    /**
+     * Returns a snapshot of the health of each endpoint requests are balanced across
+     *
+     * @return  List of EndpointStats objects, in the order of the endpoints in Config
+     */
+    public List<EndpointStats> getEndpointStats() {
+        return state.getLoadBalancer().getStats();
+    }
 
-            // Add optional requestID
-            if (args.getRequestId() != null) {
-                requestProperties.putAll(Map.of(
-                        Constants.HEADER_REQUEST_ID, args.getRequestId()
-                ));
-            }
+    /**
+     * Returns a snapshot of the circuit breaker of each target requests were sent to
+     *
+     * @return  List of CircuitBreakerStats objects, empty unless circuit breakers are configured
+     */
+    public List<CircuitBreakerStats> getCircuitBreakerStats() {
+        return state.getCircuitBreaker().getStats();
+    }
 
-            // Create the HttpURLConnection
-            connection = openConnectionWithRetries(requestUrl, "GET", requestProperties, null);
+    /**
+     * Returns a snapshot of the adaptive concurrency limit of outbound requests
+     *
+     * @return  ConcurrencyLimiterStats object, with the current limit and queue depth, a limit of 0 if none is configured
+     */
+    public ConcurrencyLimiterStats getConcurrencyLimiterStats() {
+        return state.getConcurrencyLimiter().getStats();
+    }
 
-            // Process the fetched response into the GetNonceResponse object
-            GetNonceResponse response = new GetNonceResponse();
+    /**
+     * Returns a snapshot of the nonce prefetch pool, used to check its hit rate
+     *
+     * @return  NoncePoolStats object, or null if no nonce pool is configured
+     */
+    public NoncePoolStats getNoncePoolStats() {
+        NoncePool pool = state.getNoncePool();
+        return pool != null ? pool.getStats() : null;
+    }
 
-            // Set response Header fields from the fetched response
-            response.setHeaders(connection.getHeaderFields());
+    /**
+     * Returns a snapshot of the token cache, used to check its hit rate
+     *
+     * @return  TokenCacheStats object, or null if no token cache is configured
+     */
+    public TokenCacheStats getTokenCacheStats() {
+        TokenCache cache = state.getTokenCache();
+        return cache != null ? cache.getStats() : null;
+    }
 
-            // Fetch the response from the server
-            String responseBody = readResponseBody(connection, HttpURLConnection.HTTP_OK);
+    /**
+     * Returns the number of attestations that shared an identical attestation in flight
+     * instead of starting their own, counted while coalescing is enabled
+     */
+    public long getCoalescedAttestations() {
+        return attestations.getCoalesced();
+    }
 
-            // Map the fetched response JSON to VerifierNonce object
-            ObjectMapper mapper = new ObjectMapper();
-            VerifierNonce nonce = mapper.readValue(responseBody, VerifierNonce.class);
+    /**
+     * Returns the hedged request counters, used to check the hedge rate and win rate
+     *
+     * @return  HedgingStats object
+     */
+    public HedgingStats getHedgingStats() {
+        return hedger.getStats();
+    }
 
-            // Set GetNonceResponse object nonce value with VerifierNonce
-            response.setNonce(nonce);
+    /**
+     * Closes the pooled connections held by the connector
+     */
+    @Override
+    public void close() throws IOException {
+        state.close();
+
+        // Stop the threads used by the *Async APIs
+        synchronized (this) {
+            if (retryScheduler != null) {
+                retryScheduler.shutdownNow();
+            }
+            if (evidenceExecutor != null) {
+                evidenceExecutor.shutdownNow();
+            }
+        }
+    }
 
-            return response;
+    /**
+     * Fetches the nonce from the TrustAuthority server using the specified API URL
+     *
+     * @param args  GetNonceArgs object provided by the user.
+     * @return      GetNonceResponse object
+     */
+    public GetNonceResponse GetNonce(GetNonceArgs args) throws Exception {
+        return GetNonce(args, null);
+    }
+
+    /**
+     * Fetches the nonce from the TrustAuthority server within the deadline of an attestation
+     *
+     * @param args      GetNonceArgs object provided by the user.
+     * @param deadline  Deadline of the attestation, may be null.
+     * @return          GetNonceResponse object
+     */
+    private GetNonceResponse GetNonce(GetNonceArgs args, Deadline deadline) throws Exception {
+        TransportResponse response = null;
+
+        try {
+            // Request for nonce from TrustAuthority server
+            String url = String.format("%s/appraisal/v1/nonce", getConfig().getApiUrl());
+            TransportRequest request = new TransportRequest("GET", url, getNonceRequestProperties(args), null);
+            request.setOperation(Constants.OPERATION_NONCE);
+            request.setDeadline(deadline);
+
+            // Send the request through the transport
+            response = executeWithHedging("nonce", request);
+
+            // Process the fetched response into the GetNonceResponse object
+            return createNonceResponse(response);
         } catch (Exception e) {
             throw new Exception("GetNonce() failed: " + e);
         } finally {
-            // Close the connection in the finally block to ensure it is always closed
-            if (connection != null) {
-                connection.disconnect();
-            }
+            // Release the connection back to the pool in the finally block
+            closeQuietly(response);
         }
     }
 
@@ -162,78 +294,89 @@ public class TrustAuthorityConnector {
      * @return      GetTokenResponse object
      */
     public GetTokenResponse GetToken(GetTokenArgs args) throws Exception {
-        HttpURLConnection connection = null;
+        return GetToken(args, null);
+    }
+
+    /**
+     * Fetches the token from the TrustAuthority server within the deadline of an attestation
+     *
+     * @param args      GetTokenArgs object provided by the user.
+     * @param deadline  Deadline of the attestation, may be null.
+     * @return          GetTokenResponse object
+     */
+    private GetTokenResponse GetToken(GetTokenArgs args, Deadline deadline) throws Exception {
+        TransportResponse response = null;
 
         try {
             // Request for token from TrustAuthority server
-            String url = String.format("%s/appraisal/v1/attest", cfg.getApiUrl());
-
-            // Create the TokenRequest object
-            TokenRequest tr = new TokenRequest(args.getEvidence().getQuote(), args.getNonce(),
-                                               args.getEvidence().getUserData(), args.getPolicyIds(),
-                                               args.getEvidence().getEventLog());
-
-            // Convert the TokenRequest to a JSON -> String
-            // to send as request to server
-            ObjectMapper objectMapper = new ObjectMapper();
-            // Serialize the TokenRequest object to a JSON string
-            String jsonString = objectMapper.writeValueAsString(tr);
-
-            // Initiate requestUrl based on the url
-            URL requestUrl = new URL(url);
-
-            // Set request properties
-            Map<String, String> requestProperties = new HashMap<String, String>() {{
-                put(Constants.HEADER_X_API_KEY, cfg.getApiKey());
-                put(Constants.HEADER_ACCEPT, Constants.MIME_APPLICATION_JSON);
-                put(Constants.HEADER_CONTENT_TYPE, Constants.MIME_APPLICATION_JSON);
-            }};
+            String url = String.format("%s/appraisal/v1/attest", getConfig().getApiUrl());
+            TransportRequest request = createTokenRequest(url, args);
+            request.setDeadline(deadline);
 
-            // Add optional requestID
-            if (args.getRequestId() != null) {
-                requestProperties.putAll(Map.of(
-                        Constants.HEADER_REQUEST_ID, args.getRequestId()
-                ));
-            }
-
-            // Create the HttpURLConnection
-            connection = openConnectionWithRetries(requestUrl, "POST", requestProperties, jsonString);
-
-            // read the response if connection OK
-            String responseBody = readResponseBody(connection, HttpURLConnection.HTTP_OK);
+            // Send the request through the transport, the TokenRequest is serialized once for all attempts
+            response = executeWithHedging("token", request);
 
             // Map the fetched response JSON to GetTokenResponse object
-            ObjectMapper mapper = new ObjectMapper();
-            GetTokenResponse tokenResponse = mapper.readValue(responseBody, GetTokenResponse.class);
-
-            // Set response headers
-            tokenResponse.setHeaders(connection.getHeaderFields());
-
-            return tokenResponse;
+            return createTokenResponse(response.getHeaders(), openResponseBody(response));
         } catch (Exception e) {
             throw new Exception("GetToken() failed: " + e);
         } finally {
-            // Close the connection in the finally block to ensure it is always closed
-            if (connection != null) {
-                connection.disconnect();
-            }
+            // Release the connection back to the pool in the finally block
+            closeQuietly(response);
         }
     }
 
     /**
-     * attest is used to initiate remote attestation with Trust Authority
+     * attest is used to initiate remote attestation with Trust Authority.
+     * If a token cache is configured, a valid cached token of the same attestation is returned instead.
+     * If coalescing is enabled, a call made while the same attestation is in flight waits for its result,
+     * up to the timeout of args.
      *
      * @param args  AttestArgs object provided by the user.
      *
      * @return AttestResponse object containing the reponse token and headers
      */
     public AttestResponse attest(AttestArgs args) throws Exception {
+        TokenCache cache = state.getTokenCache();
+        AttestResponse cached = cache != null ? cache.lookup(args) : null;
+        if (cached != null) {
+            logger.debug("Returning cached token...");
+            return cached;
+        }
+        if (!getConfig().isAttestCoalescingEnabled()) {
+            return attestAndCache(args, cache);
+        }
+        try {
+            return attestations.execute(new AttestationKey(args), () -> attestAndCache(args, cache), args.getTimeout());
+        } catch (TimeoutException e) {
+            throw new Exception("attest() failed: " + Deadline.expired("coalesced attestation"));
+        }
+    }
+
+    /**
+     * Helper function to attest, bypassing the token cache, and cache the token
+     */
+    private AttestResponse attestAndCache(AttestArgs args, TokenCache cache) throws Exception {
+        AttestResponse response = attestWithoutCache(args);
+        if (cache != null) {
+            cache.put(args, response);
+        }
+        return response;
+    }
+
+    /**
+     * Helper function to initiate remote attestation with Trust Authority, bypassing the token cache
+     */
+    private AttestResponse attestWithoutCache(AttestArgs args) throws Exception {
         try {
+            // Start the overall deadline shared by all the stages, if any
+            Deadline deadline = Deadline.after(args.getTimeout());
+
             // Creating an empty AttestResponse object
             AttestResponse response = new AttestResponse(null, null);
 
-            // Calling the GetNonce() API
-            GetNonceResponse nonceResponse = GetNonce(new GetNonceArgs(args.getRequestId()));
+            // Take a prefetched nonce from the pool, or call the GetNonce() API
+            GetNonceResponse nonceResponse = acquireNonce(args.getRequestId(), deadline);
             if (nonceResponse == null) {
                 throw new Exception("Failed to collect nonce from Trust Authority");
             }
@@ -244,14 +387,20 @@ public class TrustAuthorityConnector {
             response.setHeaders(nonceResponse.getHeaders());
 
             // Create a combinedNonce using nonceValue and iat from nonceResponse
-            byte[] nonceValue = nonceResponse.getNonce().getVal();
-            byte[] iat = nonceResponse.getNonce().getIat();
-            byte[] combinedNonce = new byte[nonceValue.length + iat.length];
-            System.arraycopy(nonceValue, 0, combinedNonce, 0, nonceValue.length);
-            System.arraycopy(iat, 0, combinedNonce, nonceValue.length, iat.length);
-
-            // Fetch the SGX/TDX associated quote
-            Evidence evidence = args.getAdapter().collectEvidence(combinedNonce);
+            byte[] combinedNonce = combineNonce(nonceResponse.getNonce());
+
+            // Fetch the SGX/TDX associated quote, on the evidence executor if it must be bounded by the deadline
+            Evidence evidence;
+            if (deadline == null) {
+                evidence = args.getAdapter().collectEvidence(combinedNonce);
+            } else {
+                try {
+                    evidence = collectEvidenceAsync(args.getAdapter(), combinedNonce, deadline).get();
+                } catch (ExecutionException e) {
+                    Throwable cause = unwrapCompletionException(e.getCause());
+                    throw cause instanceof Exception ? (Exception) cause : new Exception(cause);
+                }
+            }
             if (evidence == null) {
                 throw new Exception("Failed to collect evidence from adapter");
             }
@@ -259,7 +408,7 @@ public class TrustAuthorityConnector {
             logger.debug("Collected evidence from adapter successfully...");
 
             // Calling the GetToken() API
-            GetTokenResponse tokenResponse = GetToken(new GetTokenArgs(nonceResponse.getNonce(), evidence, args.getPolicyIds(), args.getRequestId()));
+            GetTokenResponse tokenResponse = GetToken(new GetTokenArgs(nonceResponse.getNonce(), evidence, args.getPolicyIds(), args.getRequestId()), deadline);
             if (tokenResponse == null) {
                 throw new Exception("Failed to collect token from Trust Authority");
             }
@@ -282,35 +431,22 @@ public class TrustAuthorityConnector {
      * @return The received certs from trust Authority server in bytes format
      */
     public String getTokenSigningCertificates() throws Exception {
-        HttpURLConnection connection = null;
+        TransportResponse response = null;
 
         try {
-            // Format the request endpoint using the URL
-            String url = String.format("%s/certs", cfg.getBaseUrl());
-
-            // Create the URL object
-            URL requestUrl = new URL(url);
-
-            // Set request properties
-            Map<String, String> requestProperties = Map.of(
-                    Constants.HEADER_ACCEPT, Constants.MIME_APPLICATION_JSON
-            );
-
-            // Create the HttpURLConnection
-            connection = openConnectionWithRetries(requestUrl, "GET", requestProperties, null);
+            // Send the request through the transport
+            response = executeWithRetries(createCertificatesRequest());
 
             // read the response if connection OK
-            String responseBody = readResponseBody(connection, HttpURLConnection.HTTP_OK);
+            String responseBody = readResponseBody(response);
 
             // return the jwks in string format
             return responseBody;
         } catch (Exception e) {
             throw new Exception("getTokenSigningCertificates() failed: " + e);
         } finally {
-            // Close the connection in the finally block to ensure it is always closed
-            if (connection != null) {
-                connection.disconnect();
-            }
+            // Release the connection back to the pool in the finally block
+            closeQuietly(response);
         }
     }
 
@@ -324,105 +460,336 @@ public class TrustAuthorityConnector {
     public JWTClaimsSet verifyToken(String token) throws Exception {
         try {
             // Create the JWT object by parsing the token
-            SignedJWT signedJWT = SignedJWT.parse(token);
+            SignedJWT signedJWT = parseToken(token);
 
-            // Retrieve the JWS header
-            JWSHeader jwsHeader = signedJWT.getHeader();
+            // Fetch certs from Trust Authority and parse the JWKS straight from the response
+            JWKSet jwkSet = fetchTokenSigningKeys();
 
-            // Fetch kid from parsed token
-            String kid = signedJWT.getHeader().getKeyID();
-            if (kid == null) {
-                throw new Exception("kid field missing in token header");
-            }
+            // Create a verifier for the key matching the parsed token
+            JWSVerifier verifier = createTokenVerifier(signedJWT, jwkSet);
 
-            // Fetch certs from getTokenSigningCertificates() API
-            String jwks = getTokenSigningCertificates();
+            // Parse the JWKS and retrieve the X.509 certificates
+            List<X509Certificate> certificates = extractCertificatesFromJWKS(jwkSet);
 
-            // Parse the JWKS
-            JWKSet jwkSet = JWKSet.parse(jwks);
+            // Fetch the ATS CRL object from CRL distribution points of leafCertificate
+            X509CRL atsCrl = getCRL(getCRLDistributionPoints(getLeafCertificate(certificates)).get(0));
 
-            // Check if keys exist
-            if (jwkSet.getKeys().size() == 0) {
-                throw new Exception("No keys present in JWKSet");
-            }
+            // Fetch the Root CA CRL object from CRL distribution points of intermediateCertificate
+            X509CRL rootCrl = getCRL(getCRLDistributionPoints(getIntermediateCertificate(certificates)).get(0));
 
-            // Check if key is matching with the parsed token
-            JWK jwkKey = jwkSet.getKeyByKeyId(kid);
-            if (jwkKey == null) {
-                throw new Exception("Could not find Key matching the key id");
-            }
+            return verifyTokenWithCertificates(signedJWT, verifier, certificates, atsCrl, rootCrl);
+        } catch (Exception e) {
+            throw new Exception("verifyToken() failed: " + e);
+        }
+    }
 
-            // Get the JWK (JSON Web Key) from the set
-            RSAKey rsaKey = (RSAKey) jwkKey;
+    /**
+     * getNonceAsync fetches the nonce from the TrustAuthority server without blocking the caller
+     *
+     * @param args  GetNonceArgs object provided by the user.
+     * @return      CompletableFuture completed with the GetNonceResponse object
+     */
+    public CompletableFuture<GetNonceResponse> getNonceAsync(GetNonceArgs args) {
+        return getNonceAsync(args, null);
+    }
 
-            // Build a RSA public key from the JWK
-            RSAPublicKey publicKey = rsaKey.toRSAPublicKey();
+    /**
+     * getNonceAsync fetches the nonce from the TrustAuthority server within the deadline of an attestation
+     *
+     * @param args      GetNonceArgs object provided by the user.
+     * @param deadline  Deadline of the attestation, may be null.
+     * @return          CompletableFuture completed with the GetNonceResponse object
+     */
+    private CompletableFuture<GetNonceResponse> getNonceAsync(GetNonceArgs args, Deadline deadline) {
+        try {
+            // Request for nonce from TrustAuthority server
+            String url = String.format("%s/appraisal/v1/nonce", getConfig().getApiUrl());
+            TransportRequest request = new TransportRequest("GET", url, getNonceRequestProperties(args), null);
+            request.setOperation(Constants.OPERATION_NONCE);
+            request.setDeadline(deadline);
+
+            CompletableFuture<GetNonceResponse> future = executeAsyncWithHedging("nonce", request)
+                    .thenApply(response -> {
+                        try {
+                            return createNonceResponse(response);
+                        } catch (Exception e) {
+                            throw new CompletionException(e);
+                        } finally {
+                            closeQuietly(response);
+                        }
+                    });
+            return withErrorContext(future, "getNonceAsync()");
+        } catch (Exception e) {
+            return CompletableFuture.failedFuture(new Exception("getNonceAsync() failed: " + e));
+        }
+    }
 
-            // Get the algorithm dynamically
-            JWSAlgorithm jwsAlgorithm = JWSAlgorithm.parse(rsaKey.getAlgorithm().getName());
+    /**
+     * getTokenAsync fetches the token from the TrustAuthority server without blocking the caller
+     *
+     * @param args  GetTokenArgs object provided by the user.
+     * @return      CompletableFuture completed with the GetTokenResponse object
+     */
+    public CompletableFuture<GetTokenResponse> getTokenAsync(GetTokenArgs args) {
+        return getTokenAsync(args, null);
+    }
 
-            // Create a verifier
-            JWSVerifier verifier;
-            if (jwsAlgorithm.getName().startsWith("RS")) {
-                verifier = new RSASSAVerifier(publicKey);
-            } else if (jwsAlgorithm.getName().startsWith("PS")) {
-                verifier = new RSASSAVerifier(publicKey);
-            } else {
-                throw new JOSEException("Unsupported algorithm: " + jwsAlgorithm.getName());
-            }
+    /**
+     * getTokenAsync fetches the token from the TrustAuthority server within the deadline of an attestation
+     *
+     * @param args      GetTokenArgs object provided by the user.
+     * @param deadline  Deadline of the attestation, may be null.
+     * @return          CompletableFuture completed with the GetTokenResponse object
+     */
+    private CompletableFuture<GetTokenResponse> getTokenAsync(GetTokenArgs args, Deadline deadline) {
+        try {
+            // Request for token from TrustAuthority server
+            String url = String.format("%s/appraisal/v1/attest", getConfig().getApiUrl());
+            TransportRequest request = createTokenRequest(url, args);
+            request.setDeadline(deadline);
+
+            CompletableFuture<GetTokenResponse> future = executeAsyncWithHedging("token", request)
+                    .thenApply(response -> {
+                        try {
+                            return createTokenResponse(response.getHeaders(), openResponseBody(response));
+                        } catch (Exception e) {
+                            throw new CompletionException(e);
+                        } finally {
+                            closeQuietly(response);
+                        }
+                    });
+            return withErrorContext(future, "getTokenAsync()");
+        } catch (Exception e) {
+            return CompletableFuture.failedFuture(new Exception("getTokenAsync() failed: " + e));
+        }
+    }
 
-            // Parse the JWKS and retrieve the X.509 certificates
-            List<X509Certificate> certificates = extractCertificatesFromJWKS(jwkSet);
+    /**
+     * attestAsync initiates remote attestation with Trust Authority without blocking the caller.
+     * Evidence collection runs on a connector owned executor as adapters call into native libraries.
+     * If a token cache is configured, a valid cached token of the same attestation is returned instead.
+     * If coalescing is enabled, a call made while the same attestation is in flight shares its result;
+     * cancelling the returned future or reaching the timeout of args then leaves the shared attestation running.
+     *
+     * @param args  AttestArgs object provided by the user.
+     * @return      CompletableFuture completed with the AttestResponse object
+     */
+    public CompletableFuture<AttestResponse> attestAsync(AttestArgs args) {
+        TokenCache cache = state.getTokenCache();
+        AttestResponse cached = cache != null ? cache.lookup(args) : null;
+        if (cached != null) {
+            logger.debug("Returning cached token...");
+            return CompletableFuture.completedFuture(cached);
+        }
+        if (!getConfig().isAttestCoalescingEnabled()) {
+            return attestAsyncAndCache(args, cache);
+        }
+        CompletableFuture<AttestResponse> result = attestations.executeAsync(new AttestationKey(args),
+                () -> attestAsyncAndCache(args, cache));
+        if (args.getTimeout() > 0 && !result.isDone()) {
+            // Stop waiting at the timeout of this caller, the shared attestation has its own deadline
+            ScheduledFuture<?> timer = getRetryScheduler().schedule(() -> result.completeExceptionally(
+                    new Exception("attestAsync() failed: " + Deadline.expired("coalesced attestation"))),
+                    args.getTimeout(), TimeUnit.MILLISECONDS);
+            result.whenComplete((value, error) -> timer.cancel(false));
+        }
+        return result;
+    }
 
-            // Identify leaf, CA, and intermediate certificates
-            X509Certificate leafCertificate = certificates.get(0);
-            X509Certificate caCertificate = certificates.get(certificates.size() - 1);
-            List<X509Certificate> intermediateCerts = new ArrayList<>();
-            for (int i = 1; i < certificates.size() - 1; i++) {
-                intermediateCerts.add(certificates.get(i));
-            }
-            X509Certificate intermediateCertificate = intermediateCerts.get(0);
+    /**
+     * Helper function to attest without blocking, bypassing the token cache, and cache the token
+     */
+    private CompletableFuture<AttestResponse> attestAsyncAndCache(AttestArgs args, TokenCache cache) {
+        CompletableFuture<AttestResponse> future = attestAsyncWithoutCache(args);
+        if (cache != null) {
+            future.thenAccept(response -> cache.put(args, response));
+        }
+        return future;
+    }
 
-            // Get the CRL Distribution Points URI for leafCertificate and intermediateCertificate
-            List<String> listcrlDistributionPointsUriLeafCert = getCRLDistributionPoints(leafCertificate);
-            List<String> listcrlDistributionPointsUriIntermediateCert = getCRLDistributionPoints(intermediateCertificate);
+    /**
+     * Helper function to initiate remote attestation without blocking the caller, bypassing the token cache
+     */
+    private CompletableFuture<AttestResponse> attestAsyncWithoutCache(AttestArgs args) {
+        // Start the overall deadline shared by all the stages, if any
+        Deadline deadline = Deadline.after(args.getTimeout());
+
+        // Stages in flight, cancelled if the returned future is cancelled
+        List<CompletableFuture<?>> stages = Collections.synchronizedList(new ArrayList<>());
+
+        CompletableFuture<AttestResponse> future = track(stages, acquireNonceAsync(args.getRequestId(), deadline))
+                .thenCompose(nonceResponse -> {
+                    logger.debug("Collected nonce from Trust Authority successfully...");
+
+                    // Fetch the SGX/TDX associated quote
+                    byte[] combinedNonce = combineNonce(nonceResponse.getNonce());
+                    return track(stages, collectEvidenceAsync(args.getAdapter(), combinedNonce, deadline)).thenCompose(evidence -> {
+                        logger.debug("Collected evidence from adapter successfully...");
+
+                        // Calling the GetToken() API
+                        return track(stages, getTokenAsync(new GetTokenArgs(nonceResponse.getNonce(), evidence, args.getPolicyIds(), args.getRequestId()), deadline));
+                    });
+                })
+                .thenApply(tokenResponse -> {
+                    logger.debug("Collected token from Trust Authority successfully...");
+                    return new AttestResponse(tokenResponse.getToken(), tokenResponse.getHeaders());
+                });
+
+        CompletableFuture<AttestResponse> result = withErrorContext(future, "attestAsync()");
+        result.whenComplete((value, error) -> {
+            if (result.isCancelled()) {
+                // Release the stage in flight, such as a blocked evidence collection
+                synchronized (stages) {
+                    for (CompletableFuture<?> stage : stages) {
+                        stage.cancel(true);
+                    }
+                }
+            }
+        });
+        return result;
+    }
 
-            // Fetch the ATS CRL object from CRL distribution points of leafCertificate
-            X509CRL atsCrl = getCRL(listcrlDistributionPointsUriLeafCert.get(0));
+    /**
+     * attestAll attests a batch of workloads, running up to the default number of attestations in parallel
+     *
+     * @param argsList  List of AttestArgs objects, one per attestation.
+     * @return          List of AttestResult objects, in the order of argsList
+     */
+    public List<AttestResult> attestAll(List<AttestArgs> argsList) {
+        return attestAll(argsList, 0);
+    }
 
-            // verify the ATS Leaf certificate against ATS CRL
-            boolean isVerified = verifyCRL(atsCrl, leafCertificate, intermediateCertificate);
-            if (!isVerified) {
-                throw new Exception("Failed to check ATS Leaf certificate against ATS CRL");
-            }
+    /**
+     * attestAll attests a batch of workloads, running up to parallelism attestations at a time.
+     * A failed attestation is reported in its AttestResult and does not stop the others.
+     * The timeout of each AttestArgs starts when its attestation starts.
+     *
+     * @param argsList      List of AttestArgs objects, one per attestation.
+     * @param parallelism   maximum number of attestations in flight, 0 for the default.
+     * @return              List of AttestResult objects, in the order of argsList
+     */
+    public List<AttestResult> attestAll(List<AttestArgs> argsList, int parallelism) {
+        List<AttestResult> results = new ArrayList<>(argsList.size());
+        for (CompletableFuture<AttestResult> future : attestAllAsync(argsList, parallelism)) {
+            // The futures never complete exceptionally
+            results.add(future.join());
+        }
+        return results;
+    }
 
-            // Fetch the Root CA CRL object from CRL distribution points of intermediateCertificate
-            X509CRL rootCrl = getCRL(listcrlDistributionPointsUriIntermediateCert.get(0));
+    /**
+     * attestAllAsync attests a batch of workloads without blocking the caller, running up to parallelism
+     * attestations at a time. Each returned future completes, never exceptionally, as soon as its attestation
+     * does, so results can be consumed as they complete or together with CompletableFuture.allOf().
+     *
+     * @param argsList      List of AttestArgs objects, one per attestation.
+     * @param parallelism   maximum number of attestations in flight, 0 for the default.
+     * @return              List of CompletableFuture objects completed with the AttestResult, in the order of argsList
+     */
+    public List<CompletableFuture<AttestResult>> attestAllAsync(List<AttestArgs> argsList, int parallelism) {
+        int limit = parallelism > 0 ? parallelism : Constants.DEFAULT_ATTEST_ALL_PARALLELISM;
+        List<CompletableFuture<AttestResult>> results = new ArrayList<>(argsList.size());
+        for (int i = 0; i < argsList.size(); i++) {
+            results.add(new CompletableFuture<>());
+        }
 
-            // verify the ATS CA Certificate against Root CA CRL
-            isVerified = verifyCRL(rootCrl, intermediateCertificate, caCertificate);
-            if (!isVerified) {
-                throw new Exception("Failed to check ATS CA Certificate against Root CA CRL");
-            }
+        // Each slot runs the attestations one after another, taking the next one in argsList
+        AtomicInteger next = new AtomicInteger();
+        for (int slot = 0; slot < Math.min(limit, argsList.size()); slot++) {
+            runAttestations(argsList, results, next);
+        }
+        return Collections.unmodifiableList(results);
+    }
 
-            // Verify the certificate chain
-            if (!verifyCertificateChain(certificates)) {
-                throw new Exception("Certificate chain verification failed");
-            }
+    /**
+     * getTokenSigningCertificatesAsync fetches the token signing certificates without blocking the caller
+     *
+     * @return  CompletableFuture completed with the certs received from trust Authority server
+     */
+    public CompletableFuture<String> getTokenSigningCertificatesAsync() {
+        try {
+            // Send the request through the transport without blocking
+            CompletableFuture<String> future = executeAsyncWithRetries(createCertificatesRequest())
+                    .thenApply(response -> {
+                        try {
+                            return readResponseBody(response);
+                        } catch (IOException e) {
+                            throw new CompletionException(e);
+                        } finally {
+                            closeQuietly(response);
+                        }
+                    });
+            return withErrorContext(future, "getTokenSigningCertificatesAsync()");
+        } catch (Exception e) {
+            return CompletableFuture.failedFuture(new Exception("getTokenSigningCertificatesAsync() failed: " + e));
+        }
+    }
 
-            // Verify the signature
-            if (signedJWT.verify(verifier)) {
-                // Signature is valid
-                logger.debug("JWT signature validated successfully");
-            } else {
-                // Signature is not valid
-                throw new Exception("JWT signature is not valid");
-            }
+    /**
+     * getCRLAsync retrieves the CRL object from CRLDistributionPoints URL without blocking the caller
+     *
+     * @param crlUrl    URL associated with CRLDistributionPoints
+     * @return          CompletableFuture completed with the X509CRL object retrieved from crlUrl
+     */
+    public CompletableFuture<X509CRL> getCRLAsync(String crlUrl) {
+        try {
+            TransportRequest request = new TransportRequest("GET", crlUrl, null, null);
+
+            CompletableFuture<X509CRL> future = executeAsyncWithRetries(request)
+                    .thenApply(response -> {
+                        try {
+                            // Convert the response body to X509CRL
+                            CertificateFactory certificateFactory = CertificateFactory.getInstance("X.509");
+                            return (X509CRL) certificateFactory.generateCRL(openResponseBody(response));
+                        } catch (Exception e) {
+                            throw new CompletionException(e);
+                        } finally {
+                            closeQuietly(response);
+                        }
+                    });
+            return withErrorContext(future, "getCRLAsync()");
+        } catch (Exception e) {
+            return CompletableFuture.failedFuture(new Exception("getCRLAsync() failed: " + e));
+        }
+    }
 
-            return signedJWT.getJWTClaimsSet();
+    /**
+     * verifyTokenAsync does the signature verification of an attestation token without blocking the caller.
+     * The CRLs of the leaf and intermediate certificates are fetched concurrently.
+     *
+     * @param token     JWT token in string format
+     * @return          CompletableFuture completed with the signed JWS claims object
+     */
+    public CompletableFuture<JWTClaimsSet> verifyTokenAsync(String token) {
+        final SignedJWT signedJWT;
+        try {
+            // Create the JWT object by parsing the token
+            signedJWT = parseToken(token);
         } catch (Exception e) {
-            throw new Exception("verifyToken() failed: " + e);
+            return CompletableFuture.failedFuture(new Exception("verifyTokenAsync() failed: " + e));
         }
+
+        CompletableFuture<JWTClaimsSet> future = fetchTokenSigningKeysAsync().thenCompose(jwkSet -> {
+            try {
+                JWSVerifier verifier = createTokenVerifier(signedJWT, jwkSet);
+                List<X509Certificate> certificates = extractCertificatesFromJWKS(jwkSet);
+
+                // Fetch the ATS CRL and Root CA CRL concurrently
+                CompletableFuture<X509CRL> atsCrl = getCRLAsync(getCRLDistributionPoints(getLeafCertificate(certificates)).get(0));
+                CompletableFuture<X509CRL> rootCrl = getCRLAsync(getCRLDistributionPoints(getIntermediateCertificate(certificates)).get(0));
+
+                return atsCrl.thenCombine(rootCrl, (ats, root) -> {
+                    try {
+                        return verifyTokenWithCertificates(signedJWT, verifier, certificates, ats, root);
+                    } catch (Exception e) {
+                        throw new CompletionException(e);
+                    }
+                });
+            } catch (Exception e) {
+                throw new CompletionException(e);
+            }
+        });
+        return withErrorContext(future, "verifyTokenAsync()");
     }
 
     /**
@@ -472,19 +839,15 @@ public class TrustAuthorityConnector {
      * @return          X509CRL object retrieved from crlUrl
      */
     public X509CRL getCRL(String crlUrl) throws Exception {
-        HttpURLConnection connection = null;
-        URL requestUrl = null;
+        TransportResponse response = null;
         InputStream inputStream = null;
 
         try {
-            // Create a URL object
-            requestUrl = new URL(crlUrl);
-
-            // Create the HttpURLConnection
-            connection = openConnectionWithRetries(requestUrl, "GET", null, null);
+            // Send the request through the transport
+            response = executeWithRetries(new TransportRequest("GET", crlUrl, null, null));
 
-            // Get the input stream from the connection
-            inputStream = connection.getInputStream();
+            // Get the size limited input stream from the response
+            inputStream = openResponseBody(response);
 
             // Create a CertificateFactory for X.509
             CertificateFactory certificateFactory = CertificateFactory.getInstance("X.509");
@@ -501,9 +864,8 @@ public class TrustAuthorityConnector {
                 inputStream.close();
             }
 
-            if (connection != null) {
-                connection.disconnect();
-            }
+            // Release the connection back to the pool
+            closeQuietly(response);
         }
     }
 
@@ -615,110 +977,1293 @@ public class TrustAuthorityConnector {
     }
 
     /**
-     * Helper function to fetch the response from server
+     * Helper function to parse a token and check that it carries a kid
      *
-     * @param connection    HttpURLConnection object provided by the user.
-     * @param responseCode  Response code of the connection to read input/error message.
-     * @return              The server input/error message response as a string
+     * @param token     JWT token in string format
+     * @return          SignedJWT object parsed from the token
      */
-    private String readResponseBody(HttpURLConnection connection, int responseCode) throws IOException {
-        StringBuilder content = new StringBuilder();
-
-        // Read the response body
-        BufferedReader reader;
-        if (responseCode == HttpURLConnection.HTTP_OK) {
-            // Read InputStream if connection is successful
-            reader = new BufferedReader(new InputStreamReader(connection.getInputStream()));
-        } else {
-            // Read ErrorStream if connection is unsuccessful
-            reader = new BufferedReader(new InputStreamReader(connection.getErrorStream()));
-        }
+    private SignedJWT parseToken(String token) throws Exception {
+        SignedJWT signedJWT = SignedJWT.parse(token);
 
-        // Read the response or error message
-        String line;
-        StringBuilder response = new StringBuilder();
-        while ((line = reader.readLine()) != null) {
-            response.append(line);
+        // Fetch kid from parsed token
+        String kid = signedJWT.getHeader().getKeyID();
+        if (kid == null) {
+            throw new Exception("kid field missing in token header");
         }
-        reader.close();
-
-        return response.toString();
+        return signedJWT;
     }
 
     /**
-     * Helper function to establish HttpURLConnection with retry options
+     * Helper function to fetch the token signing certificates and parse them as they are read
      *
-     * @param url                   URL of the server to establish the connection with.
-     * @param requestMethod         Request method type to be set for the connection.
-     * @param requestProperties     List of request properties to be set for the connection.
-     * @param requestBody           If provided, writes requestBody to the output stream of connection.
-     * @return                      HttpURLConnection object on a successful response.
+     * @return          JWKSet object containing at least one key
      */
-    private HttpURLConnection openConnectionWithRetries(URL url, String requestMethod, Map<String, String> requestProperties, String requestBody) throws Exception {
-        // Set maxRetries and retryWaitTimeMillis based on Config
-        int maxRetries = cfg.getRetryConfig().getRetryMax();
-        long retryWaitTimeMillis = cfg.getRetryConfig().getRetryWaitMin() * 1000;
+    private JWKSet fetchTokenSigningKeys() throws Exception {
+        TransportResponse response = null;
 
-        // Initialize connection
-        HttpURLConnection connection = null;
+        try {
+            response = executeWithRetries(createCertificatesRequest());
+            return parseJwks(openResponseBody(response));
+        } finally {
+            // Release the connection back to the pool in the finally block
+            closeQuietly(response);
+        }
+    }
 
-        // Retry for establishing connection in a loop if it fails
-        for (int retry = 0; retry <= maxRetries; retry++) {
-            // Close the connection if already opened
-            if (connection != null && connection.getDoOutput()) {
-                logger.debug("Closing existing connection");
-                connection.disconnect();
+    /**
+     * Helper function to fetch the token signing certificates without blocking the caller
+     *
+     * @return          CompletableFuture completed with the JWKSet object
+     */
+    private CompletableFuture<JWKSet> fetchTokenSigningKeysAsync() {
+        return executeAsyncWithRetries(createCertificatesRequest()).thenApply(response -> {
+            try {
+                return parseJwks(openResponseBody(response));
+            } catch (Exception e) {
+                throw new CompletionException(e);
+            } finally {
+                closeQuietly(response);
             }
+        });
+    }
 
-            // Open a new connection
-            connection = (HttpURLConnection) url.openConnection();
-
-            // Set request method
-            connection.setRequestMethod(requestMethod);
+    /**
+     * Helper function to parse the JWKS fetched from Trust Authority
+     *
+     * @param jwks      JWKS response body stream
+     * @return          JWKSet object containing at least one key
+     */
+    @SuppressWarnings("unchecked")
+    private JWKSet parseJwks(InputStream jwks) throws Exception {
+        // Parse the JSON from the stream and build the JWKSet from the resulting object
+        JWKSet jwkSet = JWKSet.parse((Map<String, Object>) objectMapper.readValue(jwks, Map.class));
+
+        // Check if keys exist
+        if (jwkSet.getKeys().size() == 0) {
+            throw new Exception("No keys present in JWKSet");
+        }
+        return jwkSet;
+    }
 
-            // Set request properties
-            if (requestProperties != null) {
-                for (Map.Entry<String, String> entry : requestProperties.entrySet()) {
-                    connection.setRequestProperty(entry.getKey(), entry.getValue());
-                }
+    /**
+     * Helper function to create a verifier from the JWK matching the kid of the token
+     *
+     * @param signedJWT     SignedJWT object to be verified
+     * @param jwkSet        JWKSet object fetched from Trust Authority
+     * @return              JWSVerifier object for the token signature
+     */
+    private JWSVerifier createTokenVerifier(SignedJWT signedJWT, JWKSet jwkSet) throws Exception {
+        // Check if key is matching with the parsed token
+        JWK jwkKey = jwkSet.getKeyByKeyId(signedJWT.getHeader().getKeyID());
+        if (jwkKey == null) {
+            throw new Exception("Could not find Key matching the key id");
+        }
+
+        // Get the JWK (JSON Web Key) from the set
+        RSAKey rsaKey = (RSAKey) jwkKey;
+
+        // Build a RSA public key from the JWK
+        RSAPublicKey publicKey = rsaKey.toRSAPublicKey();
+
+        // Get the algorithm dynamically
+        JWSAlgorithm jwsAlgorithm = JWSAlgorithm.parse(rsaKey.getAlgorithm().getName());
+
+        // Create a verifier
+        if (jwsAlgorithm.getName().startsWith("RS")) {
+            return new RSASSAVerifier(publicKey);
+        } else if (jwsAlgorithm.getName().startsWith("PS")) {
+            return new RSASSAVerifier(publicKey);
+        } else {
+            throw new JOSEException("Unsupported algorithm: " + jwsAlgorithm.getName());
+        }
+    }
+
+    /**
+     * Helper function to identify the leaf certificate in the JWKS certificate chain
+     */
+    private X509Certificate getLeafCertificate(List<X509Certificate> certificates) {
+        return certificates.get(0);
+    }
+
+    /**
+     * Helper function to identify the intermediate certificate in the JWKS certificate chain
+     */
+    private X509Certificate getIntermediateCertificate(List<X509Certificate> certificates) {
+        List<X509Certificate> intermediateCerts = new ArrayList<>();
+        for (int i = 1; i < certificates.size() - 1; i++) {
+            intermediateCerts.add(certificates.get(i));
+        }
+        return intermediateCerts.get(0);
+    }
+
+    /**
+     * Helper function to verify the token against the certificate chain and CRLs fetched from Trust Authority
+     *
+     * @param signedJWT     SignedJWT object to be verified
+     * @param verifier      JWSVerifier object for the token signature
+     * @param certificates  List of leaf, intermediate and CA certificates
+     * @param atsCrl        CRL of the leaf certificate
+     * @param rootCrl       CRL of the intermediate certificate
+     * @return              Signed JWS claims object
+     */
+    private JWTClaimsSet verifyTokenWithCertificates(SignedJWT signedJWT, JWSVerifier verifier, List<X509Certificate> certificates,
+                                                     X509CRL atsCrl, X509CRL rootCrl) throws Exception {
+        // Identify leaf, CA, and intermediate certificates
+        X509Certificate leafCertificate = getLeafCertificate(certificates);
+        X509Certificate caCertificate = certificates.get(certificates.size() - 1);
+        X509Certificate intermediateCertificate = getIntermediateCertificate(certificates);
+
+        // verify the ATS Leaf certificate against ATS CRL
+        boolean isVerified = verifyCRL(atsCrl, leafCertificate, intermediateCertificate);
+        if (!isVerified) {
+            throw new Exception("Failed to check ATS Leaf certificate against ATS CRL");
+        }
+
+        // verify the ATS CA Certificate against Root CA CRL
+        isVerified = verifyCRL(rootCrl, intermediateCertificate, caCertificate);
+        if (!isVerified) {
+            throw new Exception("Failed to check ATS CA Certificate against Root CA CRL");
+        }
+
+        // Verify the certificate chain
+        if (!verifyCertificateChain(certificates)) {
+            throw new Exception("Certificate chain verification failed");
+        }
+
+        // Verify the signature
+        if (signedJWT.verify(verifier)) {
+            // Signature is valid
+            logger.debug("JWT signature validated successfully");
+        } else {
+            // Signature is not valid
+            throw new Exception("JWT signature is not valid");
+        }
+
+        return signedJWT.getJWTClaimsSet();
+    }
+
+    /**
+     * Helper function to create the combined nonce (val followed by iat) passed to the adapter
+     *
+     * @param nonce     VerifierNonce object fetched from Trust Authority
+     * @return          combined nonce in bytes
+     */
+    private byte[] combineNonce(VerifierNonce nonce) {
+        byte[] nonceValue = nonce.getVal();
+        byte[] iat = nonce.getIat();
+        byte[] combinedNonce = new byte[nonceValue.length + iat.length];
+        System.arraycopy(nonceValue, 0, combinedNonce, 0, nonceValue.length);
+        System.arraycopy(iat, 0, combinedNonce, nonceValue.length, iat.length);
+        return combinedNonce;
+    }
+
+    /**
+     * Helper function to create the transports, load balancer and other components of the config
+     */
+    private ConnectorState createState(Config cfg) {
+        HttpTransport transport = createTransport(cfg);
+        return new ConnectorState(cfg, transport, createAsyncTransport(cfg, transport), new LoadBalancer(cfg),
+                                  new CircuitBreaker(cfg.getCircuitBreakerConfig()),
+                                  new ConcurrencyLimiter(cfg.getConcurrencyLimitConfig()),
+                                  createNoncePool(cfg), createTokenCache(cfg));
+    }
+
+    /**
+     * Helper function to take the current state for a request, released once the request completes
+     *
+     * @return  ConnectorState object whose transports stay open until it is released
+     */
+    private ConnectorState acquireState() throws Exception {
+        ConnectorState current = state;
+        while (!current.acquire()) {
+            // The state was replaced and closed meanwhile, use its replacement unless the connector is closed
+            if (current == state) {
+                throw new Exception("TrustAuthorityConnector is closed. Request failed.");
             }
+            current = state;
+        }
+        return current;
+    }
+
+    /**
+     * Helper function to create the nonce pool of the config, null unless configured
+     */
+    private NoncePool createNoncePool(Config cfg) {
+        if (cfg.getNoncePoolConfig() == null) {
+            return null;
+        }
+        return new NoncePool(cfg.getNoncePoolConfig(),
+                () -> getNonceAsync(new GetNonceArgs(null), null).thenApply(GetNonceResponse::getNonce));
+    }
+
+    /**
+     * Helper function to create the token cache of the config, null unless configured
+     */
+    private TokenCache createTokenCache(Config cfg) {
+        if (cfg.getTokenCacheConfig() == null) {
+            return null;
+        }
+        return new TokenCache(cfg.getTokenCacheConfig(), this::attestAsyncWithoutCache);
+    }
+
+    /**
+     * Helper function to take a nonce from the nonce pool, fetching one if the pool holds none
+     *
+     * @param requestId     requestId of the attestation, may be null.
+     * @param deadline      Deadline of the attestation, may be null.
+     * @return              GetNonceResponse object, without headers if the nonce was taken from the pool
+     */
+    private GetNonceResponse acquireNonce(String requestId, Deadline deadline) throws Exception {
+        GetNonceResponse pooled = pollNoncePool();
+        return pooled != null ? pooled : GetNonce(new GetNonceArgs(requestId), deadline);
+    }
+
+    /**
+     * Helper function to take a nonce from the nonce pool, fetching one without blocking if the pool holds none
+     */
+    private CompletableFuture<GetNonceResponse> acquireNonceAsync(String requestId, Deadline deadline) {
+        GetNonceResponse pooled = pollNoncePool();
+        return pooled != null ? CompletableFuture.completedFuture(pooled) : getNonceAsync(new GetNonceArgs(requestId), deadline);
+    }
+
+    /**
+     * Helper function to take a nonce from the nonce pool
+     */
+    private GetNonceResponse pollNoncePool() {
+        NoncePool pool = state.getNoncePool();
+        VerifierNonce nonce = pool != null ? pool.poll() : null;
+        if (nonce == null) {
+            return null;
+        }
+        logger.debug("Took nonce from the nonce pool...");
+        GetNonceResponse response = new GetNonceResponse();
+        response.setNonce(nonce);
+        return response;
+    }
+
+    /**
+     * Helper function to create the request properties for GetNonce() API
+     */
+    private Map<String, String> getNonceRequestProperties(GetNonceArgs args) {
+        // Set request properties
+        Map<String, String> requestProperties = new HashMap<String, String>() {{
+            put(Constants.HEADER_X_API_KEY, getConfig().getApiKey());
+            put(Constants.HEADER_ACCEPT, Constants.MIME_APPLICATION_JSON);
+        }};
+
+        // Add optional requestID
+        if (args.getRequestId() != null) {
+            requestProperties.putAll(Map.of(
+                    Constants.HEADER_REQUEST_ID, args.getRequestId()
+            ));
+        }
+        return requestProperties;
+    }
 
-            // Write output value if provided
-            if (requestBody != null) {
-                connection.setDoOutput(true);
-                connection.getOutputStream().write(requestBody.getBytes("UTF-8"));
+    /**
+     * Helper function to create the request properties for GetToken() API
+     */
+    private Map<String, String> getTokenRequestProperties(GetTokenArgs args) {
+        // Set request properties
+        Map<String, String> requestProperties = new HashMap<String, String>() {{
+            put(Constants.HEADER_X_API_KEY, getConfig().getApiKey());
+            put(Constants.HEADER_ACCEPT, Constants.MIME_APPLICATION_JSON);
+            put(Constants.HEADER_CONTENT_TYPE, Constants.MIME_APPLICATION_JSON);
+        }};
+
+        // Add optional requestID
+        if (args.getRequestId() != null) {
+            requestProperties.putAll(Map.of(
+                    Constants.HEADER_REQUEST_ID, args.getRequestId()
+            ));
+        }
+        return requestProperties;
+    }
+
+    /**
+     * Helper function to create the request properties for getTokenSigningCertificates() API
+     */
+    private Map<String, String> getCertificatesRequestProperties() {
+        return Map.of(
+                Constants.HEADER_ACCEPT, Constants.MIME_APPLICATION_JSON
+        );
+    }
+
+    /**
+     * Helper function to create the TokenRequest body for GetToken() API
+     *
+     * @param args  GetTokenArgs object provided by the user.
+     * @return      RequestBody serializing the TokenRequest to JSON
+     */
+    private RequestBody createTokenRequestBody(GetTokenArgs args) {
+        // Create the TokenRequest object
+        TokenRequest tr = new TokenRequest(args.getEvidence().getQuote(), args.getNonce(),
+                                           args.getEvidence().getUserData(), args.getPolicyIds(),
+                                           args.getEvidence().getEventLog());
+
+        // The TokenRequest is serialized to JSON directly on the connection output stream if chunked,
+        // otherwise once into the buffer that sizes it
+        Config cfg = getConfig();
+        JsonRequestBody json = new JsonRequestBody(objectMapper, tr, cfg.isRequestBodyChunked());
+
+        // Compress the body if enabled and the serialized size reaches the threshold
+        CompressionConfig compression = cfg.getCompressionConfig();
+        if (compression != null && compression.isEnabled()) {
+            JsonRequestBody sized = cfg.isRequestBodyChunked() ? new JsonRequestBody(objectMapper, tr, false) : json;
+            if (sized.getContentLength() >= compression.getThreshold()) {
+                return new GzipRequestBody(sized, compression.getLevel(), compressionStats);
+            }
+            compressionStats.recordSkipped();
+        }
+        return json;
+    }
+
+    /**
+     * Helper function to create the GetToken request, sent to the endpoint that issued the nonce if nonce affinity is enabled
+     *
+     * @param url   URL of the attest endpoint.
+     * @param args  GetTokenArgs object provided by the user.
+     * @return      TransportRequest object
+     */
+    private TransportRequest createTokenRequest(String url, GetTokenArgs args) {
+        TransportRequest request = new TransportRequest("POST", url, getTokenRequestProperties(args), createTokenRequestBody(args));
+        request.setOperation(Constants.OPERATION_ATTEST);
+        LoadBalancerConfig lbConfig = getConfig().getLoadBalancerConfig();
+        if ((lbConfig == null || lbConfig.isNonceAffinity()) && args.getNonce() != null) {
+            request.setEndpoint(args.getNonce().getEndpoint());
+        }
+        return request;
+    }
+
+    /**
+     * Helper function to create the request fetching the token signing certificates
+     *
+     * @return      TransportRequest object
+     */
+    private TransportRequest createCertificatesRequest() {
+        // Format the request endpoint using the URL
+        String url = String.format("%s/certs", getConfig().getBaseUrl());
+        TransportRequest request = new TransportRequest("GET", url, getCertificatesRequestProperties(), null);
+        request.setOperation(Constants.OPERATION_CERTS);
+        return request;
+    }
+
+    /**
+     * Helper function to create the GetNonceResponse from the fetched response
+     *
+     * @param transportResponse   response fetched from the endpoint
+     * @return                      GetNonceResponse object
+     */
+    private GetNonceResponse createNonceResponse(TransportResponse transportResponse) throws Exception {
+        // Process the fetched response into the GetNonceResponse object
+        GetNonceResponse response = new GetNonceResponse();
+
+        // Set response Header fields from the fetched response
+        response.setHeaders(transportResponse.getHeaders());
+
+        // Map the fetched response JSON to VerifierNonce object
+        VerifierNonce nonce = objectMapper.readValue(openResponseBody(transportResponse), VerifierNonce.class);
+
+        // Remember the endpoint that issued the nonce, for GetToken to use the same endpoint
+        nonce.setEndpoint(transportResponse.getEndpoint());
+
+        // Set GetNonceResponse object nonce value with VerifierNonce
+        response.setNonce(nonce);
+
+        return response;
+    }
+
+    /**
+     * Helper function to create the GetTokenResponse from the fetched response
+     *
+     * @param headers       response headers
+     * @param responseBody  response body stream
+     * @return              GetTokenResponse object
+     */
+    private GetTokenResponse createTokenResponse(Map<String, List<String>> headers, InputStream responseBody) throws Exception {
+        // Map the fetched response JSON to GetTokenResponse object
+        GetTokenResponse tokenResponse = objectMapper.readValue(responseBody, GetTokenResponse.class);
+
+        // Set response headers
+        tokenResponse.setHeaders(headers);
+
+        return tokenResponse;
+    }
+
+    /**
+     * Helper function to fetch the response from server
+     *
+     * @param response  TransportResponse object returned for the request.
+     * @return          The server response body as a string
+     */
+    private String readResponseBody(TransportResponse response) throws IOException {
+        // Reading the body to the end allows the connection to be reused
+        return new String(openResponseBody(response).readAllBytes(), StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Helper function to open the response body bounded by the configured maximum response body size
+     *
+     * @param response  TransportResponse object returned for the request.
+     * @return          The server response body stream
+     */
+    private InputStream openResponseBody(TransportResponse response) throws IOException {
+        long maxSize = getConfig().getMaxResponseBodySize();
+        LimitedInputStream.checkContentLength(response.getHeaders(), maxSize);
+        return new LimitedInputStream(response.getBody(), maxSize);
+    }
+
+    /**
+     * Helper function to close a resource and log the failure if any
+     *
+     * @param closeable     Closeable object to be closed, may be null.
+     */
+    private void closeQuietly(Closeable closeable) {
+        if (closeable == null) {
+            return;
+        }
+        try {
+            closeable.close();
+        } catch (IOException e) {
+            logger.debug("Failed to close resource: " + e);
+        }
+    }
+
+    /**
+     * Helper function to create the transport for the config
+     *
+     * @param cfg   Config object provided by the user.
+     * @return      HttpTransport provided in the config, or the default transport
+     */
+    private static HttpTransport createTransport(Config cfg) {
+        if (cfg.getHttpTransport() != null) {
+            return cfg.getHttpTransport();
+        }
+        // HTTP/2 is only supported by the JDK client, otherwise use pooled Apache HttpClient connections
+        if (cfg.isHttp2Enabled()) {
+            return new JdkHttpTransport(cfg);
+        }
+        return new ApacheHttpTransport(cfg);
+    }
+
+    /**
+     * Helper function to create the transport for the *Async APIs
+     *
+     * @param cfg       Config object provided by the user.
+     * @param transport HttpTransport used for blocking requests.
+     * @return          HttpTransport provided in the config, or the non-blocking JDK transport
+     */
+    private static HttpTransport createAsyncTransport(Config cfg, HttpTransport transport) {
+        // A transport provided in the config, or the JDK transport used for HTTP/2, serves both
+        if (cfg.getHttpTransport() != null || transport instanceof JdkHttpTransport) {
+            return transport;
+        }
+        // Apache HttpClient 4.x is blocking, the *Async APIs default to the non-blocking JDK client
+        return new JdkHttpTransport(cfg);
+    }
+
+    /**
+     * Helper function to create the request sent for one attempt, routed to the selected endpoint
+     * and with the read timeout capped by the time left before the deadline
+     *
+     * @param s         ConnectorState the request is sent with.
+     * @param request   TransportRequest object built by the API.
+     * @param endpoint  Endpoint selected for the attempt.
+     * @return          TransportRequest object to be sent
+     */
+    private TransportRequest createAttempt(ConnectorState s, TransportRequest request, LoadBalancer.EndpointState endpoint) {
+        TransportRequest attempt = request.withUrl(s.getLoadBalancer().route(request.getUrl(), endpoint));
+        attempt.setTimeout(Deadline.cap(request.getDeadline(), s.getConfig().getReadTimeout()));
+        return attempt;
+    }
+
+    /**
+     * Helper function to send a request through the transport with retry options.
+     * Each attempt is routed to an endpoint selected by the load balancer, retries avoid the endpoint that failed.
+     * Which failures are retried and how long to wait in between is decided by the RetryPolicy,
+     * every retry is withdrawn from the RetryBudget.
+     *
+     * @param request   TransportRequest object to be sent to the server.
+     * @return          TransportResponse object on a successful response.
+     */
+    private TransportResponse executeWithRetries(TransportRequest request) throws Exception {
+        // The transports stay open until the response is closed, even if the config is changed meanwhile
+        ConnectorState s = acquireState();
+        TransportResponse response = null;
+        try {
+            response = executeWithRetries(s, request);
+            response.setCloseHook(s::release);
+            return response;
+        } finally {
+            if (response == null) {
+                s.release();
+            }
+        }
+    }
+
+    /**
+     * Helper function to send a request through the transport of the specified state with retry options
+     *
+     * @param s         ConnectorState the request is sent with.
+     * @param request   TransportRequest object to be sent to the server.
+     * @return          TransportResponse object on a successful response.
+     */
+    private TransportResponse executeWithRetries(ConnectorState s, TransportRequest request) throws Exception {
+        // Set maxRetries based on Config
+        Config cfg = s.getConfig();
+        int maxRetries = cfg.getRetryConfig().getRetryMax();
+        RetryPolicy policy = cfg.getRetryPolicy();
+        LoadBalancer balancer = s.getLoadBalancer();
+        CircuitBreaker breaker = s.getCircuitBreaker();
+        ConcurrencyLimiter limiter = s.getConcurrencyLimiter();
+        LoadBalancer.EndpointState failedEndpoint = null;
+        long waitTime = 0;
+
+        // Retry sending the request in a loop if it fails
+        Deadline deadline = request.getDeadline();
+        for (int retry = 0; retry <= maxRetries; retry++) {
+            if (deadline != null) {
+                deadline.check("request to " + request.getUrl());
+            }
+            long permitWait = reservePermit(cfg, request);
+            if (permitWait > 0) {
+                logger.debug("Rate limited, sending in " + permitWait + " milliseconds...");
+                try {
+                    Thread.sleep(permitWait);
+                } catch (InterruptedException ex) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+            ConcurrencyLimiter.Permit permit = acquireConcurrencyPermit(limiter, request);
+            LoadBalancer.EndpointState endpoint;
+            try {
+                endpoint = balancer.select(request.getEndpoint(), failedEndpoint);
+            } catch (Exception e) {
+                permit.release();
+                throw e;
+            }
+            TransportRequest attempt = createAttempt(s, request, endpoint);
+            CircuitBreaker.Circuit circuit = breaker.get(attempt.getUrl());
+            if (!circuit.tryAcquire()) {
+                // The attempt was never sent, it says nothing about the health of the endpoint
+                permit.release();
+                endpoint.abandon();
+                if (retry < maxRetries && balancer.canFailOver(request)) {
+                    // Fail over to another endpoint right away
+                    logger.warn("Failing over from " + endpoint.getEndpoint() + " due to an open circuit breaker");
+                    failedEndpoint = endpoint;
+                    continue;
+                }
+                throw circuitOpen(circuit);
+            }
+            long start = System.nanoTime();
+
+            // Send the request, a pooled keep-alive connection is used when available
+            TransportResponse response = null;
+            boolean failed = false;
+            try {
+                response = s.getTransport().execute(attempt);
+            } catch (IOException e) {
+                failed = true;
+                // An oversized response came from a healthy endpoint, it is not counted as a failure of the target
+                boolean healthy = e instanceof ResponseTooLargeException;
+                long elapsed = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+                permit.release(healthy, elapsed, attempt.getUrl());
+                endpoint.release(healthy, elapsed);
+                recordOutcome(circuit, healthy);
+                // Any error is failed over to another endpoint, a single endpoint is only retried on transient errors
+                boolean failOver = balancer.canFailOver(request);
+                if (retry >= maxRetries || !(failOver || policy.isRetryable(e)) || !acquireRetry(cfg)) {
+                    throw e;
+                }
+                failedEndpoint = endpoint;
+                if (failOver) {
+                    // Fail over to another endpoint right away
+                    logger.warn("Failing over from " + endpoint.getEndpoint() + " due to: " + e);
+                } else {
+                    logger.warn("Retrying due to: " + e);
+                    checkCircuit(circuit);
+                    waitTime = policy.backoff(retry, waitTime, cfg.getRetryConfig());
+                    sleepBeforeRetry(waitTime, deadline);
+                }
+                continue;
+            } finally {
+                if (response == null && !failed) {
+                    // Release the attempt on any other error, such as a RuntimeException of a custom HttpTransport
+                    // or a closed pool, which says nothing about the target or its load
+                    permit.release();
+                    endpoint.abandon();
+                    circuit.release();
+                }
             }
 
-            // Establish connection
-            int responseCode = connection.getResponseCode();
             // Process the response
+            int responseCode = response.getStatusCode();
+            boolean healthy = !Constants.retryableStatusCodes.contains(responseCode);
+            long elapsed = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+            permit.release(healthy && responseCode != Constants.HTTP_TOO_MANY_REQUESTS, elapsed, attempt.getUrl());
+            endpoint.release(healthy, elapsed);
+            recordOutcome(circuit, healthy);
+            response.setEndpoint(endpoint.getEndpoint());
             if (responseCode == HttpURLConnection.HTTP_OK) {
-                // Successful connection
-                return connection;
-            } else if (Constants.retryableStatusCodes.contains(responseCode)) {
-                // Retry for response codes which are in set retryableStatusCodes
+                // Successful response
+                recordSuccess(cfg);
+                return response;
+            } else if (policy.isRetryable(responseCode)) {
+                long retryAfter = getRetryAfter(response);
+                // Release the failed response so its connection can be reused by the retry
+                closeQuietly(response);
+                failedEndpoint = endpoint;
+
+                // Retry for response codes which are retryable according to the RetryPolicy
                 logger.warn("Retrying due to unexpected response code: " + responseCode);
                 // If this is not the last retry, wait before the next retry
                 if (retry < maxRetries) {
-
-                    // Calculate the wait time with exponential backoff, capped at retryWaitMax
-                    long waitTime = Math.min(cfg.getRetryConfig().getRetryWaitMax() * 1000,
-                                             (1L << retry) * retryWaitTimeMillis);
-
-                    logger.debug("Retrying in " + waitTime + " milliseconds...");
-                    try {
-                        Thread.sleep(waitTime);
-                    } catch (InterruptedException ex) {
-                        Thread.currentThread().interrupt();
+                    if (!balancer.canFailOver(request)) {
+                        checkCircuit(circuit);
+                    }
+                    if (!acquireRetry(cfg)) {
+                        throw new Exception("Retry budget exhausted. Request failed.");
                     }
+                    waitTime = nextRetryWait(cfg, retry, waitTime, retryAfter, responseCode);
+                    sleepBeforeRetry(waitTime, deadline);
                 }
             } else {
-                // Return for connections where we should not retry for the response code
+                // Return for responses where we should not retry for the response code
+                String error;
+                try {
+                    error = readResponseBody(response);
+                } finally {
+                    closeQuietly(response);
+                }
                 throw new Exception("Connection failed with response code: " + responseCode +
-                                    " and error: " + readResponseBody(connection, responseCode));
+                                    " and error: " + error);
             }
         }
         // If all retries fail, throw an Exception
         throw new Exception("Maximum retries reached. Request failed.");
     }
+
+    /**
+     * Helper function to calculate the wait before retrying a response, honoring its Retry-After header
+     *
+     * @param cfg           Config of the request.
+     * @param retry         Number of retries already made for the request.
+     * @param previousWait  Wait in milliseconds before the previous retry.
+     * @param retryAfter    Retry-After of the response in milliseconds, -1 if absent.
+     * @param responseCode  Status code of the response.
+     * @return              wait in milliseconds
+     */
+    private long nextRetryWait(Config cfg, int retry, long previousWait, long retryAfter, int responseCode) throws Exception {
+        RetryPolicy policy = cfg.getRetryPolicy();
+        if (retryAfter > policy.getMaxRetryAfter() * 1000) {
+            // Give up rather than retry before the server is ready
+            throw new Exception("Connection failed with response code: " + responseCode +
+                                " and Retry-After of " + retryAfter + " milliseconds");
+        }
+        return Math.max(policy.backoff(retry, previousWait, cfg.getRetryConfig()), retryAfter);
+    }
+
+    /**
+     * Helper function to wait before a retry, giving up rather than waiting past the deadline
+     *
+     * @param waitTime  Wait in milliseconds.
+     * @param deadline  Deadline of the request, may be null.
+     */
+    private static void sleepBeforeRetry(long waitTime, Deadline deadline) throws TimeoutException {
+        if (deadline != null && waitTime >= deadline.remaining()) {
+            throw Deadline.expired("retry wait");
+        }
+
+        logger.debug("Retrying in " + waitTime + " milliseconds...");
+        try {
+            Thread.sleep(waitTime);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Helper function to reserve a permit for a request from the configured RateLimiter
+     *
+     * @param cfg       Config of the request.
+     * @param request   TransportRequest object to be sent.
+     * @return          time in milliseconds to wait before sending the request
+     */
+    private long reservePermit(Config cfg, TransportRequest request) throws Exception {
+        RateLimiter limiter = cfg.getRateLimiter();
+        if (limiter == null || request.getOperation() == null) {
+            return 0;
+        }
+        // Never wait for a permit past the deadline
+        Deadline deadline = request.getDeadline();
+        long maxWait = deadline != null ? deadline.remaining() : Long.MAX_VALUE;
+        long wait = limiter.reserve(cfg.getApiKey(), request.getOperation(), maxWait);
+        if (wait < 0) {
+            throw new Exception("Rate limit exceeded for " + request.getOperation() + " requests. Request failed.");
+        }
+        return wait;
+    }
+
+    /**
+     * Helper function to acquire a permit from the concurrency limiter, waiting in its queue if needed
+     *
+     * @param limiter   ConcurrencyLimiter of the connector.
+     * @param request   TransportRequest object to be sent.
+     * @return          Permit released with the outcome of the request
+     */
+    private ConcurrencyLimiter.Permit acquireConcurrencyPermit(ConcurrencyLimiter limiter, TransportRequest request) throws Exception {
+        CompletableFuture<ConcurrencyLimiter.Permit> future = limiter.acquire(getQueueWait(request), getRetryScheduler());
+        try {
+            return future.get();
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            throw cause instanceof Exception ? (Exception) cause : e;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            // Give the permit back if it was granted in the meantime
+            if (!future.cancel(false)) {
+                future.join().release();
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * Helper function to get the longest time a request may wait in the concurrency limiter queue
+     */
+    private static long getQueueWait(TransportRequest request) {
+        Deadline deadline = request.getDeadline();
+        return deadline != null ? deadline.remaining() : Long.MAX_VALUE;
+    }
+
+    /**
+     * Helper function to fail a request right away, rather than wait for a retry, once its circuit is open
+     *
+     * @param circuit   Circuit of the target of the request.
+     */
+    private static void checkCircuit(CircuitBreaker.Circuit circuit) throws Exception {
+        if (circuit.isOpen()) {
+            throw circuitOpen(circuit);
+        }
+    }
+
+    /**
+     * Helper function to create the Exception failing a request to a target with an open circuit
+     */
+    private static Exception circuitOpen(CircuitBreaker.Circuit circuit) {
+        return new Exception("Circuit breaker is open for " + circuit.getTarget() + ". Request failed.");
+    }
+
+    /**
+     * Helper function to record the outcome of a request in the circuit of its target
+     *
+     * @param circuit   Circuit of the target of the request.
+     * @param healthy   true if the target responded with a status that is not a server failure.
+     */
+    private static void recordOutcome(CircuitBreaker.Circuit circuit, boolean healthy) {
+        if (healthy) {
+            circuit.onSuccess();
+        } else {
+            circuit.onFailure();
+        }
+    }
+
+    /**
+     * Helper function to get the Retry-After of a response in milliseconds
+     *
+     * @param response  TransportResponse object.
+     * @return          Retry-After in milliseconds, -1 if absent or invalid
+     */
+    private static long getRetryAfter(TransportResponse response) {
+        return RetryPolicy.parseRetryAfter(ContentDecoder.getFirstHeader(response.getHeaders(), Constants.HEADER_RETRY_AFTER));
+    }
+
+    /**
+     * Helper function to withdraw a retry from the configured RetryBudget
+     */
+    private boolean acquireRetry(Config cfg) {
+        RetryBudget budget = cfg.getRetryBudget();
+        if (budget == null || budget.tryAcquire()) {
+            return true;
+        }
+        logger.warn("Retry budget exhausted, not retrying");
+        return false;
+    }
+
+    /**
+     * Helper function to record a successful request in the configured RetryBudget
+     */
+    private void recordSuccess(Config cfg) {
+        RetryBudget budget = cfg.getRetryBudget();
+        if (budget != null) {
+            budget.recordSuccess();
+        }
+    }
+
+    /**
+     * Helper function to collect evidence from the adapter on the evidence executor.
+     * The collection is interrupted if it outlives the deadline or the returned future is cancelled.
+     *
+     * @param adapter   EvidenceAdapter provided by the user.
+     * @param nonce     combined nonce the evidence is bound to.
+     * @param deadline  Deadline of the attestation, may be null.
+     * @return          CompletableFuture completed with the Evidence object
+     */
+    private CompletableFuture<Evidence> collectEvidenceAsync(EvidenceAdapter adapter, byte[] nonce, Deadline deadline) {
+        CompletableFuture<Evidence> evidence = new CompletableFuture<>();
+        AtomicBoolean collecting = new AtomicBoolean(true);
+        Future<?> task = getEvidenceExecutor().submit(() -> {
+            Evidence collected = null;
+            Throwable failure = null;
+            try {
+                collected = adapter.collectEvidence(nonce);
+                if (collected == null) {
+                    failure = new Exception("Failed to collect evidence from adapter");
+                }
+            } catch (Throwable e) {
+                failure = e;
+            }
+            // The adapter returned, it no longer needs to be interrupted
+            collecting.set(false);
+            if (failure != null) {
+                evidence.completeExceptionally(failure);
+            } else {
+                evidence.complete(collected);
+            }
+        });
+
+        ScheduledFuture<?> timer = null;
+        if (deadline != null) {
+            timer = getRetryScheduler().schedule(() -> evidence.completeExceptionally(Deadline.expired("evidence collection")),
+                                                 deadline.remaining(), TimeUnit.MILLISECONDS);
+        }
+        ScheduledFuture<?> deadlineTimer = timer;
+        evidence.whenComplete((value, error) -> {
+            if (deadlineTimer != null) {
+                deadlineTimer.cancel(false);
+            }
+            // Interrupt the adapter if the collection timed out or was cancelled
+            if (collecting.get()) {
+                task.cancel(true);
+            }
+        });
+        return evidence;
+    }
+
+    /**
+     * Helper function to run the attestations of an attestAll() batch in a slot. Attestations completing
+     * synchronously are handled in the loop, so a batch failing fast does not recurse once per attestation.
+     */
+    private void runAttestations(List<AttestArgs> argsList, List<CompletableFuture<AttestResult>> results, AtomicInteger next) {
+        int index;
+        while ((index = next.getAndIncrement()) < argsList.size()) {
+            AttestArgs args = argsList.get(index);
+            CompletableFuture<AttestResult> result = results.get(index);
+            CompletableFuture<AttestResponse> future;
+            try {
+                future = attestAsync(args);
+            } catch (RuntimeException e) {
+                future = CompletableFuture.failedFuture(new Exception("attestAsync() failed: " + e));
+            }
+            if (future.isDone()) {
+                future.whenComplete((response, error) -> completeAttestResult(result, args, response, error));
+                continue;
+            }
+            future.whenComplete((response, error) -> {
+                completeAttestResult(result, args, response, error);
+                runAttestations(argsList, results, next);
+            });
+            return;
+        }
+    }
+
+    /**
+     * Helper function to complete the AttestResult of a completed attestation
+     */
+    private static void completeAttestResult(CompletableFuture<AttestResult> result, AttestArgs args,
+                                             AttestResponse response, Throwable error) {
+        if (error == null) {
+            result.complete(new AttestResult(args, response, null));
+            return;
+        }
+        Throwable cause = unwrapCompletionException(error);
+        result.complete(new AttestResult(args, null, cause instanceof Exception ? (Exception) cause : new Exception(cause)));
+    }
+
+    /**
+     * Helper function to remember a stage of an operation, so that it can be cancelled with the operation
+     */
+    private static <T> CompletableFuture<T> track(List<CompletableFuture<?>> stages, CompletableFuture<T> stage) {
+        stages.add(stage);
+        return stage;
+    }
+
+    /**
+     * Helper function to send a request with retry options, hedged if a HedgingPolicy is configured
+     *
+     * @param operation     name of the operation whose latencies are tracked for hedging.
+     * @param request       TransportRequest object to be sent to the server.
+     * @return              TransportResponse object on a successful response.
+     */
+    private TransportResponse executeWithHedging(String operation, TransportRequest request) throws Exception {
+        if (getConfig().getHedgingPolicy() == null) {
+            return executeWithRetries(request);
+        }
+        CompletableFuture<TransportResponse> future = executeAsyncWithHedging(operation, request);
+        try {
+            // Both copies of the request are in flight at once, so they are sent without blocking
+            Deadline deadline = request.getDeadline();
+            return deadline == null ? future.get() : future.get(Deadline.cap(deadline, 0), TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            future.cancel(true);
+            throw Deadline.expired(operation + " request");
+        } catch (ExecutionException e) {
+            Throwable cause = unwrapCompletionException(e.getCause());
+            throw cause instanceof Exception ? (Exception) cause : new Exception(cause);
+        }
+    }
+
+    /**
+     * Helper function to send a request without blocking, hedged if a HedgingPolicy is configured
+     *
+     * @param operation     name of the operation whose latencies are tracked for hedging.
+     * @param request       TransportRequest object to be sent to the server.
+     * @return              CompletableFuture completed with the first successful response.
+     */
+    private CompletableFuture<TransportResponse> executeAsyncWithHedging(String operation, TransportRequest request) {
+        HedgingPolicy policy = getConfig().getHedgingPolicy();
+        if (policy == null) {
+            return executeAsyncWithRetries(request);
+        }
+        return hedger.execute(policy, operation, () -> {
+            // Each copy is cancelled on its own, the retries of both copies are taken from the same request
+            TransportRequest copy = request.hedge();
+            CompletableFuture<TransportResponse> future = executeAsyncWithRetries(copy);
+            future.whenComplete((response, error) -> {
+                if (future.isCancelled()) {
+                    copy.cancel();
+                }
+            });
+            return future;
+        }, getRetryScheduler());
+    }
+
+    /**
+     * Helper function to send a request through the transport without blocking, with retry options.
+     * Backoff between retries is scheduled instead of sleeping, so no thread is held while waiting.
+     *
+     * The transports stay open until the response is closed, even if the config is changed meanwhile.
+     *
+     * @param request   TransportRequest object to be sent to the server.
+     * @return          CompletableFuture completed with the response on a successful response.
+     */
+    private CompletableFuture<TransportResponse> executeAsyncWithRetries(TransportRequest request) {
+        ConnectorState s;
+        try {
+            s = acquireState();
+        } catch (Exception e) {
+            return CompletableFuture.failedFuture(e);
+        }
+        CompletableFuture<TransportResponse> result = new CompletableFuture<>();
+        executeAsyncWithRetries(s, request, 0, null, 0).whenComplete((response, error) -> {
+            if (error != null) {
+                s.release();
+                result.completeExceptionally(error);
+                return;
+            }
+            response.setCloseHook(s::release);
+            if (!result.complete(response)) {
+                // The caller gave up on the request
+                closeQuietly(response);
+            }
+        });
+        return result;
+    }
+
+    /**
+     * Helper function to send a request through the transport without blocking, with retry options.
+     * A permit is reserved from the RateLimiter first, waiting for it is scheduled as well.
+     *
+     * @param s             ConnectorState the request is sent with.
+     * @param request       TransportRequest object to be sent to the server.
+     * @param retry         Number of retries already made for the request.
+     * @param exclude       Endpoint that failed the previous attempt, may be null.
+     * @param previousWait  Wait in milliseconds before this attempt, 0 if it was not delayed.
+     * @return              CompletableFuture completed with the response on a successful response.
+     */
+    private CompletableFuture<TransportResponse> executeAsyncWithRetries(ConnectorState s, TransportRequest request, int retry,
+                                                                         LoadBalancer.EndpointState exclude,
+                                                                         long previousWait) {
+        if (request.isCancelled()) {
+            return CompletableFuture.failedFuture(new CancellationException("Request to " + request.getUrl() + " cancelled"));
+        }
+        Deadline deadline = request.getDeadline();
+        if (deadline != null && deadline.remaining() == 0) {
+            return CompletableFuture.failedFuture(Deadline.expired("request to " + request.getUrl()));
+        }
+        long permitWait;
+        try {
+            permitWait = reservePermit(s.getConfig(), request);
+        } catch (Exception e) {
+            return CompletableFuture.failedFuture(e);
+        }
+        if (permitWait > 0) {
+            logger.debug("Rate limited, sending in " + permitWait + " milliseconds...");
+            return schedule(() -> sendAsyncWithRetries(s, request, retry, exclude, previousWait), permitWait);
+        }
+        return sendAsyncWithRetries(s, request, retry, exclude, previousWait);
+    }
+
+    /**
+     * Helper function to send an attempt of a request without blocking once the concurrency limit allows it,
+     * retrying it on failure
+     *
+     * @param s             ConnectorState the request is sent with.
+     * @param request       TransportRequest object to be sent to the server.
+     * @param retry         Number of retries already made for the request.
+     * @param exclude       Endpoint that failed the previous attempt, may be null.
+     * @param previousWait  Wait in milliseconds before this attempt, 0 if it was not delayed.
+     * @return              CompletableFuture completed with the response on a successful response.
+     */
+    private CompletableFuture<TransportResponse> sendAsyncWithRetries(ConnectorState s, TransportRequest request, int retry,
+                                                                      LoadBalancer.EndpointState exclude,
+                                                                      long previousWait) {
+        return s.getConcurrencyLimiter().acquire(getQueueWait(request), getRetryScheduler())
+                .thenCompose(permit -> sendAttemptAsync(s, request, retry, exclude, previousWait, permit));
+    }
+
+    /**
+     * Helper function to send an attempt of a request without blocking, retrying it on failure
+     *
+     * @param s             ConnectorState the request is sent with.
+     * @param request       TransportRequest object to be sent to the server.
+     * @param retry         Number of retries already made for the request.
+     * @param exclude       Endpoint that failed the previous attempt, may be null.
+     * @param previousWait  Wait in milliseconds before this attempt, 0 if it was not delayed.
+     * @param permit        Permit of the concurrency limiter, released with the outcome of the attempt.
+     * @return              CompletableFuture completed with the response on a successful response.
+     */
+    private CompletableFuture<TransportResponse> sendAttemptAsync(ConnectorState s, TransportRequest request, int retry,
+                                                                  LoadBalancer.EndpointState exclude,
+                                                                  long previousWait, ConcurrencyLimiter.Permit permit) {
+        // Set maxRetries based on Config
+        Config cfg = s.getConfig();
+        int maxRetries = cfg.getRetryConfig().getRetryMax();
+        RetryPolicy policy = cfg.getRetryPolicy();
+        LoadBalancer balancer = s.getLoadBalancer();
+        if (request.isCancelled()) {
+            permit.release();
+            return CompletableFuture.failedFuture(new CancellationException("Request to " + request.getUrl() + " cancelled"));
+        }
+        LoadBalancer.EndpointState endpoint;
+        try {
+            endpoint = balancer.select(request.getEndpoint(), exclude);
+        } catch (Exception e) {
+            permit.release();
+            return CompletableFuture.failedFuture(e);
+        }
+        TransportRequest attempt = createAttempt(s, request, endpoint);
+        CircuitBreaker.Circuit circuit = s.getCircuitBreaker().get(attempt.getUrl());
+        if (!circuit.tryAcquire()) {
+            // The attempt was never sent, it says nothing about the health of the endpoint
+            permit.release();
+            endpoint.abandon();
+            if (balancer.canFailOver(request) && request.tryRetry(maxRetries)) {
+                // Fail over to another endpoint right away
+                logger.warn("Failing over from " + endpoint.getEndpoint() + " due to an open circuit breaker");
+                return executeAsyncWithRetries(s, request, retry + 1, endpoint, previousWait);
+            }
+            return CompletableFuture.failedFuture(circuitOpen(circuit));
+        }
+        long start = System.nanoTime();
+
+        CompletableFuture<TransportResponse> sent;
+        try {
+            sent = s.getAsyncTransport().executeAsync(attempt);
+        } catch (RuntimeException e) {
+            sent = CompletableFuture.failedFuture(e);
+        }
+        CompletableFuture<TransportResponse> inFlight = sent;
+        request.onCancel(() -> inFlight.cancel(true));
+
+        return sent.handle((response, failure) -> {
+            if (failure != null) {
+                Throwable cause = unwrapCompletionException(failure);
+                if (!(cause instanceof IOException)) {
+                    // A cancelled attempt, such as a losing hedge, or any other error, such as a RuntimeException
+                    // of a custom HttpTransport or a closed pool, says nothing about the target and is not retried
+                    permit.release();
+                    endpoint.abandon();
+                    circuit.release();
+                    return CompletableFuture.<TransportResponse>failedFuture(cause);
+                }
+                // An oversized response came from a healthy endpoint, it is not counted as a failure of the target
+                boolean healthy = cause instanceof ResponseTooLargeException;
+                long elapsed = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+                permit.release(healthy, elapsed, attempt.getUrl());
+                endpoint.release(healthy, elapsed);
+                recordOutcome(circuit, healthy);
+                // Any I/O error is failed over to another endpoint, a single endpoint is only retried on transient errors
+                boolean failOver = balancer.canFailOver(request);
+                if (!(failOver || policy.isRetryable(cause)) || !request.tryRetry(maxRetries) || !acquireRetry(cfg)) {
+                    return CompletableFuture.<TransportResponse>failedFuture(cause);
+                }
+                if (failOver) {
+                    // Fail over to another endpoint right away
+                    logger.warn("Failing over from " + endpoint.getEndpoint() + " due to: " + cause);
+                    return executeAsyncWithRetries(s, request, retry + 1, endpoint, previousWait);
+                }
+                logger.warn("Retrying due to: " + cause);
+                if (circuit.isOpen()) {
+                    return CompletableFuture.<TransportResponse>failedFuture(circuitOpen(circuit));
+                }
+                long waitTime = policy.backoff(retry, previousWait, cfg.getRetryConfig());
+                return scheduleRetry(s, request, retry, endpoint, waitTime);
+            }
+
+            // Process the response
+            int responseCode = response.getStatusCode();
+            boolean healthy = !Constants.retryableStatusCodes.contains(responseCode);
+            long elapsed = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+            permit.release(healthy && responseCode != Constants.HTTP_TOO_MANY_REQUESTS, elapsed, attempt.getUrl());
+            endpoint.release(healthy, elapsed);
+            recordOutcome(circuit, healthy);
+            response.setEndpoint(endpoint.getEndpoint());
+            if (responseCode == HttpURLConnection.HTTP_OK) {
+                // Successful response
+                recordSuccess(cfg);
+                return CompletableFuture.completedFuture(response);
+            }
+
+            // Read the error message and release the failed response
+            long retryAfter = getRetryAfter(response);
+            String error;
+            try {
+                error = readResponseBody(response);
+            } catch (IOException e) {
+                error = e.toString();
+            } finally {
+                closeQuietly(response);
+            }
+
+            if (policy.isRetryable(responseCode)) {
+                // Retry for response codes which are retryable according to the RetryPolicy
+                logger.warn("Retrying due to unexpected response code: " + responseCode);
+                if (!request.tryRetry(maxRetries)) {
+                    // If all retries fail, fail the request
+                    return CompletableFuture.<TransportResponse>failedFuture(new Exception("Maximum retries reached. Request failed."));
+                }
+                if (circuit.isOpen() && !balancer.canFailOver(request)) {
+                    return CompletableFuture.<TransportResponse>failedFuture(circuitOpen(circuit));
+                }
+                if (!acquireRetry(cfg)) {
+                    return CompletableFuture.<TransportResponse>failedFuture(new Exception("Retry budget exhausted. Request failed."));
+                }
+                long waitTime;
+                try {
+                    waitTime = nextRetryWait(cfg, retry, previousWait, retryAfter, responseCode);
+                } catch (Exception e) {
+                    return CompletableFuture.<TransportResponse>failedFuture(e);
+                }
+                return scheduleRetry(s, request, retry, endpoint, waitTime);
+            } else {
+                // Fail for responses where we should not retry for the response code
+                return CompletableFuture.<TransportResponse>failedFuture(new Exception("Connection failed with response code: " + responseCode +
+                                                                    " and error: " + error));
+            }
+        }).thenCompose(future -> future);
+    }
+
+    /**
+     * Helper function to schedule the next attempt of a request after waitTime
+     *
+     * @param s         ConnectorState the request is sent with.
+     * @param request   TransportRequest object to be sent to the server.
+     * @param retry     Number of retries already made for the request.
+     * @param endpoint  Endpoint that failed the attempt.
+     * @param waitTime  Wait in milliseconds before the next attempt.
+     * @return          CompletableFuture completed with the result of the next attempt
+     */
+    private CompletableFuture<TransportResponse> scheduleRetry(ConnectorState s, TransportRequest request, int retry,
+                                                               LoadBalancer.EndpointState endpoint, long waitTime) {
+        // Give up rather than wait past the deadline
+        Deadline deadline = request.getDeadline();
+        if (deadline != null && waitTime >= deadline.remaining()) {
+            return CompletableFuture.failedFuture(Deadline.expired("retry wait"));
+        }
+
+        logger.debug("Retrying in " + waitTime + " milliseconds...");
+        return schedule(() -> executeAsyncWithRetries(s, request, retry + 1, endpoint, waitTime), waitTime);
+    }
+
+    /**
+     * Helper function to start an asynchronous operation after a delay, without holding a thread while waiting
+     *
+     * @param operation     Supplier starting the operation.
+     * @param delay         Delay in milliseconds.
+     * @return              CompletableFuture completed with the result of the operation
+     */
+    private <T> CompletableFuture<T> schedule(Supplier<CompletableFuture<T>> operation, long delay) {
+        CompletableFuture<T> result = new CompletableFuture<>();
+        getRetryScheduler().schedule(() -> {
+            operation.get().whenComplete((value, error) -> {
+                if (error != null) {
+                    result.completeExceptionally(unwrapCompletionException(error));
+                } else {
+                    result.complete(value);
+                }
+            });
+        }, delay, TimeUnit.MILLISECONDS);
+        return result;
+    }
+
+    /**
+     * Helper function to prefix the failure of an asynchronous operation with the operation name
+     *
+     * @param future        CompletableFuture of the operation.
+     * @param operation     Name of the operation.
+     * @return              CompletableFuture failing with an Exception naming the operation
+     */
+    private static <T> CompletableFuture<T> withErrorContext(CompletableFuture<T> future, String operation) {
+        CompletableFuture<T> result = new CompletableFuture<>();
+        future.whenComplete((value, error) -> {
+            if (error != null) {
+                result.completeExceptionally(new Exception(operation + " failed: " + unwrapCompletionException(error)));
+            } else {
+                result.complete(value);
+            }
+        });
+        return result;
+    }
+
+    /**
+     * Helper function to get the cause of a CompletionException
+     */
+    private static Throwable unwrapCompletionException(Throwable error) {
+        if (error instanceof CompletionException && error.getCause() != null) {
+            return error.getCause();
+        }
+        return error;
+    }
+
+    /**
+     * getter function for the scheduler running retry backoffs, created on first use
+     */
+    private synchronized ScheduledExecutorService getRetryScheduler() {
+        if (retryScheduler == null) {
+            retryScheduler = Executors.newSingleThreadScheduledExecutor(new DaemonThreadFactory("trustauthority-retry"));
+        }
+        return retryScheduler;
+    }
+
+    /**
+     * getter function for the executor running adapter evidence collection, created on first use
+     */
+    private synchronized ExecutorService getEvidenceExecutor() {
+        if (evidenceExecutor == null) {
+            evidenceExecutor = Executors.newCachedThreadPool(new DaemonThreadFactory("trustauthority-evidence"));
+        }
+        return evidenceExecutor;
+    }
 }
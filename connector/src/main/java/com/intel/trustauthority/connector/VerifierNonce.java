@@ -14,6 +14,9 @@ public class VerifierNonce {
     private byte[] iat;
     private byte[] signature;
 
+    // Endpoint that issued the nonce, not serialized
+    private Endpoint endpoint;
+
     /**
      * Default constructor (required for Jackson Object Mapping)
      */
@@ -74,4 +77,18 @@ public class VerifierNonce {
     public void setSignature(byte[] signature) {
         this.signature = signature;
     }
+
+    /**
+     * getter function for the endpoint that issued the nonce, used to send GetToken to the same endpoint
+     */
+    Endpoint getEndpoint() {
+        return endpoint;
+    }
+
+    /**
+     * setter function for endpoint
+     */
+    void setEndpoint(Endpoint endpoint) {
+        this.endpoint = endpoint;
+    }
 }
\ No newline at end of file
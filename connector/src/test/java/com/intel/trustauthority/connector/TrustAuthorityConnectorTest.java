@@ -11,6 +11,7 @@ import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertNotNull;
 import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
 import static org.junit.Assert.assertTrue;
 import org.junit.After;
 import org.junit.Assert;
@@ -20,8 +21,11 @@ import org.junit.Test;
 // MockServer imports for HTTP server mocking
 import org.mockserver.client.MockServerClient;
 import org.mockserver.integration.ClientAndServer;
+import org.mockserver.model.HttpError;
 import org.mockserver.model.HttpRequest;
 import org.mockserver.model.HttpResponse;
+import org.mockserver.model.JsonBody;
+import org.mockserver.matchers.Times;
 
 // Base64 utility import
 import com.nimbusds.jose.util.Base64;
@@ -30,17 +34,59 @@ import com.nimbusds.jose.util.Base64;
 import org.mockito.Mock;
 import static org.mockito.Mockito.when;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
 import static org.mockito.ArgumentMatchers.any;
 
 // Utility imports
 import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.nio.charset.StandardCharsets;
 import java.security.cert.CertificateFactory;
 import java.security.cert.X509Certificate;
 import java.security.cert.X509CRL;
+import java.time.Instant;
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Date;
 import java.util.List;
 import java.util.Map;
 import java.util.UUID;
+import java.util.HashMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Flow;
+import java.util.concurrent.Future;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.zip.Deflater;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+import javax.net.ssl.SSLContext;
+import javax.net.ssl.TrustManager;
+import javax.net.ssl.X509TrustManager;
+
+// Apache HttpClient imports for connection tests
+import org.apache.http.HttpHost;
+import org.apache.http.config.RegistryBuilder;
+import org.apache.http.config.SocketConfig;
+import org.apache.http.conn.DnsResolver;
+import org.apache.http.conn.ManagedHttpClientConnection;
+import org.apache.http.conn.routing.HttpRoute;
+import org.apache.http.conn.socket.ConnectionSocketFactory;
+import org.apache.http.conn.socket.PlainConnectionSocketFactory;
+import org.apache.http.impl.conn.ManagedHttpClientConnectionFactory;
+import org.apache.http.protocol.BasicHttpContext;
 
 // Log4j imports for logging
 import org.apache.logging.log4j.LogManager;
@@ -48,8 +94,15 @@ import org.apache.logging.log4j.Logger;
 
 // Nimbus JOSE+JWT library import for JWT claims set
 import com.nimbusds.jwt.JWTClaimsSet;
+import com.nimbusds.jwt.SignedJWT;
+import com.nimbusds.jose.JWSAlgorithm;
+import com.nimbusds.jose.JWSHeader;
+import com.nimbusds.jose.crypto.MACSigner;
 import com.nimbusds.jose.jwk.JWKSet;
 
+// Jackson import for JSON serialization
+import com.fasterxml.jackson.databind.ObjectMapper;
+
 /**
  * TrustAuthorityConnectorTest contains unit tests for all APIs exposed by the TrustAuthorityConnector
  */
@@ -627,6 +680,2169 @@ public class TrustAuthorityConnectorTest {
         }
     }
 
+    @Test
+    public void testConnectionPoolConfig() {
+        try {
+            // Default ConnectionPoolConfig
+            ConnectionPoolConfig poolConfig = new ConnectionPoolConfig(0, 0, 0);
+            assertEquals(poolConfig.getMaxTotal(), Constants.DEFAULT_POOL_MAX_TOTAL);
+            assertEquals(poolConfig.getMaxPerRoute(), Constants.DEFAULT_POOL_MAX_PER_ROUTE);
+            assertEquals(poolConfig.getIdleTimeout(), Constants.DEFAULT_POOL_IDLE_TIMEOUT);
+
+            // Testing getters/setters for ConnectionPoolConfig
+            poolConfig.setMaxTotal(8);
+            poolConfig.setMaxPerRoute(4);
+            poolConfig.setIdleTimeout(5);
+            assertEquals(poolConfig.getMaxTotal(), 8);
+            assertEquals(poolConfig.getMaxPerRoute(), 4);
+            assertEquals(poolConfig.getIdleTimeout(), 5);
+
+            // Connector created from the config exposes the configured pool size
+            cfg.setConnectionPoolConfig(poolConfig);
+            assertEquals(cfg.getConnectionPoolConfig(), poolConfig);
+            TrustAuthorityConnector conn = new TrustAuthorityConnector(cfg);
+            assertEquals(conn.getConnectionPoolStats().getMax(), 8);
+            conn.close();
+        } catch (Exception e) {
+            // Fail the test explicitly in the catch block
+            Assert.fail("Exception: " + e.getMessage());
+        }
+    }
+
+    @Test
+    public void testSetConfigWithRequestsInFlight() {
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            // Stubbing a slow response
+            new MockServerClient("localhost", mockServer.getPort())
+                                .when(HttpRequest.request().withPath("/appraisal/v1/nonce"))
+                                .respond(HttpResponse.response().withStatusCode(200)
+                                .withDelay(TimeUnit.MILLISECONDS, 500)
+                                .withBody("{\"val\":\"dmFs\",\"iat\":\"aWF0\",\"signature\":\"c2ln\"}"));
+
+            // Change the config while a request is in flight
+            HttpTransport previous = connector.getHttpTransport();
+            Future<GetNonceResponse> pending = executor.submit(() -> connector.GetNonce(new GetNonceArgs("mock-request-id")));
+            Thread.sleep(100);
+            connector.setConfig(cfg);
+            assertTrue(connector.getHttpTransport() != previous);
+
+            // The request completes on the previous transport, which is closed once it has
+            assertNotNull(pending.get().getNonce());
+            try {
+                previous.execute(new TransportRequest("GET", cfg.getApiUrl() + "/appraisal/v1/nonce", null, null));
+                Assert.fail("Expected the previous transport to be closed");
+            } catch (IllegalStateException e) {
+                // Connection pool shut down
+            }
+
+            // New requests use the new transport
+            assertNotNull(connector.GetNonce(new GetNonceArgs("mock-request-id")).getNonce());
+        } catch (Exception e) {
+            // Fail the test explicitly in the catch block
+            Assert.fail("Exception: " + e.getMessage());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    public void testConnectionPoolReuse() {
+        try {
+            // Check if connector is not null
+            assertNotNull(connector);
+
+            // Stubbing the response
+            new MockServerClient("localhost", mockServer.getPort())
+                                .when(HttpRequest.request().withPath("/certs"))
+                                .respond(HttpResponse.response().withStatusCode(200)
+                                .withHeader(Constants.HEADER_ACCEPT, Constants.MIME_APPLICATION_JSON)
+                                .withBody(validJwks));
+
+            // Calling the getTokenSigningCertificates() API multiple times
+            for (int i = 0; i < 3; i++) {
+                assertNotNull(connector.getTokenSigningCertificates());
+            }
+
+            // The connection is returned to the pool and kept alive for reuse
+            ConnectionPoolStats stats = connector.getConnectionPoolStats();
+            assertEquals(stats.getLeased(), 0);
+            assertEquals(stats.getAvailable(), 1);
+            assertEquals(stats.getPending(), 0);
+            assertNotNull(stats.toString());
+
+            // Closing the connector releases the pooled connections
+            connector.close();
+        } catch (Exception e) {
+            // Fail the test explicitly in the catch block
+            Assert.fail("Exception: " + e.getMessage());
+        }
+    }
+
+    @Test
+    public void testGetNonceAsync() {
+        try {
+            // Initialize nonce values for serving from mock server
+            String nonce_val = "MjAyMy0xMi0yMCAxNzo0MDowNiArMDAwMCBVVEM=";
+            String nonce_iat = "MjAyMi0wOC0yNCAxMjozNjozMi45Mjk3MjIwNzUgKzAwMDAgVVRD";
+            String nonce_signature = "g9QC7VxV0n8dID0zSJeVLSULqYCJuv4iMepby91xukrhXgKrKscGXB5lxmT2s3POjxVOG+fSPCYpOKYWRRWAyQ==";
+
+            // Stubbing the response
+            new MockServerClient("localhost", mockServer.getPort())
+                                .when(HttpRequest.request().withPath("/appraisal/v1/nonce"))
+                                .respond(HttpResponse.response().withStatusCode(200)
+                                .withHeader(Constants.HEADER_ACCEPT, Constants.MIME_APPLICATION_JSON)
+                                .withBody("{\"val\":\"" + nonce_val + "\",\"iat\":\"" + nonce_iat + "\",\"signature\":\"" + nonce_signature + "\"}"));
+
+            // Calling the getNonceAsync() API
+            GetNonceResponse nonceResponse = connector.getNonceAsync(new GetNonceArgs("mock-request-id")).get();
+
+            // Verify the response
+            assertNotNull(nonceResponse);
+            assertArrayEquals(Base64.from(nonce_val).decode(), nonceResponse.getNonce().getVal());
+            assertArrayEquals(Base64.from(nonce_iat).decode(), nonceResponse.getNonce().getIat());
+            assertNotNull(nonceResponse.getHeaders());
+        } catch (Exception e) {
+            // Fail the test explicitly in the catch block
+            Assert.fail("Exception: " + e.getMessage());
+        }
+    }
+
+    @Test
+    public void testAttestAsync() {
+        try {
+            // Initialize nonce values for serving from mock server
+            String nonce_val = "MjAyMy0xMi0yMCAxNzo0MDowNiArMDAwMCBVVEM=";
+            String nonce_iat = "MjAyMi0wOC0yNCAxMjozNjozMi45Mjk3MjIwNzUgKzAwMDAgVVRD";
+            String nonce_signature = "g9QC7VxV0n8dID0zSJeVLSULqYCJuv4iMepby91xukrhXgKrKscGXB5lxmT2s3POjxVOG+fSPCYpOKYWRRWAyQ==";
+
+            // Stubbing the responses
+            new MockServerClient("localhost", mockServer.getPort())
+                                .when(HttpRequest.request().withPath("/appraisal/v1/nonce"))
+                                .respond(HttpResponse.response().withStatusCode(200)
+                                .withHeader(Constants.HEADER_ACCEPT, Constants.MIME_APPLICATION_JSON)
+                                .withBody("{\"val\":\"" + nonce_val + "\",\"iat\":\"" + nonce_iat + "\",\"signature\":\"" + nonce_signature + "\"}"));
+            new MockServerClient("localhost", mockServer.getPort())
+                                .when(HttpRequest.request().withPath("/appraisal/v1/attest"))
+                                .respond(HttpResponse.response().withStatusCode(200)
+                                .withHeader(Constants.HEADER_ACCEPT, Constants.MIME_APPLICATION_JSON)
+                                .withBody("{\"token\":\"mock-token\"}"));
+
+            // Create a mock adapter object
+            Evidence mockEvidence = mock(Evidence.class);
+            EvidenceAdapter mockAdapter = mock(EvidenceAdapter.class);
+            when(mockAdapter.collectEvidence(any())).thenReturn(mockEvidence);
+
+            // Perform the test
+            AttestArgs attestArgs = new AttestArgs(mockAdapter, Arrays.asList(UUID.randomUUID()), "mock-request-id");
+            AttestResponse response = connector.attestAsync(attestArgs).get();
+
+            // Verify the response
+            assertNotNull(response);
+            assertEquals(response.getToken(), "mock-token");
+            assertNotNull(response.getHeaders());
+        } catch (Exception e) {
+            // Fail the test explicitly in the catch block
+            Assert.fail("Exception: " + e.getMessage());
+        }
+    }
+
+    @Test
+    public void testAttestAsyncEvidenceFailure() {
+        try {
+            // Stubbing the response with an empty nonce
+            new MockServerClient("localhost", mockServer.getPort())
+                                .when(HttpRequest.request().withPath("/appraisal/v1/nonce"))
+                                .respond(HttpResponse.response().withStatusCode(200)
+                                .withHeader(Constants.HEADER_ACCEPT, Constants.MIME_APPLICATION_JSON)
+                                .withBody("{\"val\":\"\",\"iat\":\"\",\"signature\":\"\"}"));
+
+            // Create a mock adapter object failing to collect evidence
+            EvidenceAdapter mockAdapter = mock(EvidenceAdapter.class);
+            when(mockAdapter.collectEvidence(any())).thenReturn(null);
+
+            // Perform the test
+            AttestArgs attestArgs = new AttestArgs(mockAdapter, null, null);
+            connector.attestAsync(attestArgs).get();
+            Assert.fail("attestAsync() should fail when evidence is not collected");
+        } catch (ExecutionException e) {
+            // Failure is reported through the future
+            assertTrue(e.getCause().getMessage().contains("Failed to collect evidence from adapter"));
+        } catch (Exception e) {
+            // Fail the test explicitly in the catch block
+            Assert.fail("Exception: " + e.getMessage());
+        }
+    }
+
+    @Test
+    public void testGetTokenAsyncFailure() {
+        try {
+            // Create a mock GetTokenArgs object
+            VerifierNonce mockNonce = new VerifierNonce("mock-val".getBytes(), "mock-iat".getBytes(), "mock-signature".getBytes());
+            GetTokenArgs tokenArgs = new GetTokenArgs(mockNonce, mock(Evidence.class), null, null);
+
+            // Stubbing the response and induce a failure response code 400
+            new MockServerClient("localhost", mockServer.getPort())
+                                .when(HttpRequest.request().withPath("/appraisal/v1/attest"))
+                                .respond(HttpResponse.response().withStatusCode(400)
+                                .withBody("bad request"));
+
+            // Calling the getTokenAsync() API
+            connector.getTokenAsync(tokenArgs).get();
+            Assert.fail("getTokenAsync() should fail for response code 400");
+        } catch (ExecutionException e) {
+            // Failure is reported through the future
+            assertTrue(e.getCause().getMessage().contains("400"));
+        } catch (Exception e) {
+            // Fail the test explicitly in the catch block
+            Assert.fail("Exception: " + e.getMessage());
+        }
+    }
+
+    @Test
+    public void testGetCRLAsync() {
+        try {
+            String crlUrl = cfg.getBaseUrl() + "/ats-ca-crl.der";
+
+            // Stubbing the response
+            new MockServerClient("localhost", mockServer.getPort())
+                                .when(HttpRequest.request().withPath("/ats-ca-crl.der"))
+                                .respond(HttpResponse.response().withStatusCode(200)
+                                .withBody(hexStringToByteArray(crlHex)));
+
+            // Calling the getCRLAsync() API
+            X509CRL crl = connector.getCRLAsync(crlUrl).get();
+            assertNotNull(crl);
+        } catch (Exception e) {
+            // Fail the test explicitly in the catch block
+            Assert.fail("Exception: " + e.getMessage());
+        }
+    }
+
+    @Test
+    public void testVerifyTokenAsyncMissingKid() {
+        try {
+            // Calling the verifyTokenAsync() API with a token missing kid
+            connector.verifyTokenAsync(tokenMissingKid).get();
+            Assert.fail("verifyTokenAsync() should fail for a token missing kid");
+        } catch (ExecutionException e) {
+            // Failure is reported through the future
+            assertTrue(e.getCause().getMessage().contains("kid field missing"));
+        } catch (Exception e) {
+            // Fail the test explicitly in the catch block
+            Assert.fail("Exception: " + e.getMessage());
+        }
+    }
+
+    @Test
+    public void testVerifyTokenAsyncWrongKid() {
+        try {
+            // Stubbing the response
+            new MockServerClient("localhost", mockServer.getPort())
+                                .when(HttpRequest.request().withPath("/certs"))
+                                .respond(HttpResponse.response().withStatusCode(200)
+                                .withHeader(Constants.HEADER_ACCEPT, Constants.MIME_APPLICATION_JSON)
+                                .withBody(validJwks));
+
+            // Calling the verifyTokenAsync() API with a token whose kid is not in the JWKS
+            connector.verifyTokenAsync(tokenWrongKid).get();
+            Assert.fail("verifyTokenAsync() should fail for a token with unknown kid");
+        } catch (ExecutionException e) {
+            // Failure is reported through the future
+            assertTrue(e.getCause().getMessage().contains("Could not find Key matching the key id"));
+        } catch (Exception e) {
+            // Fail the test explicitly in the catch block
+            Assert.fail("Exception: " + e.getMessage());
+        }
+    }
+
+    @Test
+    public void testHttp2Enabled() {
+        try {
+            // Enable HTTP/2, the mock server does not negotiate h2 so requests fall back to HTTP/1.1
+            cfg.setHttp2Enabled(true);
+            connector.setConfig(cfg);
+            assertTrue(connector.getConfig().isHttp2Enabled());
+
+            // Stubbing the responses
+            new MockServerClient("localhost", mockServer.getPort())
+                                .when(HttpRequest.request().withPath("/certs"))
+                                .respond(HttpResponse.response().withStatusCode(200)
+                                .withHeader(Constants.HEADER_ACCEPT, Constants.MIME_APPLICATION_JSON)
+                                .withBody(validJwks));
+            new MockServerClient("localhost", mockServer.getPort())
+                                .when(HttpRequest.request().withPath("/appraisal/v1/attest"))
+                                .respond(HttpResponse.response().withStatusCode(200)
+                                .withHeader(Constants.HEADER_ACCEPT, Constants.MIME_APPLICATION_JSON)
+                                .withBody("{\"token\":\"mock-token\"}"));
+
+            // Calling the blocking APIs over the HTTP/2 capable engine
+            assertEquals(connector.getTokenSigningCertificates(), validJwks);
+            VerifierNonce mockNonce = new VerifierNonce("mock-val".getBytes(), "mock-iat".getBytes(), "mock-signature".getBytes());
+            GetTokenResponse tokenResponse = connector.GetToken(new GetTokenArgs(mockNonce, mock(Evidence.class), null, "mock-request-id"));
+            assertEquals(tokenResponse.getToken(), "mock-token");
+        } catch (Exception e) {
+            // Fail the test explicitly in the catch block
+            Assert.fail("Exception: " + e.getMessage());
+        }
+    }
+
+    @Test
+    public void testHttp2EnabledFailure() {
+        try {
+            // Enable HTTP/2
+            cfg.setHttp2Enabled(true);
+            connector.setConfig(cfg);
+
+            // Stubbing the response and induce a failure response code 404
+            new MockServerClient("localhost", mockServer.getPort())
+                                .when(HttpRequest.request().withPath("/certs"))
+                                .respond(HttpResponse.response().withStatusCode(404)
+                                .withBody("Not Found"));
+
+            // Calling the getTokenSigningCertificates() API
+            connector.getTokenSigningCertificates();
+            Assert.fail("getTokenSigningCertificates() should fail for response code 404");
+        } catch (Exception e) {
+            // Failure is reported with the blocking API name
+            assertTrue(e.getMessage().startsWith("getTokenSigningCertificates() failed"));
+        }
+    }
+
+    @Test
+    public void testHttpTransportSelection() {
+        try {
+            // Default transport is the pooled Apache HttpClient
+            assertTrue(connector.getHttpTransport() instanceof ApacheHttpTransport);
+
+            // HTTP/2 is served by the JDK HttpClient
+            cfg.setHttp2Enabled(true);
+            connector.setConfig(cfg);
+            assertTrue(connector.getHttpTransport() instanceof JdkHttpTransport);
+            assertNull(connector.getConnectionPoolStats());
+
+            // A transport provided in the config is used for all requests
+            cfg.setHttp2Enabled(false);
+            HttpTransport mockTransport = mock(HttpTransport.class);
+            when(mockTransport.execute(any())).thenReturn(new TransportResponse(200, new HashMap<>(),
+                    new ByteArrayInputStream(validJwks.getBytes())));
+            when(mockTransport.executeAsync(any())).thenReturn(CompletableFuture.completedFuture(
+                    new TransportResponse(200, new HashMap<>(), new ByteArrayInputStream(validJwks.getBytes()))));
+            cfg.setHttpTransport(mockTransport);
+            assertEquals(cfg.getHttpTransport(), mockTransport);
+            connector.setConfig(cfg);
+            assertEquals(connector.getHttpTransport(), mockTransport);
+            assertEquals(connector.getTokenSigningCertificates(), validJwks);
+            assertEquals(connector.getTokenSigningCertificatesAsync().get(), validJwks);
+
+            // A transport provided in the config is not closed by the connector
+            connector.close();
+            verify(mockTransport, never()).close();
+        } catch (Exception e) {
+            // Fail the test explicitly in the catch block
+            Assert.fail("Exception: " + e.getMessage());
+        }
+    }
+
+    @Test
+    public void testHttpTransportImplementations() {
+        try {
+            // Stubbing the response
+            new MockServerClient("localhost", mockServer.getPort())
+                                .when(HttpRequest.request().withPath("/certs"))
+                                .respond(HttpResponse.response().withStatusCode(200)
+                                .withHeader("x-custom", "value")
+                                .withBody(validJwks));
+
+            TransportRequest request = new TransportRequest("GET", cfg.getBaseUrl() + "/certs",
+                                                            Map.of(Constants.HEADER_ACCEPT, Constants.MIME_APPLICATION_JSON), null);
+            assertEquals(request.getMethod(), "GET");
+            assertNull(request.getBody());
+
+            HttpTransport[] transports = { new ApacheHttpTransport(cfg), new JdkHttpTransport(cfg) };
+            for (HttpTransport transport : transports) {
+                // Blocking request streams the body
+                try (TransportResponse response = transport.execute(request)) {
+                    assertEquals(response.getStatusCode(), 200);
+                    assertEquals(response.getHeaders().get("x-custom").get(0), "value");
+                    assertEquals(new String(response.getBody().readAllBytes()), validJwks);
+                }
+
+                // Asynchronous request completes with the buffered body
+                try (TransportResponse response = transport.executeAsync(request).get()) {
+                    assertEquals(response.getStatusCode(), 200);
+                    assertEquals(new String(response.getBody().readAllBytes()), validJwks);
+                }
+                transport.close();
+            }
+        } catch (Exception e) {
+            // Fail the test explicitly in the catch block
+            Assert.fail("Exception: " + e.getMessage());
+        }
+    }
+
+    @Test
+    public void testJsonRequestBody() {
+        try {
+            // Create a TokenRequest with a large event log
+            byte[] eventLog = new byte[64 * 1024];
+            Arrays.fill(eventLog, (byte) 7);
+            VerifierNonce mockNonce = new VerifierNonce("mock-val".getBytes(), "mock-iat".getBytes(), "mock-signature".getBytes());
+            TokenRequest tokenRequest = new TokenRequest("quote".getBytes(), mockNonce, null, null, eventLog);
+            String expected = new ObjectMapper().writeValueAsString(tokenRequest);
+
+            // Fixed length body is serialized once, sized and replayable
+            JsonRequestBody body = new JsonRequestBody(new ObjectMapper(), tokenRequest, false);
+            assertEquals(body.getValue(), tokenRequest);
+            assertEquals(body.getContentLength(), expected.getBytes(StandardCharsets.UTF_8).length);
+            for (int i = 0; i < 2; i++) {
+                ByteArrayOutputStream out = new ByteArrayOutputStream();
+                body.writeTo(out);
+                assertEquals(out.toString(StandardCharsets.UTF_8.name()), expected);
+            }
+
+            // Chunked body has no content length
+            JsonRequestBody chunkedBody = new JsonRequestBody(new ObjectMapper(), tokenRequest, true);
+            assertEquals(chunkedBody.getContentLength(), -1);
+        } catch (Exception e) {
+            // Fail the test explicitly in the catch block
+            Assert.fail("Exception: " + e.getMessage());
+        }
+    }
+
+    @Test
+    public void testGetTokenStreamedBody() {
+        try {
+            Evidence evidence = new Evidence(0, "mock-quote".getBytes(), "mock-user-data".getBytes(), "mock-event-log".getBytes());
+            VerifierNonce mockNonce = new VerifierNonce("mock-val".getBytes(), "mock-iat".getBytes(), "mock-signature".getBytes());
+
+            // Stubbing the response only for a body carrying the base64 encoded quote
+            new MockServerClient("localhost", mockServer.getPort())
+                                .when(HttpRequest.request().withPath("/appraisal/v1/attest")
+                                .withBody(JsonBody.json("{\"quote\":\"" + Base64.encode("mock-quote".getBytes()) + "\"}")))
+                                .respond(HttpResponse.response().withStatusCode(200)
+                                .withHeader(Constants.HEADER_ACCEPT, Constants.MIME_APPLICATION_JSON)
+                                .withBody("{\"token\":\"mock-token\"}"));
+
+            // Body streamed with a fixed Content-Length, then with chunked encoding
+            for (boolean chunked : new boolean[] { false, true }) {
+                cfg.setRequestBodyChunked(chunked);
+                assertEquals(cfg.isRequestBodyChunked(), chunked);
+                GetTokenResponse tokenResponse = connector.GetToken(new GetTokenArgs(mockNonce, evidence, null, null));
+                assertEquals(tokenResponse.getToken(), "mock-token");
+                tokenResponse = connector.getTokenAsync(new GetTokenArgs(mockNonce, evidence, null, null)).get();
+                assertEquals(tokenResponse.getToken(), "mock-token");
+            }
+        } catch (Exception e) {
+            // Fail the test explicitly in the catch block
+            Assert.fail("Exception: " + e.getMessage());
+        }
+    }
+
+    @Test
+    public void testGetTokenCompressedBody() {
+        try {
+            // A large event log is compressed, a small one is sent as is
+            byte[] largeEventLog = new byte[8192];
+            Arrays.fill(largeEventLog, (byte) 'a');
+            Evidence largeEvidence = new Evidence(0, "mock-quote".getBytes(), null, largeEventLog);
+            Evidence smallEvidence = new Evidence(0, "mock-quote".getBytes(), null, null);
+            VerifierNonce mockNonce = new VerifierNonce("mock-val".getBytes(), "mock-iat".getBytes(), "mock-signature".getBytes());
+
+            // Stubbing the response only for bodies that the server can decode as JSON,
+            // which requires the gzip body to be sent along with its Content-Encoding header
+            new MockServerClient("localhost", mockServer.getPort())
+                                .when(HttpRequest.request().withPath("/appraisal/v1/attest")
+                                .withBody(JsonBody.json("{\"event_log\":\"" + Base64.encode(largeEventLog) + "\"}")))
+                                .respond(HttpResponse.response().withStatusCode(200)
+                                .withBody("{\"token\":\"mock-gzip-token\"}"));
+            new MockServerClient("localhost", mockServer.getPort())
+                                .when(HttpRequest.request().withPath("/appraisal/v1/attest")
+                                .withBody(JsonBody.json("{\"quote\":\"" + Base64.encode("mock-quote".getBytes()) + "\"}")))
+                                .respond(HttpResponse.response().withStatusCode(200)
+                                .withBody("{\"token\":\"mock-token\"}"));
+
+            cfg.setCompressionConfig(new CompressionConfig(true, 0, 9));
+            assertEquals(cfg.getCompressionConfig().getThreshold(), Constants.DEFAULT_COMPRESSION_THRESHOLD);
+            assertEquals(cfg.getCompressionConfig().getLevel(), 9);
+
+            // Check both transports
+            for (boolean http2 : new boolean[] { false, true }) {
+                cfg.setHttp2Enabled(http2);
+                connector.setConfig(cfg);
+                assertEquals(connector.GetToken(new GetTokenArgs(mockNonce, largeEvidence, null, null)).getToken(), "mock-gzip-token");
+                assertEquals(connector.GetToken(new GetTokenArgs(mockNonce, smallEvidence, null, null)).getToken(), "mock-token");
+            }
+
+            // Check the bytes saved
+            CompressionStats stats = connector.getCompressionStats();
+            assertEquals(stats.getCompressedRequests(), 2);
+            assertEquals(stats.getSkippedRequests(), 2);
+            assertTrue(stats.getUncompressedBytes() > 2 * largeEventLog.length);
+            assertTrue(stats.getBytesSaved() > 0);
+            assertTrue(stats.getCompressionRatio() < 0.5);
+        } catch (Exception e) {
+            // Fail the test explicitly in the catch block
+            Assert.fail("Exception: " + e.getMessage());
+        }
+    }
+
+    @Test
+    public void testGzipRequestBody() {
+        try {
+            String json = "{\"quote\":\"" + Base64.encode(new byte[4096]) + "\"}";
+            RequestBody plain = new RequestBody() {
+                public long getContentLength() {
+                    return json.length();
+                }
+
+                public void writeTo(java.io.OutputStream out) throws IOException {
+                    out.write(json.getBytes(StandardCharsets.UTF_8));
+                }
+            };
+            assertNull(plain.getContentEncoding());
+
+            CompressionStats stats = new CompressionStats();
+            GzipRequestBody body = new GzipRequestBody(plain, 1, stats);
+            assertEquals(body.getContentEncoding(), Constants.CONTENT_ENCODING_GZIP);
+
+            // The body is compressed once and the same bytes are written on every attempt
+            for (int attempt = 0; attempt < 2; attempt++) {
+                ByteArrayOutputStream out = new ByteArrayOutputStream();
+                body.writeTo(out);
+                assertEquals(out.size(), body.getContentLength());
+                byte[] decompressed = new GZIPInputStream(new ByteArrayInputStream(out.toByteArray())).readAllBytes();
+                assertEquals(new String(decompressed, StandardCharsets.UTF_8), json);
+            }
+            assertEquals(stats.getCompressedRequests(), 1);
+            assertEquals(stats.getUncompressedBytes(), json.length());
+            assertEquals(stats.getCompressedBytes(), body.getContentLength());
+        } catch (Exception e) {
+            // Fail the test explicitly in the catch block
+            Assert.fail("Exception: " + e.getMessage());
+        }
+    }
+
+    @Test
+    public void testCompressedResponses() {
+        try {
+            String crlUrl = cfg.getBaseUrl() + "/ats-ca-crl.der";
+            byte[] crlBytes = hexStringToByteArray(crlHex);
+
+            // Compress the JWKS with gzip and the CRL with zlib wrapped deflate
+            ByteArrayOutputStream gzipJwks = new ByteArrayOutputStream();
+            try (GZIPOutputStream out = new GZIPOutputStream(gzipJwks)) {
+                out.write(validJwks.getBytes(StandardCharsets.UTF_8));
+            }
+            ByteArrayOutputStream deflateCrl = new ByteArrayOutputStream();
+            try (DeflaterOutputStream out = new DeflaterOutputStream(deflateCrl)) {
+                out.write(crlBytes);
+            }
+
+            // Stubbing the responses only for requests accepting compressed responses
+            new MockServerClient("localhost", mockServer.getPort())
+                                .when(HttpRequest.request().withPath("/certs")
+                                .withHeader(Constants.HEADER_ACCEPT_ENCODING, ".*gzip.*"))
+                                .respond(HttpResponse.response().withStatusCode(200)
+                                .withHeader(Constants.HEADER_CONTENT_ENCODING, Constants.CONTENT_ENCODING_GZIP)
+                                .withBody(gzipJwks.toByteArray()));
+            new MockServerClient("localhost", mockServer.getPort())
+                                .when(HttpRequest.request().withPath("/ats-ca-crl.der")
+                                .withHeader(Constants.HEADER_ACCEPT_ENCODING, ".*deflate.*"))
+                                .respond(HttpResponse.response().withStatusCode(200)
+                                .withHeader(Constants.HEADER_CONTENT_ENCODING, Constants.CONTENT_ENCODING_DEFLATE)
+                                .withBody(deflateCrl.toByteArray()));
+
+            // Check the blocking and async APIs with both transports
+            for (boolean http2 : new boolean[] { false, true }) {
+                cfg.setHttp2Enabled(http2);
+                connector.setConfig(cfg);
+                assertEquals(connector.getTokenSigningCertificates(), validJwks);
+                assertEquals(connector.getTokenSigningCertificatesAsync().get(), validJwks);
+                assertArrayEquals(connector.getCRL(crlUrl).getEncoded(), crlBytes);
+                assertArrayEquals(connector.getCRLAsync(crlUrl).get().getEncoded(), crlBytes);
+            }
+        } catch (Exception e) {
+            // Fail the test explicitly in the catch block
+            Assert.fail("Exception: " + e.getMessage());
+        }
+    }
+
+    @Test
+    public void testContentDecoder() {
+        try {
+            byte[] data = "mock-body".getBytes();
+
+            // Raw deflate without the zlib header
+            ByteArrayOutputStream raw = new ByteArrayOutputStream();
+            try (DeflaterOutputStream out = new DeflaterOutputStream(raw, new Deflater(Deflater.DEFAULT_COMPRESSION, true))) {
+                out.write(data);
+            }
+            assertArrayEquals(data, ContentDecoder.decode(new ByteArrayInputStream(raw.toByteArray()), "deflate").readAllBytes());
+
+            // Empty bodies are passed through
+            assertEquals(ContentDecoder.decode(new ByteArrayInputStream(new byte[0]), "gzip").read(), -1);
+
+            // Encoding headers are dropped once the body is decoded
+            Map<String, List<String>> headers = new HashMap<>();
+            headers.put("content-encoding", Arrays.asList("GZIP"));
+            headers.put("Content-Length", Arrays.asList("10"));
+            headers.put("request-id", Arrays.asList("mock-request-id"));
+            assertEquals(ContentDecoder.getContentEncoding(headers), "gzip");
+            Map<String, List<String>> decoded = ContentDecoder.decodedHeaders(headers);
+            assertNull(ContentDecoder.getContentEncoding(decoded));
+            assertNull(decoded.get("content-length"));
+            assertNotNull(decoded.get("Request-Id"));
+
+            try {
+                ContentDecoder.decode(new ByteArrayInputStream(data), "br");
+                Assert.fail("decode should fail for an unsupported encoding");
+            } catch (IOException e) {
+                assertTrue(e.getMessage().contains("Unsupported Content-Encoding"));
+            }
+        } catch (Exception e) {
+            // Fail the test explicitly in the catch block
+            Assert.fail("Exception: " + e.getMessage());
+        }
+    }
+
+    @Test
+    public void testHedgedRequests() {
+        try {
+            String nonceBody = "{\"val\":\"dmFs\",\"iat\":\"aWF0\",\"signature\":\"c2ln\"}";
+
+            // Stubbing a slow first response, followed by fast responses
+            new MockServerClient("localhost", mockServer.getPort())
+                                .when(HttpRequest.request().withPath("/appraisal/v1/nonce"), Times.once())
+                                .respond(HttpResponse.response().withStatusCode(200)
+                                .withDelay(TimeUnit.SECONDS, 3)
+                                .withBody(nonceBody));
+            new MockServerClient("localhost", mockServer.getPort())
+                                .when(HttpRequest.request().withPath("/appraisal/v1/nonce"))
+                                .respond(HttpResponse.response().withStatusCode(200)
+                                .withBody(nonceBody));
+
+            // Hedge after 100 milliseconds, at most one hedge per request
+            cfg.setHedgingPolicy(new HedgingPolicy(0, 100, 1.5));
+            assertEquals(cfg.getHedgingPolicy().getPercentile(), Constants.DEFAULT_HEDGING_PERCENTILE, 0);
+            assertEquals(cfg.getHedgingPolicy().getMaxHedgeRatio(), 1, 0);
+
+            // The hedge answers long before the slow original request
+            long start = System.currentTimeMillis();
+            GetNonceResponse nonceResponse = connector.GetNonce(new GetNonceArgs("mock-request-id"));
+            assertArrayEquals("val".getBytes(), nonceResponse.getNonce().getVal());
+            assertTrue(System.currentTimeMillis() - start < 3000);
+
+            HedgingStats stats = connector.getHedgingStats();
+            assertEquals(stats.getRequests(), 1);
+            assertEquals(stats.getHedges(), 1);
+            assertEquals(stats.getHedgeWins(), 1);
+            assertEquals(stats.getHedgeRate(), 1, 0);
+            assertEquals(stats.getWinRate(), 1, 0);
+
+            // Async requests are hedged with the same policy
+            assertNotNull(connector.getNonceAsync(new GetNonceArgs("mock-request-id")).get().getNonce());
+            assertEquals(stats.getRequests(), 2);
+        } catch (Exception e) {
+            // Fail the test explicitly in the catch block
+            Assert.fail("Exception: " + e.getMessage());
+        }
+    }
+
+    @Test
+    public void testHedgingBudget() {
+        // With a budget of one hedge per ten requests the first request cannot be hedged
+        HedgingStats stats = new HedgingStats();
+        stats.recordRequest();
+        assertFalse(stats.tryAcquireHedge(0.1));
+        for (int i = 1; i < 10; i++) {
+            stats.recordRequest();
+        }
+        assertTrue(stats.tryAcquireHedge(0.1));
+        assertFalse(stats.tryAcquireHedge(0.1));
+
+        // Percentiles fall back to the default until enough latencies are recorded
+        LatencyTracker tracker = new LatencyTracker(100);
+        assertEquals(tracker.percentile(95, 1000, 10), 1000);
+        for (int i = 1; i <= 100; i++) {
+            tracker.record(i);
+        }
+        assertEquals(tracker.percentile(95, 1000, 10), 95);
+        assertEquals(tracker.percentile(50, 1000, 10), 50);
+    }
+
+    @Test
+    public void testHedgingKeepsEndpointHealthy() {
+        try {
+            // Stubbing slow responses to the original requests, so that every request is hedged
+            // and the hedges win
+            String nonceBody = "{\"val\":\"dmFs\",\"iat\":\"aWF0\",\"signature\":\"c2ln\"}";
+            new MockServerClient("localhost", mockServer.getPort())
+                                .when(HttpRequest.request().withPath("/appraisal/v1/nonce"), Times.exactly(5))
+                                .respond(HttpResponse.response().withStatusCode(200)
+                                .withDelay(TimeUnit.SECONDS, 3)
+                                .withBody(nonceBody));
+            new MockServerClient("localhost", mockServer.getPort())
+                                .when(HttpRequest.request().withPath("/appraisal/v1/nonce"))
+                                .respond(HttpResponse.response().withStatusCode(200)
+                                .withBody(nonceBody));
+            cfg.setHedgingPolicy(new HedgingPolicy(0, 50, 1.5));
+            connector.setConfig(cfg);
+
+            // The copies cancelled once the concurrent requests complete are not counted as failures of the endpoint
+            List<CompletableFuture<GetNonceResponse>> futures = new ArrayList<>();
+            for (int i = 0; i < 5; i++) {
+                futures.add(connector.getNonceAsync(new GetNonceArgs("mock-request-id")));
+            }
+            for (CompletableFuture<GetNonceResponse> future : futures) {
+                assertNotNull(future.get().getNonce());
+            }
+            assertEquals(connector.getHedgingStats().getHedges(), 5);
+            long start = System.currentTimeMillis();
+            while (connector.getEndpointStats().get(0).getInflight() > 0 && System.currentTimeMillis() - start < 5000) {
+                Thread.sleep(10);
+            }
+            EndpointStats stats = connector.getEndpointStats().get(0);
+            assertEquals(stats.getInflight(), 0);
+            assertFalse(stats.isEjected());
+            assertEquals(stats.getFailures(), 0);
+        } catch (Exception e) {
+            // Fail the test explicitly in the catch block
+            Assert.fail("Exception: " + e.getMessage());
+        }
+    }
+
+    @Test
+    public void testHedgingCancellation() {
+        ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor();
+        try {
+            Hedger hedger = new Hedger();
+            List<CompletableFuture<TransportResponse>> copies = new CopyOnWriteArrayList<>();
+            AtomicInteger closed = new AtomicInteger();
+            HedgingPolicy policy = new HedgingPolicy(0, 50, 1.5);
+
+            // The hedge wins, the original request still in flight is cancelled
+            CompletableFuture<TransportResponse> result = hedger.execute(policy, "nonce", () -> {
+                CompletableFuture<TransportResponse> copy = new CompletableFuture<>();
+                copies.add(copy);
+                return copy;
+            }, scheduler);
+            for (int i = 0; i < 100 && copies.size() < 2; i++) {
+                Thread.sleep(10);
+            }
+            assertEquals(copies.size(), 2);
+            TransportResponse response = new TransportResponse(200, null, null);
+            copies.get(1).complete(response);
+            assertTrue(result.get() == response);
+            assertTrue(copies.get(0).isCancelled());
+            // The latency is recorded from the original send, not from the start of the hedge
+            assertTrue(hedger.getTracker("nonce").percentile(50, 0, 1) >= 50);
+
+            // A response arriving after the caller gave up on the request is released,
+            // even if the copy could not be aborted in time
+            CompletableFuture<TransportResponse> original = new CompletableFuture<TransportResponse>() {
+                @Override
+                public boolean cancel(boolean mayInterruptIfRunning) {
+                    return false;
+                }
+            };
+            result = hedger.execute(policy, "nonce", () -> original, scheduler);
+            result.cancel(true);
+            original.complete(new TransportResponse(200, null, new ByteArrayInputStream(new byte[0]) {
+                @Override
+                public void close() {
+                    closed.incrementAndGet();
+                }
+            }));
+            assertEquals(closed.get(), 1);
+
+            // The hedged copies of a request share its retries
+            TransportRequest request = new TransportRequest("GET", "http://localhost", null, null);
+            TransportRequest hedge = request.hedge();
+            assertTrue(request.tryRetry(2));
+            assertTrue(hedge.tryRetry(2));
+            assertFalse(request.tryRetry(2));
+            assertFalse(hedge.tryRetry(2));
+
+            // but are cancelled on their own
+            hedge.cancel();
+            assertTrue(hedge.isCancelled());
+            assertFalse(request.isCancelled());
+        } catch (Exception e) {
+            // Fail the test explicitly in the catch block
+            Assert.fail("Exception: " + e.getMessage());
+        } finally {
+            scheduler.shutdownNow();
+        }
+    }
+
+    @Test
+    public void testEndpointFailover() {
+        try {
+            // An endpoint refusing connections
+            ClientAndServer deadServer = new ClientAndServer();
+            String deadUrl = "http://localhost:" + deadServer.getPort();
+            deadServer.stop();
+
+            // Stubbing the response
+            new MockServerClient("localhost", mockServer.getPort())
+                                .when(HttpRequest.request().withPath("/appraisal/v1/nonce"))
+                                .respond(HttpResponse.response().withStatusCode(200)
+                                .withBody("{\"val\":\"dmFs\",\"iat\":\"aWF0\",\"signature\":\"c2ln\"}"));
+
+            // Eject an endpoint after a single failure
+            cfg.setEndpoints(Arrays.asList(new Endpoint(deadUrl, deadUrl), new Endpoint(cfg.getBaseUrl(), cfg.getApiUrl())));
+            cfg.setLoadBalancerConfig(new LoadBalancerConfig(1, 60));
+            assertTrue(cfg.getLoadBalancerConfig().isNonceAffinity());
+            connector.setConfig(cfg);
+
+            // Requests fail over to the healthy endpoint
+            for (int i = 0; i < 5; i++) {
+                assertNotNull(connector.GetNonce(new GetNonceArgs("mock-request-id")).getNonce());
+                assertNotNull(connector.getNonceAsync(new GetNonceArgs("mock-request-id")).get().getNonce());
+            }
+
+            List<EndpointStats> stats = connector.getEndpointStats();
+            assertEquals(stats.size(), 2);
+            assertTrue(stats.get(0).isEjected());
+            assertFalse(stats.get(1).isEjected());
+            assertEquals(stats.get(1).getInflight(), 0);
+        } catch (Exception e) {
+            // Fail the test explicitly in the catch block
+            Assert.fail("Exception: " + e.getMessage());
+        }
+    }
+
+    @Test
+    public void testEndpointNonceAffinity() {
+        try {
+            Evidence evidence = new Evidence(0, "mock-quote".getBytes(), null, null);
+            String region1 = cfg.getApiUrl() + "/region1";
+            String region2 = cfg.getApiUrl() + "/region2";
+
+            // Stubbing the responses of each endpoint, the token tells which endpoint issued it
+            for (String region : new String[] { "/region1", "/region2" }) {
+                new MockServerClient("localhost", mockServer.getPort())
+                                    .when(HttpRequest.request().withPath(region + "/appraisal/v1/nonce"))
+                                    .respond(HttpResponse.response().withStatusCode(200)
+                                    .withBody("{\"val\":\"dmFs\",\"iat\":\"aWF0\",\"signature\":\"c2ln\"}"));
+                new MockServerClient("localhost", mockServer.getPort())
+                                    .when(HttpRequest.request().withPath(region + "/appraisal/v1/attest"))
+                                    .respond(HttpResponse.response().withStatusCode(200)
+                                    .withBody("{\"token\":\"" + region + "\"}"));
+            }
+
+            Endpoint endpoint1 = new Endpoint(region1, region1);
+            cfg.setEndpoints(Arrays.asList(endpoint1, new Endpoint(region2, region2)));
+            connector.setConfig(cfg);
+
+            // GetToken is always sent to the endpoint that issued the nonce
+            for (int i = 0; i < 10; i++) {
+                VerifierNonce nonce = connector.GetNonce(new GetNonceArgs("mock-request-id")).getNonce();
+                String expected = nonce.getEndpoint().equals(endpoint1) ? "/region1" : "/region2";
+                assertEquals(connector.GetToken(new GetTokenArgs(nonce, evidence, null, null)).getToken(), expected);
+                assertEquals(connector.getTokenAsync(new GetTokenArgs(nonce, evidence, null, null)).get().getToken(), expected);
+            }
+
+            // Endpoints are matched by URL, so a nonce stays pinned across a config change
+            VerifierNonce nonce = connector.GetNonce(new GetNonceArgs("mock-request-id")).getNonce();
+            String expected = nonce.getEndpoint().equals(endpoint1) ? "/region1" : "/region2";
+            cfg.setEndpoints(Arrays.asList(new Endpoint(region1, region1), new Endpoint(region2, region2)));
+            connector.setConfig(cfg);
+            assertEquals(connector.GetToken(new GetTokenArgs(nonce, evidence, null, null)).getToken(), expected);
+
+            // A nonce of an endpoint that is no longer configured fails clearly
+            String other = expected.equals("/region1") ? region2 : region1;
+            cfg.setEndpoints(Arrays.asList(new Endpoint(other, other)));
+            connector.setConfig(cfg);
+            try {
+                connector.GetToken(new GetTokenArgs(nonce, evidence, null, null));
+                Assert.fail("Expected the request to fail");
+            } catch (Exception e) {
+                assertTrue(e.getMessage().contains("is not configured"));
+            }
+            try {
+                connector.getTokenAsync(new GetTokenArgs(nonce, evidence, null, null)).get();
+                Assert.fail("Expected the request to fail");
+            } catch (ExecutionException e) {
+                assertTrue(e.getCause().getMessage().contains("is not configured"));
+            }
+        } catch (Exception e) {
+            // Fail the test explicitly in the catch block
+            Assert.fail("Exception: " + e.getMessage());
+        }
+    }
+
+    @Test
+    public void testReadTimeout() {
+        // Stubbing a response slower than the read timeout
+        new MockServerClient("localhost", mockServer.getPort())
+                            .when(HttpRequest.request().withPath("/appraisal/v1/nonce"))
+                            .respond(HttpResponse.response().withStatusCode(200)
+                            .withDelay(TimeUnit.SECONDS, 3)
+                            .withBody("{\"val\":\"dmFs\",\"iat\":\"aWF0\",\"signature\":\"c2ln\"}"));
+
+        assertEquals(cfg.getConnectTimeout(), Constants.DEFAULT_CONNECT_TIMEOUT);
+        assertEquals(cfg.getReadTimeout(), Constants.DEFAULT_READ_TIMEOUT);
+
+        // Check both transports
+        cfg.getRetryConfig().setRetryMax(0);
+        for (boolean http2 : new boolean[] { false, true }) {
+            cfg.setHttp2Enabled(http2);
+            cfg.setReadTimeout(200);
+            connector.setConfig(cfg);
+            long start = System.currentTimeMillis();
+            try {
+                connector.GetNonce(new GetNonceArgs("mock-request-id"));
+                Assert.fail("GetNonce() should fail for a response slower than the read timeout");
+            } catch (Exception e) {
+                assertTrue(e.getMessage().startsWith("GetNonce() failed"));
+            }
+            assertTrue(System.currentTimeMillis() - start < 2000);
+        }
+    }
+
+    @Test
+    public void testAttestDeadline() {
+        try {
+            // Stubbing the nonce response, the token response is slower than the deadline
+            new MockServerClient("localhost", mockServer.getPort())
+                                .when(HttpRequest.request().withPath("/appraisal/v1/nonce"))
+                                .respond(HttpResponse.response().withStatusCode(200)
+                                .withBody("{\"val\":\"dmFs\",\"iat\":\"aWF0\",\"signature\":\"c2ln\"}"));
+            new MockServerClient("localhost", mockServer.getPort())
+                                .when(HttpRequest.request().withPath("/appraisal/v1/attest"))
+                                .respond(HttpResponse.response().withStatusCode(200)
+                                .withDelay(TimeUnit.SECONDS, 3)
+                                .withBody("{\"token\":\"mock-token\"}"));
+
+            EvidenceAdapter mockAdapter = mock(EvidenceAdapter.class);
+            when(mockAdapter.collectEvidence(any())).thenReturn(new Evidence(0, "mock-quote".getBytes(), null, null));
+            AttestArgs attestArgs = new AttestArgs(mockAdapter, null, "mock-request-id");
+            attestArgs.setTimeout(500);
+            assertEquals(attestArgs.getTimeout(), 500);
+
+            // The token fetch only gets the time left of the deadline
+            long start = System.currentTimeMillis();
+            try {
+                connector.attest(attestArgs);
+                Assert.fail("attest() should fail past its deadline");
+            } catch (Exception e) {
+                assertTrue(e.getMessage().startsWith("attest() failed"));
+            }
+            try {
+                connector.attestAsync(attestArgs).get();
+                Assert.fail("attestAsync() should fail past its deadline");
+            } catch (ExecutionException e) {
+                assertTrue(e.getCause().getMessage().startsWith("attestAsync() failed"));
+            }
+            assertTrue(System.currentTimeMillis() - start < 2500);
+        } catch (Exception e) {
+            // Fail the test explicitly in the catch block
+            Assert.fail("Exception: " + e.getMessage());
+        }
+    }
+
+    @Test
+    public void testAttestDeadlineEvidence() {
+        try {
+            // Stubbing the nonce response
+            new MockServerClient("localhost", mockServer.getPort())
+                                .when(HttpRequest.request().withPath("/appraisal/v1/nonce"))
+                                .respond(HttpResponse.response().withStatusCode(200)
+                                .withBody("{\"val\":\"dmFs\",\"iat\":\"aWF0\",\"signature\":\"c2ln\"}"));
+
+            // An adapter that hangs until interrupted
+            CountDownLatch interrupted = new CountDownLatch(2);
+            EvidenceAdapter hungAdapter = new EvidenceAdapter() {
+                public Evidence collectEvidence(byte[] nonce) throws Exception {
+                    try {
+                        Thread.sleep(60000);
+                    } catch (InterruptedException e) {
+                        interrupted.countDown();
+                    }
+                    return null;
+                }
+            };
+            AttestArgs attestArgs = new AttestArgs(hungAdapter, null, "mock-request-id");
+            attestArgs.setTimeout(500);
+
+            // The blocking API fails once the deadline passes
+            try {
+                connector.attest(attestArgs);
+                Assert.fail("attest() should fail past its deadline");
+            } catch (Exception e) {
+                assertTrue(e.getMessage().contains("Deadline exceeded during evidence collection"));
+            }
+
+            // Cancelling the async API releases the adapter as well
+            attestArgs.setTimeout(0);
+            CompletableFuture<AttestResponse> future = connector.attestAsync(attestArgs);
+            Thread.sleep(500);
+            future.cancel(true);
+            assertTrue(interrupted.await(5, TimeUnit.SECONDS));
+        } catch (Exception e) {
+            // Fail the test explicitly in the catch block
+            Assert.fail("Exception: " + e.getMessage());
+        }
+    }
+
+    @Test
+    public void testRetryPolicy() {
+        RetryConfig retryConfig = new RetryConfig(1, 4, 0);
+
+        // No jitter doubles the wait up to retryWaitMax
+        RetryPolicy policy = new RetryPolicy(RetryPolicy.Jitter.NONE, 0);
+        assertEquals(policy.getMaxRetryAfter(), Constants.DEFAULT_RETRY_AFTER_MAX);
+        assertEquals(policy.backoff(0, 0, retryConfig), 1000);
+        assertEquals(policy.backoff(1, 1000, retryConfig), 2000);
+        assertEquals(policy.backoff(5, 4000, retryConfig), 4000);
+        assertEquals(policy.backoff(100, 4000, retryConfig), 4000);
+
+        // Jittered waits stay within their bounds
+        assertEquals(new RetryPolicy(null, 0).getJitter(), RetryPolicy.Jitter.FULL);
+        policy.setJitter(RetryPolicy.Jitter.FULL);
+        for (int i = 0; i < 100; i++) {
+            long wait = policy.backoff(1, 0, retryConfig);
+            assertTrue(wait >= 0 && wait <= 2000);
+        }
+        policy.setJitter(RetryPolicy.Jitter.DECORRELATED);
+        assertEquals(policy.backoff(0, 0, retryConfig), 1000);
+        for (int i = 0; i < 100; i++) {
+            long wait = policy.backoff(1, 3000, retryConfig);
+            assertTrue(wait >= 1000 && wait <= 4000);
+        }
+
+        // Retryable responses and errors
+        assertTrue(policy.isRetryable(503));
+        assertTrue(policy.isRetryable(429));
+        assertFalse(policy.isRetryable(400));
+        policy.setRetryOnTooManyRequests(false);
+        assertFalse(policy.isRetryable(429));
+        assertTrue(policy.isRetryable(new java.net.SocketTimeoutException("timeout")));
+        assertTrue(policy.isRetryable(new java.net.SocketException("Connection reset")));
+        assertFalse(policy.isRetryable(new java.net.UnknownHostException("unknown")));
+        assertFalse(policy.isRetryable(new javax.net.ssl.SSLHandshakeException("handshake")));
+        assertFalse(policy.isRetryable(new Exception("error")));
+
+        // Retry-After as delay-seconds or HTTP-date
+        assertEquals(RetryPolicy.parseRetryAfter("3"), 3000);
+        assertEquals(RetryPolicy.parseRetryAfter(null), -1);
+        assertEquals(RetryPolicy.parseRetryAfter("soon"), -1);
+        String date = java.time.format.DateTimeFormatter.RFC_1123_DATE_TIME.format(
+                java.time.ZonedDateTime.now(java.time.ZoneOffset.UTC).plusSeconds(30));
+        long retryAfter = RetryPolicy.parseRetryAfter(date);
+        assertTrue(retryAfter > 25000 && retryAfter <= 30000);
+    }
+
+    @Test
+    public void testRetryBudget() {
+        RetryBudget budget = new RetryBudget(0.5, 1);
+        assertEquals(budget.getRetryRatio(), 0.5, 0);
+        assertEquals(RetryBudget.getDefault().getRetryRatio(), Constants.DEFAULT_RETRY_BUDGET_RATIO, 0);
+        try {
+            // Configs share the process-wide budget unless they set their own
+            Config other = new Config("http://localhost", "http://localhost", "mock-api-key", null);
+            assertSame(cfg.getRetryBudget(), RetryBudget.getDefault());
+            assertSame(other.getRetryBudget(), RetryBudget.getDefault());
+            other.setRetryBudget(budget);
+            assertSame(other.getRetryBudget(), budget);
+        } catch (Exception e) {
+            // Fail the test explicitly in the catch block
+            Assert.fail("Exception: " + e.getMessage());
+        }
+
+        // The reserve allows a single retry, further retries need successful requests
+        assertTrue(budget.tryAcquire());
+        assertFalse(budget.tryAcquire());
+        budget.recordSuccess();
+        budget.recordSuccess();
+        assertTrue(budget.tryAcquire());
+        assertEquals(budget.getRetries(), 2);
+        assertEquals(budget.getRejectedRetries(), 1);
+    }
+
+    @Test
+    public void testGetNonceRetryAfter() {
+        try {
+            // Stubbing a 429 with Retry-After followed by a successful response
+            new MockServerClient("localhost", mockServer.getPort())
+                                .when(HttpRequest.request().withPath("/appraisal/v1/nonce"), Times.once())
+                                .respond(HttpResponse.response().withStatusCode(429)
+                                .withHeader("Retry-After", "1"));
+            new MockServerClient("localhost", mockServer.getPort())
+                                .when(HttpRequest.request().withPath("/appraisal/v1/nonce"))
+                                .respond(HttpResponse.response().withStatusCode(200)
+                                .withBody("{\"val\":\"dmFs\",\"iat\":\"aWF0\",\"signature\":\"c2ln\"}"));
+
+            long start = System.currentTimeMillis();
+            GetNonceResponse response = connector.GetNonce(new GetNonceArgs("mock-request-id"));
+            assertNotNull(response.getNonce());
+            assertTrue(System.currentTimeMillis() - start >= 1000);
+        } catch (Exception e) {
+            // Fail the test explicitly in the catch block
+            Assert.fail("Exception: " + e.getMessage());
+        }
+    }
+
+    @Test
+    public void testGetNonceRetryAfterTooLong() {
+        // Stubbing a 503 asking to retry later than maxRetryAfter
+        new MockServerClient("localhost", mockServer.getPort())
+                            .when(HttpRequest.request().withPath("/appraisal/v1/nonce"))
+                            .respond(HttpResponse.response().withStatusCode(503)
+                            .withHeader("Retry-After", "120"));
+
+        long start = System.currentTimeMillis();
+        try {
+            connector.GetNonce(new GetNonceArgs("mock-request-id"));
+            Assert.fail("GetNonce() should not wait for a Retry-After past maxRetryAfter");
+        } catch (Exception e) {
+            assertTrue(e.getMessage().contains("Retry-After"));
+        }
+        try {
+            connector.getNonceAsync(new GetNonceArgs("mock-request-id")).get();
+            Assert.fail("getNonceAsync() should not wait for a Retry-After past maxRetryAfter");
+        } catch (Exception e) {
+            assertTrue(e.getMessage().contains("Retry-After"));
+        }
+        assertTrue(System.currentTimeMillis() - start < 2000);
+    }
+
+    @Test
+    public void testGetNonceRetryBudgetExhausted() {
+        // Stubbing a retryable response
+        new MockServerClient("localhost", mockServer.getPort())
+                            .when(HttpRequest.request().withPath("/appraisal/v1/nonce"))
+                            .respond(HttpResponse.response().withStatusCode(503));
+
+        // Drain the budget of the connector
+        RetryBudget budget = new RetryBudget(0.1, 1);
+        while (budget.tryAcquire()) {
+        }
+        cfg.setRetryBudget(budget);
+        connector.setConfig(cfg);
+
+        try {
+            connector.GetNonce(new GetNonceArgs("mock-request-id"));
+            Assert.fail("GetNonce() should not retry without retry budget");
+        } catch (Exception e) {
+            assertTrue(e.getMessage().contains("Retry budget exhausted"));
+        }
+        try {
+            connector.getNonceAsync(new GetNonceArgs("mock-request-id")).get();
+            Assert.fail("getNonceAsync() should not retry without retry budget");
+        } catch (Exception e) {
+            assertTrue(e.getMessage().contains("Retry budget exhausted"));
+        }
+    }
+
+    @Test
+    public void testGetNonceRetryDroppedConnection() {
+        try {
+            // Stubbing a dropped connection followed by a successful response
+            new MockServerClient("localhost", mockServer.getPort())
+                                .when(HttpRequest.request().withPath("/appraisal/v1/nonce"), Times.once())
+                                .error(HttpError.error().withDropConnection(true));
+            new MockServerClient("localhost", mockServer.getPort())
+                                .when(HttpRequest.request().withPath("/appraisal/v1/nonce"))
+                                .respond(HttpResponse.response().withStatusCode(200)
+                                .withBody("{\"val\":\"dmFs\",\"iat\":\"aWF0\",\"signature\":\"c2ln\"}"));
+
+            cfg.setRetryPolicy(new RetryPolicy(RetryPolicy.Jitter.DECORRELATED, 0));
+            connector.setConfig(cfg);
+            GetNonceResponse response = connector.GetNonce(new GetNonceArgs("mock-request-id"));
+            assertNotNull(response.getNonce());
+        } catch (Exception e) {
+            // Fail the test explicitly in the catch block
+            Assert.fail("Exception: " + e.getMessage());
+        }
+    }
+
+    @Test
+    public void testTransportRuntimeException() {
+        try {
+            // A custom transport failing with a RuntimeException, such as a closed pool
+            HttpTransport broken = new HttpTransport() {
+                public TransportResponse execute(TransportRequest request) {
+                    throw new IllegalStateException("mock-failure");
+                }
+                public CompletableFuture<TransportResponse> executeAsync(TransportRequest request) {
+                    return CompletableFuture.failedFuture(new IllegalStateException("mock-failure"));
+                }
+                public void close() {
+                }
+            };
+            cfg.setHttpTransport(broken);
+            cfg.setCircuitBreakerConfig(new CircuitBreakerConfig(0, 0, 0));
+            connector.setConfig(cfg);
+
+            // The failures are neither retried nor counted against the endpoint or its circuit
+            for (int i = 0; i < 5; i++) {
+                try {
+                    connector.GetNonce(new GetNonceArgs("mock-request-id"));
+                    Assert.fail("Expected GetNonce() to fail");
+                } catch (Exception e) {
+                    assertTrue(e.getMessage().contains("mock-failure"));
+                }
+                try {
+                    connector.getNonceAsync(new GetNonceArgs("mock-request-id")).get();
+                    Assert.fail("Expected getNonceAsync() to fail");
+                } catch (ExecutionException e) {
+                    assertTrue(e.getCause().getMessage().contains("mock-failure"));
+                }
+            }
+            EndpointStats stats = connector.getEndpointStats().get(0);
+            assertEquals(stats.getInflight(), 0);
+            assertEquals(stats.getFailures(), 0);
+            assertFalse(stats.isEjected());
+            for (CircuitBreakerStats circuit : connector.getCircuitBreakerStats()) {
+                assertEquals(circuit.getFailures(), 0);
+                assertEquals(circuit.getState(), CircuitBreakerState.CLOSED);
+            }
+        } catch (Exception e) {
+            // Fail the test explicitly in the catch block
+            Assert.fail("Exception: " + e.getMessage());
+        }
+    }
+
+    @Test
+    public void testCircuitBreaker() {
+        // Stubbing a failing server
+        new MockServerClient("localhost", mockServer.getPort())
+                            .when(HttpRequest.request().withPath("/appraisal/v1/nonce"))
+                            .respond(HttpResponse.response().withStatusCode(500));
+
+        // Circuit breakers are disabled unless configured
+        assertNull(cfg.getCircuitBreakerConfig());
+
+        CircuitBreakerConfig cbConfig = new CircuitBreakerConfig(3, 1, 0);
+        assertEquals(cbConfig.getHalfOpenMaxCalls(), Constants.DEFAULT_CB_HALF_OPEN_MAX_CALLS);
+        cfg.setCircuitBreakerConfig(cbConfig);
+        connector.setConfig(cfg);
+
+        // The first request opens the circuit after 3 failed attempts
+        try {
+            connector.GetNonce(new GetNonceArgs("mock-request-id"));
+            Assert.fail("GetNonce() should fail for a failing server");
+        } catch (Exception e) {
+            assertTrue(e.getMessage().contains("Maximum retries reached"));
+        }
+        List<CircuitBreakerStats> stats = connector.getCircuitBreakerStats();
+        assertEquals(stats.size(), 1);
+        assertEquals(stats.get(0).getTarget(), "http://localhost:" + mockServer.getPort());
+        assertEquals(stats.get(0).getState(), CircuitBreakerState.OPEN);
+
+        // Requests fail right away while the circuit is open
+        long start = System.currentTimeMillis();
+        try {
+            connector.GetNonce(new GetNonceArgs("mock-request-id"));
+            Assert.fail("GetNonce() should fail while the circuit is open");
+        } catch (Exception e) {
+            assertTrue(e.getMessage().contains("Circuit breaker is open"));
+        }
+        try {
+            connector.getNonceAsync(new GetNonceArgs("mock-request-id")).get();
+            Assert.fail("getNonceAsync() should fail while the circuit is open");
+        } catch (Exception e) {
+            assertTrue(e.getMessage().contains("Circuit breaker is open"));
+        }
+        assertTrue(System.currentTimeMillis() - start < 500);
+        assertEquals(connector.getCircuitBreakerStats().get(0).getRejectedCalls(), 2);
+
+        // A successful trial request closes the circuit once openTime has passed
+        try {
+            mockServer.reset();
+            new MockServerClient("localhost", mockServer.getPort())
+                                .when(HttpRequest.request().withPath("/appraisal/v1/nonce"))
+                                .respond(HttpResponse.response().withStatusCode(200)
+                                .withBody("{\"val\":\"dmFs\",\"iat\":\"aWF0\",\"signature\":\"c2ln\"}"));
+            Thread.sleep(1100);
+            assertEquals(connector.getCircuitBreakerStats().get(0).getState(), CircuitBreakerState.HALF_OPEN);
+            assertNotNull(connector.GetNonce(new GetNonceArgs("mock-request-id")).getNonce());
+            assertEquals(connector.getCircuitBreakerStats().get(0).getState(), CircuitBreakerState.CLOSED);
+        } catch (Exception e) {
+            // Fail the test explicitly in the catch block
+            Assert.fail("Exception: " + e.getMessage());
+        }
+    }
+
+    @Test
+    public void testRateLimiterWait() {
+        try {
+            // Stubbing the nonce response
+            new MockServerClient("localhost", mockServer.getPort())
+                                .when(HttpRequest.request().withPath("/appraisal/v1/nonce"))
+                                .respond(HttpResponse.response().withStatusCode(200)
+                                .withBody("{\"val\":\"dmFs\",\"iat\":\"aWF0\",\"signature\":\"c2ln\"}"));
+
+            // 2 requests per second with a burst of 1, the third request waits for about a second
+            RateLimiter limiter = new RateLimiter(2, 1, null);
+            assertEquals(limiter.getMode(), RateLimiter.Mode.WAIT);
+            cfg.setRateLimiter(limiter);
+            connector.setConfig(cfg);
+
+            long start = System.currentTimeMillis();
+            connector.GetNonce(new GetNonceArgs("mock-request-id"));
+            connector.GetNonce(new GetNonceArgs("mock-request-id"));
+            assertNotNull(connector.getNonceAsync(new GetNonceArgs("mock-request-id")).get().getNonce());
+            long elapsed = System.currentTimeMillis() - start;
+            assertTrue(elapsed >= 900);
+            assertEquals(limiter.getThrottledRequests(), 2);
+            assertEquals(limiter.getRejectedRequests(), 0);
+        } catch (Exception e) {
+            // Fail the test explicitly in the catch block
+            Assert.fail("Exception: " + e.getMessage());
+        }
+    }
+
+    @Test
+    public void testRateLimiterFailFast() {
+        // Stubbing the nonce response
+        new MockServerClient("localhost", mockServer.getPort())
+                            .when(HttpRequest.request().withPath("/appraisal/v1/nonce"))
+                            .respond(HttpResponse.response().withStatusCode(200)
+                            .withBody("{\"val\":\"dmFs\",\"iat\":\"aWF0\",\"signature\":\"c2ln\"}"));
+
+        // The nonce limit of the key is spent by the first request
+        RateLimiter limiter = new RateLimiter(100, 100, RateLimiter.Mode.FAIL_FAST);
+        limiter.setOperationLimit(Constants.OPERATION_NONCE, 0.1, 1);
+        cfg.setRateLimiter(limiter);
+        connector.setConfig(cfg);
+
+        try {
+            connector.GetNonce(new GetNonceArgs("mock-request-id"));
+        } catch (Exception e) {
+            // Fail the test explicitly in the catch block
+            Assert.fail("Exception: " + e.getMessage());
+        }
+        try {
+            connector.GetNonce(new GetNonceArgs("mock-request-id"));
+            Assert.fail("GetNonce() should fail over the rate limit");
+        } catch (Exception e) {
+            assertTrue(e.getMessage().contains("Rate limit exceeded for nonce requests"));
+        }
+        try {
+            connector.getNonceAsync(new GetNonceArgs("mock-request-id")).get();
+            Assert.fail("getNonceAsync() should fail over the rate limit");
+        } catch (Exception e) {
+            assertTrue(e.getMessage().contains("Rate limit exceeded for nonce requests"));
+        }
+        assertEquals(limiter.getRejectedRequests(), 2);
+
+        // Other API keys have buckets of their own
+        assertEquals(limiter.reserve("other-api-key", Constants.OPERATION_NONCE, 0), 0);
+    }
+
+    @Test
+    public void testConcurrencyLimiterQueue() {
+        try {
+            // Stubbing a slow nonce response
+            new MockServerClient("localhost", mockServer.getPort())
+                                .when(HttpRequest.request().withPath("/appraisal/v1/nonce"))
+                                .respond(HttpResponse.response().withStatusCode(200)
+                                .withDelay(TimeUnit.MILLISECONDS, 1000)
+                                .withBody("{\"val\":\"dmFs\",\"iat\":\"aWF0\",\"signature\":\"c2ln\"}"));
+
+            cfg.setConcurrencyLimitConfig(new ConcurrencyLimitConfig(1, 1, 1, 300));
+            connector.setConfig(cfg);
+
+            // A second request is queued behind the first one and fails after maxQueueWait
+            CompletableFuture<GetNonceResponse> first = connector.getNonceAsync(new GetNonceArgs("mock-request-id"));
+            CompletableFuture<GetNonceResponse> second = connector.getNonceAsync(new GetNonceArgs("mock-request-id"));
+            ConcurrencyLimiterStats stats = connector.getConcurrencyLimiterStats();
+            assertEquals(stats.getLimit(), 1);
+            assertEquals(stats.getInflight(), 1);
+            assertEquals(stats.getQueued(), 1);
+            try {
+                connector.GetNonce(new GetNonceArgs("mock-request-id"));
+                Assert.fail("GetNonce() should fail once queued for maxQueueWait");
+            } catch (Exception e) {
+                assertTrue(e.getMessage().contains("Concurrency limit reached"));
+            }
+            try {
+                second.get();
+                Assert.fail("getNonceAsync() should fail once queued for maxQueueWait");
+            } catch (ExecutionException e) {
+                assertTrue(e.getCause().getMessage().contains("Concurrency limit reached"));
+            }
+            assertNotNull(first.get().getNonce());
+            stats = connector.getConcurrencyLimiterStats();
+            assertEquals(stats.getInflight(), 0);
+            assertEquals(stats.getQueued(), 0);
+            assertEquals(stats.getRejected(), 2);
+        } catch (Exception e) {
+            // Fail the test explicitly in the catch block
+            Assert.fail("Exception: " + e.getMessage());
+        }
+    }
+
+    @Test
+    public void testConcurrencyLimiterDecrease() {
+        // Stubbing a failing server
+        new MockServerClient("localhost", mockServer.getPort())
+                            .when(HttpRequest.request().withPath("/appraisal/v1/nonce"))
+                            .respond(HttpResponse.response().withStatusCode(500));
+
+        ConcurrencyLimitConfig clConfig = new ConcurrencyLimitConfig(10, 0, 0, 0);
+        assertEquals(clConfig.getMinLimit(), Constants.DEFAULT_CONCURRENCY_MIN_LIMIT);
+        cfg.setConcurrencyLimitConfig(clConfig);
+        connector.setConfig(cfg);
+        assertEquals(connector.getConcurrencyLimiterStats().getLimit(), 10);
+
+        // Each failed attempt cuts the limit
+        try {
+            connector.GetNonce(new GetNonceArgs("mock-request-id"));
+            Assert.fail("GetNonce() should fail for a failing server");
+        } catch (Exception e) {
+            assertTrue(e.getMessage().contains("Maximum retries reached"));
+        }
+        assertEquals(connector.getConcurrencyLimiterStats().getLimit(), 7);
+    }
+
+    @Test
+    public void testConcurrencyLimiterMixedTraffic() {
+        try {
+            // Stubbing a fast nonce response and a much slower token response
+            new MockServerClient("localhost", mockServer.getPort())
+                                .when(HttpRequest.request().withPath("/appraisal/v1/nonce"))
+                                .respond(HttpResponse.response().withStatusCode(200)
+                                .withBody("{\"val\":\"dmFs\",\"iat\":\"aWF0\",\"signature\":\"c2ln\"}"));
+            new MockServerClient("localhost", mockServer.getPort())
+                                .when(HttpRequest.request().withPath("/appraisal/v1/attest"))
+                                .respond(HttpResponse.response().withStatusCode(200)
+                                .withDelay(TimeUnit.MILLISECONDS, 50)
+                                .withBody("{\"token\":\"mock-token\"}"));
+
+            EvidenceAdapter mockAdapter = mock(EvidenceAdapter.class);
+            when(mockAdapter.collectEvidence(any())).thenReturn(new Evidence(0, "mock-quote".getBytes(), null, null));
+
+            // The concurrency limit is disabled unless configured
+            assertNull(cfg.getConcurrencyLimitConfig());
+            assertEquals(connector.getConcurrencyLimiterStats().getLimit(), 0);
+            cfg.setConcurrencyLimitConfig(new ConcurrencyLimitConfig(10, 0, 0, 0));
+            connector.setConfig(cfg);
+
+            // Token latencies are measured against token latencies, so they do not read as queueing
+            for (int i = 0; i < 30; i++) {
+                connector.attest(new AttestArgs(mockAdapter, null, "mock-request-id"));
+            }
+            // Allow for an occasional latency spike, a shared baseline would have cut the limit to its minimum
+            assertTrue(connector.getConcurrencyLimiterStats().getLimit() >= 8);
+        } catch (Exception e) {
+            // Fail the test explicitly in the catch block
+            Assert.fail("Exception: " + e.getMessage());
+        }
+    }
+
+    @Test
+    public void testProxy() {
+        try {
+            // Stubbing the nonce response, MockServer acts as the proxy
+            new MockServerClient("localhost", mockServer.getPort())
+                                .when(HttpRequest.request().withPath("/appraisal/v1/nonce")
+                                .withHeader("Host", "trustauthority.invalid"))
+                                .respond(HttpResponse.response().withStatusCode(200)
+                                .withBody("{\"val\":\"dmFs\",\"iat\":\"aWF0\",\"signature\":\"c2ln\"}"));
+
+            // The host of the API URL can only be reached through the proxy
+            Config proxyConfig = new Config("http://trustauthority.invalid", "http://trustauthority.invalid", "mock-api-key", new RetryConfig(1, 1, 1));
+            proxyConfig.setProxy("localhost", mockServer.getPort());
+            assertEquals(proxyConfig.getProxyHost(), "localhost");
+
+            // Check both transports
+            for (boolean http2 : new boolean[] { false, true }) {
+                proxyConfig.setHttp2Enabled(http2);
+                try (TrustAuthorityConnector proxied = new TrustAuthorityConnector(proxyConfig)) {
+                    assertNotNull(proxied.GetNonce(new GetNonceArgs("mock-request-id")).getNonce());
+                    assertNotNull(proxied.getNonceAsync(new GetNonceArgs("mock-request-id")).get().getNonce());
+                }
+            }
+
+            // A port of 0 uses the default proxy port
+            proxyConfig.setProxy("proxy.invalid", 0);
+            assertEquals(proxyConfig.getProxyPort(), Constants.DEFAULT_PROXY_PORT);
+        } catch (Exception e) {
+            // Fail the test explicitly in the catch block
+            Assert.fail("Exception: " + e.getMessage());
+        }
+    }
+
+    @Test
+    public void testTlsSessionResumption() {
+        try {
+            // Stubbing the nonce response, MockServer serves TLS on the same port
+            new MockServerClient("localhost", mockServer.getPort())
+                                .when(HttpRequest.request().withPath("/appraisal/v1/nonce"))
+                                .respond(HttpResponse.response().withStatusCode(200)
+                                .withBody("{\"val\":\"dmFs\",\"iat\":\"aWF0\",\"signature\":\"c2ln\"}"));
+
+            // Trust the certificate generated by MockServer
+            SSLContext sslContext = SSLContext.getInstance("TLS");
+            sslContext.init(null, new TrustManager[] { new X509TrustManager() {
+                public void checkClientTrusted(X509Certificate[] chain, String authType) {}
+                public void checkServerTrusted(X509Certificate[] chain, String authType) {}
+                public X509Certificate[] getAcceptedIssuers() { return new X509Certificate[0]; }
+            } }, null);
+            TlsConfig tlsConfig = new TlsConfig(sslContext, 0, 0);
+            assertEquals(tlsConfig.getSessionCacheSize(), Constants.DEFAULT_TLS_SESSION_CACHE_SIZE);
+            assertArrayEquals(tlsConfig.getProtocols(), Constants.DEFAULT_TLS_PROTOCOLS);
+
+            String url = "https://localhost:" + mockServer.getPort();
+            Config tlsCfg = new Config(url, url, "mock-api-key", new RetryConfig(1, 1, 1));
+            tlsCfg.setTlsConfig(tlsConfig);
+
+            // The first connector makes a full handshake, the second resumes the session cached in the shared context
+            try (TrustAuthorityConnector first = new TrustAuthorityConnector(tlsCfg)) {
+                assertNotNull(first.GetNonce(new GetNonceArgs("mock-request-id")).getNonce());
+                assertEquals(first.getTlsStats().getHandshakes(), 1);
+                assertEquals(first.getTlsStats().getResumedHandshakes(), 0);
+            }
+            try (TrustAuthorityConnector second = new TrustAuthorityConnector(tlsCfg)) {
+                assertNotNull(second.GetNonce(new GetNonceArgs("mock-request-id")).getNonce());
+                assertEquals(second.getTlsStats().getResumedHandshakes(), 1);
+                assertEquals(second.getTlsStats().getResumptionRate(), 1.0, 0);
+            }
+
+            // The JDK transport is configured with the same context
+            tlsCfg.setHttp2Enabled(true);
+            try (TrustAuthorityConnector jdk = new TrustAuthorityConnector(tlsCfg)) {
+                assertNotNull(jdk.GetNonce(new GetNonceArgs("mock-request-id")).getNonce());
+            }
+        } catch (Exception e) {
+            // Fail the test explicitly in the catch block
+            Assert.fail("Exception: " + e.getMessage());
+        }
+    }
+
+    @Test
+    public void testDnsCacheAndConnectionRacing() {
+        ExecutorService executor = Executors.newCachedThreadPool();
+        try (ServerSocket server = new ServerSocket(0, 50, InetAddress.getByName("127.0.0.2"))) {
+            // Resolve every host to an address refusing connections followed by the address of the server
+            AtomicInteger lookups = new AtomicInteger();
+            InetAddress refused = InetAddress.getByName("127.0.0.3");
+            DnsResolver delegate = host -> {
+                lookups.incrementAndGet();
+                return new InetAddress[] { refused, server.getInetAddress() };
+            };
+            DnsConfig dnsConfig = new DnsConfig(0, 0, 100);
+            assertEquals(dnsConfig.getTtl(), Constants.DEFAULT_DNS_TTL);
+
+            // The second lookup is served from the cache
+            CachingDnsResolver resolver = new CachingDnsResolver(delegate, dnsConfig, executor);
+            assertEquals(resolver.resolve("trustauthority.invalid")[1], server.getInetAddress());
+            resolver.resolve("trustauthority.invalid");
+            assertEquals(lookups.get(), 1);
+
+            // The refused attempt starts the next one, the address of the server connects
+            RacingConnectionOperator operator = new RacingConnectionOperator(RegistryBuilder.<ConnectionSocketFactory>create()
+                    .register("http", PlainConnectionSocketFactory.getSocketFactory()).build(), resolver, executor, 100);
+            HttpHost host = new HttpHost("trustauthority.invalid", server.getLocalPort());
+            ManagedHttpClientConnection conn = ManagedHttpClientConnectionFactory.INSTANCE.create(new HttpRoute(host), null);
+            operator.connect(conn, host, null, 10000, SocketConfig.DEFAULT, new BasicHttpContext());
+            assertTrue(conn.isOpen());
+            assertEquals(conn.getRemoteAddress(), server.getInetAddress());
+            conn.close();
+        } catch (Exception e) {
+            // Fail the test explicitly in the catch block
+            Assert.fail("Exception: " + e.getMessage());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    public void testNoncePool() {
+        try {
+            // Fetch nonces issued now
+            AtomicInteger fetches = new AtomicInteger();
+            NoncePool pool = new NoncePool(new NoncePoolConfig(4, 60), () -> {
+                fetches.incrementAndGet();
+                String iat = Instant.now().toString();
+                return CompletableFuture.completedFuture(new VerifierNonce("val".getBytes(), iat.getBytes(), "sig".getBytes()));
+            });
+
+            // The first take misses and starts the refill
+            assertNull(pool.poll());
+            assertEquals(fetches.get(), 1);
+            assertEquals(pool.getStats().getSize(), 1);
+
+            // Each nonce is handed out once, the target grows with the consumption rate
+            VerifierNonce first = pool.poll();
+            assertNotNull(first);
+            assertEquals(pool.getStats().getTarget(), 4);
+            VerifierNonce second = pool.poll();
+            assertNotNull(second);
+            assertTrue(first != second);
+            assertEquals(pool.getStats().getHits(), 2);
+
+            // Nonces older than maxAge are evicted instead of handed out
+            pool.close();
+            NoncePool stalePool = new NoncePool(new NoncePoolConfig(4, 60), () ->
+                    CompletableFuture.completedFuture(new VerifierNonce("val".getBytes(),
+                            "2022-08-24 12:36:32.929722075 +0000 UTC".getBytes(), "sig".getBytes())));
+            assertNull(stalePool.poll());
+            assertNull(stalePool.poll());
+            assertEquals(stalePool.getStats().getSize(), 0);
+            assertTrue(stalePool.getStats().getExpired() > 0);
+
+            // Nothing is prefetched for a caller taking nonces further apart than maxAge
+            AtomicInteger slowFetches = new AtomicInteger();
+            NoncePool slowPool = new NoncePool(new NoncePoolConfig(4, 1), () -> {
+                slowFetches.incrementAndGet();
+                String iat = Instant.now().toString();
+                return CompletableFuture.completedFuture(new VerifierNonce("val".getBytes(), iat.getBytes(), "sig".getBytes()));
+            });
+            assertNull(slowPool.poll());
+            Thread.sleep(1200);
+            assertNull(slowPool.poll());
+            assertEquals(slowFetches.get(), 1);
+            assertEquals(slowPool.getStats().getTarget(), 0);
+            slowPool.close();
+
+            // Stubbing the nonce and token responses
+            new MockServerClient("localhost", mockServer.getPort())
+                                .when(HttpRequest.request().withPath("/appraisal/v1/nonce"))
+                                .respond(HttpResponse.response().withStatusCode(200)
+                                .withBody("{\"val\":\"dmFs\",\"iat\":\"aWF0\",\"signature\":\"c2ln\"}"));
+            new MockServerClient("localhost", mockServer.getPort())
+                                .when(HttpRequest.request().withPath("/appraisal/v1/attest"))
+                                .respond(HttpResponse.response().withStatusCode(200)
+                                .withBody("{\"token\":\"mock-token\"}"));
+            EvidenceAdapter mockAdapter = mock(EvidenceAdapter.class);
+            when(mockAdapter.collectEvidence(any())).thenReturn(new Evidence(0, "mock-quote".getBytes(), null, null));
+            AttestArgs attestArgs = new AttestArgs(mockAdapter, null, "mock-request-id");
+
+            // The first attestation fetches its nonce, the next one takes the nonce prefetched meanwhile
+            cfg.setNoncePoolConfig(new NoncePoolConfig(0, 0));
+            connector.setConfig(cfg);
+            assertEquals(connector.attest(attestArgs).getToken(), "mock-token");
+            long start = System.currentTimeMillis();
+            while (connector.getNoncePoolStats().getSize() == 0 && System.currentTimeMillis() - start < 5000) {
+                Thread.sleep(10);
+            }
+            assertEquals(connector.attestAsync(attestArgs).get().getToken(), "mock-token");
+            assertEquals(connector.getNoncePoolStats().getHits(), 1);
+            assertEquals(connector.getNoncePoolStats().getMisses(), 1);
+        } catch (Exception e) {
+            // Fail the test explicitly in the catch block
+            Assert.fail("Exception: " + e.getMessage());
+        }
+    }
+
+    @Test
+    public void testAttestAll() {
+        try {
+            // Stubbing the nonce and token responses
+            new MockServerClient("localhost", mockServer.getPort())
+                                .when(HttpRequest.request().withPath("/appraisal/v1/nonce"))
+                                .respond(HttpResponse.response().withStatusCode(200)
+                                .withBody("{\"val\":\"dmFs\",\"iat\":\"aWF0\",\"signature\":\"c2ln\"}"));
+            new MockServerClient("localhost", mockServer.getPort())
+                                .when(HttpRequest.request().withPath("/appraisal/v1/attest"))
+                                .respond(HttpResponse.response().withStatusCode(200)
+                                .withBody("{\"token\":\"mock-token\"}"));
+
+            // An adapter recording how many evidence collections run at once
+            AtomicInteger running = new AtomicInteger();
+            AtomicInteger maxRunning = new AtomicInteger();
+            EvidenceAdapter slowAdapter = new EvidenceAdapter() {
+                public Evidence collectEvidence(byte[] nonce) throws Exception {
+                    maxRunning.accumulateAndGet(running.incrementAndGet(), Math::max);
+                    Thread.sleep(200);
+                    running.decrementAndGet();
+                    return new Evidence(0, "mock-quote".getBytes(), null, null);
+                }
+            };
+            EvidenceAdapter failingAdapter = mock(EvidenceAdapter.class);
+            when(failingAdapter.collectEvidence(any())).thenThrow(new RuntimeException("mock-failure"));
+
+            List<AttestArgs> batch = Arrays.asList(
+                    new AttestArgs(slowAdapter, null, "mock-request-1"),
+                    new AttestArgs(slowAdapter, null, "mock-request-2"),
+                    new AttestArgs(failingAdapter, null, "mock-request-3"),
+                    new AttestArgs(slowAdapter, null, "mock-request-4"),
+                    new AttestArgs(slowAdapter, null, "mock-request-5"));
+
+            // The failed attestation does not stop the batch, and at most 2 run at a time
+            List<AttestResult> results = connector.attestAll(batch, 2);
+            assertEquals(results.size(), 5);
+            for (int i = 0; i < results.size(); i++) {
+                assertEquals(results.get(i).getArgs(), batch.get(i));
+                assertEquals(results.get(i).isSuccess(), i != 2);
+            }
+            assertEquals(results.get(0).getResponse().getToken(), "mock-token");
+            assertTrue(results.get(2).getError().getMessage().contains("mock-failure"));
+            assertEquals(maxRunning.get(), 2);
+
+            // Results can be consumed as they complete
+            List<CompletableFuture<AttestResult>> futures = connector.attestAllAsync(batch, 0);
+            CompletableFuture.allOf(futures.toArray(new CompletableFuture<?>[0])).get();
+            assertFalse(futures.get(2).get().isSuccess());
+            assertTrue(futures.get(4).get().isSuccess());
+        } catch (Exception e) {
+            // Fail the test explicitly in the catch block
+            Assert.fail("Exception: " + e.getMessage());
+        }
+    }
+
+    @Test
+    public void testTokenCache() {
+        try {
+            // Stubbing the nonce response and a token expiring in 2 minutes
+            new MockServerClient("localhost", mockServer.getPort())
+                                .when(HttpRequest.request().withPath("/appraisal/v1/nonce"))
+                                .respond(HttpResponse.response().withStatusCode(200)
+                                .withBody("{\"val\":\"dmFs\",\"iat\":\"aWF0\",\"signature\":\"c2ln\"}"));
+            new MockServerClient("localhost", mockServer.getPort())
+                                .when(HttpRequest.request().withPath("/appraisal/v1/attest"))
+                                .respond(HttpResponse.response().withStatusCode(200)
+                                .withBody("{\"token\":\"" + createToken(120000) + "\"}"));
+            EvidenceAdapter mockAdapter = mock(EvidenceAdapter.class);
+            when(mockAdapter.collectEvidence(any())).thenReturn(new Evidence(0, "mock-quote".getBytes(), null, null));
+            AttestArgs attestArgs = new AttestArgs(mockAdapter, null, "mock-request-id");
+
+            cfg.setTokenCacheConfig(new TokenCacheConfig(0, 0));
+            assertEquals(cfg.getTokenCacheConfig().getRefreshAhead(), Constants.DEFAULT_TOKEN_CACHE_REFRESH_AHEAD);
+            connector.setConfig(cfg);
+
+            // The cold miss attests, the next calls for the same attestation are served from the cache
+            String token = connector.attest(attestArgs).getToken();
+            assertEquals(connector.attest(attestArgs).getToken(), token);
+            assertEquals(connector.attestAsync(attestArgs).get().getToken(), token);
+            assertEquals(connector.getTokenCacheStats().getHits(), 2);
+            assertEquals(connector.getTokenCacheStats().getMisses(), 1);
+
+            // Other policy IDs are a different attestation
+            connector.attest(new AttestArgs(mockAdapter, Arrays.asList(UUID.randomUUID()), "mock-request-id"));
+            assertEquals(connector.getTokenCacheStats().getMisses(), 2);
+
+            // Past half its lifetime a token is refreshed in the background while still being returned
+            AtomicInteger refreshes = new AtomicInteger();
+            AttestResponse refreshed = new AttestResponse(createToken(120000), null);
+            TokenCache cache = new TokenCache(new TokenCacheConfig(0, 0), args -> {
+                refreshes.incrementAndGet();
+                return CompletableFuture.completedFuture(refreshed);
+            });
+            AttestResponse shortLived = new AttestResponse(createToken(8000), null);
+            cache.put(attestArgs, shortLived);
+            Thread.sleep(1600);
+            assertEquals(cache.lookup(attestArgs), shortLived);
+            assertEquals(refreshes.get(), 1);
+            assertEquals(cache.getStats().getRefreshes(), 1);
+            assertEquals(cache.lookup(attestArgs), refreshed);
+        } catch (Exception e) {
+            // Fail the test explicitly in the catch block
+            Assert.fail("Exception: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Helper function to create a token expiring after lifetime milliseconds
+     */
+    private static String createToken(long lifetime) throws Exception {
+        SignedJWT jwt = new SignedJWT(new JWSHeader(JWSAlgorithm.HS256), new JWTClaimsSet.Builder()
+                .expirationTime(new Date(System.currentTimeMillis() + lifetime)).build());
+        jwt.sign(new MACSigner(new byte[32]));
+        return jwt.serialize();
+    }
+
+    @Test
+    public void testAttestCoalescing() {
+        try {
+            // Stubbing the nonce and token responses
+            new MockServerClient("localhost", mockServer.getPort())
+                                .when(HttpRequest.request().withPath("/appraisal/v1/nonce"))
+                                .respond(HttpResponse.response().withStatusCode(200)
+                                .withBody("{\"val\":\"dmFs\",\"iat\":\"aWF0\",\"signature\":\"c2ln\"}"));
+            new MockServerClient("localhost", mockServer.getPort())
+                                .when(HttpRequest.request().withPath("/appraisal/v1/attest"))
+                                .respond(HttpResponse.response().withStatusCode(200)
+                                .withBody("{\"token\":\"mock-token\"}"));
+
+            // An adapter blocking evidence collection until released
+            AtomicInteger collections = new AtomicInteger();
+            CountDownLatch release = new CountDownLatch(1);
+            EvidenceAdapter blockingAdapter = new EvidenceAdapter() {
+                public Evidence collectEvidence(byte[] nonce) throws Exception {
+                    collections.incrementAndGet();
+                    release.await();
+                    return new Evidence(0, "mock-quote".getBytes(), null, null);
+                }
+            };
+
+            cfg.setAttestCoalescingEnabled(true);
+            assertTrue(cfg.isAttestCoalescingEnabled());
+            connector.setConfig(cfg);
+
+            // Identical attestations share the one in flight
+            CompletableFuture<AttestResponse> leader = connector.attestAsync(new AttestArgs(blockingAdapter, null, "mock-request-1"));
+            CompletableFuture<AttestResponse> cancelled = connector.attestAsync(new AttestArgs(blockingAdapter, null, "mock-request-2"));
+            AttestArgs impatientArgs = new AttestArgs(blockingAdapter, null, "mock-request-3");
+            impatientArgs.setTimeout(100);
+            CompletableFuture<AttestResponse> impatient = connector.attestAsync(impatientArgs);
+            CompletableFuture<AttestResponse> blocking = CompletableFuture.supplyAsync(() -> {
+                try {
+                    return connector.attest(new AttestArgs(blockingAdapter, null, "mock-request-4"));
+                } catch (Exception e) {
+                    throw new CompletionException(e);
+                }
+            });
+
+            // Waiters that are cancelled or time out do not cancel the shared attestation
+            cancelled.cancel(true);
+            try {
+                impatient.get();
+                Assert.fail("attestAsync() should fail past its timeout");
+            } catch (ExecutionException e) {
+                assertTrue(e.getCause().getMessage().startsWith("attestAsync() failed"));
+            }
+            long start = System.currentTimeMillis();
+            while (connector.getCoalescedAttestations() < 3 && System.currentTimeMillis() - start < 5000) {
+                Thread.sleep(10);
+            }
+            release.countDown();
+            assertEquals(leader.get().getToken(), "mock-token");
+            assertEquals(blocking.get().getToken(), "mock-token");
+            assertEquals(collections.get(), 1);
+            assertEquals(connector.getCoalescedAttestations(), 3);
+        } catch (Exception e) {
+            // Fail the test explicitly in the catch block
+            Assert.fail("Exception: " + e.getMessage());
+        }
+    }
+
+    @Test
+    public void testAttestationPublisher() {
+        try {
+            // Stubbing the nonce and token responses
+            new MockServerClient("localhost", mockServer.getPort())
+                                .when(HttpRequest.request().withPath("/appraisal/v1/nonce"))
+                                .respond(HttpResponse.response().withStatusCode(200)
+                                .withBody("{\"val\":\"dmFs\",\"iat\":\"aWF0\",\"signature\":\"c2ln\"}"));
+            new MockServerClient("localhost", mockServer.getPort())
+                                .when(HttpRequest.request().withPath("/appraisal/v1/attest"))
+                                .respond(HttpResponse.response().withStatusCode(200)
+                                .withBody("{\"token\":\"mock-token\"}"));
+
+            EvidenceAdapter mockAdapter = mock(EvidenceAdapter.class);
+            when(mockAdapter.collectEvidence(any())).thenReturn(new Evidence(0, "mock-quote".getBytes(), null, null));
+
+            // A subscriber keeping up with every token and one that requested a single token
+            List<AttestResponse> fast = new CopyOnWriteArrayList<>();
+            List<AttestResponse> slow = new CopyOnWriteArrayList<>();
+            CountDownLatch completed = new CountDownLatch(2);
+            Flow.Subscription[] slowSubscription = new Flow.Subscription[1];
+
+            AttestationPublisher publisher = new AttestationPublisher(connector, new AttestArgs(mockAdapter, null, "mock-request-id"), 100, 0.2);
+            publisher.subscribe(new Flow.Subscriber<AttestResponse>() {
+                private Flow.Subscription subscription;
+                public void onSubscribe(Flow.Subscription subscription) {
+                    this.subscription = subscription;
+                    subscription.request(1);
+                }
+                public void onNext(AttestResponse item) {
+                    fast.add(item);
+                    subscription.request(1);
+                }
+                public void onError(Throwable throwable) {
+                }
+                public void onComplete() {
+                    completed.countDown();
+                }
+            });
+            publisher.subscribe(new Flow.Subscriber<AttestResponse>() {
+                public void onSubscribe(Flow.Subscription subscription) {
+                    slowSubscription[0] = subscription;
+                    subscription.request(1);
+                }
+                public void onNext(AttestResponse item) {
+                    slow.add(item);
+                }
+                public void onError(Throwable throwable) {
+                }
+                public void onComplete() {
+                    completed.countDown();
+                }
+            });
+            assertEquals(publisher.getSubscriberCount(), 2);
+
+            long start = System.currentTimeMillis();
+            while (fast.size() < 4 && System.currentTimeMillis() - start < 5000) {
+                Thread.sleep(10);
+            }
+            assertTrue(fast.size() >= 4);
+            assertEquals(fast.get(0).getToken(), "mock-token");
+            assertNull(publisher.getLastError());
+
+            // The slow subscriber skipped the tokens it did not request and receives the latest one next
+            assertEquals(slow.size(), 1);
+            AttestResponse latest = publisher.getLatest();
+            slowSubscription[0].request(1);
+            assertEquals(slow.size(), 2);
+            assertTrue(slow.get(1) == latest || slow.get(1) == publisher.getLatest());
+
+            // Closing completes the subscribers
+            publisher.close();
+            assertTrue(completed.await(5, TimeUnit.SECONDS));
+            assertEquals(publisher.getSubscriberCount(), 0);
+        } catch (Exception e) {
+            // Fail the test explicitly in the catch block
+            Assert.fail("Exception: " + e.getMessage());
+        }
+    }
+
+    @Test
+    public void testAttestationPublisherPause() {
+        try {
+            // Stubbing the nonce and token responses
+            new MockServerClient("localhost", mockServer.getPort())
+                                .when(HttpRequest.request().withPath("/appraisal/v1/nonce"))
+                                .respond(HttpResponse.response().withStatusCode(200)
+                                .withBody("{\"val\":\"dmFs\",\"iat\":\"aWF0\",\"signature\":\"c2ln\"}"));
+            new MockServerClient("localhost", mockServer.getPort())
+                                .when(HttpRequest.request().withPath("/appraisal/v1/attest"))
+                                .respond(HttpResponse.response().withStatusCode(200)
+                                .withBody("{\"token\":\"mock-token\"}"));
+
+            // Count the attestations by the evidence collected
+            AtomicInteger attestations = new AtomicInteger();
+            EvidenceAdapter mockAdapter = mock(EvidenceAdapter.class);
+            when(mockAdapter.collectEvidence(any())).thenAnswer(invocation -> {
+                attestations.incrementAndGet();
+                return new Evidence(0, "mock-quote".getBytes(), null, null);
+            });
+
+            // A subscriber cancelling its subscription after two tokens
+            List<AttestResponse> tokens = new CopyOnWriteArrayList<>();
+            Flow.Subscription[] current = new Flow.Subscription[1];
+            Flow.Subscriber<AttestResponse> subscriber = new Flow.Subscriber<AttestResponse>() {
+                public void onSubscribe(Flow.Subscription subscription) {
+                    current[0] = subscription;
+                    subscription.request(Long.MAX_VALUE);
+                }
+                public void onNext(AttestResponse item) {
+                    tokens.add(item);
+                    if (tokens.size() == 2) {
+                        current[0].cancel();
+                    }
+                }
+                public void onError(Throwable throwable) {
+                }
+                public void onComplete() {
+                }
+            };
+
+            AttestationPublisher publisher = new AttestationPublisher(connector, new AttestArgs(mockAdapter, null, "mock-request-id"), 50, 0.2);
+            publisher.subscribe(subscriber);
+            long start = System.currentTimeMillis();
+            while (tokens.size() < 2 && System.currentTimeMillis() - start < 5000) {
+                Thread.sleep(10);
+            }
+            assertEquals(tokens.size(), 2);
+            assertEquals(publisher.getSubscriberCount(), 0);
+
+            // No attestation is made once the last subscriber cancelled
+            Thread.sleep(200);
+            int paused = attestations.get();
+            Thread.sleep(300);
+            assertEquals(attestations.get(), paused);
+
+            // A new subscription resumes the attestations
+            tokens.clear();
+            publisher.subscribe(subscriber);
+            start = System.currentTimeMillis();
+            while (attestations.get() == paused && System.currentTimeMillis() - start < 5000) {
+                Thread.sleep(10);
+            }
+            assertTrue(attestations.get() > paused);
+            publisher.close();
+        } catch (Exception e) {
+            // Fail the test explicitly in the catch block
+            Assert.fail("Exception: " + e.getMessage());
+        }
+    }
+
+    @Test
+    public void testAttestationBootstrap() {
+        try {
+            // Stubbing the nonce and token responses, and a failure response code 404 for the certificates
+            new MockServerClient("localhost", mockServer.getPort())
+                                .when(HttpRequest.request().withPath("/appraisal/v1/nonce"))
+                                .respond(HttpResponse.response().withStatusCode(200)
+                                .withBody("{\"val\":\"dmFs\",\"iat\":\"aWF0\",\"signature\":\"c2ln\"}"));
+            new MockServerClient("localhost", mockServer.getPort())
+                                .when(HttpRequest.request().withPath("/appraisal/v1/attest"))
+                                .respond(HttpResponse.response().withStatusCode(200)
+                                .withBody("{\"token\":\"mock-token\"}"));
+            new MockServerClient("localhost", mockServer.getPort())
+                                .when(HttpRequest.request().withPath("/certs"))
+                                .respond(HttpResponse.response().withStatusCode(404));
+
+            EvidenceAdapter mockAdapter = mock(EvidenceAdapter.class);
+            when(mockAdapter.collectEvidence(any())).thenReturn(new Evidence(0, "mock-quote".getBytes(), null, null));
+
+            // The connector and the token are created in the background
+            AttestationBootstrap bootstrap = new AttestationBootstrap(cfg, new AttestArgs(mockAdapter, null, "mock-request-id"), true);
+            AttestResponse response = bootstrap.awaitToken(5000);
+            assertEquals(response.getToken(), "mock-token");
+            assertTrue(bootstrap.getConnector().isDone());
+
+            // A failed warm-up does not fail the token
+            try {
+                bootstrap.getWarmUp().get(5, TimeUnit.SECONDS);
+                Assert.fail("warm-up should fail for a 404 response");
+            } catch (ExecutionException e) {
+                assertTrue(bootstrap.getToken().isDone());
+                assertFalse(bootstrap.getToken().isCompletedExceptionally());
+            }
+
+            // Closing the bootstrap closes the connector it created
+            bootstrap.close();
+            try {
+                bootstrap.getConnector().get().GetNonce(new GetNonceArgs("mock-request-id"));
+                Assert.fail("GetNonce() should fail once the connector is closed");
+            } catch (Exception e) {
+                assertTrue(e.getMessage().contains("closed"));
+            }
+
+            // Errors creating the connector fail the token instead of leaving it pending
+            Config broken = mock(Config.class);
+            when(broken.getHttpTransport()).thenThrow(new NoClassDefFoundError("mock-error"));
+            AttestationBootstrap erroring = new AttestationBootstrap(broken, new AttestArgs(mockAdapter, null, "mock-request-id"), false);
+            try {
+                erroring.awaitToken(5000);
+                Assert.fail("awaitToken() should fail when the connector cannot be created");
+            } catch (Exception e) {
+                assertTrue(e.getMessage().contains("NoClassDefFoundError"));
+            }
+            erroring.close();
+
+            // Failed attestations surface when the token is awaited
+            when(mockAdapter.collectEvidence(any())).thenThrow(new Exception("mock-failure"));
+            AttestationBootstrap failing = new AttestationBootstrap(connector, new AttestArgs(mockAdapter, null, "mock-request-id"), false);
+            try {
+                failing.awaitToken(0);
+                Assert.fail("awaitToken() should fail when attestation fails");
+            } catch (Exception e) {
+                assertTrue(e.getMessage().startsWith("awaitToken() failed"));
+            }
+            assertNull(failing.getWarmUp().get());
+        } catch (Exception e) {
+            // Fail the test explicitly in the catch block
+            Assert.fail("Exception: " + e.getMessage());
+        }
+    }
+
+    @Test
+    public void testGetNoncePrettyPrintedResponse() {
+        try {
+            // Stubbing a pretty printed response, parsed directly from the response stream
+            new MockServerClient("localhost", mockServer.getPort())
+                                .when(HttpRequest.request().withPath("/appraisal/v1/nonce"))
+                                .respond(HttpResponse.response().withStatusCode(200)
+                                .withHeader(Constants.HEADER_ACCEPT, Constants.MIME_APPLICATION_JSON)
+                                .withBody("{\n  \"val\": \"dmFs\",\n  \"iat\": \"aWF0\",\n  \"signature\": \"c2ln\"\n}\n"));
+
+            GetNonceResponse nonceResponse = connector.GetNonce(new GetNonceArgs("mock-request-id"));
+            assertArrayEquals("val".getBytes(), nonceResponse.getNonce().getVal());
+            assertArrayEquals("iat".getBytes(), nonceResponse.getNonce().getIat());
+            assertArrayEquals("sig".getBytes(), nonceResponse.getNonce().getSignature());
+        } catch (Exception e) {
+            // Fail the test explicitly in the catch block
+            Assert.fail("Exception: " + e.getMessage());
+        }
+    }
+
+    @Test
+    public void testMaxResponseBodySize() {
+        // Check the default and that 0 resets to the default
+        assertEquals(cfg.getMaxResponseBodySize(), Constants.DEFAULT_MAX_RESPONSE_BODY_SIZE);
+        cfg.setMaxResponseBodySize(0);
+        assertEquals(cfg.getMaxResponseBodySize(), Constants.DEFAULT_MAX_RESPONSE_BODY_SIZE);
+
+        // Stubbing a response larger than the configured maximum
+        new MockServerClient("localhost", mockServer.getPort())
+                            .when(HttpRequest.request().withPath("/appraisal/v1/nonce"))
+                            .respond(HttpResponse.response().withStatusCode(200)
+                            .withHeader(Constants.HEADER_ACCEPT, Constants.MIME_APPLICATION_JSON)
+                            .withBody("{\"val\":\"dmFs\",\"iat\":\"aWF0\",\"signature\":\"c2ln\"}"));
+
+        // Check the blocking and async APIs with both transports
+        for (boolean http2 : new boolean[] { false, true }) {
+            cfg.setHttp2Enabled(http2);
+            cfg.setMaxResponseBodySize(16);
+            connector.setConfig(cfg);
+            for (int i = 0; i < 5; i++) {
+                try {
+                    connector.GetNonce(new GetNonceArgs("mock-request-id"));
+                    Assert.fail("GetNonce() should fail for a response larger than the maximum size");
+                } catch (Exception e) {
+                    assertTrue(e.getMessage().contains("exceeds the maximum size of 16 bytes"));
+                }
+                try {
+                    connector.getNonceAsync(new GetNonceArgs("mock-request-id")).get();
+                    Assert.fail("getNonceAsync() should fail for a response larger than the maximum size");
+                } catch (Exception e) {
+                    assertTrue(e.getCause().getMessage().contains("exceeds the maximum size of 16 bytes"));
+                }
+            }
+
+            // An oversized response is not counted against the endpoint, just as for its circuit
+            EndpointStats stats = connector.getEndpointStats().get(0);
+            assertEquals(stats.getFailures(), 0);
+            assertFalse(stats.isEjected());
+            for (CircuitBreakerStats circuit : connector.getCircuitBreakerStats()) {
+                assertEquals(circuit.getFailures(), 0);
+            }
+        }
+
+        try {
+            // The same response is accepted once the limit allows it
+            cfg.setMaxResponseBodySize(1024);
+            connector.setConfig(cfg);
+            assertNotNull(connector.GetNonce(new GetNonceArgs("mock-request-id")).getNonce());
+        } catch (Exception e) {
+            // Fail the test explicitly in the catch block
+            Assert.fail("Exception: " + e.getMessage());
+        }
+    }
+
+    @Test
+    public void testLimitedInputStream() {
+        try {
+            byte[] data = "0123456789".getBytes();
+
+            // Reading up to the limit succeeds
+            LimitedInputStream in = new LimitedInputStream(new ByteArrayInputStream(data), data.length);
+            assertArrayEquals(data, in.readAllBytes());
+
+            // Reading past the limit fails, without a Content-Length header to check up front
+            in = new LimitedInputStream(new ByteArrayInputStream(data), data.length - 1);
+            LimitedInputStream.checkContentLength(new HashMap<>(), data.length - 1);
+            try {
+                in.readAllBytes();
+                Assert.fail("read should fail past the maximum size");
+            } catch (IOException e) {
+                assertTrue(e.getMessage().contains("exceeds the maximum size of 9 bytes"));
+            }
+
+            // A larger Content-Length is rejected before reading
+            Map<String, List<String>> headers = new HashMap<>();
+            headers.put("Content-Length", Arrays.asList("10"));
+            try {
+                LimitedInputStream.checkContentLength(headers, data.length - 1);
+                Assert.fail("Content-Length larger than the maximum size should be rejected");
+            } catch (IOException e) {
+                assertTrue(e.getMessage().contains("exceeds the maximum size"));
+            }
+        } catch (Exception e) {
+            // Fail the test explicitly in the catch block
+            Assert.fail("Exception: " + e.getMessage());
+        }
+    }
+
     @Test
     public void testVerifyTokenInvalidToken() {
         try {
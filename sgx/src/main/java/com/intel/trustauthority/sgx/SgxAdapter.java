@@ -32,6 +32,7 @@ public class SgxAdapter implements EvidenceAdapter {
     private long enclaveID;
     private byte[] userData;
     private Function reportFunction;
+    private SgxEnclaveRegistry registry;
 
     /**
      * Constructs a new SgxAdapter object with the specified enclave ID, user data and reportFunction.
@@ -46,6 +47,35 @@ public class SgxAdapter implements EvidenceAdapter {
         this.reportFunction = reportFunction;
     }
 
+    /**
+     * Constructs a new SgxAdapter object registered with the specified registry, which shares the
+     * quoting enclave state and bounds the quote generations of its enclaves.
+     *
+     * @param enclaveID         enclave ID specified by user.
+     * @param userData          user data provided by the user.
+     * @param reportFunction    Function pointer to enclave create report function provided by user.
+     * @param registry          SgxEnclaveRegistry object the adapter is registered with.
+     */
+    SgxAdapter(long enclaveID, byte[] userData, Function reportFunction, SgxEnclaveRegistry registry) {
+        this(enclaveID, userData, reportFunction);
+        this.registry = registry;
+    }
+
+    /**
+     * getter function for enclaveID
+     */
+    public long getEnclaveID() {
+        return enclaveID;
+    }
+
+    /**
+     * getter function for userData
+     */
+    @Override
+    public byte[] getUserData() {
+        return userData;
+    }
+
     /**
      * SgxDcapQuotingLibrary is an interface that extends JNA's Library interface.
      * It defines the methods that will be mapped to the native library functions.
@@ -56,8 +86,23 @@ public class SgxAdapter implements EvidenceAdapter {
         int sgx_qe_get_quote(sgx_report_t p_report, int quote_size, Pointer quote_buffer);
     }
 
+    // private variable to hold the instance of the native library sgx_dcap_ql interface shared by all adapters
+    private static SgxDcapQuotingLibrary sharedLibrary;
+
     // private variable to hold an instance of the native library sgx_dcap_ql interface
-    private SgxDcapQuotingLibrary sgxLibrary = (SgxDcapQuotingLibrary) Native.load("sgx_dcap_ql", SgxDcapQuotingLibrary.class);
+    private SgxDcapQuotingLibrary sgxLibrary = loadLibrary();
+
+    /**
+     * Loads the native library sgx_dcap_ql once for all adapters
+     *
+     * @return SgxDcapQuotingLibrary instance shared by all adapters
+     */
+    static synchronized SgxDcapQuotingLibrary loadLibrary() {
+        if (sharedLibrary == null) {
+            sharedLibrary = (SgxDcapQuotingLibrary) Native.load("sgx_dcap_ql", SgxDcapQuotingLibrary.class);
+        }
+        return sharedLibrary;
+    }
 
     /**
      * Java object representing C struct sgx_config_svn_t : sgx_key.h
@@ -331,12 +376,13 @@ public class SgxAdapter implements EvidenceAdapter {
      */
     public Evidence collectEvidence(byte[] nonce) {
 
-        // Report return value
-        IntByReference retVal = new IntByReference(0);
+        // Registered adapters share the quoting enclave state of their registry
+        if (registry != null) {
+            return registry.collectEvidence(this, nonce);
+        }
 
-        // Define structs required to be passed to fetch the report
+        // Define struct required to be passed to fetch the report
         sgx_target_info_t qe3_target = new sgx_target_info_t();
-        sgx_report_t p_report = new sgx_report_t();
 
         // Fetch target info by calling the respective sgx sdk function
         int qe3_ret = sgxLibrary.sgx_qe_get_target_info(qe3_target);
@@ -344,6 +390,34 @@ public class SgxAdapter implements EvidenceAdapter {
             throw new RuntimeException("sgx_qe_get_target_info return error code " + Integer.toHexString(qe3_ret));
         }
 
+        // Quote size C native object
+        IntByReference quoteSize = new IntByReference();
+
+        // Fetch the quote size by calling the respective sgx sdk function
+        qe3_ret = sgxLibrary.sgx_qe_get_quote_size(quoteSize);
+        if (qe3_ret != 0) {
+            throw new RuntimeException("sgx_qe_get_quote_size return error code " + Integer.toHexString(qe3_ret));
+        }
+
+        return generateQuote(qe3_target, quoteSize.getValue(), nonce);
+    }
+
+    /**
+     * Helper function to create the enclave report for the quoting enclave and get it quoted
+     *
+     * @param qe3_target    target info of the quoting enclave
+     * @param quoteSize     size of the quote generated by the quoting enclave
+     * @param nonce         nonce value passed by user
+     * @return Evidence object containing the fetched SGX quote
+     */
+    Evidence generateQuote(sgx_target_info_t qe3_target, int quoteSize, byte[] nonce) {
+
+        // Report return value
+        IntByReference retVal = new IntByReference(0);
+
+        // Define struct required to be passed to fetch the report
+        sgx_report_t p_report = new sgx_report_t();
+
         // Create Nonce object based on nonce input provided by user
         Pointer noncePtr = new Memory(nonce.length);
         noncePtr.write(0, nonce, 0, nonce.length);
@@ -357,26 +431,17 @@ public class SgxAdapter implements EvidenceAdapter {
             throw new RuntimeException("Report retval returned " + Integer.toHexString(retVal.getValue()));
         }
 
-        // Quote size C native object
-        IntByReference quoteSize = new IntByReference();
-
-        // Fetch the quote size by calling the respective sgx sdk function
-        qe3_ret = sgxLibrary.sgx_qe_get_quote_size(quoteSize);
-        if (qe3_ret != 0) {
-            throw new RuntimeException("sgx_qe_get_quote_size return error code " + Integer.toHexString(qe3_ret));
-        }
-
         // Create a quote buffer object with the required quote size
-        Pointer quoteBuffer = new Memory(quoteSize.getValue());
+        Pointer quoteBuffer = new Memory(quoteSize);
 
         // Fetch the sgx quote by calling the respective sgx sdk function
-        qe3_ret = sgxLibrary.sgx_qe_get_quote(p_report, quoteSize.getValue(), quoteBuffer);
+        int qe3_ret = sgxLibrary.sgx_qe_get_quote(p_report, quoteSize, quoteBuffer);
         if (qe3_ret != 0) {
             throw new RuntimeException("sgx_qe_get_quote return error code " + Integer.toHexString(qe3_ret));
         }
 
         // Convert C native quote buffer to bytes
-        byte[] result = quoteBuffer.getByteArray(0, quoteSize.getValue());
+        byte[] result = quoteBuffer.getByteArray(0, quoteSize);
 
         // Construct and return Evidence object attached with the fetched SGX Quote
         return new Evidence(0, result, this.userData, null);
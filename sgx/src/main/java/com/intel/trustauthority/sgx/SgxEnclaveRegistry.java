@@ -0,0 +1,182 @@
+/*
+ *   Copyright (c) 2023-2024 Intel Corporation
+ *   All rights reserved.
+ *   SPDX-License-Identifier: BSD-3-Clause
+ */
+package com.intel.trustauthority.sgx;
+
+// Java Collections Imports
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicLong;
+
+// JNA (Java Native Access) Library Imports
+import com.sun.jna.Function;
+import com.sun.jna.ptr.IntByReference;
+
+// Trust Authority Connector import
+import com.intel.trustauthority.connector.*;
+
+/**
+ * SgxEnclaveRegistry class for attesting the SGX enclaves of a host process as a fleet.
+ * The quoting enclave target info and quote size are the same for every enclave on the platform,
+ * so they are fetched once and shared by all registered adapters along with the sgx_dcap_ql handle.
+ * Quote generations are bounded by the number of workers, and the fleet is attested with that
+ * parallelism over the pooled connections of the connector.
+ */
+public class SgxEnclaveRegistry {
+
+    // Default number of concurrent quote generations
+    private static final int DEFAULT_WORKERS = 4;
+
+    private final int workers;
+    private final Semaphore quoteSlots;
+    private final List<SgxAdapter> adapters = new CopyOnWriteArrayList<>();
+    private final AtomicLong quotingEnclaveLoads = new AtomicLong();
+
+    // Quoting enclave state shared by the registered adapters, null until first loaded
+    private byte[] targetInfo;
+    private int quoteSize;
+
+    /**
+     * Constructs a new SgxEnclaveRegistry object with the specified number of workers.
+     *
+     * @param workers   number of concurrent quote generations provided by the user.
+     */
+    public SgxEnclaveRegistry(int workers) {
+        this.workers = workers > 0 ? workers : DEFAULT_WORKERS; // Default: 4
+        this.quoteSlots = new Semaphore(this.workers);
+    }
+
+    /**
+     * Registers an enclave and returns its adapter, which shares the quoting enclave state of the registry
+     *
+     * @param enclaveID         enclave ID specified by user.
+     * @param userData          user data provided by the user.
+     * @param reportFunction    Function pointer to enclave create report function provided by user.
+     * @return                  SgxAdapter object of the enclave
+     */
+    public SgxAdapter register(long enclaveID, byte[] userData, Function reportFunction) {
+        SgxAdapter adapter = new SgxAdapter(enclaveID, userData, reportFunction, this);
+        adapters.add(adapter);
+        return adapter;
+    }
+
+    /**
+     * Removes an enclave from the fleet, e.g. once the enclave is destroyed
+     *
+     * @param adapter   SgxAdapter object returned by register().
+     */
+    public void unregister(SgxAdapter adapter) {
+        adapters.remove(adapter);
+    }
+
+    /**
+     * getter function for the registered adapters
+     */
+    public List<SgxAdapter> getAdapters() {
+        return new ArrayList<>(adapters);
+    }
+
+    /**
+     * getter function for workers
+     */
+    public int getWorkers() {
+        return workers;
+    }
+
+    /**
+     * getter function for the number of times the quoting enclave target info and quote size were fetched
+     */
+    public long getQuotingEnclaveLoads() {
+        return quotingEnclaveLoads.get();
+    }
+
+    /**
+     * Drops the shared quoting enclave state, so it is fetched again for the next quote.
+     * This happens on its own when a quote generation fails, e.g. after the quoting enclave was updated.
+     */
+    public synchronized void invalidate() {
+        targetInfo = null;
+    }
+
+    /**
+     * Attests every registered enclave, with as many attestations in flight as there are workers
+     *
+     * @param connector     TrustAuthorityConnector object attesting the enclaves.
+     * @param policyIds     policyIds provided by the user, applied to every enclave.
+     * @return              AttestResult objects in the order of getAdapters()
+     */
+    public List<AttestResult> attestAll(TrustAuthorityConnector connector, List<UUID> policyIds) {
+        List<AttestArgs> argsList = new ArrayList<>();
+        for (SgxAdapter adapter : adapters) {
+            argsList.add(new AttestArgs(adapter, policyIds, null));
+        }
+        return connector.attestAll(argsList, workers);
+    }
+
+    /**
+     * Helper function to collect the evidence of a registered adapter using the shared quoting enclave state
+     *
+     * @param adapter   SgxAdapter object registered with this registry
+     * @param nonce     nonce value passed by user
+     * @return Evidence object containing the fetched SGX quote
+     */
+    Evidence collectEvidence(SgxAdapter adapter, byte[] nonce) {
+        try {
+            quoteSlots.acquire();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Interrupted while waiting for a quote worker");
+        }
+        try {
+            SgxAdapter.sgx_target_info_t qe3_target = adapter.new sgx_target_info_t();
+            int size;
+            synchronized (this) {
+                if (targetInfo == null) {
+                    loadQuotingEnclave(adapter);
+                }
+                // Each quote gets its own copy of the target info, as JNA syncs the struct with native memory per call
+                qe3_target.getPointer().write(0, targetInfo, 0, targetInfo.length);
+                size = quoteSize;
+            }
+            qe3_target.read();
+            try {
+                return adapter.generateQuote(qe3_target, size, nonce);
+            } catch (RuntimeException e) {
+                invalidate();
+                throw e;
+            }
+        } finally {
+            quoteSlots.release();
+        }
+    }
+
+    /**
+     * Helper function to fetch the quoting enclave target info and quote size
+     */
+    private void loadQuotingEnclave(SgxAdapter adapter) {
+        SgxAdapter.SgxDcapQuotingLibrary sgxLibrary = SgxAdapter.loadLibrary();
+        SgxAdapter.sgx_target_info_t qe3_target = adapter.new sgx_target_info_t();
+
+        // Fetch target info by calling the respective sgx sdk function
+        int qe3_ret = sgxLibrary.sgx_qe_get_target_info(qe3_target);
+        if (qe3_ret != 0) {
+            throw new RuntimeException("sgx_qe_get_target_info return error code " + Integer.toHexString(qe3_ret));
+        }
+
+        // Fetch the quote size by calling the respective sgx sdk function
+        IntByReference size = new IntByReference();
+        qe3_ret = sgxLibrary.sgx_qe_get_quote_size(size);
+        if (qe3_ret != 0) {
+            throw new RuntimeException("sgx_qe_get_quote_size return error code " + Integer.toHexString(qe3_ret));
+        }
+
+        quotingEnclaveLoads.incrementAndGet();
+        targetInfo = qe3_target.getPointer().getByteArray(0, qe3_target.size());
+        quoteSize = size.getValue();
+    }
+}
@@ -45,6 +45,14 @@ public class TdxAdapter implements EvidenceAdapter {
         this.userData = userData;
     }
 
+    /**
+     * getter function for userData
+     */
+    @Override
+    public byte[] getUserData() {
+        return userData;
+    }
+
     /**
      * TdxAttestLibrary is an interface that extends JNA's Library interface.
      * It defines the methods that will be mapped to the native library functions.